@@ -0,0 +1,30 @@
+/* JSONStreamAware.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 21:24:03 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.json;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * A {@link JSONAware} that can write its JSON text to a writer directly,
+ * such that no intermediate string is built when it is encoded by
+ * {@link JSONValue#writeJSONString}.
+ *
+ * @author agent
+ * @since 10.0.1
+ */
+public interface JSONStreamAware extends JSONAware {
+	/** Writes the JSON text to the given writer.
+	 * It must write the same text as {@link #toJSONString}.
+	 */
+	public void writeJSONString(Writer out) throws IOException;
+}
@@ -4,9 +4,12 @@
  */
 package org.zkoss.json;
 
+import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.io.Writer;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -128,6 +131,71 @@ public class JSONValue {
 		
 		return value.toString();
 	}
+	/**
+	 * Encodes an object to JSON text and writes it to the given writer.
+	 * It generates the same text as {@link #toJSONString(Object)}, but
+	 * maps, collections and object arrays are written element by element,
+	 * such that no intermediate string is built for them.
+	 * <p>Note: a {@link JSONStreamAware} is written with its
+	 * {@link JSONStreamAware#writeJSONString}, and a {@link JSONAware} other
+	 * than {@link JSONObject} and {@link JSONArray} with its
+	 * {@link JSONAware#toJSONString}.
+	 * @param value the object to encode
+	 * @param out the writer to write the JSON text to
+	 * @since 10.0.1
+	 */
+	public static void writeJSONString(Object value, Writer out) throws IOException {
+		if (value == null) {
+			out.write("null");
+		} else if (value instanceof String) {
+			out.write('"');
+			escape((String) value, out);
+			out.write('"');
+		} else if (value instanceof JSONStreamAware) {
+			((JSONStreamAware) value).writeJSONString(out);
+		} else if (value instanceof JSONObject || (value instanceof Map && !(value instanceof JSONAware))) {
+			boolean first = true;
+			out.write('{');
+			for (Iterator it = ((Map) value).entrySet().iterator(); it.hasNext();) {
+				final Map.Entry entry = (Map.Entry) it.next();
+				if (first)
+					first = false;
+				else
+					out.write(',');
+				out.write('"');
+				final Object key = entry.getKey();
+				if (key == null)
+					out.write("null");
+				else
+					escape(String.valueOf(key), out);
+				out.write("\":");
+				writeJSONString(entry.getValue(), out);
+			}
+			out.write('}');
+		} else if (value instanceof JSONArray || (value instanceof Collection && !(value instanceof JSONAware))) {
+			boolean first = true;
+			out.write('[');
+			for (Object o : (Collection) value) {
+				if (first)
+					first = false;
+				else
+					out.write(',');
+				writeJSONString(o, out);
+			}
+			out.write(']');
+		} else if (value instanceof Object[]) {
+			final Object[] ary = (Object[]) value;
+			out.write('[');
+			for (int j = 0; j < ary.length; j++) {
+				if (j > 0) out.write(',');
+				writeJSONString(ary[j], out);
+			}
+			out.write(']');
+		} else {
+			out.write(toJSONString(value));
+		}
+	}
+
 	/** Converts an integer to JSON text
 	 * <p>patched by tomyeh
 	 */
@@ -190,6 +258,44 @@ public class JSONValue {
         return sb.toString();
     }
 
+    /** Escapes the string and writes the result to the given writer.
+     * Unlike {@link #escape(String, StringBuffer)}, characters that need
+     * no escape are written in runs rather than one by one.
+     * @param s - Must not be null.
+     * @since 10.0.1
+     */
+    static void escape(String s, Writer out) throws IOException {
+		final int len = s.length();
+		int start = 0;
+		for (int i = 0; i < len; i++) {
+			final char ch = s.charAt(i);
+			final String esc;
+			switch (ch) {
+			case '"': esc = "\\\""; break;
+			case '\\': esc = "\\\\"; break;
+			case '\b': esc = "\\b"; break;
+			case '\f': esc = "\\f"; break;
+			case '\n': esc = "\\n"; break;
+			case '\r': esc = "\\r"; break;
+			case '\t': esc = "\\t"; break;
+			case '/': esc = "\\/"; break;
+			default:
+				if ((ch >= '\u0000' && ch <= '\u001F') || (ch >= '\u007F' && ch <= '\u009F') || (ch >= '\u2000' && ch <= '\u20FF')) {
+					final String ss = Integer.toHexString(ch).toUpperCase();
+					esc = "\\u0000".substring(0, 6 - ss.length()) + ss;
+				} else {
+					continue;
+				}
+			}
+			if (i > start)
+				out.write(s, start, i - start);
+			out.write(esc);
+			start = i + 1;
+		}
+		if (start < len)
+			out.write(s, start, len - start);
+	}
+
     /**
      * @param s - Must not be null.
      * @param sb
@@ -37,7 +37,7 @@ import org.zkoss.math.BigIntegers;
 import org.zkoss.mesg.MCommon;
 import org.zkoss.mesg.Messages;
 import org.zkoss.util.Cache;
-import org.zkoss.util.FastReadCache;
+import org.zkoss.util.Caches;
 import org.zkoss.util.IllegalSyntaxException;
 
 /**
@@ -870,7 +870,7 @@ public class Classes {
 		_closms.put(aoi, m);
 		return (Method) m;
 	}
-	private static Cache<AOInfo, Object> _closms = new FastReadCache<AOInfo, Object>(
+	private static Cache<AOInfo, Object> _closms = Caches.newReadMostlyCache(
 		Library.getIntProperty("org.zkoss.lang.Classes.methods.cache.maxSize", 600),
 		4*60*60*1000);
 	private static final
@@ -1061,7 +1061,7 @@ public class Classes {
 		_acsos.put(aoi, ao);
 		return ao;
 	}
-	private static Cache<AOInfo, AccessibleObject> _acsos = new FastReadCache<AOInfo, AccessibleObject>(
+	private static Cache<AOInfo, AccessibleObject> _acsos = Caches.newReadMostlyCache(
 		Library.getIntProperty("org.zkoss.lang.Classes.methods.cache.maxSize", 600),
 		4*60*60*1000);
 	private static final AccessibleObject
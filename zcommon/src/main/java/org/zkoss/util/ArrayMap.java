@@ -0,0 +1,365 @@
+/* ArrayMap.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Mon Oct 19 02:10:37 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+
+*/
+package org.zkoss.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A map that stores a few mappings in an array of keys and values, and
+ * looks them up linearly.
+ * It is designed for the maps held by every instance of a class, such as
+ * the attributes and event listeners of a component, which usually have
+ * only one to three mappings. Compared with {@link java.util.HashMap},
+ * it needs neither a hash table nor an entry object per mapping.
+ *
+ * <p>Once there are more than 8 mappings, the mappings are moved to
+ * a {@link LinkedHashMap}, so the performance won't degrade even if a few
+ * instances have a lot of mappings.
+ *
+ * <p>The mappings are iterated in the order they were added.
+ * Like {@link java.util.HashMap}, null keys and values are allowed,
+ * it is not thread-safe, and the iterators are fail-fast.
+ *
+ * @author agent
+ * @since 10.0.1
+ */
+public class ArrayMap<K, V> extends AbstractMap<K, V> implements Cloneable, java.io.Serializable {
+	private static final long serialVersionUID = 20261019021037L;
+	/** The maximal number of mappings kept in the array. */
+	private static final int MAX_ARRAY_SIZE = 8;
+
+	/** The keys and values: key0, value0, key1, value1 and so on. */
+	private transient Object[] _table;
+	/** The number of mappings in {@link #_table}. */
+	private transient int _size;
+	/** The map holding all mappings once there are more than
+	 * {@link #MAX_ARRAY_SIZE} mappings (and then _table is not used). */
+	private transient Map<K, V> _map;
+	private transient int _modCnt;
+
+	/** Constructs an empty map.
+	 * The array is allocated when the first mapping is added.
+	 */
+	public ArrayMap() {
+	}
+
+	/** Constructs an empty map with the specified initial capacity.
+	 */
+	public ArrayMap(int initialCapacity) {
+		if (initialCapacity < 0)
+			throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+		if (initialCapacity > 0)
+			_table = new Object[Math.min(initialCapacity, MAX_ARRAY_SIZE) * 2];
+	}
+
+	/** Constructs a map with the same mappings as the specified map.
+	 */
+	public ArrayMap(Map<? extends K, ? extends V> map) {
+		this(map.size());
+		for (Map.Entry<? extends K, ? extends V> me : map.entrySet())
+			put0(me.getKey(), me.getValue());
+	}
+
+	/** Returns the index of the given key in {@link #_table}, or -1 if not found.
+	 * It assumes the mappings are in the array.
+	 */
+	private int indexOf(Object key) {
+		final Object[] table = _table;
+		for (int j = 0, len = _size * 2; j < len; j += 2) {
+			final Object k = table[j];
+			if (k == key || (key != null && key.equals(k)))
+				return j;
+		}
+		return -1;
+	}
+
+	@SuppressWarnings("unchecked")
+	private V put0(K key, V value) {
+		if (_map != null)
+			return _map.put(key, value);
+
+		final int j = indexOf(key);
+		if (j >= 0) {
+			final V old = (V) _table[j + 1];
+			_table[j + 1] = value;
+			return old;
+		}
+
+		++_modCnt;
+		if (_size == MAX_ARRAY_SIZE) {
+			final Map<K, V> map = new LinkedHashMap<K, V>(MAX_ARRAY_SIZE * 4);
+			for (int k = 0; k < _size * 2; k += 2)
+				map.put((K) _table[k], (V) _table[k + 1]);
+			map.put(key, value);
+			_map = map;
+			_table = null;
+			_size = 0;
+			return null;
+		}
+
+		final int len = _size * 2;
+		if (_table == null)
+			_table = new Object[4];
+		else if (len == _table.length)
+			_table = Arrays.copyOf(_table, Math.min(len * 2, MAX_ARRAY_SIZE * 2));
+		_table[len] = key;
+		_table[len + 1] = value;
+		++_size;
+		return null;
+	}
+
+	/** Removes the mapping at the given index of {@link #_table}.
+	 */
+	private void removeAt(int j) {
+		final int len = --_size * 2;
+		if (j < len)
+			System.arraycopy(_table, j + 2, _table, j, len - j);
+		_table[len] = _table[len + 1] = null;
+		++_modCnt;
+	}
+
+	//Map//
+	public int size() {
+		return _map != null ? _map.size() : _size;
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public boolean containsKey(Object key) {
+		return _map != null ? _map.containsKey(key) : indexOf(key) >= 0;
+	}
+
+	public boolean containsValue(Object value) {
+		if (_map != null)
+			return _map.containsValue(value);
+		for (int j = 1, len = _size * 2; j < len; j += 2) {
+			final Object v = _table[j];
+			if (v == value || (value != null && value.equals(v)))
+				return true;
+		}
+		return false;
+	}
+
+	@SuppressWarnings("unchecked")
+	public V get(Object key) {
+		if (_map != null)
+			return _map.get(key);
+		final int j = indexOf(key);
+		return j >= 0 ? (V) _table[j + 1] : null;
+	}
+
+	public V put(K key, V value) {
+		return put0(key, value);
+	}
+
+	@SuppressWarnings("unchecked")
+	public V remove(Object key) {
+		if (_map != null)
+			return _map.remove(key);
+		final int j = indexOf(key);
+		if (j < 0)
+			return null;
+		final V old = (V) _table[j + 1];
+		removeAt(j);
+		return old;
+	}
+
+	public void clear() {
+		if (_map != null) {
+			_map.clear();
+		} else if (_size > 0) {
+			Arrays.fill(_table, 0, _size * 2, null);
+			_size = 0;
+			++_modCnt;
+		}
+	}
+
+	public Set<K> keySet() {
+		return new AbstractSet<K>() {
+			public Iterator<K> iterator() {
+				return _map != null ? _map.keySet().iterator() : new ArrayIterator<K>(KEY);
+			}
+
+			public int size() {
+				return ArrayMap.this.size();
+			}
+
+			public boolean contains(Object o) {
+				return containsKey(o);
+			}
+
+			public void clear() {
+				ArrayMap.this.clear();
+			}
+		};
+	}
+
+	public Collection<V> values() {
+		return new AbstractCollection<V>() {
+			public Iterator<V> iterator() {
+				return _map != null ? _map.values().iterator() : new ArrayIterator<V>(VALUE);
+			}
+
+			public int size() {
+				return ArrayMap.this.size();
+			}
+
+			public boolean contains(Object o) {
+				return containsValue(o);
+			}
+
+			public void clear() {
+				ArrayMap.this.clear();
+			}
+		};
+	}
+
+	public Set<Map.Entry<K, V>> entrySet() {
+		return new AbstractSet<Map.Entry<K, V>>() {
+			public Iterator<Map.Entry<K, V>> iterator() {
+				return _map != null ? _map.entrySet().iterator() : new ArrayIterator<Map.Entry<K, V>>(ENTRY);
+			}
+
+			public int size() {
+				return ArrayMap.this.size();
+			}
+
+			public void clear() {
+				ArrayMap.this.clear();
+			}
+		};
+	}
+
+	private static final int KEY = 0, VALUE = 1, ENTRY = 2;
+
+	private class ArrayIterator<T> implements Iterator<T> {
+		private final int _type;
+		private int _next, _last = -1;
+		private int _expModCnt = _modCnt;
+
+		private ArrayIterator(int type) {
+			_type = type;
+		}
+
+		public boolean hasNext() {
+			return _next < _size * 2;
+		}
+
+		@SuppressWarnings("unchecked")
+		public T next() {
+			if (_modCnt != _expModCnt)
+				throw new ConcurrentModificationException();
+			if (!hasNext())
+				throw new NoSuchElementException();
+
+			final int j = _last = _next;
+			_next += 2;
+			switch (_type) {
+			case KEY:
+				return (T) _table[j];
+			case VALUE:
+				return (T) _table[j + 1];
+			default:
+				return (T) new Entry((K) _table[j], (V) _table[j + 1]);
+			}
+		}
+
+		public void remove() {
+			if (_last < 0)
+				throw new IllegalStateException();
+			if (_modCnt != _expModCnt)
+				throw new ConcurrentModificationException();
+
+			removeAt(_last);
+			_next = _last;
+			_last = -1;
+			_expModCnt = _modCnt;
+		}
+	}
+
+	private class Entry extends AbstractMap.SimpleEntry<K, V> {
+		private static final long serialVersionUID = 20261019021037L;
+
+		private Entry(K key, V value) {
+			super(key, value);
+		}
+
+		/** Writes the value back to the map (without notifying the subclass,
+		 * as {@link java.util.HashMap} does).
+		 */
+		public V setValue(V value) {
+			final K key = getKey();
+			if (_map != null) {
+				if (_map.containsKey(key))
+					_map.put(key, value);
+			} else {
+				final int j = indexOf(key);
+				if (j >= 0)
+					_table[j + 1] = value;
+			}
+			return super.setValue(value);
+		}
+	}
+
+	//Cloneable//
+	@SuppressWarnings("unchecked")
+	public Object clone() {
+		final ArrayMap<K, V> clone;
+		try {
+			clone = (ArrayMap<K, V>) super.clone();
+		} catch (CloneNotSupportedException ex) {
+			throw new InternalError();
+		}
+		if (_table != null)
+			clone._table = _table.clone();
+		if (_map != null)
+			clone._map = new LinkedHashMap<K, V>(_map);
+		clone._modCnt = 0;
+		return clone;
+	}
+
+	//Serializable//
+	private void writeObject(ObjectOutputStream s) throws IOException {
+		s.defaultWriteObject();
+		s.writeInt(size());
+		for (Map.Entry<K, V> me : entrySet()) {
+			s.writeObject(me.getKey());
+			s.writeObject(me.getValue());
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException {
+		s.defaultReadObject();
+		final int size = s.readInt();
+		if (size < 0)
+			throw new java.io.InvalidObjectException("Illegal size: " + size);
+		for (int j = 0; j < size; ++j)
+			put0((K) s.readObject(), (V) s.readObject());
+	}
+}
@@ -0,0 +1,42 @@
+/* Caches.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 16:58:20 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+
+*/
+package org.zkoss.util;
+
+import org.zkoss.lang.Library;
+
+/**
+ * Utilities to create the caches used by the framework.
+ *
+ * @author agent
+ * @since 10.0.1
+ */
+public class Caches {
+	private static final boolean TINY_LFU = Boolean.parseBoolean(
+			Library.getProperty("org.zkoss.util.Caches.tinyLfu", "false"));
+
+	/** Returns a thread-safe cache that is read much more than written,
+	 * such as the caches of reflected methods.
+	 *
+	 * <p>Default: {@link FastReadCache}. If the library property called
+	 * <code>org.zkoss.util.Caches.tinyLfu</code> is true,
+	 * {@link TinyLfuCache} is used instead. It is suggested if the number
+	 * of entries exceeds the maximal allowed size, i.e., when
+	 * {@link FastReadCache} keeps cloning its read cache.
+	 *
+	 * @param maxSize the maximal allowed size
+	 * @param lifetime the minimal lifetime, unit=milliseconds
+	 */
+	public static <K, V> Cache<K, V> newReadMostlyCache(int maxSize, int lifetime) {
+		return TINY_LFU ? new TinyLfuCache<K, V>(maxSize, lifetime) : new FastReadCache<K, V>(maxSize, lifetime);
+	}
+}
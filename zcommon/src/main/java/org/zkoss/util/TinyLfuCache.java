@@ -0,0 +1,526 @@
+/* TinyLfuCache.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 16:35:52 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+
+*/
+package org.zkoss.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A thread-safe cache that reads without locking, and evicts by
+ * W-TinyLFU, i.e., admits an entry into the main space only if it is
+ * accessed more frequently than the one it replaces.
+ * Thus, a burst of entries used only once (such as a scan over many
+ * pages) doesn't flush out the entries used often.
+ *
+ * <p>Unlike {@link CacheMap}, which expunges only when GC takes place,
+ * the maximal allowed size is a hard bound, and the entries that are not
+ * accessed longer than the lifetime are considered as expired (i.e.,
+ * {@link #get} returns null) and removed.
+ *
+ * <p>Implementation notes:
+ * <ul>
+ * <li>The mappings are stored in a {@link ConcurrentHashMap}.
+ * A read records the access into a lossy ring buffer, and the buffer is
+ * drained periodically by whichever thread acquires the eviction lock
+ * (without waiting for it).</li>
+ * <li>The eviction policy consists of a small LRU window (1% of the size)
+ * and a segmented LRU main space (80% protected, 20% probation).
+ * The access frequencies are estimated by a 4-bit count-min sketch that is
+ * halved periodically, so old popularity fades away.</li>
+ * </ul>
+ *
+ * <p>It also counts the hits, the misses and the evictions.
+ *
+ * <p>Thread safe.
+ *
+ * @author agent
+ * @since 10.0.1
+ * @see Caches
+ */
+public class TinyLfuCache<K, V> implements Cache<K, V>, java.io.Serializable {
+	private static final long serialVersionUID = 20261018163552L;
+
+	/** The size of the read buffer (power of 2). */
+	private static final int READ_BUFFER_SIZE = 128;
+	/** The buffer is drained every (DRAIN_MASK + 1) reads. */
+	private static final int DRAIN_MASK = 31;
+
+	private transient ConcurrentHashMap<K, Node<K, V>> _map;
+	private volatile int _maxsize, _lifetime;
+
+	/** Guards the eviction policy (i.e., all fields below but the statistics). */
+	private transient ReentrantLock _evictLock;
+	private transient AtomicReferenceArray<Node<K, V>> _readBuf;
+	private transient AtomicLong _readCnt;
+	private transient FrequencySketch _sketch;
+	private transient Deque<K, V> _window, _probation, _protected;
+	private transient int _windowMax, _protectedMax;
+
+	private transient LongAdder _hits, _misses, _evictions;
+
+	/** Constructs a cache with {@link #DEFAULT_MAX_SIZE} and {@link #DEFAULT_LIFETIME}.
+	 */
+	public TinyLfuCache() {
+		this(DEFAULT_MAX_SIZE, DEFAULT_LIFETIME);
+	}
+
+	/** Constructs a cache with the specified max size and lifetime.
+	 * @param lifetime the lifetime, unit=milliseconds.
+	 */
+	public TinyLfuCache(int maxSize, int lifetime) {
+		_maxsize = maxSize;
+		_lifetime = lifetime;
+		init();
+	}
+
+	private void init() {
+		_map = new ConcurrentHashMap<K, Node<K, V>>(Math.min(Math.max(_maxsize, 16), 1024));
+		_evictLock = new ReentrantLock();
+		_readBuf = new AtomicReferenceArray<Node<K, V>>(READ_BUFFER_SIZE);
+		_readCnt = new AtomicLong();
+		_window = new Deque<K, V>(Node.WINDOW);
+		_probation = new Deque<K, V>(Node.PROBATION);
+		_protected = new Deque<K, V>(Node.PROTECTED);
+		_hits = new LongAdder();
+		_misses = new LongAdder();
+		_evictions = new LongAdder();
+		resize();
+	}
+
+	//Cache//
+	public boolean containsKey(Object key) {
+		final Node<K, V> node = _map.get(key);
+		return node != null && !isExpired(node, System.currentTimeMillis());
+	}
+
+	public V get(Object key) {
+		final Node<K, V> node = _map.get(key);
+		if (node != null) {
+			final long now = System.currentTimeMillis();
+			if (!isExpired(node, now)) {
+				if (node.access != now)
+					node.access = now;
+				afterRead(node);
+				_hits.increment();
+				return node.value;
+			}
+		}
+		_misses.increment();
+		return null;
+	}
+
+	public V put(K key, V value) {
+		if (key == null)
+			throw new NullPointerException();
+
+		final long now = System.currentTimeMillis();
+		final Node<K, V> node = new Node<K, V>(key, value, now);
+		final Node<K, V> old = _map.put(key, node);
+		_evictLock.lock();
+		try {
+			if (old != null)
+				unlink(old);
+			if (_map.get(key) == node) { //not removed by others
+				_window.addLast(node);
+				_sketch.increment(key.hashCode());
+			}
+			maintain(now);
+		} finally {
+			_evictLock.unlock();
+		}
+		return old != null && !isExpired(old, now) ? old.value : null;
+	}
+
+	public V remove(Object key) {
+		final Node<K, V> node = _map.remove(key);
+		if (node == null)
+			return null;
+
+		_evictLock.lock();
+		try {
+			unlink(node);
+		} finally {
+			_evictLock.unlock();
+		}
+		return isExpired(node, System.currentTimeMillis()) ? null : node.value;
+	}
+
+	public void clear() {
+		_evictLock.lock();
+		try {
+			_map.clear();
+			for (int j = 0; j < READ_BUFFER_SIZE; ++j)
+				_readBuf.set(j, null);
+			_window.clear();
+			_probation.clear();
+			_protected.clear();
+		} finally {
+			_evictLock.unlock();
+		}
+	}
+
+	public int getLifetime() {
+		return _lifetime;
+	}
+
+	public void setLifetime(int lifetime) {
+		_lifetime = lifetime;
+	}
+
+	public int getMaxSize() {
+		return _maxsize;
+	}
+
+	public void setMaxSize(int maxsize) {
+		_evictLock.lock();
+		try {
+			_maxsize = maxsize;
+			resize();
+			maintain(System.currentTimeMillis());
+		} finally {
+			_evictLock.unlock();
+		}
+	}
+
+	//Statistics//
+	/** Returns the number of mappings, including the expired ones that
+	 * are not removed yet.
+	 */
+	public int size() {
+		return _map.size();
+	}
+
+	/** Returns the number of times {@link #get} found a mapping.
+	 */
+	public long getHitCount() {
+		return _hits.sum();
+	}
+
+	/** Returns the number of times {@link #get} found nothing.
+	 */
+	public long getMissCount() {
+		return _misses.sum();
+	}
+
+	/** Returns the number of mappings removed due to the maximal allowed
+	 * size or the lifetime.
+	 */
+	public long getEvictionCount() {
+		return _evictions.sum();
+	}
+
+	/** Resets the number of hits, misses and evictions.
+	 */
+	public void resetStatistics() {
+		_hits.reset();
+		_misses.reset();
+		_evictions.reset();
+	}
+
+	//-- private --//
+	private boolean isExpired(Node<K, V> node, long now) {
+		return now - node.access > _lifetime;
+	}
+
+	/** Records the read, and drains the read buffer if it is time. */
+	private void afterRead(Node<K, V> node) {
+		final long cnt = _readCnt.getAndIncrement();
+		_readBuf.lazySet((int) cnt & (READ_BUFFER_SIZE - 1), node);
+		if ((cnt & DRAIN_MASK) == DRAIN_MASK && _evictLock.tryLock()) {
+			try {
+				maintain(System.currentTimeMillis());
+			} finally {
+				_evictLock.unlock();
+			}
+		}
+	}
+
+	/** Calculates the size of each space.
+	 * <p>_evictLock must be held (or in the constructor).
+	 */
+	private void resize() {
+		final int max = Math.max(_maxsize, 0);
+		_windowMax = Math.max(1, max / 100);
+		_protectedMax = (max - _windowMax) * 4 / 5;
+		if (_sketch == null || _sketch.capacity < max)
+			_sketch = new FrequencySketch(max);
+	}
+
+	/** Replays the reads, and then removes the expired and the surplus.
+	 * <p>_evictLock must be held.
+	 */
+	private void maintain(long now) {
+		for (int j = 0; j < READ_BUFFER_SIZE; ++j) {
+			final Node<K, V> node = _readBuf.getAndSet(j, null);
+			if (node != null)
+				onAccess(node);
+		}
+
+		expire(_window, now);
+		expire(_probation, now);
+		expire(_protected, now);
+		evict();
+	}
+
+	private void onAccess(Node<K, V> node) {
+		if (node.queue == Node.NONE)
+			return; //removed
+
+		_sketch.increment(node.key.hashCode());
+		if (node.queue == Node.PROBATION) {
+			_probation.remove(node);
+			_protected.addLast(node);
+			while (_protected.size > _protectedMax) //demote
+				_probation.addLast(_protected.removeFirst());
+		} else {
+			(node.queue == Node.WINDOW ? _window : _protected).moveToLast(node);
+		}
+	}
+
+	/** Removes the expired entries from the head of the given deque.
+	 * Since each deque is (roughly) in the access order, it stops at the first
+	 * one not expired.
+	 */
+	private void expire(Deque<K, V> deque, long now) {
+		for (Node<K, V> node; (node = deque.first) != null && isExpired(node, now);)
+			evict(node);
+	}
+
+	/** Moves the surplus of the window to the probation, and then evicts
+	 * either the candidate (the newest of the probation) or the victim
+	 * (the oldest of the probation), whichever is less frequently accessed.
+	 */
+	private void evict() {
+		while (_window.size > _windowMax)
+			_probation.addLast(_window.removeFirst());
+
+		for (int surplus = _window.size + _probation.size + _protected.size - Math.max(_maxsize, 0); surplus > 0; --surplus) {
+			final Node<K, V> victim = _probation.first, candidate = _probation.last;
+			if (victim == null) {
+				evict(_protected.first != null ? _protected.first : _window.first);
+			} else if (victim == candidate) {
+				evict(victim);
+			} else {
+				evict(_sketch.frequency(candidate.key.hashCode()) > _sketch.frequency(victim.key.hashCode())
+						? victim : candidate);
+			}
+		}
+	}
+
+	private void evict(Node<K, V> node) {
+		unlink(node);
+		if (_map.remove(node.key, node))
+			_evictions.increment();
+	}
+
+	/** Removes the node from the eviction policy. */
+	private void unlink(Node<K, V> node) {
+		switch (node.queue) {
+		case Node.WINDOW:
+			_window.remove(node);
+			break;
+		case Node.PROBATION:
+			_probation.remove(node);
+			break;
+		case Node.PROTECTED:
+			_protected.remove(node);
+			break;
+		}
+	}
+
+	//Serializable//
+	private void writeObject(ObjectOutputStream s) throws IOException {
+		s.defaultWriteObject();
+
+		final long now = System.currentTimeMillis();
+		for (Map.Entry<K, Node<K, V>> me : _map.entrySet()) {
+			final Node<K, V> node = me.getValue();
+			if (!isExpired(node, now)) {
+				s.writeObject(me.getKey());
+				s.writeObject(node.value);
+			}
+		}
+		s.writeObject(null); //denote end-of-map
+	}
+
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException {
+		s.defaultReadObject();
+		init();
+
+		for (Object key; (key = s.readObject()) != null;)
+			put((K) key, (V) s.readObject());
+	}
+
+	//-- helper classes --//
+	/** A mapping, also a node of the deques of the eviction policy. */
+	private static final class Node<K, V> {
+		private static final byte NONE = 0, WINDOW = 1, PROBATION = 2, PROTECTED = 3;
+
+		private final K key;
+		private final V value;
+		/** The last access time. */
+		private volatile long access;
+		//the following are guarded by _evictLock
+		private Node<K, V> prev, next;
+		/** Which deque it belongs to. */
+		private byte queue;
+
+		private Node(K key, V value, long now) {
+			this.key = key;
+			this.value = value;
+			this.access = now;
+		}
+	}
+
+	/** A doubly linked list of nodes in the access order. */
+	private static final class Deque<K, V> {
+		private final byte type;
+		private Node<K, V> first, last;
+		private int size;
+
+		private Deque(byte type) {
+			this.type = type;
+		}
+
+		private void addLast(Node<K, V> node) {
+			node.queue = type;
+			node.next = null;
+			node.prev = last;
+			if (last != null)
+				last.next = node;
+			else
+				first = node;
+			last = node;
+			++size;
+		}
+
+		private Node<K, V> removeFirst() {
+			final Node<K, V> node = first;
+			remove(node);
+			return node;
+		}
+
+		private void remove(Node<K, V> node) {
+			if (node.prev != null)
+				node.prev.next = node.next;
+			else
+				first = node.next;
+			if (node.next != null)
+				node.next.prev = node.prev;
+			else
+				last = node.prev;
+			node.prev = node.next = null;
+			node.queue = Node.NONE;
+			--size;
+		}
+
+		private void moveToLast(Node<K, V> node) {
+			if (node != last) {
+				remove(node);
+				addLast(node);
+			}
+		}
+
+		private void clear() {
+			for (Node<K, V> node = first, next; node != null; node = next) {
+				next = node.next;
+				node.prev = node.next = null;
+				node.queue = Node.NONE;
+			}
+			first = last = null;
+			size = 0;
+		}
+	}
+
+	/** A count-min sketch with 4-bit counters that estimates the access
+	 * frequency. Each long holds 16 counters, and an item is counted at
+	 * 4 counters of different longs.
+	 * The counters are halved when the number of increments reaches
+	 * 10 times of the capacity, so the estimation adapts to the recent accesses.
+	 */
+	private static final class FrequencySketch {
+		private static final long[] SEED = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+			0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+		private static final long RESET_MASK = 0x7777777777777777L;
+
+		private final int capacity;
+		private final long[] table;
+		private final int sampleSize;
+		private int additions;
+
+		private FrequencySketch(int capacity) {
+			this.capacity = capacity;
+			int len = 8;
+			while (len < capacity && len < (1 << 24))
+				len <<= 1;
+			table = new long[len];
+			sampleSize = (int) Math.min(10L * Math.max(capacity, 1), Integer.MAX_VALUE);
+		}
+
+		private int frequency(int hashCode) {
+			final int hash = spread(hashCode), start = (hash & 3) << 2;
+			int freq = 15;
+			for (int i = 0; i < 4; ++i) {
+				final int count = (int) ((table[indexOf(hash, i)] >>> ((start + i) << 2)) & 0xfL);
+				if (count < freq)
+					freq = count;
+			}
+			return freq;
+		}
+
+		private void increment(int hashCode) {
+			final int hash = spread(hashCode), start = (hash & 3) << 2;
+			boolean added = false;
+			for (int i = 0; i < 4; ++i)
+				added |= incrementAt(indexOf(hash, i), start + i);
+			if (added && ++additions >= sampleSize)
+				reset();
+		}
+
+		private boolean incrementAt(int i, int j) {
+			final int offset = j << 2;
+			final long mask = 0xfL << offset;
+			if ((table[i] & mask) != mask) {
+				table[i] += 1L << offset;
+				return true;
+			}
+			return false;
+		}
+
+		private int indexOf(int hash, int i) {
+			long h = (hash + SEED[i]) * SEED[i];
+			h += h >>> 32;
+			return (int) h & (table.length - 1);
+		}
+
+		private void reset() {
+			for (int i = 0; i < table.length; ++i)
+				table[i] = (table[i] >>> 1) & RESET_MASK;
+			additions >>>= 1;
+		}
+
+		private static int spread(int x) {
+			x = ((x >>> 16) ^ x) * 0x45d9f3b;
+			x = ((x >>> 16) ^ x) * 0x45d9f3b;
+			return (x >>> 16) ^ x;
+		}
+	}
+}
@@ -61,6 +61,8 @@ public class AMedia implements Media, java.io.Serializable {
 	protected transient InputStream _isdata;
 	/** The input stream, {@link #getReaderData} */
 	protected transient Reader _rddata;
+	/** The file if constructed with a file, {@link #getFile}. */
+	private transient File _file;
 	/** The content type. */
 	private String _ctype;
 	/** The format (e.g., pdf). */
@@ -190,6 +192,7 @@ public class AMedia implements Media, java.io.Serializable {
 			_isdata = RepeatableInputStream.getInstance(file);
 		else
 			_rddata = RepeatableReader.getInstance(file, charset);
+		_file = file;
 
 		if (name == null) name = file.getName();
 		setup(name, format, ctype);
@@ -330,6 +333,15 @@ public class AMedia implements Media, java.io.Serializable {
 		throw newIllegalStateException();
 		
 	}
+	/** Returns the file if this media is constructed with a file,
+	 * or null otherwise.
+	 * It allows the content to be sent directly from the file, such as
+	 * serving a byte range without reading the stream from the beginning.
+	 * @since 10.0.1
+	 */
+	public File getFile() {
+		return _file;
+	}
 	/** Returns the input stream of this media.
 	 *
 	 * <p>Note: the caller has to invoke {@link InputStream#close()}
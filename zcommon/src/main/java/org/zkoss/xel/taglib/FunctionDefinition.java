@@ -20,7 +20,7 @@ import org.zkoss.xel.Function;
  * @author tomyeh
  * @since 6.0.0
  */
-public class FunctionDefinition {
+public class FunctionDefinition implements java.io.Serializable {
 	/** Method's prefix. */
 	public final String prefix;
 	/** Method's name. */
@@ -22,7 +22,7 @@ package org.zkoss.xel.taglib;
  * @author tomyeh
  * @since 3.0.0
  */
-public class Taglib {
+public class Taglib implements java.io.Serializable {
 	private final String _prefix, _uri;
 
 	public Taglib(String prefix, String uri) {
@@ -17,8 +17,8 @@ Copyright (C) 2007 Potix Corporation. All Rights Reserved.
 package org.zkoss.xel.util;
 
 import java.util.Map;
-import java.util.HashMap;
 
+import org.zkoss.util.ArrayMap;
 import org.zkoss.xel.XelContext;
 import org.zkoss.xel.VariableResolver;
 import org.zkoss.xel.FunctionMapper;
@@ -64,7 +64,7 @@ public class SimpleXelContext implements XelContext {
 	}
 
 	private Map<String, Object> attrs() {
-		return _attrs != null ? _attrs: (_attrs = new HashMap<String, Object>());
+		return _attrs != null ? _attrs: (_attrs = new ArrayMap<String, Object>());
 	}
 	public Object getAttribute(String name) {
 		return _attrs != null ? _attrs.get(name):  null;
@@ -0,0 +1,45 @@
+/* CompilingELFactory.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 15:51:37 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+
+*/
+package org.zkoss.xel.zel;
+
+import org.zkoss.zel.ELResolver;
+import org.zkoss.zel.impl.CompilingExpressionFactoryImpl;
+
+/**
+ * An XEL ExpressionFactory that compiles property paths, such as
+ * <code>${each.name}</code>, into chains of method handles.
+ * Refer to {@link CompilingExpressionFactoryImpl} for details.
+ *
+ * <p>A compiled expression reads the properties of beans directly only if
+ * it is evaluated with {@link XelELResolver} itself. If a subclass is used
+ * (such as the one used by data binding to track the dependencies),
+ * the expression is interpreted as {@link ELFactory} does.
+ *
+ * <p>To use it, specify the following in zk.xml:
+ * <pre><code>&lt;xel-config&gt;
+ *  &lt;evaluator-class&gt;org.zkoss.xel.zel.CompilingELFactory&lt;/evaluator-class&gt;
+ *&lt;/xel-config&gt;</code></pre>
+ *
+ * @author agent
+ * @since 10.0.1
+ */
+public class CompilingELFactory extends ELFactory {
+	protected org.zkoss.zel.ExpressionFactory newExpressionFactory() {
+		return new CompilingExpressionFactoryImpl() {
+			protected boolean isBeanResolver(ELResolver resolver) {
+				//XelELResolver resolves a bean by BeanELResolver (see XelELResolver.DEFAULT)
+				return resolver != null && resolver.getClass() == XelELResolver.class;
+			}
+		};
+	}
+}
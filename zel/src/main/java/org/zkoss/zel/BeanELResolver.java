@@ -21,52 +21,50 @@ import java.beans.FeatureDescriptor;
 import java.beans.IndexedPropertyDescriptor;
 import java.beans.IntrospectionException;
 import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.ref.SoftReference;
 import java.lang.reflect.Array;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.security.AccessController;
-import java.security.PrivilegedAction;
+import java.lang.reflect.Modifier;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
-import java.util.Objects;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import org.zkoss.zel.impl.util.ClassUtil;
-import org.zkoss.zel.impl.util.ConcurrentCache;
 import org.zkoss.zel.impl.util.ReflectionUtil;
 
 public class BeanELResolver extends ELResolver {
 
-    private static final int CACHE_SIZE;
-    private static final String CACHE_SIZE_PROP =
-        "org.zkoss.zel.BeanELResolver.CACHE_SIZE";
-
-    static {
-        if (System.getSecurityManager() == null) {
-            CACHE_SIZE = Integer.parseInt(
-                    System.getProperty(CACHE_SIZE_PROP, "1000"));
-        } else {
-            CACHE_SIZE = AccessController.doPrivileged(
-                    new PrivilegedAction<Integer>() {
-
-                    
-                    public Integer run() {
-                        return Integer.valueOf(
-                                System.getProperty(CACHE_SIZE_PROP, "1000"));
-                    }
-                }).intValue();
-        }
-    }
-
     private final boolean readOnly;
 
 	//This cache can be static - it allows reusing cache across multiple instances.
-    private static final ConcurrentCache<String, BeanProperties> cache = new ConcurrentCache<String, BeanProperties>(CACHE_SIZE);
-
-	// ZK-4546
-	private static final ConcurrentCache<Class<?>, Map<CachedMethodInfo, Method>> METHODS_CACHE = new ConcurrentCache<Class<?>, Map<CachedMethodInfo, Method>>(CACHE_SIZE);
+	//It is looked up by the class itself (rather than its name).
+	private static final ClassCache<BeanProperties> cache = new ClassCache<BeanProperties>(BeanProperties::new);
+
+	// ZK-4546: the methods invoked, per class and then per method name
+	private static final ClassCache<Map<String, CachedMethod[]>> METHODS_CACHE = new ClassCache<Map<String, CachedMethod[]>>(
+			type -> new ConcurrentHashMap<String, CachedMethod[]>());
+	/** The maximal number of the parameter types cached per method name. */
+	private static final int MAX_CACHED_METHODS = 8;
+
+	/** The type of a getter's handle. */
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	/** The type of a setter's handle. */
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	/** The type of an invoker's handle. */
+	private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+	/** Denotes a method that can't be invoked by a method handle. */
+	private static final MethodHandle NO_HANDLE = MethodHandles.constant(Object.class, null);
+	private static final Object[] NO_ARGS = new Object[0];
 
     public BeanELResolver() {
         this.readOnly = false;
@@ -99,7 +97,22 @@ public class BeanELResolver extends ELResolver {
         }
 
         context.setPropertyResolved(base, property);
-        Method m = this.property(context, base, property).read(context);
+        final BeanProperty bp = this.property(context, base, property);
+        Method m = bp.read(context);
+        final MethodHandle getter = bp.getter();
+        if (getter != null) {
+            final Object result;
+            try {
+                result = (Object) getter.invokeExact(base);
+            } catch (Throwable ex) {
+                Util.handleThrowable(ex);
+                throw new ELException(Util.message(context, "propertyReadError",
+                        base.getClass().getName(), property.toString()), ex);
+            }
+            context.putContext(MethodInfo.class, base);
+            context.putContext(Method.class, m);
+            return result;
+        }
         try {
         	final Object result = m.invoke(base, (Object[]) null);
         	context.putContext(MethodInfo.class, base);
@@ -132,10 +145,23 @@ public class BeanELResolver extends ELResolver {
                     "resolverNotWriteable", base.getClass().getName()));
         }
 
-        Method m = this.property(context, base, property).write(context);
-        
+        final BeanProperty bp = this.property(context, base, property);
+        Method m = bp.write(context);
+        final MethodHandle setter = bp.setter();
+        if (setter != null && bp.accepts(value)) {
+            try {
+                setter.invokeExact(base, value);
+            } catch (Throwable ex) {
+                Util.handleThrowable(ex);
+                throw new ELException(Util.message(context, "propertyWriteError",
+                        base.getClass().getName(), property.toString()), ex);
+            }
+            context.putContext(MethodInfo.class, base);
+            context.putContext(Method.class, m);
+            return;
+        }
+        //otherwise, it might be resolved by another setter (ZK-1178)
 
-        
         try {
             m.invoke(base, value);
             context.putContext(MethodInfo.class, base);
@@ -204,7 +230,8 @@ public class BeanELResolver extends ELResolver {
         ExpressionFactory factory = ExpressionFactory.newInstance();
         
 		// Find the matching method
-		Method matchingMethod = getMethod(base.getClass(), (String) factory.coerceToType(method, String.class), paramTypes, params);
+		final CachedMethod cached = getMethod(base.getClass(), (String) factory.coerceToType(method, String.class), paramTypes, params);
+		final Method matchingMethod = cached.method;
 
         Class<?>[] parameterTypes = matchingMethod.getParameterTypes();
         Object[] parameters = null;
@@ -252,6 +279,18 @@ public class BeanELResolver extends ELResolver {
             }
         }
         Object result = null;
+		final MethodHandle invoker = cached.invoker;
+		if (invoker != null) {
+			final Object[] args = parameters != null ? parameters : NO_ARGS;
+			try {
+				result = (Object) invoker.invokeExact(base, args);
+			} catch (Throwable ex) {
+				Util.handleThrowable(ex);
+				throw new ELException(ex);
+			}
+			context.setPropertyResolved(true);
+			return result;
+		}
 		try {
 			result = matchingMethod.invoke(base, parameters);
 		} catch (IllegalArgumentException e) {
@@ -379,10 +418,6 @@ public class BeanELResolver extends ELResolver {
         public BeanProperty getBeanProperty(String name) {
             return get(null, name);
         }
-
-        private Class<?> getType() {
-            return type;
-        }
     }
 
     static final class BeanProperty {
@@ -396,6 +431,15 @@ public class BeanELResolver extends ELResolver {
 
         private Method write;
 
+        /** The handle of {@link #read}; {@link #NO_HANDLE} if not accessible. */
+        private volatile MethodHandle getter;
+
+        /** The handle of {@link #write}; {@link #NO_HANDLE} if not accessible. */
+        private volatile MethodHandle setter;
+
+        /** The parameter type of {@link #write} (assigned before {@link #setter}). */
+        private Class<?> setterType;
+
         public BeanProperty(Class<?> owner, PropertyDescriptor descriptor) {
             this.owner = owner;
             this.descriptor = descriptor;
@@ -469,6 +513,38 @@ public class BeanELResolver extends ELResolver {
             return this.write;
         }
 
+        /** Returns the handle of the getter, or null if it can only be invoked by reflection.
+         * It must be called after {@link #read} is called. */
+        private MethodHandle getter() {
+            MethodHandle h = this.getter;
+            if (h == null)
+                this.getter = h = unreflect(this.read, GETTER_TYPE);
+            return h != NO_HANDLE ? h : null;
+        }
+
+        /** Returns the handle of the setter, or null if it can only be invoked by reflection.
+         * It must be called after {@link #write} is called. */
+        private MethodHandle setter() {
+            MethodHandle h = this.setter;
+            if (h == null) {
+                final Method m = this.write;
+                h = NO_HANDLE;
+                if (m.getParameterCount() == 1) {
+                    this.setterType = m.getParameterTypes()[0];
+                    h = unreflect(m, SETTER_TYPE);
+                }
+                this.setter = h;
+            }
+            return h != NO_HANDLE ? h : null;
+        }
+
+        /** Returns whether the value can be passed to the setter as it is.
+         * It must be called after {@link #setter} returns non-null. */
+        private boolean accepts(Object value) {
+            return value != null ? ClassUtil.isInstance(value, this.setterType)
+                    : !this.setterType.isPrimitive();
+        }
+
         private Method read(ELContext ctx) {
             if (this.read == null) {
                 this.read = Util.getMethod(this.owner, descriptor.getReadMethod());
@@ -484,71 +560,155 @@ public class BeanELResolver extends ELResolver {
 
     private final BeanProperty property(ELContext ctx, Object base,
             Object property) {
-        Class<?> type = base.getClass();
-        String prop = property.toString();
-
-        BeanProperties props = this.cache.get(type.getName());
-        if (props == null || type != props.getType()) {
-            props = new BeanProperties(type);
-            this.cache.put(type.getName(), props);
-        }
+        return properties(base.getClass()).get(ctx, property.toString());
+    }
 
-        return props.get(ctx, prop);
+    private static BeanProperties properties(Class<?> type) {
+        return cache.get(type);
     }
 
-	// ZK-4546
-	private static final class CachedMethodInfo {
-		private final String _methodName;
-		private final Class<?>[] _paramTypes;
+    /**
+     * Returns the method that {@link #getValue} invokes to read the given
+     * property of a bean of the given class, or null if the property is
+     * not found or not readable.
+     * @since 10.0.1
+     */
+    public static Method getReadMethod(Class<?> type, String property) {
+        try {
+            final BeanProperty bp = properties(type).properties.get(property);
+            return bp != null ? bp.read(null) : null;
+        } catch (ELException ex) { //including PropertyNotFoundException
+            return null;
+        }
+    }
 
-		public CachedMethodInfo(String methodName, Class<?>[] paramTypes) {
-			this._methodName = methodName;
-			this._paramTypes = paramTypes;
+	/** A cache of values per class.
+	 * The values refer to the classes of this resolver, so they are stored
+	 * in a {@link ClassValue} (i.e., in the class itself) only if the class
+	 * is loaded by the loader of this resolver or its descendants.
+	 * Otherwise, the class (such as String) might outlive this resolver's
+	 * loader, and would keep the loader from being collected after redeployed.
+	 * The classes of the ancestor loaders are kept in a map owned by this
+	 * resolver instead. The classes of the unrelated loaders (such as
+	 * OSGi bundles and sibling shared libraries) are kept in a weak-keyed
+	 * map whose values are softly referenced, since the values refer to the
+	 * class and would keep it from being unloaded otherwise.
+	 */
+	private static final class ClassCache<V> {
+		private static final ClassLoader LOADER = BeanELResolver.class.getClassLoader();
+
+		private final Function<Class<?>, V> factory;
+		private final ClassValue<V> local;
+		/** The classes of the ancestor loaders, which outlive this resolver. */
+		private final Map<Class<?>, V> shared = new ConcurrentHashMap<Class<?>, V>();
+		/** The classes of the unrelated loaders. */
+		private final Map<Class<?>, SoftReference<V>> foreign = Collections
+				.synchronizedMap(new WeakHashMap<Class<?>, SoftReference<V>>());
+
+		private ClassCache(Function<Class<?>, V> factory) {
+			this.factory = factory;
+			this.local = new ClassValue<V>() {
+				protected V computeValue(Class<?> type) {
+					return factory.apply(type);
+				}
+			};
 		}
 
-		public String getMethodName() {
-			return _methodName;
+		private V get(Class<?> type) {
+			final ClassLoader loader = type.getClassLoader();
+			if (loader == LOADER || isAncestor(LOADER, loader))
+				return local.get(type);
+			if (isAncestor(loader, LOADER))
+				return shared.computeIfAbsent(type, factory);
+
+			final SoftReference<V> ref = foreign.get(type);
+			V value = ref != null ? ref.get() : null;
+			if (value == null)
+				foreign.put(type, new SoftReference<V>(value = factory.apply(type)));
+			return value;
 		}
 
-		public Class<?>[] getParamTypes() {
-			return _paramTypes;
+		/** Returns whether the given ancestor is the given loader or one of its parents.
+		 * Note: null denotes the bootstrap loader, which is the ancestor of all. */
+		private static boolean isAncestor(ClassLoader ancestor, ClassLoader loader) {
+			if (ancestor == null)
+				return true;
+			for (; loader != null; loader = loader.getParent())
+				if (loader == ancestor)
+					return true;
+			return false;
 		}
+	}
 
-		@Override
-		public int hashCode() {
-			int result = 17;
-			result = 31 * result + this._methodName.hashCode();
-			result = 31 * result + (_paramTypes != null ? _paramTypes.length : 0);
-			return result;
+	/** A method resolved for the given parameter types (ZK-4546). */
+	private static final class CachedMethod {
+		private final Class<?>[] paramTypes;
+		private final Method method;
+		/** The handle of type (Object, Object[])Object; null if not accessible. */
+		private final MethodHandle invoker;
+
+		private CachedMethod(Class<?>[] paramTypes, Method method) {
+			this.paramTypes = paramTypes;
+			this.method = method;
+			MethodHandle invoker = unreflect(method, null);
+			if (invoker != null) {
+				if (Modifier.isStatic(method.getModifiers()))
+					invoker = MethodHandles.dropArguments(invoker, 0, Object.class);
+				invoker = invoker.asSpreader(Object[].class, method.getParameterCount()).asType(INVOKER_TYPE);
+			}
+			this.invoker = invoker;
 		}
 
-		@Override
-		public boolean equals(Object obj) {
-			if (!(obj instanceof CachedMethodInfo))
-				return false;
-			if (!((CachedMethodInfo) obj).getMethodName().equals(this._methodName))
+		/** Returns whether it is resolved for the given parameter types.
+		 * Note: null is considered the same as an empty array. */
+		private boolean matches(Class<?>[] types) {
+			if (types == paramTypes)
+				return true;
+			final int len = types != null ? types.length : 0;
+			if (len != (paramTypes != null ? paramTypes.length : 0))
 				return false;
-			Class<?>[] targetParamTypes = ((CachedMethodInfo) obj).getParamTypes();
-			int len =  _paramTypes != null ? _paramTypes.length : 0;
-			int len2 = targetParamTypes != null ? targetParamTypes.length : 0;
-			if (len != len2)
-				return false;
-			for (int j = 0; j < len; ++j) {
-				if (!Objects.equals(_paramTypes[j], targetParamTypes[j]))
+			for (int j = 0; j < len; ++j)
+				if (types[j] != paramTypes[j])
 					return false;
-			}
 			return true;
 		}
 	}
 
-	private static Method getMethod(Class<?> clazz, String methodName, Class<?>[] paramTypes, Object[] params) {
-		Map<CachedMethodInfo, Method> clzMap = METHODS_CACHE.get(clazz);
-		if (clzMap != null) {
-			Method method = clzMap.get(new CachedMethodInfo(methodName, paramTypes));
-			if (method != null)
-				return method;
+	/** Returns the handle of the given method adapted to the given type,
+	 * or {@link #NO_HANDLE} (null if type is null) if it is not accessible.
+	 * If type is null, the handle of a fixed arity is returned without adaption.
+	 */
+	private static MethodHandle unreflect(Method m, MethodType type) {
+		try {
+			final MethodHandle h = MethodHandles.publicLookup().unreflect(m).asFixedArity();
+			return type != null ? h.asType(type) : h;
+		} catch (IllegalAccessException | WrongMethodTypeException ex) {
+			return type != null ? NO_HANDLE : null;
 		}
-		return getMethod0(clazz, methodName, paramTypes, params);
+	}
+
+	private static CachedMethod getMethod(Class<?> clazz, String methodName, Class<?>[] paramTypes, Object[] params) {
+		final Map<String, CachedMethod[]> clzMap = METHODS_CACHE.get(clazz);
+		final CachedMethod[] cms = clzMap.get(methodName);
+		if (cms != null) {
+			for (CachedMethod cm : cms)
+				if (cm.matches(paramTypes))
+					return cm;
+		}
+
+		final CachedMethod cm = new CachedMethod(paramTypes != null ? paramTypes.clone() : null,
+				getMethod0(clazz, methodName, paramTypes, params));
+		clzMap.merge(methodName, new CachedMethod[] {cm}, (old, add) -> {
+			if (old.length >= MAX_CACHED_METHODS)
+				return old;
+			for (CachedMethod o : old)
+				if (o.matches(add[0].paramTypes))
+					return old; //resolved by another thread
+			final CachedMethod[] merged = Arrays.copyOf(old, old.length + 1);
+			merged[old.length] = add[0];
+			return merged;
+		});
+		return cm;
 	}
 
 	private static Method getMethod0(Class<?> clazz, String methodName, Class<?>[] paramTypes, Object[] params) {
@@ -605,9 +765,6 @@ public class BeanELResolver extends ELResolver {
 						+ methodName + "] with [" + paramCount + "] parameters");
 			}
 		}
-		if (matchingMethod != null)
-			METHODS_CACHE.computeIfAbsent(clazz, k -> new ConcurrentHashMap<>())
-					.put(new CachedMethodInfo(methodName, paramTypes), matchingMethod);
 		return matchingMethod;
 	}
 }
@@ -39,9 +39,11 @@ public class CompositeELResolver extends ELResolver {
 
     private ELResolver[] resolvers;
 
+    private static final ELResolver[] EMPTY = new ELResolver[0];
+
     public CompositeELResolver() {
         this.size = 0;
-        this.resolvers = new ELResolver[8];
+        this.resolvers = EMPTY; //allocated on demand (ZK creates a few per evaluation)
     }
 
     public void add(ELResolver elResolver) {
@@ -50,7 +52,7 @@ public class CompositeELResolver extends ELResolver {
         }
 
         if (this.size >= this.resolvers.length) {
-            ELResolver[] nr = new ELResolver[this.size * 2];
+            ELResolver[] nr = new ELResolver[Math.max(this.size * 2, 4)];
             System.arraycopy(this.resolvers, 0, nr, 0, this.size);
             this.resolvers = nr;
         }
@@ -17,8 +17,9 @@
 package org.zkoss.zel;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Deque;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
@@ -28,15 +29,21 @@ public abstract class ELContext {
 
     private Locale locale;
 
-    private Map<Class<?>, Object> map;
+    //key0, value0, key1, value1...; a context is created per evaluation
+    //(by ZK) and holds only a few objects, so no need of a hash map
+    private Object[] map;
+
+    private int mapSize;
 
     private boolean resolved;
 
     private ImportHandler importHandler = null;
 
-    private List<EvaluationListener> listeners = new ArrayList<EvaluationListener>();
+    //allocated on demand since a context is created per evaluation (by ZK)
+    //and rarely has listeners or lambda arguments
+    private List<EvaluationListener> listeners = Collections.emptyList();
 
-    private Deque<Map<String,Object>> lambdaArguments = new LinkedList<Map<String,Object>>();
+    private Deque<Map<String,Object>> lambdaArguments;
 
     public ELContext() {
         this.resolved = false;
@@ -80,10 +87,20 @@ public abstract class ELContext {
         }
 
         if (this.map == null) {
-            this.map = new HashMap<Class<?>, Object>();
+            this.map = new Object[8];
+        } else {
+            for (int i = 0; i < this.mapSize; i += 2) {
+                if (this.map[i] == key) {
+                    this.map[i + 1] = contextObject;
+                    return;
+                }
+            }
+            if (this.mapSize == this.map.length) {
+                this.map = Arrays.copyOf(this.map, this.mapSize * 2);
+            }
         }
-
-        this.map.put(key, contextObject);
+        this.map[this.mapSize++] = key;
+        this.map[this.mapSize++] = contextObject;
     }
 
     // Can't use Class<?> because API needs to match specification
@@ -101,10 +118,12 @@ public abstract class ELContext {
         if (key == null) {
             throw new NullPointerException();
         }
-        if (this.map == null) {
-            return null;
+        for (int i = 0; i < this.mapSize; i += 2) {
+            if (this.map[i] == key) {
+                return this.map[i + 1];
+            }
         }
-        return this.map.get(key);
+        return null;
     }
 
     public abstract ELResolver getELResolver();
@@ -148,7 +167,7 @@ public abstract class ELContext {
      * @since EL 3.0
      */
     public void addEvaluationListener(EvaluationListener listener) {
-        listeners.add(listener);
+        getEvaluationListeners().add(listener);
     }
 
     /**
@@ -159,6 +178,10 @@ public abstract class ELContext {
      * @since EL 3.0
      */
     public List<EvaluationListener> getEvaluationListeners() {
+        //the returned list is live (and mutable), as before
+        if (listeners == Collections.<EvaluationListener>emptyList()) {
+            listeners = new ArrayList<EvaluationListener>();
+        }
         return listeners;
     }
 
@@ -229,6 +252,9 @@ public abstract class ELContext {
      * @since EL 3.0
      */
     public boolean isLambdaArgument(String name) {
+        if (lambdaArguments == null) {
+            return false;
+        }
         for (Map<String,Object> arguments : lambdaArguments) {
             if (arguments.containsKey(name)) {
                 return true;
@@ -247,6 +273,9 @@ public abstract class ELContext {
      * @since EL 3.0
      */
     public Object getLambdaArgument(String name) {
+        if (lambdaArguments == null) {
+            return null;
+        }
         for (Map<String,Object> arguments : lambdaArguments) {
             Object result = arguments.get(name);
             if (result != null) {
@@ -265,6 +294,9 @@ public abstract class ELContext {
      * @since EL 3.0
      */
     public void enterLambdaScope(Map<String,Object> arguments) {
+        if (lambdaArguments == null) {
+            lambdaArguments = new LinkedList<Map<String,Object>>();
+        }
         lambdaArguments.push(arguments);
     }
 
@@ -0,0 +1,210 @@
+/* CompiledValueExpression.java
+
+	History:
+		Sun Oct 18 15:40:26 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zel.impl;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.ResourceBundle;
+
+import org.zkoss.zel.BeanELResolver;
+import org.zkoss.zel.ELClass;
+import org.zkoss.zel.ELContext;
+import org.zkoss.zel.ELException;
+import org.zkoss.zel.ELResolver;
+import org.zkoss.zel.FunctionMapper;
+import org.zkoss.zel.MethodInfo;
+import org.zkoss.zel.PropertyNotFoundException;
+import org.zkoss.zel.VariableMapper;
+import org.zkoss.zel.impl.lang.EvaluationContext;
+import org.zkoss.zel.impl.parser.AstDotSuffix;
+import org.zkoss.zel.impl.parser.AstIdentifier;
+import org.zkoss.zel.impl.parser.AstValue;
+import org.zkoss.zel.impl.parser.Node;
+import org.zkoss.zel.impl.util.MessageFactory;
+
+/**
+ * A value expression of a property path, such as <code>${each.name}</code>,
+ * whose properties are read by {@link MethodHandle}s rather than
+ * by the resolver.
+ *
+ * <p>Each property of the path has an inline cache keyed by the class
+ * of the base object, holding the getter found by {@link BeanELResolver}.
+ * Up to {@link #MAX_POLYMORPHISM} classes are cached per property;
+ * a property of any other class, or of a class handled by other resolvers
+ * (such as a map or a list), is resolved by the resolver as usual.
+ * The identifier itself is always resolved by the resolver.
+ *
+ * <p>The cache is used only if
+ * {@link CompilingExpressionFactoryImpl#isBeanResolver} returns true for
+ * the resolver of the context. Otherwise, and for all methods but
+ * {@link #getValue}, the expression is interpreted as
+ * {@link ValueExpressionImpl} does.
+ *
+ * @author agent
+ * @since 10.0.1
+ */
+public final class CompiledValueExpression extends ValueExpressionImpl {
+	/** The maximal number of classes cached per property. */
+	private static final int MAX_POLYMORPHISM = 4;
+	private static final Link[] NO_LINKS = new Link[0];
+
+	/** The identifier; null if deserialized (i.e., interpreted). */
+	private transient Node _root;
+	private transient Step[] _steps;
+	private transient FunctionMapper _fnMapper;
+	private transient VariableMapper _varMapper;
+	private transient CompilingExpressionFactoryImpl _factory;
+
+	/** Used only for deserialization. */
+	public CompiledValueExpression() {
+	}
+
+	/*package*/ CompiledValueExpression(String expr, Node node, FunctionMapper fnMapper,
+			VariableMapper varMapper, Class<?> expectedType, CompilingExpressionFactoryImpl factory) {
+		super(expr, node, fnMapper, varMapper, expectedType);
+		_root = node.jjtGetChild(0);
+		_steps = new Step[node.jjtGetNumChildren() - 1];
+		for (int j = 0; j < _steps.length; ++j)
+			_steps[j] = new Step(node.jjtGetChild(j + 1).getImage());
+		_fnMapper = fnMapper;
+		_varMapper = varMapper;
+		_factory = factory;
+	}
+
+	/** Returns whether the node is a property path that can be compiled,
+	 * i.e., an identifier followed by one or more <code>.name</code>.
+	 */
+	/*package*/ static boolean isCompilable(Node node) {
+		if (!(node instanceof AstValue) || node.jjtGetNumChildren() < 2
+				|| !(node.jjtGetChild(0) instanceof AstIdentifier))
+			return false;
+		for (int j = node.jjtGetNumChildren(); --j > 0;)
+			if (!(node.jjtGetChild(j) instanceof AstDotSuffix))
+				return false;
+		return true;
+	}
+
+	public Object getValue(ELContext context) throws PropertyNotFoundException, ELException {
+		if (_root == null || !_factory.isBeanResolver(context.getELResolver()))
+			return super.getValue(context);
+
+		try {
+			final EvaluationContext ctx = new EvaluationContext(context, _fnMapper, _varMapper);
+			context.notifyBeforeEvaluation(getExpressionString());
+			Object value = _root.getValue(ctx);
+			final ELResolver resolver = ctx.getELResolver();
+			String property = null;
+			for (int j = 0; value != null && j < _steps.length; ++j) {
+				final Step step = _steps[j];
+				property = step.name;
+				value = step.getValue(ctx, resolver, value);
+			}
+			if (!ctx.isPropertyResolved()) //the same as AstValue
+				throw new PropertyNotFoundException(MessageFactory.get("error.resolver.unhandled", value, property));
+
+			final Class<?> expectedType = getExpectedType();
+			if (expectedType != null)
+				value = context.convertToType(value, expectedType);
+			context.notifyAfterEvaluation(getExpressionString());
+			return value;
+		} catch (PropertyNotFoundException e) {
+			throw new PropertyNotFoundException(getExpressionString() + ", " + e.getMessage(), e);
+		}
+	}
+
+	public String toString() {
+		return "CompiledValueExpression[" + getExpressionString() + "]";
+	}
+
+	/** A property of the path. */
+	private static final class Step {
+		private final String name;
+		/** The inline cache. It is replaced (never modified) when a class is added. */
+		private volatile Link[] links = NO_LINKS;
+
+		private Step(String name) {
+			this.name = name;
+		}
+
+		private Object getValue(EvaluationContext ctx, ELResolver resolver, Object base) {
+			final Class<?> type = base.getClass();
+			final Link[] links = this.links;
+			Link link = null;
+			for (int j = 0; j < links.length; ++j) {
+				if (links[j].type == type) {
+					link = links[j];
+					break;
+				}
+			}
+			if (link == null && links.length < MAX_POLYMORPHISM) {
+				link = new Link(type, name);
+				final Link[] newLinks = Arrays.copyOf(links, links.length + 1);
+				newLinks[links.length] = link;
+				this.links = newLinks; //a concurrent update might be lost; it is relinked later
+			}
+
+			if (link == null || link.handle == null) { //megamorphic or not a bean property
+				ctx.setPropertyResolved(false);
+				return resolver.getValue(ctx, base, name);
+			}
+
+			//the same as BeanELResolver#getValue
+			ctx.setPropertyResolved(base, name);
+			final Object result;
+			try {
+				result = (Object) link.handle.invokeExact(base);
+			} catch (ThreadDeath | VirtualMachineError ex) {
+				throw ex;
+			} catch (Throwable ex) {
+				throw new ELException(MessageFactory.get("error.property.read", type.getName(), name), ex);
+			}
+			ctx.putContext(MethodInfo.class, base);
+			ctx.putContext(Method.class, link.method);
+			return result;
+		}
+	}
+
+	/** An entry of the inline cache. */
+	private static final class Link {
+		private final Class<?> type;
+		private final Method method;
+		/** The getter of type (Object)Object; null if resolved by the resolver. */
+		private final MethodHandle handle;
+
+		private Link(Class<?> type, String name) {
+			Method method = null;
+			MethodHandle handle = null;
+			if (!isResolvedByOthers(type)) {
+				method = BeanELResolver.getReadMethod(type, name);
+				if (method != null) {
+					try {
+						handle = MethodHandles.publicLookup().unreflect(method)
+								.asType(MethodType.methodType(Object.class, Object.class));
+					} catch (IllegalAccessException ex) {
+						method = null; //let the resolver handle it
+					}
+				}
+			}
+			this.type = type;
+			this.method = method;
+			this.handle = handle;
+		}
+
+		/** Returns whether the properties of the given class are resolved by
+		 * the resolvers other than {@link BeanELResolver}. */
+		private static boolean isResolvedByOthers(Class<?> type) {
+			return Map.class.isAssignableFrom(type) || List.class.isAssignableFrom(type)
+					|| ResourceBundle.class.isAssignableFrom(type) || type == ELClass.class || type.isArray();
+		}
+	}
+}
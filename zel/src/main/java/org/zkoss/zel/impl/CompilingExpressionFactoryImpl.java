@@ -0,0 +1,70 @@
+/* CompilingExpressionFactoryImpl.java
+
+	History:
+		Sun Oct 18 15:32:09 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zel.impl;
+
+import org.zkoss.zel.BeanELResolver;
+import org.zkoss.zel.ELContext;
+import org.zkoss.zel.ELException;
+import org.zkoss.zel.ELResolver;
+import org.zkoss.zel.ValueExpression;
+import org.zkoss.zel.impl.lang.ExpressionBuilder;
+import org.zkoss.zel.impl.parser.Node;
+
+/**
+ * An expression factory that compiles the value expressions of property
+ * paths, such as <code>${each.name}</code> and <code>${vm.person.address}</code>,
+ * into {@link CompiledValueExpression}, which reads the properties with
+ * {@link java.lang.invoke.MethodHandle}s guarded by the class of the base object,
+ * rather than looking them up by the resolver for each evaluation.
+ * Other expressions are interpreted as {@link ExpressionFactoryImpl} does.
+ *
+ * <p>It is correct only if the resolver resolves the properties of a bean
+ * the same as {@link BeanELResolver}. Thus, a compiled expression is
+ * interpreted unless {@link #isBeanResolver} returns true for the resolver
+ * of the evaluation context.
+ *
+ * @author agent
+ * @since 10.0.1
+ */
+public class CompilingExpressionFactoryImpl extends ExpressionFactoryImpl {
+	public CompilingExpressionFactoryImpl() {
+	}
+
+	/** Returns whether the given resolver resolves a property of a bean
+	 * (i.e., an object that is not a map, a list, a resource bundle,
+	 * an array or {@link org.zkoss.zel.ELClass}) by invoking the getter
+	 * that {@link BeanELResolver} resolves, and nothing else.
+	 * If true, a compiled expression invokes the getter directly.
+	 * <p>It is called each time a compiled expression is evaluated, so it
+	 * shall be fast.
+	 * <p>Default: true only if the resolver is an instance of
+	 * {@link BeanELResolver} (but not its subclass).
+	 * Override it if the resolver you use delegates to {@link BeanELResolver}.
+	 */
+	protected boolean isBeanResolver(ELResolver resolver) {
+		return resolver != null && resolver.getClass() == BeanELResolver.class;
+	}
+
+	protected ExpressionBuilder newExpressionBuilder(String expression, ELContext context) {
+		return new CompilingExpressionBuilder(expression, context);
+	}
+
+	private class CompilingExpressionBuilder extends ExpressionBuilder {
+		private CompilingExpressionBuilder(String expression, ELContext ctx) throws ELException {
+			super(expression, ctx);
+		}
+
+		public ValueExpression createValueExpression(Class<?> expectedType) throws ELException {
+			final Node n = this.build();
+			return CompiledValueExpression.isCompilable(n)
+					? new CompiledValueExpression(this.expression, n, this.fnMapper, this.varMapper, expectedType,
+							CompilingExpressionFactoryImpl.this)
+					: new ValueExpressionImpl(this.expression, n, this.fnMapper, this.varMapper, expectedType);
+		}
+	}
+}
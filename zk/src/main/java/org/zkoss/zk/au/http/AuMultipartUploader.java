@@ -19,11 +19,14 @@ import static org.zkoss.zk.ui.ext.Uploadable.Error.SIZE_LIMIT_EXCEEDED;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.net.URLDecoder;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -36,6 +39,8 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import javax.servlet.ServletContext;
@@ -45,6 +50,8 @@ import javax.servlet.http.HttpServletRequestWrapper;
 import org.apache.commons.fileupload2.core.AbstractFileUpload;
 import org.apache.commons.fileupload2.core.DiskFileItemFactory;
 import org.apache.commons.fileupload2.core.FileItem;
+import org.apache.commons.fileupload2.core.FileItemInput;
+import org.apache.commons.fileupload2.core.FileItemInputIterator;
 import org.apache.commons.fileupload2.core.FileUploadException;
 import org.apache.commons.fileupload2.core.FileUploadSizeException;
 import org.slf4j.Logger;
@@ -53,6 +60,7 @@ import org.slf4j.LoggerFactory;
 import org.zkoss.image.AImage;
 import org.zkoss.lang.Classes;
 import org.zkoss.lang.Exceptions;
+import org.zkoss.lang.Library;
 import org.zkoss.lang.Strings;
 import org.zkoss.mesg.Messages;
 import org.zkoss.sound.AAudio;
@@ -64,13 +72,16 @@ import org.zkoss.zk.au.AuDecoder;
 import org.zkoss.zk.au.AuRequest;
 import org.zkoss.zk.ui.Component;
 import org.zkoss.zk.ui.Desktop;
+import org.zkoss.zk.ui.Session;
 import org.zkoss.zk.ui.UiException;
 import org.zkoss.zk.ui.WebApp;
 import org.zkoss.zk.ui.WebApps;
 import org.zkoss.zk.ui.ext.Uploadable;
 import org.zkoss.zk.ui.impl.Attributes;
+import org.zkoss.zk.ui.sys.WebAppCtrl;
 import org.zkoss.zk.ui.util.CharsetFinder;
 import org.zkoss.zk.ui.util.Configuration;
+import org.zkoss.zk.ui.util.MetricsRegistry;
 
 /**
  * An AU handler to process multipart content.
@@ -84,6 +95,31 @@ public class AuMultipartUploader {
 	private static final String JAKARTA_UPLOAD_CLASS = "org.apache.commons.fileupload2.jakarta.servlet5.JakartaServletFileUpload";
 	private static final String JAVAX_DISK_UPLOAD_CLASS = "org.apache.commons.fileupload2.javax.JavaxServletDiskFileUpload";
 	private static final String JAKARTA_DISK_UPLOAD_CLASS = "org.apache.commons.fileupload2.jakarta.servlet5.JakartaServletDiskFileUpload";
+	private static final String UPLOAD_GATE = AuMultipartUploader.class.getName() + ".UPLOAD_GATE";
+	/** The number of leading bytes used to detect the content type. */
+	private static final int SNIFF_LENGTH = 16;
+
+	/** The maximal number of uploads of a desktop being received at the same
+	 * time (0 or negative means no limit).
+	 * It is specified by the library property called
+	 * <code>org.zkoss.zk.au.http.AuMultipartUploader.maxConcurrentUploads</code>.
+	 * <p>Default: 0 (no limit).
+	 * @since 10.0.1
+	 */
+	public static final int MAX_CONCURRENT_UPLOADS = Library
+			.getIntProperty("org.zkoss.zk.au.http.AuMultipartUploader.maxConcurrentUploads", 0);
+	/** The maximal time, in milliseconds, an upload waits for the other uploads
+	 * of the same desktop, if {@link #MAX_CONCURRENT_UPLOADS} is reached
+	 * (0 or negative means it is rejected immediately).
+	 * Notice that the waiting upload holds a servlet thread with the request
+	 * body partially read.
+	 * It is specified by the library property called
+	 * <code>org.zkoss.zk.au.http.AuMultipartUploader.uploadWaitTimeout</code>.
+	 * <p>Default: 0.
+	 * @since 10.0.1
+	 */
+	public static final int UPLOAD_WAIT_TIMEOUT = Library
+			.getIntProperty("org.zkoss.zk.au.http.AuMultipartUploader.uploadWaitTimeout", 0);
 
 	private static Class<?> getServletFileUploadClass() {
 		try {
@@ -126,19 +162,92 @@ public class AuMultipartUploader {
 	}
 
 	public static AuDecoder parseRequest(HttpServletRequest request, AuDecoder decoder) {
-		Map<String, Object> params = getFileuploadMetaPerWebApp(
-				WebApps.getCurrent());
-		AbstractFileUpload upload = newServletDiskFileUpload(new DiskFileItemFactory.Builder()
-				.setBufferSize((Integer) params.get("sizeThreadHold"))
-				.setPath(((File) params.get("repository")).toPath()).get());
+		return parseRequest(request, decoder, null);
+	}
+
+	/**
+	 * Parses the multipart content of the request.
+	 * <p>The parts are read one by one as they arrive, and each file is
+	 * copied directly into its {@link FileItem}. If the session is given,
+	 * at most {@link #MAX_CONCURRENT_UPLOADS} uploads of the same desktop
+	 * are received at the same time (if {@link #MAX_CONCURRENT_UPLOADS} is positive);
+	 * the others wait (up to {@link #UPLOAD_WAIT_TIMEOUT} milliseconds), or are
+	 * rejected, before reading any file.
+	 * @param sess the session, or null to receive the files without
+	 * limiting the concurrent uploads.
+	 * @since 10.0.1
+	 */
+	public static AuDecoder parseRequest(HttpServletRequest request, AuDecoder decoder, Session sess) {
+		final WebApp wapp = sess != null ? sess.getWebApp() : WebApps.getCurrent();
+		Map<String, Object> params = getFileuploadMetaPerWebApp(wapp);
+		final int sizeThreshold = (Integer) params.get("sizeThreadHold");
+		final File repository = (File) params.get("repository");
+		final DiskFileItemFactory itemFactory = new DiskFileItemFactory.Builder().setBufferSize(sizeThreshold)
+				.setPath(repository.toPath()).get();
+		final org.zkoss.zk.ui.sys.DiskFileItemFactory factory = (org.zkoss.zk.ui.sys.DiskFileItemFactory) params
+				.get("diskFileItemFactory");
+		final MetricsRegistry metrics = wapp.getConfiguration().getMetricsRegistry();
+		AbstractFileUpload upload = newServletDiskFileUpload(itemFactory);
+		final List<FileItem> fileItems = new ArrayList<FileItem>();
+		Desktop desktop = null;
+		Semaphore gate = null;
+		boolean gated = false, done = false;
 		try {
-			List<FileItem> fileItems = upload.parseRequest(request);
-			Map<String, Object> dataMap = new HashMap<>(fileItems.size());
-			for (FileItem item: fileItems) {
-				if (item.isFormField()) {
-					dataMap.put(item.getFieldName(), item.getString());
-				} else {
-					dataMap.put(item.getFieldName(), item);
+			Map<String, Object> dataMap = new HashMap<>();
+			final byte[] buf = new byte[8192];
+			for (FileItemInputIterator it = upload.getItemIterator(request); it.hasNext();) {
+				final FileItemInput input = it.next();
+				if (input.isFormField()) {
+					final String value;
+					try (InputStream is = input.getInputStream()) {
+						value = new String(is.readAllBytes(), StandardCharsets.ISO_8859_1);
+					}
+					dataMap.put(input.getFieldName(), value);
+					continue;
+				}
+
+				if (!gated) { //wait until the desktop is allowed to receive another upload
+					gated = true;
+					final String dtid = getDesktopId((String) dataMap.get("data"));
+					if (sess != null && dtid != null)
+						desktop = ((WebAppCtrl) wapp).getDesktopCache(sess).getDesktopIfAny(dtid);
+					if (desktop != null && (gate = getUploadGate(desktop)) != null) {
+						final long waitStart = System.nanoTime();
+						final boolean acquired = UPLOAD_WAIT_TIMEOUT > 0
+								? gate.tryAcquire(UPLOAD_WAIT_TIMEOUT, TimeUnit.MILLISECONDS) : gate.tryAcquire();
+						if (metrics != null)
+							metrics.recordLatency(MetricsRegistry.UPLOAD_WAIT, desktop, System.nanoTime() - waitStart);
+						if (!acquired) {
+							gate = null;
+							if (metrics != null)
+								metrics.increment(MetricsRegistry.UPLOAD_REJECTED, desktop);
+							throw new UiException("Too many concurrent uploads of " + desktop);
+						}
+					}
+				}
+
+				final long start = System.nanoTime();
+				try (InputStream is = input.getInputStream()) {
+					final String ctype = input.getContentType();
+					final FileItem item = factory != null
+							? factory.createItem(input.getFieldName(), ctype, false, input.getName(), sizeThreshold,
+									repository)
+							: (FileItem) itemFactory.fileItemBuilder().setFieldName(input.getFieldName())
+									.setContentType(ctype).setFormField(false).setFileName(input.getName())
+									.setFileItemHeaders(input.getHeaders()).get();
+					fileItems.add(item);
+					try (OutputStream os = item.getOutputStream()) {
+						for (int n; (n = is.read(buf)) >= 0;)
+							os.write(buf, 0, n);
+					}
+					final long nanos = System.nanoTime() - start;
+					if (factory != null)
+						factory.uploaded(item, nanos);
+					if (metrics != null) {
+						metrics.recordLatency(MetricsRegistry.UPLOAD, desktop, nanos);
+						metrics.recordValue(MetricsRegistry.UPLOAD_BYTES, desktop, item.getSize());
+					}
+					dataMap.put(input.getFieldName(), item);
 				}
 			}
 			// avoid servlet filter to read twice to become empty data.
@@ -150,11 +259,111 @@ public class AuMultipartUploader {
 					dataMap = (Map<String, Object>) attribute;
 				}
 			}
+			done = true;
 			return new AuMultipartDecoder(dataMap, decoder);
 		} catch (FileUploadException e) {
 			throw UiException.Aide.wrap(e);
+		} catch (IOException e) {
+			throw UiException.Aide.wrap(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw UiException.Aide.wrap(e);
+		} finally {
+			if (gate != null)
+				gate.release();
+			if (!done)
+				for (FileItem item : fileItems) {
+					try {
+						item.delete();
+					} catch (Exception ex) { //ignore
+					}
+				}
 		}
 	}
+
+	/** Returns the desktop ID specified in the data part, or null if not found. */
+	private static String getDesktopId(String data) {
+		final List<String> dtids = splitQuery(data).get("dtid");
+		return dtids != null && !dtids.isEmpty() ? dtids.get(0) : null;
+	}
+
+	/** Returns the semaphore limiting the concurrent uploads of the given
+	 * desktop, or null if not limited.
+	 */
+	private static Semaphore getUploadGate(Desktop desktop) {
+		if (MAX_CONCURRENT_UPLOADS <= 0)
+			return null;
+		Semaphore gate = (Semaphore) desktop.getAttribute(UPLOAD_GATE);
+		if (gate == null) {
+			synchronized (desktop) {
+				gate = (Semaphore) desktop.getAttribute(UPLOAD_GATE);
+				if (gate == null)
+					desktop.setAttribute(UPLOAD_GATE, gate = new Semaphore(MAX_CONCURRENT_UPLOADS));
+			}
+		}
+		return gate;
+	}
+
+	/** Returns the content type detected from the leading bytes of the
+	 * given file, or null if unknown.
+	 */
+	private static String sniffContentType(FileItem fi) throws IOException {
+		final byte[] head = new byte[SNIFF_LENGTH];
+		int len = 0;
+		try (InputStream is = fi.getInputStream()) {
+			for (int n; len < SNIFF_LENGTH && (n = is.read(head, len, SNIFF_LENGTH - len)) >= 0;)
+				len += n;
+		}
+		return sniffContentType(head, len);
+	}
+
+	/** Returns the content type detected from the leading bytes of a file,
+	 * or null if unknown.
+	 */
+	/*package*/ static String sniffContentType(byte[] head, int len) {
+		if (startsWith(head, len, 0, 0x89, 'P', 'N', 'G', 0x0d, 0x0a, 0x1a, 0x0a))
+			return "image/png";
+		if (startsWith(head, len, 0, 0xff, 0xd8, 0xff))
+			return "image/jpeg";
+		if (startsWith(head, len, 0, 'G', 'I', 'F', '8'))
+			return "image/gif";
+		if (startsWith(head, len, 0, 'B', 'M') && startsWith(head, len, 6, 0, 0, 0, 0))
+			return "image/bmp"; //the reserved fields must be 0
+		if (startsWith(head, len, 0, 'R', 'I', 'F', 'F')) {
+			if (startsWith(head, len, 8, 'W', 'E', 'B', 'P'))
+				return "image/webp";
+			if (startsWith(head, len, 8, 'W', 'A', 'V', 'E'))
+				return "audio/wav";
+			if (startsWith(head, len, 8, 'A', 'V', 'I', ' '))
+				return "video/x-msvideo";
+			return null;
+		}
+		if (startsWith(head, len, 0, '%', 'P', 'D', 'F', '-'))
+			return "application/pdf";
+		if (startsWith(head, len, 0, 'I', 'D', '3') || startsWith(head, len, 0, 0xff, 0xfb))
+			return "audio/mpeg";
+		if (startsWith(head, len, 0, 'O', 'g', 'g', 'S'))
+			return "audio/ogg";
+		if (startsWith(head, len, 0, 'f', 'L', 'a', 'C'))
+			return "audio/flac";
+		if (startsWith(head, len, 4, 'f', 't', 'y', 'p'))
+			return "video/mp4";
+		if (startsWith(head, len, 0, 0x1a, 0x45, 0xdf, 0xa3))
+			return "video/webm";
+		if (startsWith(head, len, 0, 'P', 'K', 0x03, 0x04))
+			return "application/zip";
+		return null;
+	}
+
+	private static boolean startsWith(byte[] head, int len, int ofs, int... magic) {
+		if (len < ofs + magic.length)
+			return false;
+		for (int j = 0; j < magic.length; ++j)
+			if ((head[ofs + j] & 0xff) != magic[j])
+				return false;
+		return true;
+	}
+
 	public static Map<String, List<String>> splitQuery(String query) {
 		if (Strings.isBlank(query)) {
 			return Collections.emptyMap();
@@ -537,6 +746,12 @@ public class AuMultipartUploader {
 					ctypelc = ctype = s;
 			}
 		}
+		if (ctypelc == null || "application/octet-stream".equals(ctypelc)) {
+			//neither the browser nor the extension tells the type
+			final String s = sniffContentType(fi);
+			if (s != null)
+				ctypelc = ctype = s;
+		}
 
 		// ZK 3132, a way to customize it
 		if (factory != null) {
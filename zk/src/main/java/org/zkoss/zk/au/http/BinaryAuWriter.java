@@ -0,0 +1,307 @@
+/* BinaryAuWriter.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 17:41:05 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zk.au.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.zkoss.json.JSONArray;
+import org.zkoss.json.JSONAware;
+import org.zkoss.json.JSONObject;
+import org.zkoss.lang.Library;
+import org.zkoss.web.servlet.http.Https;
+import org.zkoss.zk.au.AuResponse;
+import org.zkoss.zk.au.AuWriter;
+
+/**
+ * A writer that encodes the responses in a compact binary format if
+ * the client engine accepts it, or in JSON as {@link HttpAuWriter} does
+ * otherwise.
+ *
+ * <p>The client engine accepts the binary format by sending the request
+ * header <code>ZK-AU-Accept-Encoding: binary</code>, and a binary response
+ * is marked with the response header <code>ZK-AU-Encoding: binary</code>.
+ *
+ * <p>The format is a version byte ({@link #VERSION}), followed by
+ * the command and the data of each response, {@link #END}, and the response
+ * ID plus one as a varint (0 if no response ID).
+ * Each value starts with a tag byte:
+ * <ul>
+ * <li>{@link #NULL}, {@link #FALSE}, {@link #TRUE}: no payload.</li>
+ * <li>{@link #INT}: a zigzag-encoded varint.</li>
+ * <li>{@link #DOUBLE}: an IEEE 754 double, big-endian.</li>
+ * <li>{@link #STRING}: the length in bytes as a varint, followed by
+ * the string in UTF-8.</li>
+ * <li>{@link #STRING_DEF}: the same as {@link #STRING}, but the string
+ * is also appended to the string table of the response.</li>
+ * <li>{@link #STRING_REF}: the index of the string table as a varint.</li>
+ * <li>{@link #ARRAY}: the number of elements as a varint, followed by
+ * the elements.</li>
+ * <li>{@link #OBJECT}: the number of entries as a varint, followed by
+ * the key (a string value) and the value of each entry.</li>
+ * <li>{@link #RAW}: a string, the same as {@link #STRING}, that shall be
+ * evaluated as JSON (or JavaScript), e.g., {@link JSONAware#toJSONString}.</li>
+ * </ul>
+ *
+ * <p>A string whose length does not exceed the threshold
+ * (library property <code>org.zkoss.zk.au.http.BinaryAuWriter.internLength</code>,
+ * default: 64), such as a command name, a property name and a UUID,
+ * is sent once per response and referenced afterwards.
+ *
+ * <p>To use it, specify the following in zk.xml:
+ * <pre><code>&lt;system-config&gt;
+ *  &lt;au-writer-class&gt;org.zkoss.zk.au.http.BinaryAuWriter&lt;/au-writer-class&gt;
+ *&lt;/system-config&gt;</code></pre>
+ *
+ * @author agent
+ * @since 10.0.1
+ */
+public class BinaryAuWriter extends HttpAuWriter {
+	/** The version of the format. */
+	public static final byte VERSION = 1;
+	public static final byte NULL = 0, FALSE = 1, TRUE = 2, INT = 3, DOUBLE = 4, STRING = 5, STRING_DEF = 6,
+			STRING_REF = 7, ARRAY = 8, OBJECT = 9, RAW = 10;
+	/** The tag ending the list of responses. */
+	public static final byte END = 15;
+
+	/** The content type of the binary output. */
+	public static final String CONTENT_TYPE = "application/octet-stream";
+
+	private static final int INTERN_LENGTH = Library.getIntProperty(
+			"org.zkoss.zk.au.http.BinaryAuWriter.internLength", 64);
+	private static final int GZIP_THRESHOLD = 200;
+
+	/** The bytes generated so far; null if JSON is generated. */
+	private ByteArrayOutputStream _buf;
+	/** The string table; null if JSON is generated. */
+	private Map<String, Integer> _strings;
+	private int _resId = -1;
+	/** The result that shall be sent (binary only). */
+	private Content _result;
+
+	public BinaryAuWriter() {
+	}
+
+	/** Returns whether the client engine accepts the binary format.
+	 */
+	protected boolean isBinaryAccepted(HttpServletRequest request) {
+		return "binary".equals(request.getHeader("ZK-AU-Accept-Encoding"));
+	}
+
+	//AuWriter//
+	public AuWriter open(Object request, Object response) throws IOException {
+		if (!isBinaryAccepted((HttpServletRequest) request))
+			return super.open(request, response);
+
+		((HttpServletResponse) response).setContentType(CONTENT_TYPE);
+		_buf = new ByteArrayOutputStream(1024);
+		_buf.write(VERSION);
+		_strings = new HashMap<String, Integer>(64);
+		return this;
+	}
+
+	public void close(Object request, Object response) throws IOException {
+		if (_buf == null && _result == null) {
+			super.close(request, response);
+			return;
+		}
+		if (_result == null)
+			_result = finish();
+
+		final HttpServletResponse hres = (HttpServletResponse) response;
+		byte[] data = _result.data;
+		if (isCompress() && data.length > GZIP_THRESHOLD) {
+			final byte[] bs = Https.gzip((HttpServletRequest) request, hres, null, data);
+			if (bs != null)
+				data = bs;
+		}
+		hres.setHeader("ZK-AU-Encoding", "binary");
+		hres.setContentType(CONTENT_TYPE);
+		hres.setContentLength(data.length);
+		hres.getOutputStream().write(data);
+		hres.flushBuffer();
+	}
+
+	public void resend(Object prevContent) throws IOException {
+		if (!(prevContent instanceof Content)) {
+			//sent in JSON (such as when the writer was changed); keep it
+			_buf = null;
+			_strings = null;
+			super.resend(prevContent);
+			return;
+		}
+		if (_result != null || (_buf != null && _buf.size() > 1))
+			throw new IllegalStateException(_result != null ? "resend twice or complete?" : "write called");
+		_result = (Content) prevContent;
+		_buf = null;
+		_strings = null;
+	}
+
+	public Object complete() throws IOException {
+		if (_buf == null)
+			return super.complete();
+		return _result = finish();
+	}
+
+	public void writeResponseId(int resId) throws IOException {
+		if (_buf == null)
+			super.writeResponseId(resId);
+		else
+			_resId = resId;
+	}
+
+	public void write(AuResponse response) throws IOException {
+		if (_buf == null) {
+			super.write(response);
+			return;
+		}
+		writeValue(response.getCommand());
+		writeValue(response.getEncodedData());
+	}
+
+	/** Ends the responses and returns the generated bytes. */
+	private Content finish() {
+		_buf.write(END);
+		writeVarint(_resId + 1L);
+		final Content result = new Content(_buf.toByteArray());
+		_buf = null;
+		_strings = null;
+		return result;
+	}
+
+	/** Encodes a value. It handles the types the same as
+	 * {@link org.zkoss.json.JSONValue#toJSONString}.
+	 */
+	private void writeValue(Object value) {
+		if (value == null) {
+			_buf.write(NULL);
+		} else if (value instanceof String) {
+			writeString((String) value);
+		} else if (value instanceof Boolean) {
+			_buf.write(((Boolean) value).booleanValue() ? TRUE : FALSE);
+		} else if (value instanceof Integer || value instanceof Long || value instanceof Short
+				|| value instanceof Byte) {
+			writeInt(((Number) value).longValue());
+		} else if (value instanceof BigInteger && ((BigInteger) value).bitLength() < 64) {
+			writeInt(((BigInteger) value).longValue());
+		} else if (value instanceof Double) {
+			writeDouble(((Double) value).doubleValue());
+		} else if (value instanceof Float) {
+			final float v = ((Float) value).floatValue();
+			//0.1f shall be 0.1 as JSON does, not 0.10000000149011612
+			writeDouble(Float.isNaN(v) || Float.isInfinite(v) ? v : Double.parseDouble(Float.toString(v)));
+		} else if (value instanceof Number) {
+			//BigDecimal, BigInteger wider than a long and others: as JSON does
+			//(a number literal) to not lose the precision
+			_buf.write(RAW);
+			writeBytes(value.toString());
+		} else if (value instanceof JSONObject || (value instanceof Map && !(value instanceof JSONAware))) {
+			final Map<?, ?> map = (Map<?, ?>) value;
+			_buf.write(OBJECT);
+			writeVarint(map.size());
+			for (Map.Entry<?, ?> me : map.entrySet()) {
+				writeString(String.valueOf(me.getKey()));
+				writeValue(me.getValue());
+			}
+		} else if (value instanceof JSONArray || (value instanceof Collection && !(value instanceof JSONAware))) {
+			final Collection<?> col = (Collection<?>) value;
+			_buf.write(ARRAY);
+			writeVarint(col.size());
+			for (Object o : col)
+				writeValue(o);
+		} else if (value.getClass().isArray()) {
+			final int len = Array.getLength(value);
+			_buf.write(ARRAY);
+			writeVarint(len);
+			if (value instanceof char[]) { //a character is sent as a string
+				for (char c : (char[]) value)
+					writeString(String.valueOf(c));
+			} else {
+				for (int j = 0; j < len; ++j)
+					writeValue(Array.get(value, j));
+			}
+		} else if (value instanceof Enum) {
+			writeString(value.toString());
+		} else {
+			_buf.write(RAW);
+			writeBytes(value instanceof JSONAware ? ((JSONAware) value).toJSONString() : value.toString());
+		}
+	}
+
+	private void writeString(String s) {
+		if (s.length() > INTERN_LENGTH) {
+			_buf.write(STRING);
+			writeBytes(s);
+			return;
+		}
+
+		final Integer index = _strings.get(s);
+		if (index != null) {
+			_buf.write(STRING_REF);
+			writeVarint(index.intValue());
+		} else {
+			_strings.put(s, _strings.size());
+			_buf.write(STRING_DEF);
+			writeBytes(s);
+		}
+	}
+
+	private void writeBytes(String s) {
+		final byte[] bs = s.getBytes(StandardCharsets.UTF_8);
+		writeVarint(bs.length);
+		_buf.write(bs, 0, bs.length);
+	}
+
+	private void writeDouble(double v) {
+		if (Double.isNaN(v) || Double.isInfinite(v)) {
+			_buf.write(NULL);
+		} else {
+			_buf.write(DOUBLE);
+			final long bits = Double.doubleToLongBits(v);
+			for (int j = 56; j >= 0; j -= 8)
+				_buf.write((int) (bits >>> j));
+		}
+	}
+
+	private void writeInt(long v) {
+		_buf.write(INT);
+		writeVarint((v << 1) ^ (v >> 63)); //zigzag
+	}
+
+	private void writeVarint(long v) {
+		while ((v & ~0x7FL) != 0) {
+			_buf.write((int) ((v & 0x7F) | 0x80));
+			v >>>= 7;
+		}
+		_buf.write((int) v);
+	}
+
+	/** The content kept for resending repeated requests. */
+	private static class Content implements Serializable {
+		private static final long serialVersionUID = 20261018174105L;
+		private final byte[] data;
+
+		private Content(byte[] data) {
+			this.data = data;
+		}
+	}
+}
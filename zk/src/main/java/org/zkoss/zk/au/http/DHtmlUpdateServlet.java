@@ -77,6 +77,7 @@ import org.zkoss.zk.ui.sys.SessionCtrl;
 import org.zkoss.zk.ui.sys.SessionsCtrl;
 import org.zkoss.zk.ui.sys.WebAppCtrl;
 import org.zkoss.zk.ui.util.Configuration;
+import org.zkoss.zk.ui.util.MetricsRegistry;
 import org.zkoss.zk.ui.util.URIInfo;
 
 /**
@@ -444,7 +445,7 @@ public class DHtmlUpdateServlet extends HttpServlet {
 		AuDecoder audec = getAuDecoder(wapp);
 		boolean multipartContent = AuMultipartUploader.isMultipartContent(request);
 		if (multipartContent) {
-			audec = AuMultipartUploader.parseRequest(request, audec);
+			audec = AuMultipartUploader.parseRequest(request, audec, sess);
 		}
 		final String dtid = audec.getDesktopId(request);
 
@@ -459,7 +460,11 @@ public class DHtmlUpdateServlet extends HttpServlet {
 			return;
 		}
 
+		final MetricsRegistry metrics = wapp.getConfiguration().getMetricsRegistry();
 		Desktop desktop = getDesktop(sess, dtid);
+		if (metrics != null)
+			metrics.increment(desktop != null ? MetricsRegistry.DESKTOP_CACHE_HIT : MetricsRegistry.DESKTOP_CACHE_MISS,
+					desktop);
 		if (desktop == null) {
 			final String cmdId = audec.getFirstCommand(request);
 			if (!"rmDesktop".equals(cmdId))
@@ -493,7 +498,10 @@ public class DHtmlUpdateServlet extends HttpServlet {
 		boolean keepAlive = false;
 		try {
 			final boolean timerKeepAlive = config.isTimerKeepAlive();
+			final long decodeStart = metrics != null ? System.nanoTime() : 0;
 			aureqs = audec.decode(request, desktop);
+			if (metrics != null)
+				metrics.recordLatency(MetricsRegistry.AU_DECODE, desktop, System.nanoTime() - decodeStart);
 			for (AuRequest aureq : aureqs) {
 				final String cmdId = aureq.getCommand();
 				keepAlive = !(!timerKeepAlive && Events.ON_TIMER.equals(cmdId)) && !"dummy".equals(cmdId);
@@ -535,7 +543,10 @@ public class DHtmlUpdateServlet extends HttpServlet {
 			response.setHeader("ZK-SID", sid);
 			response.setIntHeader("ZK-Error", AuResponse.SC_OUT_OF_SEQUENCE);
 		}
+		final long flushStart = metrics != null ? System.nanoTime() : 0;
 		out.close(request, response);
+		if (metrics != null)
+			metrics.recordLatency(MetricsRegistry.RESPONSE_FLUSH, desktop, System.nanoTime() - flushStart);
 	}
 
 	/** Returns the desktop of the specified ID, or null if not found.
@@ -672,7 +683,7 @@ public class DHtmlUpdateServlet extends HttpServlet {
 
 				final String uuid = hreq.getParameter("uuid_" + j);
 				final String data = hreq.getParameter("data_" + j);
-				final Map<String, Object> decdata = (Map) JSONValue.parse(data);
+				final Map<String, Object> decdata = (Map) StreamingAuDecoder.parseJSON(data);
 				aureqs.add(uuid == null || uuid.isEmpty() ? new AuRequest(desktop, cmdId, decdata)
 						: new AuRequest(desktop, uuid, cmdId, decdata));
 			}
@@ -0,0 +1,285 @@
+/* StreamingAuDecoder.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 11:02:17 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zk.au.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.zkoss.json.JSONValue;
+import org.zkoss.json.parser.JSONParser;
+import org.zkoss.zk.au.AuDecoder;
+import org.zkoss.zk.au.AuRequest;
+import org.zkoss.zk.ui.Desktop;
+import org.zkoss.zk.ui.WebApp;
+
+/**
+ * An AU decoder that decodes the default format of AU requests by
+ * scanning the URL-encoded request body once, instead of looking up
+ * <code>cmd_<i>n</i></code>, <code>uuid_<i>n</i></code> and
+ * <code>data_<i>n</i></code> with <code>getParameter</code>
+ * one by one.
+ * The data of each command is parsed by a per-thread {@link JSONParser},
+ * such that the lexer's buffer is not allocated for every command.
+ *
+ * <p>The result of the scan is stored as a request attribute, so
+ * {@link #getDesktopId}, {@link #getFirstCommand}, {@link #decode} and
+ * {@link #isIgnorable} share it.
+ * Since the body is consumed, the parameters of an AU request are no longer
+ * available from <code>HttpServletRequest.getParameter</code>.
+ * If the body has been consumed before (such as by a filter) or
+ * it is not URL-encoded, it falls back to <code>getParameter</code>.
+ *
+ * <p>To use it, specify the following in zk.xml:
+ * <pre><code>&lt;system-config&gt;
+ *  &lt;au-decoder-class&gt;org.zkoss.zk.au.http.StreamingAuDecoder&lt;/au-decoder-class&gt;
+ *&lt;/system-config&gt;</code></pre>
+ *
+ * @author agent
+ * @since 10.0.1
+ */
+public class StreamingAuDecoder implements AuDecoder {
+	private static final Logger log = LoggerFactory.getLogger(StreamingAuDecoder.class);
+	private static final String ATTR_FORM = "org.zkoss.zk.au.http.StreamingAuDecoder.form";
+	/** The longest data that is parsed by the per-thread parser.
+	 * A longer one might grow the lexer's buffer, so a new parser is used. */
+	private static final int MAX_POOLED_DATA = 16384;
+
+	private static final ThreadLocal<JSONParser> _parser = ThreadLocal.withInitial(JSONParser::new);
+
+	public String getDesktopId(Object request) {
+		return getForm((HttpServletRequest) request).dtid;
+	}
+
+	public String getFirstCommand(Object request) {
+		return getForm((HttpServletRequest) request).get(0, Form.CMD);
+	}
+
+	@SuppressWarnings("unchecked")
+	public List<AuRequest> decode(Object request, Desktop desktop) {
+		final Form form = getForm((HttpServletRequest) request);
+		final List<AuRequest> aureqs = new ArrayList<AuRequest>(form.size);
+		for (int j = 0; j < form.size; ++j) {
+			final String cmdId = form.get(j, Form.CMD);
+			if (cmdId == null)
+				break; //the same as the default decoder: stop at the first gap
+
+			final String uuid = form.get(j, Form.UUID);
+			final Map<String, Object> decdata = (Map) parseJSON(form.get(j, Form.DATA));
+			aureqs.add(uuid == null || uuid.isEmpty() ? new AuRequest(desktop, cmdId, decdata)
+					: new AuRequest(desktop, uuid, cmdId, decdata));
+		}
+		return aureqs;
+	}
+
+	public boolean isIgnorable(Object request, WebApp wapp) {
+		final Form form = getForm((HttpServletRequest) request);
+		for (int j = 0; j < form.size; ++j) {
+			if (form.get(j, Form.CMD) == null)
+				break;
+
+			final String opt = form.get(j, Form.OPT);
+			if (opt == null || !opt.contains("i"))
+				return false; //not ignorable
+		}
+		return true;
+	}
+
+	/** Parses the JSON text with the parser of the current thread.
+	 * It returns the same as {@link JSONValue#parse(String)}.
+	 */
+	/*package*/ static Object parseJSON(String data) {
+		if (data == null)
+			return null;
+		if (data.length() > MAX_POOLED_DATA)
+			return JSONValue.parse(data);
+
+		final JSONParser parser = _parser.get();
+		try {
+			return parser.parse(new StringReader(data));
+		} catch (IOException ex) {
+			throw new RuntimeException(ex); //not possible
+		} finally {
+			parser.reset(null); //release the reader
+		}
+	}
+
+	private static Form getForm(HttpServletRequest request) {
+		Form form = (Form) request.getAttribute(ATTR_FORM);
+		if (form == null) {
+			form = Form.parse(request);
+			request.setAttribute(ATTR_FORM, form);
+		}
+		return form;
+	}
+
+	/** The AU parameters of a request. */
+	private static class Form {
+		private static final int CMD = 0, UUID = 1, DATA = 2, OPT = 3, NFIELD = 4;
+		/** The largest command index accepted (to prevent from a malicious request). */
+		private static final int MAX_INDEX = 10000;
+		private String dtid;
+		/** The fields of the commands, {@link #NFIELD} per command. */
+		private String[] fields = new String[NFIELD * 4];
+		/** The number of commands, i.e., the largest index plus one. */
+		private int size;
+
+		private String get(int index, int field) {
+			return index < size ? fields[index * NFIELD + field] : null;
+		}
+
+		private void set(int index, int field, String value) {
+			final int j = index * NFIELD + field;
+			if (j >= fields.length)
+				fields = Arrays.copyOf(fields, Math.max(fields.length * 2, j + NFIELD));
+			fields[j] = value;
+			if (index >= size)
+				size = index + 1;
+		}
+
+		/** Adds the parameter if it is one of the AU parameters. */
+		private void add(String name, String value) {
+			if ("dtid".equals(name)) {
+				dtid = value;
+				return;
+			}
+
+			final int k = name.indexOf('_');
+			if (k <= 0 || k == name.length() - 1)
+				return;
+			final int field;
+			switch (name.substring(0, k)) {
+			case "cmd":
+				field = CMD;
+				break;
+			case "uuid":
+				field = UUID;
+				break;
+			case "data":
+				field = DATA;
+				break;
+			case "opt":
+				field = OPT;
+				break;
+			default:
+				return;
+			}
+			int index = 0;
+			for (int j = k + 1, len = name.length(); j < len; ++j) {
+				final char cc = name.charAt(j);
+				if (cc < '0' || cc > '9' || (index = index * 10 + (cc - '0')) > MAX_INDEX)
+					return; //not ours
+			}
+			set(index, field, value);
+		}
+
+		private static Form parse(HttpServletRequest request) {
+			final Form form = new Form();
+			final String ctype = request.getContentType();
+			if (ctype != null && ctype.toLowerCase(Locale.ENGLISH).startsWith("application/x-www-form-urlencoded")) {
+				try {
+					if (form.scan(request))
+						return form;
+				} catch (IllegalStateException ex) { //getReader was called
+				} catch (IOException ex) {
+					//the body is consumed, so nothing to fall back to
+					//(dtid is null and the request is considered as incomplete)
+					log.debug("Unable to read the AU request", ex);
+					return new Form();
+				}
+			}
+
+			//fall back to getParameter
+			form.dtid = request.getParameter("dtid");
+			for (int j = 0;; ++j) {
+				final String cmdId = request.getParameter("cmd_" + j);
+				if (cmdId == null)
+					break;
+				form.set(j, CMD, cmdId);
+				form.set(j, UUID, request.getParameter("uuid_" + j));
+				form.set(j, DATA, request.getParameter("data_" + j));
+				form.set(j, OPT, request.getParameter("opt_" + j));
+			}
+			return form;
+		}
+
+		/** Scans the URL-encoded body in a single pass.
+		 * @return false if nothing is read (i.e., consumed by others)
+		 */
+		private boolean scan(HttpServletRequest request) throws IOException {
+			final String enc = request.getCharacterEncoding();
+			final Charset charset = enc != null ? Charset.forName(enc) : StandardCharsets.UTF_8;
+			final InputStream in = request.getInputStream();
+			final byte[] buf = new byte[8192];
+			byte[] token = new byte[256];
+			int tlen = 0, hex = -1, hexval = 0;
+			String name = null;
+			boolean read = false;
+			for (int n; (n = in.read(buf)) >= 0;) {
+				read |= n > 0;
+				for (int j = 0; j < n; ++j) {
+					byte b = buf[j];
+					if (hex >= 0) { //in %XX
+						final int d = Character.digit(b, 16);
+						if (d < 0)
+							throw new IOException("Malformed URL encoding");
+						hexval = (hexval << 4) | d;
+						if (++hex < 2)
+							continue;
+						b = (byte) hexval;
+						hex = -1;
+					} else if (b == '%') {
+						hex = 0;
+						hexval = 0;
+						continue;
+					} else if (b == '+') {
+						b = ' ';
+					} else if (b == '=' && name == null) {
+						name = new String(token, 0, tlen, charset);
+						tlen = 0;
+						continue;
+					} else if (b == '&') {
+						addParam(name, token, tlen, charset);
+						name = null;
+						tlen = 0;
+						continue;
+					}
+					if (tlen == token.length)
+						token = Arrays.copyOf(token, tlen * 2);
+					token[tlen++] = b;
+				}
+			}
+			if (read)
+				addParam(name, token, tlen, charset);
+			return read;
+		}
+
+		private void addParam(String name, byte[] token, int tlen, Charset charset) {
+			if (name != null)
+				add(name, new String(token, 0, tlen, charset));
+			else if (tlen > 0)
+				add(new String(token, 0, tlen, charset), "");
+		}
+	}
+}
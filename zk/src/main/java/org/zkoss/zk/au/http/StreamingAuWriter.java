@@ -0,0 +1,222 @@
+/* StreamingAuWriter.java
+
+	Purpose:
+		
+	Description:
+		
+	History:
+		Sun Oct 18 10:12:40 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zk.au.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Serializable;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.zkoss.io.Files;
+import org.zkoss.json.JSONValue;
+import org.zkoss.lang.Library;
+import org.zkoss.zk.au.AuResponse;
+import org.zkoss.zk.au.AuWriter;
+import org.zkoss.zk.au.AuWriters;
+
+/**
+ * A writer that serializes each response as soon as it is written,
+ * rather than building a JSON tree and converting it to a string when
+ * closed (as {@link HttpAuWriter} does).
+ *
+ * <p>The JSON text is encoded in UTF-8 by a single encoder kept for
+ * the whole response, and, once the output exceeds the threshold
+ * (library property <code>org.zkoss.zk.au.http.StreamingAuWriter.gzipThreshold</code>,
+ * default: 200 bytes), compressed on the fly by a {@link GZIPOutputStream}.
+ * Thus, only the compressed bytes are held in memory.
+ * They are kept until {@link #close} since the HTTP headers might still be
+ * changed after the responses are written (such as <code>ZK-Error</code>),
+ * and they are also what {@link #complete} returns for
+ * resending repeated requests.
+ *
+ * <p>To use it, specify the following in zk.xml:
+ * <pre><code>&lt;system-config&gt;
+ *  &lt;au-writer-class&gt;org.zkoss.zk.au.http.StreamingAuWriter&lt;/au-writer-class&gt;
+ *&lt;/system-config&gt;</code></pre>
+ *
+ * @author agent
+ * @since 10.0.1
+ */
+public class StreamingAuWriter implements AuWriter {
+	private static final int GZIP_THRESHOLD = Library.getIntProperty(
+			"org.zkoss.zk.au.http.StreamingAuWriter.gzipThreshold", 200);
+
+	/** The bytes generated so far (compressed if {@link #_gzip} is not null). */
+	private ByteArrayOutputStream _buf;
+	private GZIPOutputStream _gzip;
+	private Writer _writer;
+	/** Whether any response is written. */
+	private boolean _written;
+	private int _resId = -1;
+	/** Whether the browser accepts gzip. */
+	private boolean _gzipAccepted;
+	/** The result that shall be sent. */
+	private Content _result;
+	private boolean _compress = true;
+
+	public StreamingAuWriter() {
+	}
+
+	/** Returns whether to compress the output.
+	 */
+	public boolean isCompress() {
+		return _compress;
+	}
+
+	//AuWriter//
+	public void setCompress(boolean compress) {
+		_compress = compress;
+	}
+
+	/** Opens the connection.
+	 *
+	 * <p>Default: it prepares the UTF-8 encoder to write the responses to.
+	 */
+	public AuWriter open(Object request, Object response) throws IOException {
+		final HttpServletRequest hreq = (HttpServletRequest) request;
+		final HttpServletResponse hres = (HttpServletResponse) response;
+		hres.setContentType(AuWriters.CONTENT_TYPE);
+		//Bug 1907640: with Glassfish v1, we cannot change content type
+		//in another thread, so we have to do it here
+
+		final String ae = hreq.getHeader("accept-encoding");
+		_gzipAccepted = ae != null && ae.indexOf("gzip") >= 0;
+		_buf = new ByteArrayOutputStream(1024);
+		_writer = new OutputStreamWriter(_buf, StandardCharsets.UTF_8);
+		return this;
+	}
+
+	public void close(Object request, Object response) throws IOException {
+		if (_result == null)
+			_result = finish();
+
+		final HttpServletResponse hres = (HttpServletResponse) response;
+		byte[] data = _result.data;
+		if (_result.gzipped) {
+			if (_compress && _gzipAccepted && !hres.containsHeader("Content-Encoding"))
+				hres.addHeader("Content-Encoding", "gzip");
+			else
+				data = _result.inflate();
+		}
+		hres.setContentType(AuWriters.CONTENT_TYPE);
+		//we have to set content-type again. otherwise, tomcat might
+		//fail to preserve what is set in open()
+		hres.setContentLength(data.length);
+		hres.getOutputStream().write(data);
+		//Use OutputStream due to Bug 1528592 (Jetty 6)
+		hres.flushBuffer();
+	}
+
+	public void resend(Object prevContent) throws IOException {
+		if (prevContent == null)
+			throw new IllegalArgumentException();
+		if (_result != null || _written)
+			throw new IllegalStateException(_written ? "write called" : "resend twice or complete?");
+		_result = (Content) prevContent;
+		_buf = null;
+		_writer = null;
+	}
+
+	public Object complete() throws IOException {
+		if (_result != null)
+			throw new IllegalStateException();
+		return _result = finish();
+	}
+
+	/** Ends the JSON text and returns the generated bytes. */
+	private Content finish() throws IOException {
+		final Writer out = _writer;
+		if (!_written)
+			out.write("{\"rs\":[");
+		out.write(']');
+		if (_resId >= 0) {
+			out.write(",\"rid\":");
+			out.write(Integer.toString(_resId));
+		}
+		out.write('}');
+		out.flush();
+		if (_gzip != null)
+			_gzip.finish();
+
+		final Content result = new Content(_buf.toByteArray(), _gzip != null);
+		_buf = null;
+		_gzip = null;
+		_writer = null;
+		return result;
+	}
+
+	public void writeResponseId(int resId) throws IOException {
+		_resId = resId;
+	}
+
+	public void write(AuResponse response) throws IOException {
+		final Writer out = _writer;
+		if (_written) {
+			out.write(',');
+		} else {
+			_written = true;
+			out.write("{\"rs\":[");
+		}
+		out.write('[');
+		JSONValue.writeJSONString(response.getCommand(), out);
+		out.write(',');
+		JSONValue.writeJSONString(response.getEncodedData(), out);
+		out.write(']');
+		checkCompress();
+	}
+
+	public void write(Collection<AuResponse> responses) throws IOException {
+		for (AuResponse response : responses)
+			write(response);
+	}
+
+	/** Switches to gzip, if allowed, once the output exceeds the threshold.
+	 * The bytes generated so far are moved into the compressed stream.
+	 */
+	private void checkCompress() throws IOException {
+		if (_gzip == null && _compress && _gzipAccepted) {
+			_writer.flush();
+			if (_buf.size() > GZIP_THRESHOLD) {
+				final ByteArrayOutputStream raw = _buf;
+				_buf = new ByteArrayOutputStream(Math.max(raw.size() / 4, 1024));
+				_gzip = new GZIPOutputStream(_buf, 8192);
+				raw.writeTo(_gzip);
+				_writer = new OutputStreamWriter(_gzip, StandardCharsets.UTF_8);
+			}
+		}
+	}
+
+	/** The content kept for resending repeated requests. */
+	private static class Content implements Serializable {
+		private static final long serialVersionUID = 20261018101240L;
+		private final byte[] data;
+		private final boolean gzipped;
+
+		private Content(byte[] data, boolean gzipped) {
+			this.data = data;
+			this.gzipped = gzipped;
+		}
+
+		private byte[] inflate() throws IOException {
+			return Files.readAll(new GZIPInputStream(new ByteArrayInputStream(data)));
+		}
+	}
+}
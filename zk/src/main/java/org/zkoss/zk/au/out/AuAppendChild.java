@@ -20,6 +20,7 @@ import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 
+import org.zkoss.json.JSONAware;
 import org.zkoss.json.JavaScriptValue;
 import org.zkoss.zk.au.AuResponse;
 import org.zkoss.zk.ui.Component;
@@ -37,25 +38,27 @@ import org.zkoss.zk.ui.Page;
  */
 public class AuAppendChild extends AuResponse {
 	/**
-	 * @param contents a collection of contents (in String objects).
+	 * @param contents a collection of contents (in String objects, or,
+	 * since 10.0.1, other {@link CharSequence}).
 	 * Each content is the output of a component.
 	 * @since 5.0.7
 	 */
-	public AuAppendChild(Component comp, Collection<String> contents) {
+	public AuAppendChild(Component comp, Collection<? extends CharSequence> contents) {
 		super("addChd", comp, toArray(comp.getUuid(), contents));
 	}
 
 	/**
-	 * @param contents a collection of contents (in String objects).
+	 * @param contents a collection of contents (in String objects, or,
+	 * since 10.0.1, other {@link CharSequence}).
 	 * Each content is the output of a component or a page.
 	 * @since 5.0.7
 	 */
-	public AuAppendChild(Page page, Collection<String> contents) {
+	public AuAppendChild(Page page, Collection<? extends CharSequence> contents) {
 		super("addChd", page, toArray(page.getUuid(), contents));
 	}
 
 	/** Converts the contents (a collection of strings) to an array of JavaScriptValue. */
-	/*package*/ static Object[] toArray(String uuid, Collection<String> contents) {
+	/*package*/ static Object[] toArray(String uuid, Collection<? extends CharSequence> contents) {
 		final List<Object> list = new LinkedList<Object>();
 		list.add(uuid);
 		stringToJS(contents, list);
@@ -63,8 +66,15 @@ public class AuAppendChild extends AuResponse {
 	}
 
 	/** Converts the contents (a collection of strings) to an array of JavaScriptValue. */
-	private static void stringToJS(Collection<String> contents, Collection<Object> result) {
-		for (String content : contents)
-			result.add(new JavaScriptValue(content));
+	private static void stringToJS(Collection<? extends CharSequence> contents, Collection<Object> result) {
+		for (CharSequence content : contents)
+			result.add(toJS(content));
+	}
+
+	/** Converts the content to JavaScriptValue, unless it is a {@link JSONAware}
+	 * already (which is generated directly).
+	 */
+	/*package*/ static Object toJS(CharSequence content) {
+		return content instanceof JSONAware ? content : new JavaScriptValue(content.toString());
 	}
 }
@@ -37,15 +37,16 @@ import org.zkoss.zk.ui.sys.StubsComponent;
 public class AuInsertAfter extends AuResponse {
 	/**
 	 * @param anchor the reference where the component will be added after.
-	 * @param contents a collection of contents (in String objects).
+	 * @param contents a collection of contents (in String objects, or,
+	 * since 10.0.1, other {@link CharSequence}).
 	 * Each content is the output of a component.
 	 * @since 5.0.7
 	 */
-	public AuInsertAfter(Component anchor, Collection<String> contents) {
+	public AuInsertAfter(Component anchor, Collection<? extends CharSequence> contents) {
 		super("addAft", anchor, toArray(anchor, contents));
 	}
 
-	private static Object[] toArray(Component anchor, Collection<String> contents) {
+	private static Object[] toArray(Component anchor, Collection<? extends CharSequence> contents) {
 		if (anchor instanceof Native || anchor instanceof StubsComponent)
 			throw new UiException("Adding a component after native or stubs not allowed: " + anchor);
 
@@ -39,4 +39,22 @@ public class AuOuter extends AuResponse {
 	public AuOuter(Page page, String content) {
 		super("outer", page, new Object[] { page.getUuid(), new JavaScriptValue(content) });
 	}
+
+	/**
+	 * @param content the output of the component. If it is a
+	 * {@link org.zkoss.json.JSONAware}, it is generated directly.
+	 * @since 10.0.1
+	 */
+	public AuOuter(Component comp, CharSequence content) {
+		super("outer", comp, new Object[] { comp, AuAppendChild.toJS(content) });
+	}
+
+	/**
+	 * @param content the output of the page. If it is a
+	 * {@link org.zkoss.json.JSONAware}, it is generated directly.
+	 * @since 10.0.1
+	 */
+	public AuOuter(Page page, CharSequence content) {
+		super("outer", page, new Object[] { page.getUuid(), AuAppendChild.toJS(content) });
+	}
 }
@@ -49,6 +49,7 @@ import org.zkoss.lang.Classes;
 import org.zkoss.lang.Library;
 import org.zkoss.lang.Objects;
 import org.zkoss.lang.Strings;
+import org.zkoss.util.ArrayMap;
 import org.zkoss.util.CollectionsX;
 import org.zkoss.util.Converter;
 import org.zkoss.zk.au.AuRequest;
@@ -84,6 +85,7 @@ import org.zkoss.zk.ui.select.Selectors;
 import org.zkoss.zk.ui.sys.Attributes;
 import org.zkoss.zk.ui.sys.BooleanPropertyAccess;
 import org.zkoss.zk.ui.sys.ComponentCtrl;
+import org.zkoss.zk.ui.sys.ComponentIndex;
 import org.zkoss.zk.ui.sys.ComponentRedraws;
 import org.zkoss.zk.ui.sys.ComponentsCtrl;
 import org.zkoss.zk.ui.sys.ContentRenderer;
@@ -127,6 +129,10 @@ public class AbstractComponent implements Component, ComponentCtrl, java.io.Seri
 	private static int _anonymousId;
 	/** Library property key. */
 	private static final String AUTO_REMOVE_NULL = "org.zkoss.zk.ui.component.autoRemoveNullAttribute.enabled";
+	/** F80 - whether the binding annotation count of a component is counted by its ancestors. */
+	private static final byte BINDING_ANNOT = 0x1;
+	/** F80 - whether a component has binding annotations. */
+	private static final byte BINDING_ANNOT_INFO = 0x2;
 
 	/*package*/ transient Page _page;
 	private String _id = "";
@@ -143,9 +149,13 @@ public class AbstractComponent implements Component, ComponentCtrl, java.io.Seri
 	/** AuxInfo: use a class (rather than multiple member) to save footprint */
 	private AuxInfo _auxinf;
 
-	private Map<String, ShadowElement> _shadowIdMap; //to speed up id only shadow selector
 	/** Whether this component is initialized. */
 	private boolean _initialized;
+	/** F80 - a combination of {@link #BINDING_ANNOT} and {@link #BINDING_ANNOT_INFO}.
+	 * It is not part of {@link AuxInfo}, since {@link #BINDING_ANNOT} is set
+	 * whenever a component is attached.
+	 */
+	private byte _bindingAnnot;
 
 	/** Constructs a component with auto-generated ID.
 	 * @since 3.0.7 (becomes public)
@@ -304,6 +314,9 @@ public class AbstractComponent implements Component, ComponentCtrl, java.io.Seri
 	private static void addToIdSpacesDown(Component comp, IdSpace owner) {
 		if (!(comp instanceof NonFellow) && !isAutoId(comp.getId()))
 			addFellow(comp, owner);
+		final ComponentIndex index = getIndexIfAny(owner);
+		if (index != null)
+			index.add(comp);
 
 		if (!(comp instanceof IdSpace))
 			for (AbstractComponent ac = (AbstractComponent) comp.getFirstChild(); ac != null; ac = ac._next)
@@ -327,6 +340,9 @@ public class AbstractComponent implements Component, ComponentCtrl, java.io.Seri
 	private static void removeFromIdSpacesDown(Component comp, IdSpace owner) {
 		if (!(comp instanceof NonFellow) && !isAutoId(comp.getId()))
 			removeFellow(comp, owner);
+		final ComponentIndex index = getIndexIfAny(owner);
+		if (index != null)
+			index.remove(comp);
 
 		if (!(comp instanceof IdSpace))
 			for (AbstractComponent ac = (AbstractComponent) comp.getFirstChild(); ac != null; ac = ac._next)
@@ -371,6 +387,38 @@ public class AbstractComponent implements Component, ComponentCtrl, java.io.Seri
 		_auxinf.spaceInfo.fellows.remove(compId);
 	}
 
+	/** Returns the index of the given ID space, or null if not queried yet.
+	 */
+	private static ComponentIndex getIndexIfAny(IdSpace owner) {
+		if (owner instanceof Component)
+			return ((AbstractComponent) owner)._auxinf.spaceInfo.index;
+		else if (owner instanceof Page)
+			return ((AbstractPage) owner).getComponentIndexIfAny();
+		return null;
+	}
+
+	/** Adds comp and its descendants to the index, excluding the
+	 * descendants of an ID space owner.
+	 */
+	/*package*/ static void addToIndexDown(Component comp, ComponentIndex index) {
+		index.add(comp);
+		if (!(comp instanceof IdSpace))
+			for (AbstractComponent ac = (AbstractComponent) comp.getFirstChild(); ac != null; ac = ac._next)
+				addToIndexDown(ac, index); //recursive
+	}
+
+	/** Updates the index of the ID space it belongs to, if any, after
+	 * the CSS classes are changed.
+	 */
+	/*package*/ void updateIndexedClasses() {
+		if (!(this instanceof HtmlBasedComponent))
+			return; //never matches a class
+
+		final ComponentIndex index = getIndexIfAny(getSpaceOwnerOfParent(this));
+		if (index != null)
+			index.updateClasses(this);
+	}
+
 	//-- Extra utilities --//
 	/** Returns the UI engine based on {@link #_page}'s getDesktop().
 	 * Don't call this method when _page is null.
@@ -745,6 +793,20 @@ public class AbstractComponent implements Component, ComponentCtrl, java.io.Seri
 		return Collections.emptyList();
 	}
 
+	public ComponentIndex getComponentIndex() {
+		if (!(this instanceof IdSpace))
+			return null;
+
+		final SpaceInfo si = _auxinf.spaceInfo;
+		if (si.index == null) {
+			final ComponentIndex index = new ComponentIndex();
+			for (AbstractComponent ac = (AbstractComponent) getFirstChild(); ac != null; ac = ac._next)
+				addToIndexDown(ac, index);
+			si.index = index;
+		}
+		return si.index;
+	}
+
 	public Component getNextSibling() {
 		return _next;
 	}
@@ -964,7 +1026,7 @@ public class AbstractComponent implements Component, ComponentCtrl, java.io.Seri
 	// Bug ZK-2789: allow null attribute values. If auto remove lib prop is
 	// enabled, then set null attribute value = remove attribute
 	public Object setAttribute(String name, Object value, int scope) {
-		if (value == null && Boolean.parseBoolean(Library.getProperty(AUTO_REMOVE_NULL))) {
+		if (value == null && shallAutoRemove()) {
 			// null value + old method = remove attribute
 			return removeAttribute(name, scope);
 		}
@@ -1025,13 +1087,8 @@ public class AbstractComponent implements Component, ComponentCtrl, java.io.Seri
 		return removeAttribute(name);
 	}
 
-	private Boolean hasInited = null;
-
-	private boolean shallAutoRemove() {
-		if (hasInited == null) {
-			hasInited = Boolean.parseBoolean(Library.getProperty(AUTO_REMOVE_NULL));
-		}
-		return hasInited.booleanValue();
+	private static boolean shallAutoRemove() {
+		return Boolean.parseBoolean(Library.getProperty(AUTO_REMOVE_NULL));
 	}
 
 	public Object getAttributeOrFellow(String name, boolean recurse) {
@@ -2031,6 +2088,8 @@ public class AbstractComponent implements Component, ComponentCtrl, java.io.Seri
 
 	private void processCallback(String name) {
 		Collection<Callback> callbacks = getCallback(name);
+		if (callbacks.isEmpty())
+			return; //don't create AuxInfo (called whenever attached)
 		for (Callback callback : new ArrayList<Callback>(callbacks)) {
 			callback.call(this);
 			removeCallback(name, callback);
@@ -2078,6 +2137,7 @@ public class AbstractComponent implements Component, ComponentCtrl, java.io.Seri
 				throw new UiException("Unknown mold: " + mold + "; allowed: " + _def.getMoldNames());
 			final String oldtype = getWidgetClass();
 			initAuxInfo().mold = mold;
+			updateIndexedClasses(); //zclass might depend on mold
 			if (Objects.equals(oldtype, getWidgetClass()))
 				smartUpdate("mold", getMold());
 			else
@@ -2128,7 +2188,7 @@ public class AbstractComponent implements Component, ComponentCtrl, java.io.Seri
 	}
 
 	public boolean removeCallback(String name, Callback callback) {
-		if (initAuxInfo().callbacks != null) {
+		if (_auxinf != null && _auxinf.callbacks != null) {
 			List<Callback<?>> list = _auxinf.callbacks.get(name);
 			if (list != null)
 				return list.remove(callback);
@@ -2137,7 +2197,7 @@ public class AbstractComponent implements Component, ComponentCtrl, java.io.Seri
 	}
 
 	public Collection<Callback> getCallback(String name) {
-		if (initAuxInfo().callbacks != null) {
+		if (_auxinf != null && _auxinf.callbacks != null) {
 			List<Callback<?>> list = _auxinf.callbacks.get(name);
 			if (list != null)
 				return cast(list);
@@ -2475,7 +2535,7 @@ public class AbstractComponent implements Component, ComponentCtrl, java.io.Seri
 		final boolean oldasap = Events.isListened(this, evtnm, true);
 
 		if (initAuxInfo().listeners == null)
-			_auxinf.listeners = new HashMap<String, List<EventListenerInfo>>(8);
+			_auxinf.listeners = new ArrayMap<String, List<EventListenerInfo>>(2);
 
 		boolean found = false;
 		List<EventListenerInfo> lis = _auxinf.listeners.get(evtnm);
@@ -2591,7 +2651,7 @@ public class AbstractComponent implements Component, ComponentCtrl, java.io.Seri
 			throw new IllegalArgumentException("Illegal event name: " + targetEvent);
 
 		if (initAuxInfo().forwards == null)
-			_auxinf.forwards = new HashMap<String, ForwardInfo>(4);
+			_auxinf.forwards = new ArrayMap<String, ForwardInfo>(2);
 
 		ForwardInfo info = _auxinf.forwards.get(orgEvent);
 		final List<TargetInfo> tis;
@@ -2695,7 +2755,12 @@ public class AbstractComponent implements Component, ComponentCtrl, java.io.Seri
 			throw new IllegalArgumentException("null");
 		if (!compdef.isInstance(this))
 			throw new IllegalArgumentException("Incompatible " + compdef + " for " + this);
+		final ComponentIndex index = getIndexIfAny(getSpaceOwnerOfParent(this));
+		if (index != null)
+			index.remove(this);
 		_def = compdef;
+		if (index != null)
+			index.add(this);
 	}
 
 	public void setDefinition(String name) {
@@ -3258,6 +3323,8 @@ public class AbstractComponent implements Component, ComponentCtrl, java.io.Seri
 	private class SpaceInfo {
 		/** A map of ((String id, Component fellow). */
 		private Map<String, Component> fellows = new HashMap<String, Component>(32);
+		/** The index of the components, or null if not queried yet. */
+		private ComponentIndex index;
 	}
 
 	private class ChildIter implements ListIterator<Component> {
@@ -3660,7 +3727,7 @@ public class AbstractComponent implements Component, ComponentCtrl, java.io.Seri
 		} else {
 			AuxInfo auxinf = initAuxInfo();
 			if (auxinf.templates == null)
-				auxinf.templates = new HashMap<String, Template>(4);
+				auxinf.templates = new ArrayMap<String, Template>(2);
 			return auxinf.templates.put(name, template);
 		}
 	}
@@ -3726,6 +3793,9 @@ public class AbstractComponent implements Component, ComponentCtrl, java.io.Seri
 
 		/** The templates. */
 		private Map<String, Template> templates;
+		/** The shadow elements with ID, if this component is a shadow host.
+		 * To speed up ID only shadow selector. */
+		private Map<String, ShadowElement> shadowIdMap;
 
 		/** Whether this component is stub-only (0: inherit, -1: false, 1: true). */
 		private byte stubonly;
@@ -3737,11 +3807,8 @@ public class AbstractComponent implements Component, ComponentCtrl, java.io.Seri
 		/** Whether this component is visible. */
 		private boolean visible = true;
 		//F80 - store subtree's binder annotation count
-		private boolean hasBindingAnnot = false;
 		private int subAnnotCnt = 0;
 
-		private boolean hasBindingAnnotInfo = false;
-
 		public Object clone() {
 			final AuxInfo clone;
 			try {
@@ -3823,7 +3890,7 @@ public class AbstractComponent implements Component, ComponentCtrl, java.io.Seri
 
 		private void cloneListeners(AbstractComponent owner, AuxInfo clone) {
 			if (listeners != null) {
-				clone.listeners = new HashMap<String, List<EventListenerInfo>>(4);
+				clone.listeners = new ArrayMap<String, List<EventListenerInfo>>(listeners.size());
 				for (Map.Entry<String, List<EventListenerInfo>> me : listeners.entrySet()) {
 					final List<EventListenerInfo> list = new LinkedList<EventListenerInfo>();
 					for (EventListenerInfo li : me.getValue()) {
@@ -4200,8 +4267,8 @@ public class AbstractComponent implements Component, ComponentCtrl, java.io.Seri
 			auxinf.seRoots = new LinkedList<ShadowElement>();
 
 		//ZK-2944: this comp is shadow host, init the map
-		if (_shadowIdMap == null)
-			_shadowIdMap = new HashMap<String, ShadowElement>(4);
+		if (auxinf.shadowIdMap == null)
+			auxinf.shadowIdMap = new HashMap<String, ShadowElement>(4);
 
 		if (!auxinf.seRoots.contains(shadow)) {
 			return auxinf.seRoots.add(shadow);
@@ -4227,7 +4294,7 @@ public class AbstractComponent implements Component, ComponentCtrl, java.io.Seri
 
 	//F80 - store subtree's binder annotation count
 	public boolean hasBindingAnnotation() {
-		return _auxinf != null && _auxinf.hasBindingAnnotInfo;
+		return (_bindingAnnot & BINDING_ANNOT_INFO) != 0;
 	}
 
 	public boolean hasSubBindingAnnotation() {
@@ -4254,9 +4321,8 @@ public class AbstractComponent implements Component, ComponentCtrl, java.io.Seri
 
 	private void initBindingAnnotation() {
 		AuxInfo auxinf = initAuxInfo();
-		auxinf.hasBindingAnnotInfo = true;
 		auxinf.subAnnotCnt = 1;
-		auxinf.hasBindingAnnot = true;
+		_bindingAnnot |= BINDING_ANNOT_INFO | BINDING_ANNOT;
 		updateSubBindingAnnotationCount(1); // init to 1 for itself
 	}
 
@@ -4269,13 +4335,12 @@ public class AbstractComponent implements Component, ComponentCtrl, java.io.Seri
 	}
 
 	private void toggleBindingAnnotationAndUpdateCount(boolean hasBindingAnnot) {
-		AuxInfo auxinf = initAuxInfo();
-		boolean old = auxinf.hasBindingAnnot;
-		if (old != hasBindingAnnot) {
+		if (((_bindingAnnot & BINDING_ANNOT) != 0) != hasBindingAnnot) {
 			int multiply = hasBindingAnnot ? 1 : -1;
-			auxinf.hasBindingAnnot = hasBindingAnnot;
-			if (auxinf.subAnnotCnt > 0) {
-				updateSubBindingAnnotationCount(multiply * auxinf.subAnnotCnt);
+			_bindingAnnot ^= BINDING_ANNOT;
+			//don't create AuxInfo since it is called whenever attached
+			if (_auxinf != null && _auxinf.subAnnotCnt > 0) {
+				updateSubBindingAnnotationCount(multiply * _auxinf.subAnnotCnt);
 			}
 		}
 	}
@@ -4286,17 +4351,17 @@ public class AbstractComponent implements Component, ComponentCtrl, java.io.Seri
 			if (host != null) {
 				String id = comp.getId();
 				AbstractComponent ac = (AbstractComponent) host;
-				if (ac._shadowIdMap != null) {
-					if (ac._shadowIdMap.get(id) != null)
+				if (ac._auxinf != null && ac._auxinf.shadowIdMap != null) {
+					if (ac._auxinf.shadowIdMap.get(id) != null)
 						throw new InternalError("Caller shall prevent duplicated ID for shadow hosts");
-					ac._shadowIdMap.put(id, (ShadowElement) comp);
+					ac._auxinf.shadowIdMap.put(id, (ShadowElement) comp);
 				}
 			}
 		}
 	}
 
 	public ShadowElement getShadowFellowIfAny(String id) {
-		return _shadowIdMap == null ? null : _shadowIdMap.get(id);
+		return _auxinf == null || _auxinf.shadowIdMap == null ? null : _auxinf.shadowIdMap.get(id);
 	}
 
 	/**
@@ -4321,8 +4386,8 @@ public class AbstractComponent implements Component, ComponentCtrl, java.io.Seri
 		if (host != null && comp instanceof ShadowElement) {
 			String id = comp.getId();
 			AbstractComponent ac = (AbstractComponent) host;
-			if (ac._shadowIdMap != null) {
-				ac._shadowIdMap.remove(id);
+			if (ac._auxinf != null && ac._auxinf.shadowIdMap != null) {
+				ac._auxinf.shadowIdMap.remove(id);
 			}
 		}
 	}
@@ -26,6 +26,7 @@ import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.zkoss.zk.ui.sys.ComponentIndex;
 import org.zkoss.zk.ui.sys.PageCtrl;
 
 /**
@@ -47,6 +48,8 @@ public abstract class AbstractPage implements Page, PageCtrl, java.io.Serializab
 	private transient Collection<Component> _roots;
 	/** A map of fellows. */
 	private transient Map<String, Component> _fellows;
+	/** The index of the components, or null if not queried yet. */
+	private transient ComponentIndex _index;
 
 	protected AbstractPage() {
 		initFields();
@@ -127,6 +130,21 @@ public abstract class AbstractPage implements Page, PageCtrl, java.io.Serializab
 		_fellows.remove(comp.getId());
 	}
 
+	public ComponentIndex getComponentIndex() {
+		if (_index == null) {
+			final ComponentIndex index = new ComponentIndex();
+			for (AbstractComponent ac = _firstRoot; ac != null; ac = ac._next)
+				AbstractComponent.addToIndexDown(ac, index);
+			_index = index;
+		}
+		return _index;
+	}
+
+	/** Returns the index of the components, or null if not queried yet. */
+	/*package*/ ComponentIndex getComponentIndexIfAny() {
+		return _index;
+	}
+
 	/*package*/ void addRoot(Component comp) {
 		final AbstractComponent nc = (AbstractComponent) comp;
 		for (AbstractComponent ac = _firstRoot; ac != null; ac = ac._next) {
@@ -236,6 +254,7 @@ public abstract class AbstractPage implements Page, PageCtrl, java.io.Serializab
 		_firstRoot = null;
 		_nRoot = 0;
 		_fellows = new HashMap<String, Component>(2); //not clear() since # of fellows might huge
+		_index = null;
 	}
 
 	private synchronized void writeObject(java.io.ObjectOutputStream s) throws java.io.IOException {
@@ -13,13 +13,13 @@ Copyright (C) 2011 Potix Corporation. All Rights Reserved.
 package org.zkoss.zk.ui;
 
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.slf4j.Logger;
 
 import org.zkoss.io.Serializables;
+import org.zkoss.util.ArrayMap;
 import org.zkoss.zk.ui.event.Event;
 import org.zkoss.zk.ui.event.EventListener;
 import org.zkoss.zk.ui.util.ComponentActivationListener;
@@ -94,7 +94,7 @@ import org.zkoss.zk.ui.util.ComponentSerializationListener;
 				break; //no more
 
 			if (listeners == null)
-				listeners = new HashMap<String, List<EventListenerInfo>>(4);
+				listeners = new ArrayMap<String, List<EventListenerInfo>>(2);
 			final List<EventListenerInfo> ls = Serializables.smartRead(s, (List<EventListenerInfo>) null);
 			//OK to use Serializables.smartRead to read back
 
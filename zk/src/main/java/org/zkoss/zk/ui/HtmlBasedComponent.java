@@ -325,6 +325,7 @@ public abstract class HtmlBasedComponent extends AbstractComponent {
 			zclass = null;
 		if (!Objects.equals(_zclass, zclass)) {
 			_zclass = zclass;
+			updateIndexedClasses();
 			smartUpdate("zclass", _zclass);
 		}
 	}
@@ -356,6 +357,7 @@ public abstract class HtmlBasedComponent extends AbstractComponent {
 			sclass = null;
 		if (!Objects.equals(_auxinf != null ? _auxinf.sclass : null, sclass)) {
 			initAuxInfo0().sclass = sclass;
+			updateIndexedClasses();
 			smartUpdate("sclass", sclass);
 		}
 	}
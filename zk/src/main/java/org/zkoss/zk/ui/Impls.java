@@ -15,7 +15,7 @@ import java.util.regex.Pattern;
 import org.zkoss.lang.Library;
 import org.zkoss.lang.Objects;
 import org.zkoss.util.Cache;
-import org.zkoss.util.FastReadCache;
+import org.zkoss.util.Caches;
 import org.zkoss.util.resource.Location;
 import org.zkoss.zk.ui.annotation.ComponentAnnotation;
 import org.zkoss.zk.ui.metainfo.AnnotationMap;
@@ -96,7 +96,7 @@ import org.zkoss.zk.ui.sys.ExecutionCtrl;
 		return mold;
 	}
 
-	private static transient Cache<String, String> _defMolds = new FastReadCache<String, String>(100,
+	private static transient Cache<String, String> _defMolds = Caches.newReadMostlyCache(100,
 			4 * 60 * 60 * 1000);
 			//cache is required since component's class might be defined in zscript
 
@@ -188,7 +188,7 @@ import org.zkoss.zk.ui.sys.ExecutionCtrl;
 		return null;
 	}
 
-	private static transient Cache<String, Object> _defAnnots = new FastReadCache<String, Object>(100,
+	private static transient Cache<String, Object> _defAnnots = Caches.newReadMostlyCache(100,
 			4 * 60 * 60 * 1000);
 	//cache is required since component's class might be defined in zscript
 
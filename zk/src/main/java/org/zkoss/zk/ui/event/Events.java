@@ -425,8 +425,8 @@ public class Events {
 		if (event == null)
 			return; //done
 
-		final Thread thd = Thread.currentThread();
-		if (!(thd instanceof EventProcessingThread)) {
+		final EventProcessingThread thd = EventProcessor.getCurrentThread();
+		if (thd == null) {
 			if (!desktop.getWebApp().getConfiguration().isEventThreadEnabled()) {
 				final ExecutionCtrl execCtrl = (ExecutionCtrl) exec;
 				final Page page = execCtrl.getCurrentPage();
@@ -446,7 +446,7 @@ public class Events {
 		}
 
 		try {
-			((EventProcessingThread) thd).sendEvent(comp, event);
+			thd.sendEvent(comp, event);
 		} catch (Exception ex) {
 			throw UiException.Aide.wrap(ex);
 		}
@@ -14,14 +14,23 @@ Copyright (C) 2008 Potix Corporation. All Rights Reserved.
 */
 package org.zkoss.zk.ui.event.impl;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.zkoss.lang.Classes;
+import org.zkoss.lang.Library;
 import org.zkoss.lang.Threads;
 import org.zkoss.zk.ui.AbstractComponent;
 import org.zkoss.zk.ui.Component;
@@ -30,14 +39,31 @@ import org.zkoss.zk.ui.DesktopUnavailableException;
 import org.zkoss.zk.ui.Execution;
 import org.zkoss.zk.ui.Executions;
 import org.zkoss.zk.ui.UiException;
+import org.zkoss.zk.ui.WebApp;
 import org.zkoss.zk.ui.event.Event;
 import org.zkoss.zk.ui.event.EventListener;
 import org.zkoss.zk.ui.event.EventQueue;
 import org.zkoss.zk.ui.event.Events;
 import org.zkoss.zk.ui.sys.DesktopCtrl;
+import org.zkoss.zk.ui.util.MetricsRegistry;
+import org.zkoss.zk.ui.util.WebAppCleanup;
 
 /**
  * The default implementation of the desktop-scoped event queue ({@link EventQueue}).
+ *
+ * <p>The asynchronous listeners are invoked by an {@link Executor}.
+ * The invocations of the same queue are serialized, and the callbacks
+ * (and the events published by the asynchronous listeners) of the pending
+ * invocations are handled in a single activation of the desktop.
+ * By default, it is a pool of daemon threads whose size is specified
+ * by the library property called
+ * <code>org.zkoss.zk.ui.event.DesktopEventQueue.maxThreads</code>
+ * (default: 64). To plug another executor, specify the library property
+ * called <code>org.zkoss.zk.ui.event.DesktopEventQueue.executor</code>
+ * with the name of a class implementing {@link Executor}, or
+ * <code>virtual</code> to use a virtual thread per invocation (Java 21
+ * or later). If it fails to load, the default executor is used.
+ * The executor is shut down when the web application is destroyed.
  * @author tomyeh
  * @since 5.0.0
  */
@@ -52,6 +78,8 @@ public class DesktopEventQueue<T extends Event> implements EventQueue<T>, java.i
 	private int _nAsync;
 	private boolean _serverPushEnabled;
 	private boolean _closed;
+	/** The lane to invoke the asynchronous listeners; created when required. */
+	private transient AsyncLane<T> _lane;
 
 	public DesktopEventQueue() {
 		_dummyTarget.addEventListener(ON_QUEUE, new QueueListener());
@@ -68,20 +96,12 @@ public class DesktopEventQueue<T extends Event> implements EventQueue<T>, java.i
 		if (event == null)
 			throw new IllegalArgumentException();
 		if (Executions.getCurrent() == null) {
-			currentThread().postEvent(event);
+			AsyncLane.postEvent(event);
 		} else {
 			Events.postEvent(ON_QUEUE, _dummyTarget, event);
 		}
 	}
 
-	@SuppressWarnings("unchecked")
-	private static final <W extends Event> AsyncListenerThread<W> currentThread() {
-		final Thread thd = Thread.currentThread();
-		if (!(thd instanceof AsyncListenerThread))
-			throw new IllegalStateException("publish() can be called only in an event listener");
-		return (AsyncListenerThread<W>) thd;
-	}
-
 	public void subscribe(EventListener<T> listener) {
 		subscribe(listener, null, false);
 	}
@@ -162,9 +182,11 @@ public class DesktopEventQueue<T extends Event> implements EventQueue<T>, java.i
 			T evt = (T) event.getData();
 			for (Iterator<ListenerInfo<T>> it = new ArrayList<>(_listenerInfos).iterator(); it.hasNext();) {
 				final ListenerInfo<T> inf = it.next();
-				if (inf.async)
-					new AsyncListenerThread<T>(DesktopEventQueue.this, inf, evt).start();
-				else
+				if (inf.async) {
+					if (_lane == null)
+						_lane = new AsyncLane<T>(DesktopEventQueue.this, Executions.getCurrent().getDesktop());
+					_lane.submit(inf, evt);
+				} else
 					inf.listener.onEvent(evt);
 			}
 		}
@@ -189,54 +211,196 @@ public class DesktopEventQueue<T extends Event> implements EventQueue<T>, java.i
 	/** Unlike ServerPushEventQueue, we cannot use Executions.schedule, and
 	 * we have to use a thread and activate/deactivate, since asynchronous listener
 	 * might take too long to execute (that is what it is used for).
+	 *
+	 * <p>At most one task of a lane is running in the executor. It invokes
+	 * the pending listeners one by one, and then activates the desktop once
+	 * to publish the events posted by them and to invoke their callbacks.
 	 */
-	private static class AsyncListenerThread<T extends Event> extends Thread {
+	private static class AsyncLane<T extends Event> implements Runnable {
 		private static final Logger log = DesktopEventQueue.log;
+		/** The events posted by the asynchronous listener being invoked. */
+		private static final ThreadLocal<List<Event>> _posted = new ThreadLocal<List<Event>>();
 
-		/*package*/ final Desktop _desktop;
 		private final EventQueue<T> _que;
-		private final ListenerInfo<T> _inf;
-		private final T _event;
-		private List<T> _pendingEvents;
+		private final Desktop _desktop;
+		/** Pairs of ListenerInfo and the event to invoke. */
+		private final ArrayDeque<Object> _pending = new ArrayDeque<Object>();
+		/** Whether a task of this lane is submitted to the executor. */
+		private boolean _running;
 
-		private AsyncListenerThread(EventQueue<T> que, ListenerInfo<T> inf, T event) {
-			_desktop = Executions.getCurrent().getDesktop();
+		private AsyncLane(EventQueue<T> que, Desktop desktop) {
 			_que = que;
-			_inf = inf;
-			_event = event;
-			Threads.setDaemon(this, true);
+			_desktop = desktop;
 		}
 
-		/*package*/ void postEvent(T event) {
-			if (_pendingEvents == null)
-				_pendingEvents = new LinkedList<T>();
-			_pendingEvents.add(event);
+		/*package*/ static void postEvent(Event event) {
+			final List<Event> posted = _posted.get();
+			if (posted == null)
+				throw new IllegalStateException("publish() can be called only in an event listener");
+			posted.add(event);
+		}
+
+		/*package*/ void submit(ListenerInfo<T> inf, T event) {
+			final int depth;
+			final boolean start;
+			synchronized (this) {
+				_pending.add(inf);
+				_pending.add(event);
+				depth = _pending.size() / 2;
+				start = !_running;
+				_running = true;
+			}
+
+			final MetricsRegistry metrics = _desktop.getWebApp().getConfiguration().getMetricsRegistry();
+			if (metrics != null)
+				metrics.recordValue(MetricsRegistry.EVENT_QUEUE_ASYNC_DEPTH, _desktop, depth);
+
+			if (start) {
+				try {
+					ExecutorHolder.getExecutor().execute(this);
+				} catch (RuntimeException ex) {
+					synchronized (this) {
+						_running = false;
+					}
+					throw ex;
+				}
+			}
 		}
 
+		@SuppressWarnings("unchecked")
 		public void run() {
-			try {
-				_inf.listener.onEvent(_event);
+			for (;;) {
+				final Object[] batch;
+				synchronized (this) {
+					if (_pending.isEmpty()) {
+						_running = false;
+						return;
+					}
+					batch = _pending.toArray();
+					_pending.clear();
+				}
 
-				if (_inf.callback != null || _pendingEvents != null) {
-					Executions.activate(_desktop);
+				final List<Event> posted = new LinkedList<Event>();
+				boolean callback = false;
+				for (int j = 0; j < batch.length; j += 2) {
+					final ListenerInfo<T> inf = (ListenerInfo<T>) batch[j];
+					_posted.set(posted);
 					try {
-						if (_pendingEvents != null)
-							for (T evt : _pendingEvents)
-								_que.publish(evt);
-
-						if (_inf.callback != null)
-							_inf.callback.onEvent(_event);
+						inf.listener.onEvent((T) batch[j + 1]);
+					} catch (Throwable ex) {
+						log.error("", ex);
+						batch[j] = null; //no callback
+						continue;
 					} finally {
-						Executions.deactivate(_desktop);
+						_posted.remove();
+					}
+					callback |= inf.callback != null;
+				}
+
+				if (callback || !posted.isEmpty()) {
+					try {
+						Executions.activate(_desktop);
+						try {
+							for (Event evt : posted)
+								_que.publish((T) evt);
+
+							for (int j = 0; j < batch.length; j += 2) {
+								final ListenerInfo<T> inf = (ListenerInfo<T>) batch[j];
+								if (inf != null && inf.callback != null)
+									try {
+										inf.callback.onEvent((T) batch[j + 1]);
+									} catch (Throwable ex) {
+										log.error("", ex);
+									}
+							}
+						} finally {
+							Executions.deactivate(_desktop);
+						}
+					} catch (DesktopUnavailableException ex) {
+						log.warn("", ex);
+						synchronized (this) {
+							_pending.clear(); //no way to handle them
+						}
+					} catch (Throwable ex) {
+						log.error("", ex);
 					}
 				}
-			} catch (DesktopUnavailableException ex) {
-				log.warn("", ex);
-				//ignore
-			} catch (Throwable ex) {
-				log.error("", ex);
-				throw UiException.Aide.wrap(ex);
 			}
 		}
 	}
+
+	/** Shuts down the executor invoking the asynchronous listeners when
+	 * the web application is about to be destroyed.
+	 * It is registered in <code>metainfo/zk/config.xml</code>.
+	 *
+	 * <p>Used only internally.
+	 * @since 10.0.1
+	 */
+	public static class ExecutorCleanup implements WebAppCleanup {
+		public void cleanup(WebApp wapp) {
+			ExecutorHolder.shutdown();
+		}
+	}
+
+	/** Holds the executor to invoke the asynchronous listeners.
+	 * It is created when the first asynchronous listener is invoked, and
+	 * shut down by {@link ExecutorCleanup}.
+	 */
+	private static class ExecutorHolder {
+		private static volatile Executor _executor;
+
+		private static Executor getExecutor() {
+			Executor executor = _executor;
+			if (executor == null) {
+				synchronized (ExecutorHolder.class) {
+					executor = _executor;
+					if (executor == null)
+						_executor = executor = initExecutor();
+				}
+			}
+			return executor;
+		}
+
+		private static void shutdown() {
+			final Executor executor;
+			synchronized (ExecutorHolder.class) {
+				executor = _executor;
+				_executor = null;
+			}
+			if (executor instanceof ExecutorService)
+				((ExecutorService) executor).shutdown();
+		}
+
+		private static Executor initExecutor() {
+			final String clsnm = Library.getProperty("org.zkoss.zk.ui.event.DesktopEventQueue.executor");
+			if ("virtual".equals(clsnm)) {
+				try {
+					return (Executor) java.util.concurrent.Executors.class
+							.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+				} catch (Throwable ex) {
+					log.warn("Virtual threads not supported; use the default executor instead", ex);
+				}
+			} else if (clsnm != null) {
+				try {
+					final Object o = Classes.newInstanceByThread(clsnm);
+					if (!(o instanceof Executor))
+						throw new UiException(o.getClass().getName() + " must implement " + Executor.class.getName());
+					return (Executor) o;
+				} catch (Throwable ex) {
+					log.error("Unable to load " + clsnm + "; use the default executor instead", ex);
+				}
+			}
+
+			final int maxThreads = Library.getIntProperty("org.zkoss.zk.ui.event.DesktopEventQueue.maxThreads", 64);
+			final AtomicInteger count = new AtomicInteger();
+			final ThreadPoolExecutor pool = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(), task -> {
+						final Thread thd = new Thread(task, "ZK-EventQueue-" + count.incrementAndGet());
+						Threads.setDaemon(thd, true);
+						return thd;
+					});
+			pool.allowCoreThreadTimeOut(true);
+			return pool;
+		}
+	}
 }
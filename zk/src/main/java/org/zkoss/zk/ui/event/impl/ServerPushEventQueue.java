@@ -12,12 +12,20 @@ Copyright (C) 2009 Potix Corporation. All Rights Reserved.
 */
 package org.zkoss.zk.ui.event.impl;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.zkoss.lang.Library;
 import org.zkoss.zk.au.AuRequest;
 import org.zkoss.zk.au.AuService;
 import org.zkoss.zk.ui.Desktop;
@@ -28,10 +36,26 @@ import org.zkoss.zk.ui.event.EventListener;
 import org.zkoss.zk.ui.event.EventQueue;
 import org.zkoss.zk.ui.sys.DesktopCtrl;
 import org.zkoss.zk.ui.util.DesktopCleanup;
+import org.zkoss.zk.ui.util.MetricsRegistry;
 
 /**
  * The default implementation of the server-push based event queue
  * ({@link EventQueue}).
+ *
+ * <p>Publishing an event never waits for the subscribed desktops.
+ * The event is appended to the mailbox of each desktop, and the mailbox
+ * is drained by a single server-push task of the desktop. If a desktop
+ * doesn't drain its mailbox (e.g., the browser is disconnected), the
+ * oldest events are dropped once the number of pending events reaches
+ * the library property called
+ * <code>org.zkoss.zk.ui.event.ServerPushEventQueue.maxPending</code>
+ * (default: 10000; non-positive means no limit).
+ * If the library property called
+ * <code>org.zkoss.zk.ui.event.ServerPushEventQueue.coalesce</code> is true,
+ * an event supersedes the pending event of the same name and target
+ * (default: false).
+ * The pending, dropped and coalesced events are reported to
+ * {@link MetricsRegistry}, if any.
  * 
  * @author tomyeh
  * @since 5.0.0
@@ -39,9 +63,33 @@ import org.zkoss.zk.ui.util.DesktopCleanup;
 public class ServerPushEventQueue<T extends Event> implements EventQueue<T>, java.io.Serializable {
 	private static final Logger log = LoggerFactory.getLogger(ServerPushEventQueue.class);
 
-	/** Map(desktop, DesktopInfo). */
-	private final Map<Desktop, DesktopInfo> _dtInfos = new HashMap<Desktop, DesktopInfo>();
-	private boolean _closed;
+	/** Map(desktop, DesktopInfo).
+	 * Each entry is added and removed in an execution of the desktop. */
+	private final ConcurrentMap<Desktop, DesktopInfo> _dtInfos = new ConcurrentHashMap<Desktop, DesktopInfo>();
+	/** Publishing holds the read lock, so publishers don't wait for each other,
+	 * while removing an entry holds the write lock, so no event is delivered
+	 * to a desktop after it is removed. */
+	private final ReadWriteLock _lock = new ReentrantReadWriteLock();
+	private final int _maxPending;
+	private final boolean _coalesce;
+	private volatile boolean _closed;
+
+	public ServerPushEventQueue() {
+		this(Library.getIntProperty("org.zkoss.zk.ui.event.ServerPushEventQueue.maxPending", 10_000),
+				Boolean.parseBoolean(Library.getProperty("org.zkoss.zk.ui.event.ServerPushEventQueue.coalesce")));
+	}
+
+	/**
+	 * @param maxPending the maximal number of events pending in the mailbox
+	 * of a desktop. If non-positive, there is no limit.
+	 * @param coalesce whether an event supersedes the pending event of the same
+	 * name and target.
+	 * @since 10.0.1
+	 */
+	public ServerPushEventQueue(int maxPending, boolean coalesce) {
+		_maxPending = maxPending;
+		_coalesce = coalesce;
+	}
 
 	/** Publishes an event.
 	 * Unlike {@link DesktopEventQueue}, an event can be published
@@ -51,7 +99,8 @@ public class ServerPushEventQueue<T extends Event> implements EventQueue<T>, jav
 		if (event == null)
 			throw new IllegalArgumentException();
 
-		synchronized (_dtInfos) {
+		_lock.readLock().lock();
+		try {
 			for (DesktopInfo di : _dtInfos.values()) {
 				try {
 					di.publish(event);
@@ -59,6 +108,8 @@ public class ServerPushEventQueue<T extends Event> implements EventQueue<T>, jav
 					log.warn("", ex);
 				}
 			}
+		} finally {
+			_lock.readLock().unlock();
 		}
 	}
 
@@ -82,11 +133,11 @@ public class ServerPushEventQueue<T extends Event> implements EventQueue<T>, jav
 			throw new IllegalStateException("execution required");
 
 		final Desktop desktop = exec.getDesktop();
-		DesktopInfo di;
-		synchronized (_dtInfos) {
-			di = _dtInfos.get(desktop);
-			if (di == null)
-				_dtInfos.put(desktop, di = new DesktopInfo(desktop, new EQService(), new EQCleanup()));
+		DesktopInfo di = _dtInfos.get(desktop);
+		if (di == null) { //no race since it is added only in the desktop's execution
+			di = new DesktopInfo(desktop, new EQService(), new EQCleanup());
+			di.start();
+			_dtInfos.put(desktop, di);
 		}
 		di.subscribe(listener, callback, async);
 	}
@@ -99,11 +150,7 @@ public class ServerPushEventQueue<T extends Event> implements EventQueue<T>, jav
 		if (exec == null)
 			throw new IllegalStateException("execution required");
 
-		final Desktop desktop = exec.getDesktop();
-		final DesktopInfo di;
-		synchronized (_dtInfos) {
-			di = _dtInfos.get(desktop);
-		}
+		final DesktopInfo di = _dtInfos.get(exec.getDesktop());
 		return di != null && di.isSubscribed(listener);
 	}
 
@@ -116,15 +163,11 @@ public class ServerPushEventQueue<T extends Event> implements EventQueue<T>, jav
 			throw new IllegalStateException("execution required");
 
 		final Desktop desktop = exec.getDesktop();
-		synchronized (_dtInfos) {
-			final DesktopInfo di = _dtInfos.get(desktop);
-			if (di != null && di.unsubscribe(listener)) {
-				if (di.isIdle()) {
-					_dtInfos.remove(desktop);
-					di.close();
-				}
-				return true;
-			}
+		final DesktopInfo di = _dtInfos.get(desktop);
+		if (di != null && di.unsubscribe(listener)) {
+			if (di.isIdle() && remove(desktop, di))
+				di.close();
+			return true;
 		}
 		return false;
 	}
@@ -138,14 +181,23 @@ public class ServerPushEventQueue<T extends Event> implements EventQueue<T>, jav
 	}
 
 	private void close(Desktop desktop) {
-		final DesktopInfo di;
-		synchronized (_dtInfos) {
-			di = _dtInfos.remove(desktop);
-		}
-		if (di != null)
+		final DesktopInfo di = _dtInfos.get(desktop);
+		if (di != null && remove(desktop, di))
 			di.close();
 	}
 
+	/** Removes the given entry, after the publishing in progress, if any,
+	 * has completed.
+	 */
+	private boolean remove(Desktop desktop, DesktopInfo di) {
+		_lock.writeLock().lock();
+		try {
+			return _dtInfos.remove(desktop, di);
+		} finally {
+			_lock.writeLock().unlock();
+		}
+	}
+
 	public boolean isClose() {
 		return _closed;
 	}
@@ -153,6 +205,7 @@ public class ServerPushEventQueue<T extends Event> implements EventQueue<T>, jav
 	private class DesktopInfo implements java.io.Serializable {
 		private final Desktop _desktop;
 		private final DesktopEventQueue<T> _que;
+		private final Mailbox<T> _mailbox;
 		private final EQService _service;
 		private final EQCleanup _cleanup;
 		/** Indicates whether the server push is enabled by the event queue. */
@@ -161,15 +214,42 @@ public class ServerPushEventQueue<T extends Event> implements EventQueue<T>, jav
 		private DesktopInfo(Desktop desktop, EQService service, EQCleanup cleanup) {
 			_desktop = desktop;
 			_que = new DesktopEventQueue<T>();
+			_mailbox = new Mailbox<T>(_que);
+			_service = service;
+			_cleanup = cleanup;
+		}
+
+		/** Enables the server push and registers the listeners to the desktop.
+		 * It is called before being added to {@link #_dtInfos}.
+		 */
+		private void start() {
 			_spEnabled = true; // for bug ZK-2702, we always enable it here
-			((DesktopCtrl) desktop).enableServerPush(true, this);
-			desktop.addListener(_service = service);
-			desktop.addListener(_cleanup = cleanup);
+			((DesktopCtrl) _desktop).enableServerPush(true, this);
+			_desktop.addListener(_service);
+			_desktop.addListener(_cleanup);
 			//OK to call addListener since it is the current desktop
 		}
 
 		private void publish(T event) {
-			Executions.schedule(_desktop, new ScheduleListener<T>(_que), event);
+			final int flags = _mailbox.add(event, _maxPending, _coalesce,
+					!((DesktopCtrl) _desktop).scheduledServerPush());
+			if ((flags & Mailbox.SCHEDULE) != 0) {
+				try {
+					Executions.schedule(_desktop, new ScheduleListener<T>(_mailbox), null);
+				} catch (RuntimeException ex) {
+					_mailbox.unschedule();
+					throw ex;
+				}
+			}
+
+			final MetricsRegistry metrics = _desktop.getWebApp().getConfiguration().getMetricsRegistry();
+			if (metrics != null) {
+				metrics.recordValue(MetricsRegistry.EVENT_QUEUE_PENDING, _desktop, _mailbox.size());
+				if ((flags & Mailbox.DROPPED) != 0)
+					metrics.increment(MetricsRegistry.EVENT_QUEUE_DROPPED, _desktop);
+				if ((flags & Mailbox.COALESCED) != 0)
+					metrics.increment(MetricsRegistry.EVENT_QUEUE_COALESCED, _desktop);
+			}
 		}
 
 		private void subscribe(EventListener<T> listener, EventListener<T> callback, boolean async) {
@@ -192,6 +272,7 @@ public class ServerPushEventQueue<T extends Event> implements EventQueue<T>, jav
 		}
 
 		private void close() {
+			_mailbox.clear();
 			_que.close();
 			_desktop.removeListener(_cleanup);
 			_desktop.removeListener(_service);
@@ -212,16 +293,99 @@ public class ServerPushEventQueue<T extends Event> implements EventQueue<T>, jav
 		}
 	}
 
-	private static class ScheduleListener<T extends Event> implements EventListener<T>, java.io.Serializable {
+	/** The events published to a desktop but not delivered yet.
+	 * At most one task is scheduled to drain them, no matter how many
+	 * events are published before the desktop handles the server push.
+	 */
+	private static class Mailbox<T extends Event> implements java.io.Serializable {
+		/** Indicates the caller shall schedule a task to drain the mailbox. */
+		private static final int SCHEDULE = 0x1;
+		/** Indicates the oldest event was dropped. */
+		private static final int DROPPED = 0x2;
+		/** Indicates a pending event was superseded. */
+		private static final int COALESCED = 0x4;
+
 		private final DesktopEventQueue<T> _que;
+		private final ArrayDeque<T> _pending = new ArrayDeque<T>();
+		/** Whether a task is scheduled to drain the mailbox. */
+		private boolean _scheduled;
 
-		private ScheduleListener(DesktopEventQueue<T> queue) {
+		private Mailbox(DesktopEventQueue<T> queue) {
 			_que = queue;
 		}
 
+		/** Adds an event and returns a combination of {@link #SCHEDULE},
+		 * {@link #DROPPED} and {@link #COALESCED}.
+		 * @param lost whether the desktop has no scheduled task, i.e.,
+		 * the task scheduled earlier was discarded if {@link #_scheduled}
+		 */
+		private synchronized int add(T event, int maxPending, boolean coalesce, boolean lost) {
+			int flags = 0;
+			if (coalesce && remove(event.getName(), event.getTarget()))
+				flags |= COALESCED;
+			else if (maxPending > 0 && _pending.size() >= maxPending) {
+				_pending.poll();
+				flags |= DROPPED;
+			}
+			_pending.add(event);
+
+			if (!_scheduled || lost) {
+				_scheduled = true;
+				flags |= SCHEDULE;
+			}
+			return flags;
+		}
+
+		private boolean remove(String name, Object target) {
+			for (Iterator<T> it = _pending.descendingIterator(); it.hasNext();) {
+				final T event = it.next();
+				if (name.equals(event.getName()) && Objects.equals(target, event.getTarget())) {
+					it.remove();
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private synchronized void unschedule() {
+			_scheduled = false;
+		}
+
+		private synchronized int size() {
+			return _pending.size();
+		}
+
+		private synchronized void clear() {
+			_pending.clear();
+		}
+
+		/** Delivers the pending events to the desktop's queue.
+		 * It is called in an execution of the desktop.
+		 */
+		private void drain() {
+			final List<T> events;
+			synchronized (this) {
+				_scheduled = false;
+				if (_pending.isEmpty())
+					return;
+				events = new ArrayList<T>(_pending);
+				_pending.clear();
+			}
+			for (T event : events)
+				if (!_que.isClose()) //just in case
+					_que.publish(event);
+		}
+	}
+
+	private static class ScheduleListener<T extends Event> implements EventListener<T>, java.io.Serializable {
+		private final Mailbox<T> _mailbox;
+
+		private ScheduleListener(Mailbox<T> mailbox) {
+			_mailbox = mailbox;
+		}
+
 		public void onEvent(T event) {
-			if (!_que.isClose()) //just in case
-				_que.publish(event);
+			_mailbox.drain();
 		}
 	}
 
@@ -235,12 +399,7 @@ public class ServerPushEventQueue<T extends Event> implements EventQueue<T>, jav
 
 	private class EQCleanup implements DesktopCleanup, java.io.Serializable {
 		public void cleanup(Desktop desktop) throws Exception {
-			final DesktopInfo di;
-			synchronized (_dtInfos) {
-				di = _dtInfos.remove(desktop);
-			}
-			if (di != null)
-				di.close();
+			close(desktop);
 		}
 	}
 }
@@ -47,6 +47,7 @@ import org.zkoss.lang.Classes;
 import org.zkoss.lang.Exceptions;
 import org.zkoss.lang.Library;
 import org.zkoss.lang.Strings;
+import org.zkoss.util.Locales;
 import org.zkoss.web.servlet.Servlets;
 import org.zkoss.web.servlet.http.Encodes;
 import org.zkoss.web.servlet.http.Https;
@@ -54,6 +55,7 @@ import org.zkoss.web.util.resource.ClassWebResource;
 import org.zkoss.web.util.resource.ExtendletConfig;
 import org.zkoss.web.util.resource.ExtendletContext;
 import org.zkoss.web.util.resource.ExtendletLoader;
+import org.zkoss.web.util.resource.StaticResourceCache;
 import org.zkoss.xml.XMLs;
 import org.zkoss.zk.device.Device;
 import org.zkoss.zk.device.Devices;
@@ -93,6 +95,9 @@ public class WpdExtendlet extends AbstractExtendlet<Object> {
 	public static final String SOURCE_MAP_JAVASCRIPT_PATH = "$zk$sourcemapJsPath"; // for HtmlPageRenders
 	private static final String SOURCE_MAP_DIVIDED_WPDS = "$zk$dividedWPDs";
 	private static final String SOURCE_MAP_DIVIDED_WPDS_NUMBER = "$zk$dividedWPDsNum";
+	/** The request attribute indicating the generated content shall not be
+	 * cached, since it depends on the browser, or it is not cacheable. */
+	private static final String WPD_UNCACHEABLE = "$zk$wpdUncacheable";
 	private ConcurrentMap<String, List<Element>> _dividedWpds = new ConcurrentHashMap<>(1); // store xml node for later parsing (ex. zk1 -> <script> ...)
 	private ConcurrentMap<String, Integer> _dividedPackageCnt = new ConcurrentHashMap<>(1); // store package count for dependency (ex. zul.wgt -> 2)
 	private Set<String> _lastDynamicWpds = ConcurrentHashMap.newKeySet(1); // store last dynamic wpd for not setting loaded
@@ -106,12 +111,35 @@ public class WpdExtendlet extends AbstractExtendlet<Object> {
 
 	public void service(HttpServletRequest request, HttpServletResponse response, String path)
 			throws ServletException, IOException {
+		final boolean compress = _webctx.shallCompress(request, "wpd");
+		final StaticResourceCache cache = getStaticResourceCache(request);
+		final String key = cache != null ? getCacheKey(request, path) : null;
+		if (key != null) {
+			final StaticResourceCache.Entry entry = cache.get(key);
+			if (entry != null) { //generated before, so not to generate again
+				if (org.zkoss.zk.fn.JspFns.setCacheControl(getServletContext(), request, response,
+						"org.zkoss.web.classWebResource.cache", 8760))
+					return; //not modified
+				response.setContentType("text/javascript;charset=UTF-8");
+				StaticResourceCache.write(request, response, entry, compress);
+				response.flushBuffer();
+				return;
+			}
+		}
+
 		byte[] data = retrieve(request, response, path);
 		if (data == null)
 			return;
 
 		response.setContentType("text/javascript;charset=UTF-8");
-		if (_webctx.shallCompress(request, "wpd") && data.length > 200) {
+		if (key != null && request.getAttribute(WPD_UNCACHEABLE) == null) {
+			//compressed once, and 304 if If-None-Match matches
+			StaticResourceCache.write(request, response, cache.put(key, data, compress), compress);
+			response.flushBuffer();
+			return;
+		}
+
+		if (compress && data.length > 200) {
 			byte[] bs = Https.gzip(request, response, null, data);
 			if (bs != null)
 				data = bs; //yes, browser support compress
@@ -121,6 +149,32 @@ public class WpdExtendlet extends AbstractExtendlet<Object> {
 		response.flushBuffer();
 	}
 
+	/** Returns the cache of the generated content, or null if not
+	 * available, or the WPD files shall not be cached
+	 * (by the library property called <code>org.zkoss.zk.WPD.cache</code>).
+	 */
+	private StaticResourceCache getStaticResourceCache(HttpServletRequest request) {
+		if (Servlets.isIncluded(request) || "false".equalsIgnoreCase(Library.getProperty("org.zkoss.zk.WPD.cache"))
+				|| sourceMapEnabled()
+				|| ((ExtendletLoader<?>) _cache.getLoader()).getCheckPeriod() >= 0) //WPD files might be changed
+			return null;
+		final WebManager webman = WebManager.getWebManagerIfAny(getServletContext());
+		return webman != null ? webman.getClassWebResource().getStaticResourceCache() : null;
+	}
+
+	/** Returns the key to cache the generated content of the given path,
+	 * or null if it depends on the request parameters.
+	 * The generated content depends on the locale and the first day of the
+	 * week (by {@link Wpds#outLocaleJavaScript(javax.servlet.ServletRequest, javax.servlet.ServletResponse)}),
+	 * while the content depending on the browser is never cached
+	 * (see {@link #WPD_UNCACHEABLE}).
+	 */
+	private static String getCacheKey(HttpServletRequest request, String path) {
+		if (request.getParameter("main") != null)
+			return null;
+		return "wpd:" + path + ';' + Locales.getCurrent() + ';' + Utils.getFirstDayOfWeek();
+	}
+
 	/** Retrieves the content of the given path.
 	 * @since 5.0.4
 	 */
@@ -227,8 +281,12 @@ public class WpdExtendlet extends AbstractExtendlet<Object> {
 				data = wc.toByteArray(reqctx);
 				pkg = wc.name;
 				cacheable = wc.cacheable;
+				if (wc._browserDependent)
+					request.setAttribute(WPD_UNCACHEABLE, Boolean.TRUE);
 			}
 		}
+		if (!cacheable)
+			request.setAttribute(WPD_UNCACHEABLE, Boolean.TRUE);
 		if (cacheable) {
 			boolean isNotModified = org.zkoss.zk.fn.JspFns.setCacheControl(getServletContext(), request, response, "org.zkoss.web.classWebResource.cache", 8760);
 			if (isNotModified) return null;
@@ -877,6 +935,8 @@ public class WpdExtendlet extends AbstractExtendlet<Object> {
 		private final List<Object> _cnt = new LinkedList<Object>();
 		/** Whether it is cacheable. */
 		private final boolean cacheable;
+		/** Whether any script is loaded only for some browsers. */
+		private boolean _browserDependent;
 
 		private WpdContent(String name, String dir, boolean cacheable) {
 			this.name = name;
@@ -894,6 +954,8 @@ public class WpdExtendlet extends AbstractExtendlet<Object> {
 
 		private void add(String jspath, String browser) {
 			_cnt.add(new String[] { jspath, browser });
+			if (browser != null)
+				_browserDependent = true;
 		}
 
 		private void addHost(WebApp wapp, String clientPackages) {
@@ -0,0 +1,274 @@
+/* ZulCompiler.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 22:34:52 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zk.ui.http;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.servlet.ServletContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.zkoss.io.Files;
+import org.zkoss.zk.ui.WebApp;
+import org.zkoss.zk.ui.metainfo.CompiledPageLoader;
+import org.zkoss.zk.ui.metainfo.PageDefinition;
+import org.zkoss.zk.ui.metainfo.PageDefinitions;
+import org.zkoss.zk.ui.metainfo.Parser;
+
+/**
+ * The command-line tool that compiles the ZUL pages of a Web application
+ * ahead of time, such that they can be loaded by {@link CompiledPageLoader}
+ * without parsing.
+ * <pre><code>java -cp &lt;classpath&gt; org.zkoss.zk.ui.http.ZulCompiler &lt;webapp-dir&gt; [&lt;output-dir&gt;]</code></pre>
+ *
+ * <p>The class path shall include ZK and the classes of the Web application
+ * (used by the pages), and the output directory is, by default,
+ * <code>WEB-INF/zulc</code> of the Web application (see
+ * {@link CompiledPageLoader#getCompiledPath}).
+ * All pages with the extension of <code>zul</code> or <code>zhtml</code>
+ * are compiled. With Gradle, it can be run as part of the build:
+ * <pre><code>tasks.register('compileZul', JavaExec) {
+ *	classpath = sourceSets.main.runtimeClasspath
+ *	mainClass = 'org.zkoss.zk.ui.http.ZulCompiler'
+ *	args 'src/main/webapp'
+ *}</code></pre>
+ *
+ * <p>A page that can't be compiled (such as one loading a zscript file,
+ * which is located at run time) is skipped with a warning, and it will be
+ * parsed at run time as usual. The exit status is non-zero if any page
+ * failed to be parsed.
+ *
+ * <p>The Web application is started without a servlet container, so the
+ * pages are parsed without any request. Notice that the pages are compiled
+ * with the library properties and taglibs of this Web application
+ * (such as <code>WEB-INF/zk.xml</code>).
+ *
+ * @author agent
+ * @since 10.0.1
+ */
+public class ZulCompiler {
+	private static final Logger log = LoggerFactory.getLogger(ZulCompiler.class);
+	private static final Set<String> EXTENSIONS = new HashSet<String>(Arrays.asList("zul", "zhtml"));
+
+	private final File _webdir, _outdir;
+	private final WebApp _wapp;
+	private int _compiled, _skipped, _failed;
+
+	/**
+	 * @param webdir the root directory of the Web application.
+	 * @param wapp the Web application started on webdir.
+	 * @param outdir the directory to store the compiled pages.
+	 */
+	public ZulCompiler(File webdir, WebApp wapp, File outdir) {
+		_webdir = webdir;
+		_wapp = wapp;
+		_outdir = outdir;
+	}
+
+	/** Compiles all pages of the Web application.
+	 * @return the number of pages failed to be parsed.
+	 */
+	public int compileAll() {
+		compileDir(_webdir, "");
+		log.info(_compiled + " pages compiled, " + _skipped + " skipped, " + _failed + " failed");
+		return _failed;
+	}
+
+	private void compileDir(File dir, String path) {
+		final File[] files = dir.listFiles();
+		if (files == null)
+			return;
+		for (File file : files) {
+			final String subpath = path + '/' + file.getName();
+			if (file.isDirectory()) {
+				if (!file.equals(_outdir))
+					compileDir(file, subpath);
+			} else {
+				final String name = file.getName();
+				final int j = name.lastIndexOf('.');
+				if (j >= 0 && EXTENSIONS.contains(name.substring(j + 1).toLowerCase(Locale.ENGLISH)))
+					compile(file, subpath);
+			}
+		}
+	}
+
+	/** Compiles the given page.
+	 * @param path the path of the page, such as <code>/admin/user.zul</code>.
+	 * @return whether it is compiled.
+	 */
+	public boolean compile(File file, String path) {
+		final PageDefinition pgdef;
+		final byte[] source;
+		try {
+			try (InputStream is = new FileInputStream(file)) {
+				source = Files.readAll(is);
+			}
+			pgdef = new Parser(_wapp, PageDefinitions.getLocator(_wapp, path)).parse(file, path);
+		} catch (Throwable ex) {
+			log.error("Failed to parse " + path, ex);
+			++_failed;
+			return false;
+		}
+
+		final File dst = new File(_outdir, path);
+		dst.getParentFile().mkdirs();
+		try {
+			final OutputStream out = new FileOutputStream(dst);
+			try {
+				CompiledPageLoader.write(pgdef, source, CompiledPageLoader.getVersion(_wapp), out);
+			} finally {
+				Files.close(out);
+			}
+		} catch (NotSerializableException ex) {
+			log.warn("Skipped " + path + " since it is not serializable: " + ex.getMessage());
+			dst.delete();
+			++_skipped;
+			return false;
+		} catch (IOException ex) {
+			log.error("Failed to write " + dst, ex);
+			dst.delete();
+			++_failed;
+			return false;
+		}
+		++_compiled;
+		return true;
+	}
+
+	public static void main(String[] args) {
+		if (args.length < 1 || args.length > 2) {
+			System.err.println("Usage: java " + ZulCompiler.class.getName() + " <webapp-dir> [<output-dir>]");
+			System.exit(2);
+		}
+
+		final File webdir = new File(args[0]).getAbsoluteFile();
+		if (!webdir.isDirectory()) {
+			System.err.println("Not a directory: " + webdir);
+			System.exit(2);
+		}
+
+		int status;
+		final ServletContext ctx = newServletContext(webdir);
+		final WebManager webman = new WebManager(ctx, "/zkau");
+		try {
+			final File outdir = args.length > 1 ? new File(args[1]).getAbsoluteFile()
+					: new File(webdir, CompiledPageLoader.getCompiledPath().substring(1));
+			status = new ZulCompiler(webdir, webman.getWebApp(), outdir).compileAll() > 0 ? 1 : 0;
+		} catch (Throwable ex) {
+			log.error("Failed to compile " + webdir, ex);
+			status = 1;
+		} finally {
+			webman.destroy();
+		}
+		System.exit(status); //some timers are not daemon threads
+	}
+
+	/** Returns a servlet context serving the given directory,
+	 * without a servlet container.
+	 */
+	private static ServletContext newServletContext(File webdir) {
+		return (ServletContext) Proxy.newProxyInstance(ZulCompiler.class.getClassLoader(),
+				new Class[] { ServletContext.class }, new ContextHandler(webdir));
+	}
+
+	private static class ContextHandler implements InvocationHandler {
+		private final File _webdir;
+		private final Map<String, Object> _attrs = new ConcurrentHashMap<String, Object>();
+
+		private ContextHandler(File webdir) {
+			_webdir = webdir;
+		}
+
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+			case "getResource": {
+				final File file = getFile((String) args[0]);
+				return file != null ? file.toURI().toURL() : null;
+			}
+			case "getResourceAsStream": {
+				final File file = getFile((String) args[0]);
+				return file != null ? (InputStream) new FileInputStream(file) : null;
+			}
+			case "getRealPath": {
+				final String path = (String) args[0];
+				return path != null ? new File(_webdir, path).getPath() : null;
+			}
+			case "getAttribute":
+				return _attrs.get((String) args[0]);
+			case "setAttribute":
+				if (args[1] != null)
+					_attrs.put((String) args[0], args[1]);
+				else
+					_attrs.remove((String) args[0]);
+				return null;
+			case "removeAttribute":
+				_attrs.remove((String) args[0]);
+				return null;
+			case "getAttributeNames":
+				return Collections.enumeration(_attrs.keySet());
+			case "getInitParameterNames":
+				return Collections.emptyEnumeration();
+			case "getContextPath":
+				return "";
+			case "getServletContextName":
+			case "getServerInfo":
+				return "ZulCompiler";
+			case "getMajorVersion":
+			case "getEffectiveMajorVersion":
+				return 3;
+			case "getMinorVersion":
+			case "getEffectiveMinorVersion":
+				return 0;
+			case "getClassLoader":
+				return Thread.currentThread().getContextClassLoader();
+			case "getContext":
+				return proxy;
+			case "log":
+				log.info(String.valueOf(args[0]));
+				return null;
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "equals":
+				return proxy == args[0];
+			case "toString":
+				return "ZulCompiler[" + _webdir + ']';
+			default:
+				final Class<?> type = method.getReturnType();
+				return type == boolean.class ? Boolean.FALSE : type == int.class ? (Object) 0 : null;
+			}
+		}
+
+		/** Returns the file of the given path, or null if not found. */
+		private File getFile(String path) throws IOException {
+			if (path == null || !path.startsWith("/"))
+				return null;
+			final File file = new File(_webdir, path).getCanonicalFile();
+			return file.exists() && file.getPath().startsWith(_webdir.getCanonicalPath()) ? file : null;
+		}
+	}
+}
@@ -0,0 +1,293 @@
+/* ConcurrentDesktopCache.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 14:40:12 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zk.ui.impl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.zkoss.zk.ui.ComponentNotFoundException;
+import org.zkoss.zk.ui.Desktop;
+import org.zkoss.zk.ui.Session;
+import org.zkoss.zk.ui.sys.DesktopCache;
+import org.zkoss.zk.ui.sys.DesktopCtrl;
+import org.zkoss.zk.ui.util.Configuration;
+
+/**
+ * A {@link DesktopCache} that allows concurrent access without
+ * a global lock.
+ *
+ * <p>Unlike {@link SimpleDesktopCache}, which guards every access with
+ * the monitor of a {@link org.zkoss.util.CacheMap}, desktops are stored in
+ * a {@link ConcurrentHashMap}: looking up a desktop never blocks, and only
+ * records the access time.
+ * Expiry is amortized: each {@link #addDesktop} examines a few desktops
+ * (continuing from where the previous one stopped), and the cleaner timer
+ * examines the rest periodically.
+ * Only one thread sweeps at a time; the others skip rather than wait.
+ * A desktop being served (i.e., having an execution) is never expired.
+ *
+ * <p>To use it, specify {@link ConcurrentDesktopCacheProvider} as the
+ * <code>cache-provider-class</code> in zk.xml.
+ *
+ * @author agent
+ * @since 10.0.1
+ */
+public class ConcurrentDesktopCache implements DesktopCache, java.io.Serializable {
+	private static final Logger log = LoggerFactory.getLogger(ConcurrentDesktopCache.class);
+	private static final long serialVersionUID = 20261018144012L;
+
+	/** The number of desktops examined when adding a desktop. */
+	private static final int SWEEP_PER_ADD = 4;
+	/** The access time is not updated if it was updated within this period (in milliseconds). */
+	private static final long TOUCH_GRANULARITY = 1000;
+
+	private final ConcurrentHashMap<String, Item> _desktops = new ConcurrentHashMap<String, Item>(16);
+	/** The maximal allowed number of desktops. */
+	private final int _maxSize;
+	/** The lifetime, in milliseconds; or a negative value if never expired. */
+	private final long _lifetime;
+	private final AtomicBoolean _expungeDisabled = new AtomicBoolean(false);
+	/** Held by the thread that is sweeping. */
+	private transient ReentrantLock _sweepLock = new ReentrantLock();
+	/** Where the previous sweep stopped. */
+	private transient Iterator<Item> _cursor;
+	private transient Timer _cleaner;
+
+	public ConcurrentDesktopCache(Configuration config) {
+		final int max = config.getSessionMaxDesktops();
+		_maxSize = max >= 0 ? max : Integer.MAX_VALUE;
+		final int secs = config.getDesktopMaxInactiveInterval();
+		_lifetime = secs >= 0 ? secs * 1000L : -1;
+		startCleaner();
+	}
+
+	private void startCleaner() {
+		if (_lifetime >= 0) {
+			final long period = Math.max(_lifetime, 1000);
+			_cleaner = new Timer(true);
+			_cleaner.scheduleAtFixedRate(new CleanerTask(), period, period);
+		}
+	}
+
+	//-- DesktopCache --//
+	public Desktop getDesktopIfAny(String desktopId) {
+		final Item item = _desktops.get(desktopId);
+		if (item == null)
+			return null;
+		item.touch(System.currentTimeMillis());
+		return item.desktop;
+	}
+
+	public Desktop getDesktop(String desktopId) {
+		final Desktop desktop = getDesktopIfAny(desktopId);
+		if (desktop == null)
+			throw new ComponentNotFoundException("Desktop not found: " + desktopId);
+		return desktop;
+	}
+
+	public void addDesktop(Desktop desktop) {
+		final Item old = _desktops.putIfAbsent(desktop.getId(), new Item(desktop, System.currentTimeMillis()));
+		if (old != null) {
+			if (log.isWarnEnabled()) {
+				log.warn(desktop == old.desktop ? "Register a desktop twice: " + desktop
+						: "Replicated ID: " + desktop + "; already used by " + old.desktop);
+			}
+			return;
+		}
+		expunge(SWEEP_PER_ADD);
+	}
+
+	public void removeDesktop(Desktop desktop) {
+		final Item old = _desktops.remove(desktop.getId());
+		if (old == null)
+			log.warn("Removing non-existent desktop: " + desktop);
+		else
+			SimpleDesktopCache.desktopDestroyed(desktop);
+	}
+
+	/** Invokes {@link DesktopCtrl#sessionWillPassivate} for each
+	 * desktops it cached.
+	 */
+	public void sessionWillPassivate(Session sess) {
+		final boolean old = _expungeDisabled.getAndSet(true);
+		try {
+			for (Item item : new ArrayList<Item>(_desktops.values()))
+				((DesktopCtrl) item.desktop).sessionWillPassivate(sess);
+		} finally {
+			_expungeDisabled.set(old);
+		}
+	}
+
+	/** Invokes {@link DesktopCtrl#sessionDidActivate} for each
+	 * desktops it cached.
+	 */
+	public void sessionDidActivate(Session sess) {
+		final boolean old = _expungeDisabled.getAndSet(true);
+		try {
+			final long now = System.currentTimeMillis();
+			for (Item item : new ArrayList<Item>(_desktops.values())) {
+				item.touch(now); //not to expire them due to the time passivated
+				((DesktopCtrl) item.desktop).sessionDidActivate(sess);
+			}
+			if (_cleaner == null)
+				startCleaner();
+		} finally {
+			_expungeDisabled.set(old);
+		}
+	}
+
+	public void stop() {
+		if (log.isDebugEnabled())
+			log.debug("Invalidated and remove: " + _desktops.keySet());
+		if (_cleaner != null) {
+			_cleaner.cancel();
+			_cleaner = null;
+		}
+
+		_expungeDisabled.set(true);
+		try {
+			for (Iterator<Item> it = _desktops.values().iterator(); it.hasNext();) {
+				final Item item = it.next();
+				it.remove();
+				SimpleDesktopCache.desktopDestroyed(item.desktop);
+			}
+		} finally {
+			_expungeDisabled.set(false);
+		}
+	}
+
+	/** Examines up to the given number of desktops for expiry, and,
+	 * if there are too many desktops, removes the least recently accessed ones.
+	 * It returns immediately if another thread is sweeping.
+	 * @param max the maximal number of desktops to examine for expiry.
+	 * A negative value means all.
+	 */
+	private void expunge(int max) {
+		if (_expungeDisabled.get() || !_sweepLock.tryLock())
+			return;
+
+		final List<Desktop> expunged = new ArrayList<Desktop>(2);
+		try {
+			if (_lifetime >= 0) {
+				final long expired = System.currentTimeMillis() - _lifetime;
+				if (max < 0) {
+					for (Item item : _desktops.values())
+						if (item.lastAccess < expired && tryRemove(item, expired))
+							expunged.add(item.desktop);
+					_cursor = null;
+				} else {
+					for (int j = 0; j < max; ++j) {
+						if (_cursor == null || !_cursor.hasNext()) {
+							_cursor = _desktops.values().iterator();
+							if (!_cursor.hasNext())
+								break;
+						}
+						final Item item = _cursor.next();
+						if (item.lastAccess < expired && tryRemove(item, expired))
+							expunged.add(item.desktop);
+					}
+				}
+			}
+
+			//the bound is rarely exceeded, so a full scan is acceptable
+			while (_desktops.size() > _maxSize) {
+				Item oldest = null;
+				for (Item item : _desktops.values())
+					if (item.desktop.getExecution() == null && (oldest == null || item.lastAccess < oldest.lastAccess))
+						oldest = item;
+				if (oldest == null || !tryRemove(oldest, oldest.lastAccess + 1))
+					break; //all in use or touched by others
+				expunged.add(oldest.desktop);
+			}
+		} finally {
+			_sweepLock.unlock();
+		}
+
+		for (Desktop desktop : expunged) {
+			if (log.isDebugEnabled())
+				log.debug("Expunge desktop: " + desktop);
+			try {
+				SimpleDesktopCache.desktopDestroyed(desktop);
+			} catch (Throwable ex) {
+				log.warn("Failed to destroy " + desktop, ex);
+			}
+		}
+	}
+
+	/** Removes the item if it is not being served and not accessed
+	 * since the given time.
+	 * The check and the removal are done atomically, so the desktop never
+	 * disappears from the cache temporarily.
+	 */
+	private boolean tryRemove(Item item, long before) {
+		final boolean[] removed = new boolean[1];
+		_desktops.computeIfPresent(item.desktop.getId(), (id, cur) -> {
+			if (cur != item || item.lastAccess >= before || item.desktop.getExecution() != null)
+				return cur; //replaced, accessed or being served
+			removed[0] = true;
+			return null;
+		});
+		return removed[0];
+	}
+
+	private void readObject(java.io.ObjectInputStream s) throws java.io.IOException, ClassNotFoundException {
+		s.defaultReadObject();
+		_sweepLock = new ReentrantLock();
+		_expungeDisabled.set(false);
+		//_cleaner is started in sessionDidActivate
+	}
+
+	private void writeObject(java.io.ObjectOutputStream s) throws java.io.IOException {
+		final boolean old = _expungeDisabled.getAndSet(true);
+		try {
+			s.defaultWriteObject();
+		} finally {
+			_expungeDisabled.set(old);
+		}
+	}
+
+	/** A desktop and its last access time. */
+	private static class Item implements java.io.Serializable {
+		private static final long serialVersionUID = 20261018144012L;
+		private final Desktop desktop;
+		private volatile long lastAccess;
+
+		private Item(Desktop desktop, long now) {
+			this.desktop = desktop;
+			this.lastAccess = now;
+		}
+
+		private void touch(long now) {
+			if (now - lastAccess >= TOUCH_GRANULARITY) //reduce writes to a shared field
+				lastAccess = now;
+		}
+	}
+
+	private class CleanerTask extends TimerTask {
+		public void run() {
+			try {
+				expunge(-1);
+			} catch (Throwable ex) {
+				log.warn("Failed to expunge desktops", ex);
+			}
+		}
+	}
+}
@@ -0,0 +1,39 @@
+/* ConcurrentDesktopCacheProvider.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 15:05:48 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zk.ui.impl;
+
+import org.zkoss.zk.ui.sys.DesktopCache;
+import org.zkoss.zk.ui.util.Configuration;
+
+/**
+ * A {@link SessionDesktopCacheProvider} that stores the desktops of
+ * a session in a {@link ConcurrentDesktopCache}, so looking up
+ * desktops of the same session (such as multiple browser tabs with
+ * server push) doesn't contend a monitor.
+ *
+ * <p>To use it, specify the following in zk.xml:
+ * <pre><code>&lt;system-config&gt;
+ *  &lt;cache-provider-class&gt;org.zkoss.zk.ui.impl.ConcurrentDesktopCacheProvider&lt;/cache-provider-class&gt;
+ *&lt;/system-config&gt;</code></pre>
+ *
+ * <p>To store all desktops of a Web application in one concurrent cache,
+ * extend {@link GlobalDesktopCacheProvider} and override its
+ * {@link GlobalDesktopCacheProvider#newDesktopCache}.
+ *
+ * @author agent
+ * @since 10.0.1
+ */
+public class ConcurrentDesktopCacheProvider extends SessionDesktopCacheProvider {
+	protected DesktopCache newDesktopCache(Configuration config) {
+		return new ConcurrentDesktopCache(config);
+	}
+}
@@ -226,6 +226,12 @@ public class DesktopImpl implements Desktop, DesktopCtrl, java.io.Serializable {
 	private transient List<AuResponse> _piggyRes;
 	/** A set of keys that shall be generated to the client only once per desktop. */
 	private transient Set<String> _clientPerDesktops;
+	/** Whether it is changed since the last call of {@link #clearDirty}.
+	 * A new desktop is always dirty; a deserialized one is not.
+	 */
+	private transient volatile boolean _dirty = true;
+	/** The UUIDs of the changed components; null if not tracked yet. */
+	private transient volatile Set<String> _dirtyComps;
 
 	private static final int MAX_RESPONSE_ID = 999;
 	/** The response sequence ID. */
@@ -866,6 +872,27 @@ public class DesktopImpl implements Desktop, DesktopCtrl, java.io.Serializable {
 		return _uvLock;
 	}
 
+	public void markDirty(String uuid) {
+		_dirty = true;
+		final Set<String> dirtyComps = _dirtyComps;
+		if (uuid != null && dirtyComps != null)
+			dirtyComps.add(uuid);
+	}
+
+	public boolean isDirty() {
+		return _dirty;
+	}
+
+	public Set<String> getDirtyComponents() {
+		final Set<String> dirtyComps = _dirtyComps;
+		return dirtyComps != null ? Collections.unmodifiableSet(dirtyComps) : Collections.<String> emptySet();
+	}
+
+	public void clearDirty() {
+		_dirty = false;
+		_dirtyComps = ConcurrentHashMap.newKeySet();
+	}
+
 	public int getNextKey() {
 		return _nextKey++;
 	}
@@ -914,6 +941,7 @@ public class DesktopImpl implements Desktop, DesktopCtrl, java.io.Serializable {
 			if (log.isDebugEnabled())
 				log.debug("After added, pages: {}", _pages);
 		}
+		markDirty(null);
 		afterPageAttached(page, this);
 		_wapp.getConfiguration().afterPageAttached(page, this);
 	}
@@ -0,0 +1,63 @@
+/* EventProcessingThreadCtrl.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 13:20:05 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zk.ui.impl;
+
+import org.zkoss.zk.ui.Component;
+import org.zkoss.zk.ui.Desktop;
+import org.zkoss.zk.ui.event.Event;
+import org.zkoss.zk.ui.sys.EventProcessingThread;
+
+/**
+ * The methods of an event processing thread that {@link UiEngineImpl}
+ * uses to process, suspend and resume events.
+ * It is implemented by {@link EventProcessingThreadImpl} and
+ * {@link VirtualEventProcessingThreadImpl}.
+ *
+ * @author agent
+ * @since 10.0.1
+ */
+/*package*/ interface EventProcessingThreadCtrl extends EventProcessingThread {
+	/** Asks this event thread to process the specified event.
+	 * @return whether the event has been processed completely or just be suspended.
+	 * Recycle it only if true is returned.
+	 * @see EventProcessingThreadImpl#processEvent
+	 */
+	public boolean processEvent(Desktop desktop, Component comp, Event event);
+
+	/** Resumes this thread and returns only if the execution completes
+	 * or suspends again.
+	 * It executes in the main thread (i.e., the servlet thread).
+	 * @return whether the event has been processed completely or just be suspended
+	 * @see EventProcessingThreadImpl#doResume
+	 */
+	public boolean doResume() throws InterruptedException;
+
+	/** Suspends this thread until {@link #doResume} is called.
+	 * It must be called in this thread.
+	 * @see EventProcessingThreadImpl#doSuspend
+	 */
+	public void suspendEvent(Object mutex) throws InterruptedException;
+
+	/** Invokes {@link org.zkoss.zk.ui.util.Configuration#newEventThreadSuspends}.
+	 * It must be called in this thread before {@link #suspendEvent}.
+	 */
+	public void newEventThreadSuspends(Object mutex);
+
+	/** Stops the thread.
+	 * @param cause a human readable text describing the cause.
+	 */
+	public void cease(String cause);
+
+	/** Stops the thread silently.
+	 */
+	public void ceaseSilently(String cause);
+}
@@ -38,7 +38,6 @@ import org.zkoss.zk.ui.event.EventThreadCleanup;
 import org.zkoss.zk.ui.event.EventThreadInit;
 import org.zkoss.zk.ui.event.EventThreadResume;
 import org.zkoss.zk.ui.event.EventThreadSuspend;
-import org.zkoss.zk.ui.sys.EventProcessingThread;
 import org.zkoss.zk.ui.sys.ExecutionCtrl;
 import org.zkoss.zk.ui.util.Configuration;
 import org.zkoss.zk.ui.util.ExecutionMonitor;
@@ -50,7 +49,7 @@ import org.zkoss.zk.ui.util.ExecutionMonitor;
  * 
  * @author tomyeh
  */
-public class EventProcessingThreadImpl extends Thread implements EventProcessingThread {
+public class EventProcessingThreadImpl extends Thread implements EventProcessingThreadCtrl {
 	private static final Logger log = LoggerFactory.getLogger(EventProcessingThreadImpl.class);
 
 	/** The processor. */
@@ -196,6 +195,17 @@ public class EventProcessingThreadImpl extends Thread implements EventProcessing
 		((EventProcessingThreadImpl) Thread.currentThread()).doSuspend0(mutex);
 	}
 
+	/** Suspends this thread and waits until {@link #doResume} is called.
+	 * It is the same as {@link #doSuspend}, except it is called against
+	 * this thread (which must be the current thread).
+	 * @since 10.0.1
+	 */
+	public void suspendEvent(Object mutex) throws InterruptedException {
+		if (!this.equals(Thread.currentThread()))
+			throw new IllegalStateException("Only callable in the event thread");
+		doSuspend0(mutex);
+	}
+
 	private void doSuspend0(Object mutex) throws InterruptedException {
 		//		if (log.finerable()) log.finer("Suspend event processing; "+_proc);
 		if (mutex == null)
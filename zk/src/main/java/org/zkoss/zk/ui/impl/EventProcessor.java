@@ -58,7 +58,21 @@ public class EventProcessor {
 	/** Returns whether the current thread is an event listener.
 	 */
 	public static final boolean inEventListener() {
-		return (Thread.currentThread() instanceof EventProcessingThread) || (_inEvt != null && _inEvt.get() != null); //used if event thread is disabled
+		return getCurrentThread() != null || (_inEvt != null && _inEvt.get() != null); //used if event thread is disabled
+	}
+
+	/** Returns the event processing thread that the current thread is
+	 * running, or null if it is not running an event processing thread
+	 * (such as the event thread is disabled).
+	 * <p>Unlike {@link EventProcessingThreadImpl}, a
+	 * {@link VirtualEventProcessingThreadImpl} is not the current thread itself.
+	 * @since 10.0.1
+	 */
+	public static final EventProcessingThread getCurrentThread() {
+		final Thread thd = Thread.currentThread();
+		if (thd instanceof EventProcessingThread)
+			return (EventProcessingThread) thd;
+		return VirtualEventProcessingThreadImpl.getCurrent();
 	}
 
 	/** Sets whether the current thread is an event listener.
@@ -22,6 +22,7 @@ import org.zkoss.zk.ui.Session;
 import org.zkoss.zk.ui.WebApp;
 import org.zkoss.zk.ui.sys.DesktopCache;
 import org.zkoss.zk.ui.sys.DesktopCacheProvider;
+import org.zkoss.zk.ui.util.Configuration;
 
 /**
  * A implementation of {@link DesktopCacheProvider} that stores all
@@ -45,7 +46,7 @@ public class GlobalDesktopCacheProvider implements DesktopCacheProvider, Seriali
 			synchronized (this) {
 				dc = (DesktopCache) wapp.getAttribute(ATTR_CACHE);
 				if (dc == null) {
-					dc = new SimpleDesktopCache(sess.getWebApp().getConfiguration());
+					dc = newDesktopCache(sess.getWebApp().getConfiguration());
 					wapp.setAttribute(ATTR_CACHE, dc);
 				}
 			}
@@ -53,6 +54,16 @@ public class GlobalDesktopCacheProvider implements DesktopCacheProvider, Seriali
 		return dc;
 	}
 
+	/** Creates a desktop cache.
+	 * <p>Default: {@link SimpleDesktopCache}.
+	 * Override it if you prefer another implementation, such as
+	 * {@link ConcurrentDesktopCache}.
+	 * @since 10.0.1
+	 */
+	protected DesktopCache newDesktopCache(Configuration config) {
+		return new SimpleDesktopCache(config);
+	}
+
 	public void sessionDestroyed(Session sess) {
 		//ignore it
 	}
@@ -0,0 +1,148 @@
+/* RedrawBuffer.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 21:31:47 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zk.ui.impl;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.Writer;
+import java.util.Arrays;
+
+import org.zkoss.json.JSONStreamAware;
+import org.zkoss.json.JavaScriptValue;
+import org.zkoss.zk.ui.Component;
+import org.zkoss.zk.ui.Page;
+import org.zkoss.zk.ui.sys.ComponentCtrl;
+import org.zkoss.zk.ui.sys.PageCtrl;
+
+/**
+ * The buffer that {@link UiVisualizer} redraws the components of
+ * an execution into.
+ * All components are redrawn into the same (growing) array, and the output
+ * of each of them is a {@link Content} referencing a segment of it,
+ * rather than a string copied from a {@link java.io.StringWriter}.
+ * The segment is written to the AU writer directly
+ * (see {@link JSONStreamAware}).
+ *
+ * <p>It is not thread-safe; it is used by one execution only.
+ *
+ * @author agent
+ * @since 10.0.1
+ */
+/*package*/ final class RedrawBuffer extends Writer {
+	private static final char[] EMPTY = new char[0];
+	private static final int INITIAL_SIZE = 1024 * 8;
+
+	/** The buffer; allocated when the first component is redrawn. */
+	private char[] _buf = EMPTY;
+	private int _count;
+
+	/** Redraws the given component, and returns the output. */
+	/*package*/ Content redraw(Component comp) throws IOException {
+		final int start = _count;
+		((ComponentCtrl) comp).redraw(this);
+		return new Content(this, start, _count);
+	}
+
+	/** Redraws the given page, and returns the output. */
+	/*package*/ Content redraw(Page page) throws IOException {
+		final int start = _count;
+		((PageCtrl) page).redraw(this);
+		return new Content(this, start, _count);
+	}
+
+	private void ensureCapacity(int len) {
+		final int min = _count + len;
+		if (min > _buf.length)
+			_buf = Arrays.copyOf(_buf, Math.max(Math.max(_buf.length << 1, INITIAL_SIZE), min));
+	}
+
+	//Writer//
+	public void write(int c) {
+		ensureCapacity(1);
+		_buf[_count++] = (char) c;
+	}
+
+	public void write(char[] cbuf, int off, int len) {
+		ensureCapacity(len);
+		System.arraycopy(cbuf, off, _buf, _count, len);
+		_count += len;
+	}
+
+	public void write(String str, int off, int len) {
+		ensureCapacity(len);
+		str.getChars(off, off + len, _buf, _count);
+		_count += len;
+	}
+
+	public void flush() {
+	}
+
+	public void close() {
+	}
+
+	/** The output of a component (or a page), i.e., a segment of
+	 * {@link RedrawBuffer}.
+	 * It is immutable since the buffer is only appended.
+	 * When serialized, it is replaced with a {@link JavaScriptValue}.
+	 */
+	/*package*/ static final class Content implements CharSequence, JSONStreamAware, Serializable {
+		private final transient RedrawBuffer _owner;
+		private final int _start, _end;
+		private transient String _str;
+
+		private Content(RedrawBuffer owner, int start, int end) {
+			_owner = owner;
+			_start = start;
+			_end = end;
+		}
+
+		//CharSequence//
+		public int length() {
+			return _end - _start;
+		}
+
+		public char charAt(int index) {
+			if (index < 0 || index >= length())
+				throw new IndexOutOfBoundsException("index: " + index);
+			return _owner._buf[_start + index];
+		}
+
+		public CharSequence subSequence(int start, int end) {
+			if (start < 0 || start > end || end > length())
+				throw new IndexOutOfBoundsException("start: " + start + ", end: " + end);
+			return new Content(_owner, _start + start, _start + end);
+		}
+
+		//JSONStreamAware//
+		public void writeJSONString(Writer out) throws IOException {
+			if (_str != null)
+				out.write(_str);
+			else
+				out.write(_owner._buf, _start, _end - _start);
+		}
+
+		public String toJSONString() {
+			return toString();
+		}
+
+		//Object//
+		public String toString() {
+			if (_str == null)
+				_str = new String(_owner._buf, _start, _end - _start);
+			return _str;
+		}
+
+		private Object writeReplace() {
+			return new JavaScriptValue(toString());
+		}
+	}
+}
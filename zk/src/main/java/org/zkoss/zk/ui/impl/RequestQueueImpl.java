@@ -31,6 +31,7 @@ import org.zkoss.zk.ui.ComponentNotFoundException;
 import org.zkoss.zk.ui.Desktop;
 import org.zkoss.zk.ui.Page;
 import org.zkoss.zk.ui.sys.RequestQueue;
+import org.zkoss.zk.ui.util.MetricsRegistry;
 
 /**
  * An implementation of {@link RequestQueue} behaving as
@@ -106,6 +107,14 @@ public class RequestQueueImpl implements RequestQueue {
 					log.debug("Ignore request: " + ex.getMessage());
 			}
 		}
+
+		if (!requests.isEmpty()) {
+			final Desktop desktop = requests.iterator().next().getDesktop();
+			final MetricsRegistry metrics = desktop != null
+					? desktop.getWebApp().getConfiguration().getMetricsRegistry() : null;
+			if (metrics != null)
+				metrics.recordValue(MetricsRegistry.REQUEST_QUEUE_DEPTH, desktop, _requests.size());
+		}
 	}
 
 	private void addRequest(AuRequest request) {
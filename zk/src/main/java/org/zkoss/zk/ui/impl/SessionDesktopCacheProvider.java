@@ -21,6 +21,7 @@ import org.zkoss.zk.ui.WebApp;
 import org.zkoss.zk.ui.sys.DesktopCache;
 import org.zkoss.zk.ui.sys.DesktopCacheProvider;
 import org.zkoss.zk.ui.sys.SessionCtrl;
+import org.zkoss.zk.ui.util.Configuration;
 
 /**
  * A implementation of {@link DesktopCacheProvider} that stores all desktops
@@ -44,7 +45,7 @@ public class SessionDesktopCacheProvider implements DesktopCacheProvider {
 			synchronized (this) {
 				dc = sessCtrl.getDesktopCache();
 				if (dc == null) {
-					dc = new SimpleDesktopCache(_wapp.getConfiguration());
+					dc = newDesktopCache(_wapp.getConfiguration());
 					sessCtrl.setDesktopCache(dc);
 				}
 			}
@@ -52,6 +53,16 @@ public class SessionDesktopCacheProvider implements DesktopCacheProvider {
 		return dc;
 	}
 
+	/** Creates a desktop cache.
+	 * <p>Default: {@link SimpleDesktopCache}.
+	 * Override it if you prefer another implementation, such as
+	 * {@link ConcurrentDesktopCache}.
+	 * @since 10.0.1
+	 */
+	protected DesktopCache newDesktopCache(Configuration config) {
+		return new SimpleDesktopCache(config);
+	}
+
 	public void sessionDestroyed(Session sess) {
 		final SessionCtrl sessCtrl = (SessionCtrl) sess;
 		final DesktopCache dc = sessCtrl.getDesktopCache();
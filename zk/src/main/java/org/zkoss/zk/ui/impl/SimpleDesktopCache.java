@@ -124,7 +124,7 @@ public class SimpleDesktopCache implements DesktopCache, java.io.Serializable {
 		}
 	}
 
-	private static void desktopDestroyed(Desktop desktop) {
+	/*package*/ static void desktopDestroyed(Desktop desktop) {
 		final Session sess = desktop.getSession();
 		final Execution exec = new ExecutionImpl(desktop.getWebApp().getServletContext(), null, null, desktop, null);
 		final DesktopCtrl desktopCtrl = (DesktopCtrl) desktop;
@@ -15,12 +15,12 @@ it will be useful, but WITHOUT ANY WARRANTY.
 package org.zkoss.zk.ui.impl;
 
 import java.util.AbstractSet;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.zkoss.util.ArrayMap;
 import org.zkoss.zk.ui.Component;
 import org.zkoss.zk.ui.IdSpace;
 import org.zkoss.zk.ui.ext.Scope;
@@ -151,7 +151,7 @@ public class SimpleScope implements Scope {
 	public SimpleScope clone(Scope owner) {
 		final SimpleScope clone = new SimpleScope(owner);
 		if (_attrs != null) {
-			clone._attrs = new HashMap<String, Object>();
+			clone._attrs = new ArrayMap<String, Object>(_attrs.size());
 			for (Map.Entry<String, Object> me : _attrs.entrySet()) {
 				Object val = me.getValue();
 				if (val instanceof ComponentCloneListener && owner instanceof Component) {
@@ -180,7 +180,7 @@ public class SimpleScope implements Scope {
 	}
 
 	//Helper Class//
-	private class Attrs extends HashMap<String, Object> {
+	private class Attrs extends ArrayMap<String, Object> {
 		public Attrs(int initialCapacity) {
 			super(initialCapacity);
 		}
@@ -117,6 +117,7 @@ import org.zkoss.zk.ui.util.Configuration;
 import org.zkoss.zk.ui.util.ExecutionMonitor;
 import org.zkoss.zk.ui.util.ForEach;
 import org.zkoss.zk.ui.util.FullComposer;
+import org.zkoss.zk.ui.util.MetricsRegistry;
 import org.zkoss.zk.ui.util.Monitor;
 import org.zkoss.zk.ui.util.PerformanceMeter;
 import org.zkoss.zk.ui.util.Template;
@@ -133,16 +134,16 @@ public class UiEngineImpl implements UiEngine {
 
 	/** The Web application this engine belongs to. */
 	private WebApp _wapp;
-	/** A pool of idle EventProcessingThreadImpl. */
-	private final List<EventProcessingThreadImpl> _idles = new LinkedList<EventProcessingThreadImpl>();
+	/** A pool of idle event processing threads. */
+	private final List<EventProcessingThreadCtrl> _idles = new LinkedList<EventProcessingThreadCtrl>();
 	/** A map of suspended processing:
-	 * (Desktop desktop, IdentityHashMap(Object mutex, List(EventProcessingThreadImpl)).
+	 * (Desktop desktop, IdentityHashMap(Object mutex, List(EventProcessingThreadCtrl)).
 	 */
-	private final Map<Desktop, Map<Object, List<EventProcessingThreadImpl>>> _suspended = new HashMap<Desktop, Map<Object, List<EventProcessingThreadImpl>>>();
+	private final Map<Desktop, Map<Object, List<EventProcessingThreadCtrl>>> _suspended = new HashMap<Desktop, Map<Object, List<EventProcessingThreadCtrl>>>();
 	/** A map of resumed processing
-	 * (Desktop desktop, List(EventProcessingThreadImpl)).
+	 * (Desktop desktop, List(EventProcessingThreadCtrl)).
 	 */
-	private final Map<Desktop, List<EventProcessingThreadImpl>> _resumed = new HashMap<Desktop, List<EventProcessingThreadImpl>>();
+	private final Map<Desktop, List<EventProcessingThreadCtrl>> _resumed = new HashMap<Desktop, List<EventProcessingThreadCtrl>>();
 	/** # of suspended event processing threads.
 	 */
 	private int _suspCnt;
@@ -157,16 +158,16 @@ public class UiEngineImpl implements UiEngine {
 
 	public void stop(WebApp wapp) {
 		synchronized (_idles) {
-			for (EventProcessingThreadImpl thread : _idles)
+			for (EventProcessingThreadCtrl thread : _idles)
 				thread.cease("Stop application");
 			_idles.clear();
 		}
 
 		synchronized (_suspended) {
-			for (Map<Object, List<EventProcessingThreadImpl>> map : _suspended.values()) {
+			for (Map<Object, List<EventProcessingThreadCtrl>> map : _suspended.values()) {
 				synchronized (map) {
-					for (List<EventProcessingThreadImpl> threads : map.values()) {
-						for (EventProcessingThreadImpl thread : threads)
+					for (List<EventProcessingThreadCtrl> threads : map.values()) {
+						for (EventProcessingThreadCtrl thread : threads)
 							thread.cease("Stop application");
 					}
 				}
@@ -174,9 +175,9 @@ public class UiEngineImpl implements UiEngine {
 			_suspended.clear();
 		}
 		synchronized (_resumed) {
-			for (List<EventProcessingThreadImpl> threads : _resumed.values()) {
+			for (List<EventProcessingThreadCtrl> threads : _resumed.values()) {
 				synchronized (threads) {
-					for (EventProcessingThreadImpl thread : threads)
+					for (EventProcessingThreadCtrl thread : threads)
 						thread.cease("Stop application");
 				}
 			}
@@ -196,7 +197,7 @@ public class UiEngineImpl implements UiEngine {
 	}
 
 	public Collection<EventProcessingThread> getSuspendedThreads(Desktop desktop) {
-		final Map<Object, List<EventProcessingThreadImpl>> map;
+		final Map<Object, List<EventProcessingThreadCtrl>> map;
 		synchronized (_suspended) {
 			map = _suspended.get(desktop);
 		}
@@ -206,7 +207,7 @@ public class UiEngineImpl implements UiEngine {
 
 		final List<EventProcessingThread> threads = new LinkedList<EventProcessingThread>();
 		synchronized (map) {
-			for (List<EventProcessingThreadImpl> thds : map.values()) {
+			for (List<EventProcessingThreadCtrl> thds : map.values()) {
 				threads.addAll(thds);
 			}
 		}
@@ -214,7 +215,7 @@ public class UiEngineImpl implements UiEngine {
 	}
 
 	public boolean ceaseSuspendedThread(Desktop desktop, EventProcessingThread evtthd, String cause) {
-		final Map<Object, List<EventProcessingThreadImpl>> map;
+		final Map<Object, List<EventProcessingThreadCtrl>> map;
 		synchronized (_suspended) {
 			map = _suspended.get(desktop);
 		}
@@ -223,10 +224,10 @@ public class UiEngineImpl implements UiEngine {
 
 		boolean found = false;
 		synchronized (map) {
-			for (Iterator<Map.Entry<Object, List<EventProcessingThreadImpl>>> it = map.entrySet().iterator(); it
+			for (Iterator<Map.Entry<Object, List<EventProcessingThreadCtrl>>> it = map.entrySet().iterator(); it
 					.hasNext();) {
-				final Map.Entry<Object, List<EventProcessingThreadImpl>> me = it.next();
-				final List<EventProcessingThreadImpl> list = me.getValue();
+				final Map.Entry<Object, List<EventProcessingThreadCtrl>> me = it.next();
+				final List<EventProcessingThreadCtrl> list = me.getValue();
 				found = list.remove(evtthd); //found
 				if (found) {
 					if (list.isEmpty())
@@ -236,7 +237,7 @@ public class UiEngineImpl implements UiEngine {
 			}
 		}
 		if (found)
-			((EventProcessingThreadImpl) evtthd).cease(cause);
+			((EventProcessingThreadCtrl) evtthd).cease(cause);
 		return found;
 	}
 
@@ -263,14 +264,14 @@ public class UiEngineImpl implements UiEngine {
 	private void desktopDestroyed0(Desktop desktop) {
 		final Configuration config = _wapp.getConfiguration();
 		if (!_suspended.isEmpty()) { //no need to sync (better performance)
-			final Map<Object, List<EventProcessingThreadImpl>> map;
+			final Map<Object, List<EventProcessingThreadCtrl>> map;
 			synchronized (_suspended) {
 				map = _suspended.remove(desktop);
 			}
 			if (map != null) {
 				synchronized (map) {
-					for (List<EventProcessingThreadImpl> list : map.values()) {
-						for (EventProcessingThreadImpl evtthd : list) {
+					for (List<EventProcessingThreadCtrl> list : map.values()) {
+						for (EventProcessingThreadCtrl evtthd : list) {
 							evtthd.ceaseSilently("Destroy desktop " + desktop);
 							config.invokeEventThreadResumeAborts(evtthd.getComponent(), evtthd.getEvent());
 						}
@@ -280,13 +281,13 @@ public class UiEngineImpl implements UiEngine {
 		}
 
 		if (!_resumed.isEmpty()) { //no need to sync (better performance)
-			final List<EventProcessingThreadImpl> list;
+			final List<EventProcessingThreadCtrl> list;
 			synchronized (_resumed) {
 				list = _resumed.remove(desktop);
 			}
 			if (list != null) {
 				synchronized (list) {
-					for (EventProcessingThreadImpl evtthd : list) {
+					for (EventProcessingThreadCtrl evtthd : list) {
 						evtthd.ceaseSilently("Destroy desktop " + desktop);
 						config.invokeEventThreadResumeAborts(evtthd.getComponent(), evtthd.getEvent());
 					}
@@ -1261,6 +1262,8 @@ public class UiEngineImpl implements UiEngine {
 		final DesktopCtrl desktopCtrl = (DesktopCtrl) desktop;
 		final Configuration config = desktop.getWebApp().getConfiguration();
 
+		final MetricsRegistry metrics = config.getMetricsRegistry();
+		final long updateStart = metrics != null ? System.nanoTime() : 0;
 		final PerformanceMeter pfmeter = config.getPerformanceMeter();
 		long startTime = 0;
 		if (pfmeter != null) {
@@ -1308,6 +1311,9 @@ public class UiEngineImpl implements UiEngine {
 				//Don't process more such that requests will be queued
 				//and we have the chance to optimize them
 				execCtrl.setCurrentPage(request.getPage());
+				desktopCtrl.markDirty(null);
+				//the state might change without any response, e.g.,
+				//the value synchronized from the client, or a field of a composer
 				try {
 					((DesktopCtrl) desktop).service(request, !errs.isEmpty());
 				} catch (Throwable ex) {
@@ -1319,11 +1325,15 @@ public class UiEngineImpl implements UiEngine {
 				Event event = nextEvent(uv);
 				do {
 					for (; event != null; event = nextEvent(uv)) {
+						final long eventStart = metrics != null ? System.nanoTime() : 0;
 						try {
 							process(desktop, event);
 						} catch (Throwable ex) {
 							handleError(ex, uv, errs);
 						}
+						if (metrics != null)
+							metrics.recordLatency(MetricsRegistry.EVENT_PROCESS, desktop,
+									System.nanoTime() - eventStart);
 					}
 
 					resumeAll(desktop, uv, errs);
@@ -1336,7 +1346,10 @@ public class UiEngineImpl implements UiEngine {
 				abrn.execute(); //always execute even if !isAborting
 
 			//Cycle 3: Generate output
+			final long redrawStart = metrics != null ? System.nanoTime() : 0;
 			final List<AuResponse> responses = getResponses(exec, uv, errs, true);
+			if (metrics != null)
+				metrics.recordLatency(MetricsRegistry.REDRAW, desktop, System.nanoTime() - redrawStart);
 
 			doneReqIds = rque.clearPerfRequestIds();
 
@@ -1344,6 +1357,7 @@ public class UiEngineImpl implements UiEngine {
 			if (prs != null)
 				responses.addAll(0, prs);
 
+			final long writeStart = metrics != null ? System.nanoTime() : 0;
 			out.writeResponseId(desktopCtrl.getResponseId(true));
 			out.write(mergeResponses(responses));
 
@@ -1354,6 +1368,8 @@ public class UiEngineImpl implements UiEngine {
 			final String seqId = ((ExecutionCtrl) exec).getRequestId();
 			if (seqId != null)
 				desktopCtrl.responseSent(seqId, out.complete());
+			if (metrics != null)
+				metrics.recordLatency(MetricsRegistry.RESPONSE_WRITE, desktop, System.nanoTime() - writeStart);
 
 			desktopCtrl.invokeExecutionCleanups(exec, null, errs);
 			config.invokeExecutionCleanups(exec, null, errs);
@@ -1390,6 +1406,8 @@ public class UiEngineImpl implements UiEngine {
 
 			if (pfmeter != null && doneReqIds != null)
 				meterAuServerComplete(pfmeter, doneReqIds, exec);
+			if (metrics != null)
+				metrics.recordLatency(MetricsRegistry.UPDATE, desktop, System.nanoTime() - updateStart);
 		}
 	}
 
@@ -1676,12 +1694,12 @@ public class UiEngineImpl implements UiEngine {
 		if (mutex == null)
 			throw new IllegalArgumentException("null mutex");
 
-		final Thread thd = Thread.currentThread();
-		if (!(thd instanceof EventProcessingThreadImpl))
+		final EventProcessingThread thd = EventProcessor.getCurrentThread();
+		if (!(thd instanceof EventProcessingThreadCtrl))
 			throw new UiException("This method can be called only in an event listener, not in paging loading.");
 		//		if (log.finerable()) log.finer("Suspend "+thd+" on "+mutex);
 
-		final EventProcessingThreadImpl evtthd = (EventProcessingThreadImpl) thd;
+		final EventProcessingThreadCtrl evtthd = (EventProcessingThreadCtrl) thd;
 		evtthd.newEventThreadSuspends(mutex);
 		//it may throw an exception, so process it before updating _suspended
 
@@ -1689,28 +1707,31 @@ public class UiEngineImpl implements UiEngine {
 		final Desktop desktop = exec.getDesktop();
 
 		incSuspended();
+		final MetricsRegistry metrics = desktop.getWebApp().getConfiguration().getMetricsRegistry();
+		if (metrics != null)
+			metrics.increment(MetricsRegistry.EVENT_SUSPEND, desktop);
 
-		Map<Object, List<EventProcessingThreadImpl>> map;
+		Map<Object, List<EventProcessingThreadCtrl>> map;
 		synchronized (_suspended) {
 			map = _suspended.get(desktop);
 			if (map == null)
-				_suspended.put(desktop, map = new IdentityHashMap<Object, List<EventProcessingThreadImpl>>(4));
+				_suspended.put(desktop, map = new IdentityHashMap<Object, List<EventProcessingThreadCtrl>>(4));
 			//note: we have to use IdentityHashMap because user might
 			//use Integer or so as mutex
 		}
 		synchronized (map) {
-			List<EventProcessingThreadImpl> list = map.get(mutex);
+			List<EventProcessingThreadCtrl> list = map.get(mutex);
 			if (list == null)
-				map.put(mutex, list = new LinkedList<EventProcessingThreadImpl>());
+				map.put(mutex, list = new LinkedList<EventProcessingThreadCtrl>());
 			list.add(evtthd);
 		}
 
 		try {
-			EventProcessingThreadImpl.doSuspend(mutex);
+			evtthd.suspendEvent(mutex);
 		} catch (Throwable ex) {
 			//error recover
 			synchronized (map) {
-				final List<EventProcessingThreadImpl> list = map.get(mutex);
+				final List<EventProcessingThreadCtrl> list = map.get(mutex);
 				if (list != null) {
 					list.remove(evtthd);
 					if (list.isEmpty())
@@ -1749,16 +1770,16 @@ public class UiEngineImpl implements UiEngine {
 		if (desktop == null || mutex == null)
 			throw new IllegalArgumentException("desktop and mutex cannot be null");
 
-		final Map<Object, List<EventProcessingThreadImpl>> map;
+		final Map<Object, List<EventProcessingThreadCtrl>> map;
 		synchronized (_suspended) {
 			map = _suspended.get(desktop);
 		}
 		if (map == null)
 			return; //nothing to notify
 
-		final EventProcessingThreadImpl evtthd;
+		final EventProcessingThreadCtrl evtthd;
 		synchronized (map) {
-			final List<EventProcessingThreadImpl> list = map.get(mutex);
+			final List<EventProcessingThreadCtrl> list = map.get(mutex);
 			if (list == null)
 				return; //nothing to notify
 
@@ -1781,33 +1802,33 @@ public class UiEngineImpl implements UiEngine {
 		if (desktop == null || mutex == null)
 			throw new IllegalArgumentException("desktop and mutex cannot be null");
 
-		final Map<Object, List<EventProcessingThreadImpl>> map;
+		final Map<Object, List<EventProcessingThreadCtrl>> map;
 		synchronized (_suspended) {
 			map = _suspended.get(desktop);
 		}
 		if (map == null)
 			return; //nothing to notify
 
-		final List<EventProcessingThreadImpl> list;
+		final List<EventProcessingThreadCtrl> list;
 		synchronized (map) {
 			list = map.remove(mutex);
 		}
 		if (list == null)
 			return; //nothing to notify
 
-		for (EventProcessingThreadImpl thread : list)
+		for (EventProcessingThreadCtrl thread : list)
 			addResumed(desktop, thread);
 	}
 
 	/** Adds to _resumed */
-	private void addResumed(Desktop desktop, EventProcessingThreadImpl evtthd) {
+	private void addResumed(Desktop desktop, EventProcessingThreadCtrl evtthd) {
 		//		if (log.finerable()) log.finer("Ready to resume "+evtthd);
 
-		List<EventProcessingThreadImpl> list;
+		List<EventProcessingThreadCtrl> list;
 		synchronized (_resumed) {
 			list = _resumed.get(desktop);
 			if (list == null)
-				_resumed.put(desktop, list = new LinkedList<EventProcessingThreadImpl>());
+				_resumed.put(desktop, list = new LinkedList<EventProcessingThreadCtrl>());
 		}
 		synchronized (list) {
 			list.add(evtthd);
@@ -1821,7 +1842,7 @@ public class UiEngineImpl implements UiEngine {
 	private void resumeAll(Desktop desktop, UiVisualizer uv, List<Throwable> errs) {
 		//We have to loop because a resumed thread might resume others
 		while (!_resumed.isEmpty()) { //no need to sync (better performance)
-			final List<EventProcessingThreadImpl> list;
+			final List<EventProcessingThreadCtrl> list;
 			synchronized (_resumed) {
 				list = _resumed.remove(desktop);
 				if (list == null)
@@ -1829,7 +1850,7 @@ public class UiEngineImpl implements UiEngine {
 			}
 
 			synchronized (list) {
-				for (EventProcessingThreadImpl evtthd : list) {
+				for (EventProcessingThreadCtrl evtthd : list) {
 					if (uv.isAborting()) {
 						evtthd.ceaseSilently("Resume aborted");
 					} else {
@@ -1855,7 +1876,7 @@ public class UiEngineImpl implements UiEngine {
 	private void processEvent(Desktop desktop, Component comp, Event event) {
 		final Configuration config = desktop.getWebApp().getConfiguration();
 		if (config.isEventThreadEnabled()) {
-			EventProcessingThreadImpl evtthd = null;
+			EventProcessingThreadCtrl evtthd = null;
 			synchronized (_idles) {
 				while (!_idles.isEmpty() && evtthd == null) {
 					evtthd = _idles.remove(0);
@@ -1865,7 +1886,8 @@ public class UiEngineImpl implements UiEngine {
 			}
 
 			if (evtthd == null)
-				evtthd = new EventProcessingThreadImpl();
+				evtthd = config.isVirtualEventThreadEnabled() ? new VirtualEventProcessingThreadImpl()
+						: new EventProcessingThreadImpl();
 
 			try {
 				if (evtthd.processEvent(desktop, comp, event))
@@ -1902,7 +1924,7 @@ public class UiEngineImpl implements UiEngine {
 		}
 	}
 
-	private void recycleEventThread(EventProcessingThreadImpl evtthd) {
+	private void recycleEventThread(EventProcessingThreadCtrl evtthd) {
 		if (!evtthd.isCeased()) {
 			if (evtthd.isIdle()) {
 				final int max = _wapp.getConfiguration().getMaxSpareThreads();
@@ -17,10 +17,12 @@ Copyright (C) 2005 Potix Corporation. All Rights Reserved.
 package org.zkoss.zk.ui.impl;
 
 import java.io.IOException;
-import java.io.StringWriter;
+import java.util.AbstractCollection;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -29,6 +31,8 @@ import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Set;
 
 import org.zkoss.zk.au.AuResponse;
@@ -73,25 +77,27 @@ import org.zkoss.zk.ui.sys.Visualizer;
 	private Set<Page> _pgInvalid;
 	/** A set of removed pages. */
 	private Set<Page> _pgRemoved;
+	//Note: the following sets and maps are empty (and immutable) until
+	//the first component is added, since most executions, such as onTimer,
+	//update only a few attributes.
 	/** A set of invalidated components  (Component). */
-	private final Set<Component> _invalidated = new LinkedHashSet<Component>(32);
-	/** A map of smart updates (Component comp, Map(String name, TimedValue(comp,name,value))). */
-	private final Map<Component, Map<String, TimedValue>> _smartUpdated = new HashMap<Component, Map<String, TimedValue>>(
-			64); //we use TimedValue for better sequence control
+	private Set<Component> _invalidated = Collections.emptySet();
+	/** The smart updates, or null if none. */
+	private SmartUpdates _smartUpdated;
 	/** A set of new attached components. */
-	private final Set<Component> _attached = new LinkedHashSet<Component>(32);
+	private Set<Component> _attached = Collections.emptySet();
 	/** A set of moved components (parent changed or page changed). */
-	private final Set<Component> _moved = new LinkedHashSet<Component>(32);
+	private Set<Component> _moved = Collections.emptySet();
 	/** A set of components whose client-update is disabled. */
 	private Set<Component> _updDisabled;
 	/** A map of detached components (detached only -- not moved thereafter).
 	 * (comp, comp's parent).
 	 */
-	private final Map<Component, Component> _detached = new LinkedHashMap<Component, Component>(32);
+	private Map<Component, Component> _detached = Collections.emptyMap();
 	/** A map of UUID of detached or moved components.
 	 * It is important since UUID might be re-used
 	 */
-	private final Map<Component, String> _uuids = new HashMap<Component, String>(32);
+	private Map<Component, String> _uuids = Collections.emptyMap();
 	/** A map of components whose UUID is changed (Component, UUID). */
 	private Map<Component, String> _idChgd;
 	/** A map of responses being added(Component/Page, ResponseInfo)).
@@ -108,8 +114,6 @@ import org.zkoss.zk.ui.sys.Visualizer;
 	 * on {@link org.zkoss.zk.ui.sys.UiEngine}.
 	 */
 	private AbortingReason _aborting;
-	/** The counter used for smartUpdate(...append). */
-	private int _cntMultSU;
 	/** Whether the first execution is for async-update. */
 	private final boolean _1stau;
 	/** Whether it is in recovering. */
@@ -238,8 +242,10 @@ import org.zkoss.zk.ui.sys.Visualizer;
 
 		checkDesktop(comp);
 
-		if (_invalidated.add(comp))
-			_smartUpdated.remove(comp);
+		if (_invalidated.isEmpty())
+			_invalidated = new LinkedHashSet<Component>(32);
+		_invalidated.add(comp);
+		//the smart updates of comp are removed in getResponses
 	}
 
 	/** Ensure the use of component is correct. */
@@ -279,10 +285,11 @@ import org.zkoss.zk.ui.sys.Visualizer;
 			return;
 		}
 
-		final Map<String, TimedValue> respmap = getAttrRespMap(comp);
-		if (respmap != null)
-			respmap.put(append ? attr + ":" + _cntMultSU++ : attr,
-					new TimedValue(_timed++, comp, attr, value, priority));
+		if (isSmartUpdatable(comp)) {
+			if (_smartUpdated == null)
+				_smartUpdated = new SmartUpdates();
+			_smartUpdated.add(comp, attr, value, append, priority, _timed++);
+		}
 	}
 
 	/**
@@ -292,7 +299,8 @@ import org.zkoss.zk.ui.sys.Visualizer;
 	public void clearSmartUpdate(Component comp) {
 		if (comp == null)
 			throw new IllegalArgumentException();
-		_smartUpdated.remove(comp);
+		if (_smartUpdated != null)
+			_smartUpdated.removeAll(Collections.singleton(comp));
 	}
 
 	/** Sets whether to disable the update of the client widget.
@@ -327,23 +335,19 @@ import org.zkoss.zk.ui.sys.Visualizer;
 		return false;
 	}
 
-	/** Returns the response map for the specified attribute, or null if
-	 * nothing to do.
+	/** Returns whether to smart update the specified component, i.e.,
+	 * false if nothing to do.
 	 */
-	private Map<String, TimedValue> getAttrRespMap(Component comp) {
+	private boolean isSmartUpdatable(Component comp) {
 		final Page page = comp.getPage();
 		if (_recovering || _disabled || page == null || page instanceof VolatilePage || !_exec.isAsyncUpdate(page)
 				|| _invalidated.contains(comp) || isCUDisabled(comp))
-			return null; //nothing to do
+			return false; //nothing to do
 		if (_ending)
 			throw new IllegalStateException("UI can't be modified in the rendering phase");
 
 		checkDesktop(comp);
-
-		Map<String, TimedValue> respmap = _smartUpdated.get(comp);
-		if (respmap == null)
-			_smartUpdated.put(comp, respmap = new HashMap<String, TimedValue>());
-		return respmap;
+		return true;
 	}
 
 	/** Called to update (redraw) a component, when a component is moved.
@@ -366,20 +370,31 @@ import org.zkoss.zk.ui.sys.Visualizer;
 		snapshotUuid(comp);
 
 		if (oldpg == null && !_moved.contains(comp) && !_detached.containsKey(comp)) { //new attached
-			_attached.add(comp);
+			addAttached(comp);
 			//note: we cannot examine _exec.isAsyncUpdate here because
 			//comp.getPage might be ready when this method is called
 		} else if (newpg == null && !_moved.contains(comp)) {
-			if (!_attached.remove(comp))
-				_detached.put(comp, oldparent); //new detached
+			if (!_attached.remove(comp)) { //new detached
+				if (_detached.isEmpty())
+					_detached = new LinkedHashMap<Component, Component>(32);
+				_detached.put(comp, oldparent);
+			}
 			//ignore if attach and then detach
 		} else {
+			if (_moved.isEmpty())
+				_moved = new LinkedHashSet<Component>(32);
 			_moved.add(comp);
 			_attached.remove(comp);
 			_detached.remove(comp);
 		}
 	}
 
+	private void addAttached(Component comp) {
+		if (_attached.isEmpty())
+			_attached = new LinkedHashSet<Component>(32);
+		_attached.add(comp);
+	}
+
 	/** Called before changing the component's UUID.
 	 * @since 5.0.3
 	 */
@@ -476,7 +491,8 @@ import org.zkoss.zk.ui.sys.Visualizer;
 	private Map<Component, Set<? extends Component>> doCrop() {
 		final Map<Component, Set<? extends Component>> croppingInfos = new HashMap<Component, Set<? extends Component>>();
 		crop(_attached, croppingInfos, false);
-		crop(_smartUpdated.keySet(), croppingInfos, false);
+		if (_smartUpdated != null)
+			crop(_smartUpdated, croppingInfos, false);
 		if (_responses != null)
 			crop(_responses.keySet(), croppingInfos, true);
 		crop(_invalidated, croppingInfos, false);
@@ -485,7 +501,7 @@ import org.zkoss.zk.ui.sys.Visualizer;
 
 	/** Crop attached and moved.
 	 */
-	private void crop(Set coll, Map<Component, Set<? extends Component>> croppingInfos, boolean bResponse) {
+	private void crop(Collection coll, Map<Component, Set<? extends Component>> croppingInfos, boolean bResponse) {
 		for (Iterator it = coll.iterator(); it.hasNext();) {
 			final Object o = it.next();
 			if (!(o instanceof Component))
@@ -617,6 +633,26 @@ import org.zkoss.zk.ui.sys.Visualizer;
 		return false;
 	}
 
+	/** Records the changed components to the desktop, such that
+	 * it can be replicated (see {@link DesktopCtrl#isDirty}).
+	 */
+	private void markDirty() {
+		final DesktopCtrl dtctl = (DesktopCtrl) _exec.getDesktop();
+		for (Component comp : _invalidated)
+			dtctl.markDirty(comp.getUuid());
+		if (_smartUpdated != null)
+			for (Component comp : _smartUpdated)
+				dtctl.markDirty(comp.getUuid());
+		for (Component comp : _attached)
+			dtctl.markDirty(comp.getUuid());
+		for (Component comp : _moved)
+			dtctl.markDirty(comp.getUuid());
+		for (Component comp : _detached.keySet())
+			dtctl.markDirty(comp.getUuid());
+		if (_pgInvalid != null || _pgRemoved != null || _responses != null)
+			dtctl.markDirty(null);
+	}
+
 	/** Returns a list of {@link AuResponse} according to what components
 	 * are invalidated and attached.
 	 * @param renderedComps used to return the components that are rendered.
@@ -626,6 +662,9 @@ import org.zkoss.zk.ui.sys.Visualizer;
 	 */
 	public List<AuResponse> getResponses(Collection<Component> renderedComps) throws IOException {
 		_ending = true; //no more modifying UI (invalidate/addSmartUpdate...)
+		if (_smartUpdated != null && !_invalidated.isEmpty())
+			_smartUpdated.removeAll(_invalidated); //not required if invalidated
+		markDirty();
 
 		/*		if (log.finerable())
 					log.finer("ei: "+this+"\nInvalidated: "+_invalidated+"\nSmart Upd: "+_smartUpdated
@@ -633,6 +672,7 @@ import org.zkoss.zk.ui.sys.Visualizer;
 						+"\npgInvalid: "+_pgInvalid	+"\nUuidChanged: "+_idChgd);
 		*/
 		final List<AuResponse> responses = new LinkedList<AuResponse>();
+		final RedrawBuffer rdbuf = new RedrawBuffer(); //all components are redrawn into it
 
 		//0. Correct the UUID at the client first
 		if (_idChgd != null) {
@@ -680,7 +720,8 @@ import org.zkoss.zk.ui.sys.Visualizer;
 		if (_pgInvalid != null || _pgRemoved != null) {
 			clearInInvalidPage(_invalidated);
 			clearInInvalidPage(_attached);
-			clearInInvalidPage(_smartUpdated.keySet());
+			if (_smartUpdated != null)
+				clearInInvalidPage(_smartUpdated);
 		}
 
 		//2b. remove pages. Note: we don't need to generate rm, because they
@@ -696,7 +737,7 @@ import org.zkoss.zk.ui.sys.Visualizer;
 			for (Page page : _pgInvalid) {
 				if (renderedComps != null)
 					renderedComps.addAll(page.getRoots());
-				responses.add(new AuOuter(page, redraw(page)));
+				responses.add(new AuOuter(page, rdbuf.redraw(page)));
 			}
 		}
 
@@ -710,7 +751,7 @@ import org.zkoss.zk.ui.sys.Visualizer;
 		for (Component comp : _invalidated) {
 			if (renderedComps != null)
 				renderedComps.add(comp);
-			responses.add(new AuOuter(comp, redraw(comp)));
+			responses.add(new AuOuter(comp, rdbuf.redraw(comp)));
 		}
 
 		//6. add attached components (including setParent)
@@ -744,14 +785,11 @@ import org.zkoss.zk.ui.sys.Visualizer;
 		for (Set<Component> newsibs : desktops) {
 			if (renderedComps != null)
 				renderedComps.addAll(newsibs);
-			addResponsesForCreatedPerSiblings(responses, newsibs, croppingInfos);
+			addResponsesForCreatedPerSiblings(responses, rdbuf, newsibs, croppingInfos);
 		}
 
 		//7. Adds smart updates and response at once based on their time stamp
-		final List<TimedValue> tvals = new LinkedList<TimedValue>();
-		for (Map<String, TimedValue> attrs : _smartUpdated.values()) {
-			tvals.addAll(attrs.values());
-		}
+		final List<TimedValue> tvals = new ArrayList<TimedValue>();
 		if (_responses != null) {
 			for (Map.Entry<Object, ResponseInfo> me : _responses.entrySet()) {
 				final Object depends = me.getKey();
@@ -765,9 +803,11 @@ import org.zkoss.zk.ui.sys.Visualizer;
 				tvals.addAll(ri.values.values());
 			}
 		}
-		if (!tvals.isEmpty()) {
-			final TimedValue[] tvs = tvals.toArray(new TimedValue[tvals.size()]);
-			Arrays.sort(tvs);
+		final TimedValue[] tvs = tvals.toArray(new TimedValue[tvals.size()]);
+		Arrays.sort(tvs);
+		if (_smartUpdated != null) {
+			_smartUpdated.addResponses(responses, tvs);
+		} else {
 			for (int j = 0; j < tvs.length; ++j)
 				responses.add(tvs[j].getResponse());
 		}
@@ -781,10 +821,10 @@ import org.zkoss.zk.ui.sys.Visualizer;
 		}
 
 		//free memory
-		_invalidated.clear();
-		_smartUpdated.clear();
-		_attached.clear();
-		_uuids.clear();
+		_invalidated = Collections.emptySet();
+		_smartUpdated = null;
+		_attached = Collections.emptySet();
+		_uuids = Collections.emptyMap();
 		_pgInvalid = _pgRemoved = null;
 		_responses = null;
 
@@ -797,15 +837,20 @@ import org.zkoss.zk.ui.sys.Visualizer;
 	 * After called, _detached is merged backed to _moved if it is required
 	 */
 	private void doDetached() {
+		if (_detached.isEmpty())
+			return;
+
 		l_out: for (Map.Entry<Component, Component> me : _detached.entrySet()) {
 			Component p = me.getValue();
 			for (; p != null; p = p.getParent())
 				if (_moved.contains(p) || _detached.containsKey(p) || _invalidated.contains(p) || _attached.contains(p))
 					continue l_out; //don't merge (ignore it)
 
+			if (_moved.isEmpty())
+				_moved = new LinkedHashSet<Component>(32);
 			_moved.add(me.getKey()); //merge
 		}
-		_detached.clear(); //no longer required
+		_detached = Collections.emptyMap(); //no longer required
 	}
 
 	/** process moved components.
@@ -817,6 +862,9 @@ import org.zkoss.zk.ui.sys.Visualizer;
 	 * @return the dead components (i.e., not belong to any page)
 	 */
 	private Set<Component> doMoved(List<AuResponse> responses) {
+		if (_moved.isEmpty())
+			return Collections.emptySet();
+
 		//Remove components that have to removed from the client
 		final Set<Component> removed = new LinkedHashSet<Component>();
 		for (Component comp : _moved) {
@@ -827,7 +875,6 @@ import org.zkoss.zk.ui.sys.Visualizer;
 				if (_responses != null)
 					_responses.remove(comp);
 				_invalidated.remove(comp);
-				_smartUpdated.remove(comp);
 
 				responses.add(new AuRemove(uuid(comp)));
 				//Use the original UUID is important since it might be reused
@@ -835,18 +882,22 @@ import org.zkoss.zk.ui.sys.Visualizer;
 				if (_exec.isAsyncUpdate(page))
 					responses.add(new AuRemove(uuid(comp)));
 				//Use the original UUID is important since it might be reused
-				_attached.add(comp);
+				addAttached(comp);
 				//copy to _attached since we handle them later in the same way
 			}
 		}
+		if (_smartUpdated != null && !removed.isEmpty())
+			_smartUpdated.removeAll(removed);
 
-		_moved.clear(); //no longer required
+		_moved = Collections.emptySet(); //no longer required
 		return removed;
 	}
 
 	/** Stores the original UUID of the specified component.
 	 */
 	private void snapshotUuid(Component comp) {
+		if (_uuids.isEmpty())
+			_uuids = new HashMap<Component, String>(32);
 		if (!_uuids.containsKey(comp))
 			_uuids.put(comp, comp.getUuid());
 	}
@@ -861,8 +912,8 @@ import org.zkoss.zk.ui.sys.Visualizer;
 	/** Adds responses for a set of siblings which is new attached (or
 	 * parent is changed).
 	 */
-	private static void addResponsesForCreatedPerSiblings(List<AuResponse> responses, Set<Component> newsibs,
-			Map<Component, Set<? extends Component>> croppingInfos) throws IOException {
+	private static void addResponsesForCreatedPerSiblings(List<AuResponse> responses, RedrawBuffer rdbuf,
+			Set<Component> newsibs, Map<Component, Set<? extends Component>> croppingInfos) throws IOException {
 		final Component parent;
 		final Page page;
 		{
@@ -880,7 +931,7 @@ import org.zkoss.zk.ui.sys.Visualizer;
 		(Note: newsibs might not be ordered correctly, so we have to go through nextGroupedSiblings)
 		*/
 		for (List<Component> group; (group = nextGroupedSiblings(newsibs)) != null;) {
-			final Collection<String> contents = redrawComponents(group);
+			final Collection<CharSequence> contents = redrawComponents(rdbuf, group);
 			final Component last = group.get(group.size() - 1);
 			Component nxt, prv;
 			if ((nxt = last.getNextSibling()) == null || (sibs != null && !sibs.contains(nxt))) { //nextsib not available at client
@@ -935,6 +986,9 @@ import org.zkoss.zk.ui.sys.Visualizer;
 	/** Removes redundant components in _invalidated, _smartUpdated and _attached.
 	 */
 	private void removeRedundant() {
+		if (_invalidated.isEmpty() && _attached.isEmpty())
+			return; //nothing is redundant
+
 		int initsz = (_invalidated.size() + _attached.size()) / 2 + 30;
 		final Set<Component> ins = new HashSet<Component>(initsz), //one of ancestor in _invalidated or _attached
 				outs = new HashSet<Component>(initsz); //none of ancestor in _invalidated nor _attached
@@ -986,7 +1040,9 @@ import org.zkoss.zk.ui.sys.Visualizer;
 		}
 
 		//process _smartUpdated
-		for (Iterator<Component> it = _smartUpdated.keySet().iterator(); it.hasNext();) {
+		if (_smartUpdated == null)
+			return;
+		for (Iterator<Component> it = _smartUpdated.iterator(); it.hasNext();) {
 			Component p = it.next();
 			boolean removed = false, first = true;
 			for (; p != null; p = p.getParent()) { //check p in _smartUpdated
@@ -1010,25 +1066,11 @@ import org.zkoss.zk.ui.sys.Visualizer;
 		}
 	}
 
-	/** Redraw the specified component into a string.
-	 */
-	private static String redraw(Component comp) throws IOException {
-		final StringWriter out = new StringWriter(1024 * 8);
-		((ComponentCtrl) comp).redraw(out);
-		return out.toString();
-	}
-
-	/** Redraws the whole page. */
-	private static String redraw(Page page) throws IOException {
-		final StringWriter out = new StringWriter(1024 * 8);
-		((PageCtrl) page).redraw(out);
-		return out.toString();
-	}
-
-	private static List<String> redrawComponents(Collection<Component> comps) throws IOException {
-		final List<String> list = new LinkedList<String>();
+	private static List<CharSequence> redrawComponents(RedrawBuffer rdbuf, Collection<Component> comps)
+			throws IOException {
+		final List<CharSequence> list = new ArrayList<CharSequence>(comps.size());
 		for (Component comp : comps)
-			list.add(redraw(comp));
+			list.add(rdbuf.redraw(comp));
 		return list;
 	}
 
@@ -1090,6 +1132,237 @@ import org.zkoss.zk.ui.sys.Visualizer;
 		}
 	}
 
+	/** Used to hold smart updates in the order they were added (i.e., the
+	 * order of their time stamps), without allocating a map or {@link TimedValue}
+	 * per update. If the same attribute of a component is updated again,
+	 * the previous update is cleared and the new one is appended, i.e.,
+	 * the last write wins.
+	 *
+	 * <p>As a collection, it iterates the component of each update
+	 * (so a component might be iterated multiple times), and removing
+	 * an element removes the update.
+	 */
+	private static class SmartUpdates extends AbstractCollection<Component> {
+		/** Up to this number of updates, the update of the same attribute is
+		 * looked up linearly (rather than by {@link #_index}). */
+		private static final int LINEAR = 8;
+
+		/** The component, attribute and value of each update, i.e.,
+		 * _data[j * 3], _data[j * 3 + 1] and _data[j * 3 + 2].
+		 * The component is null if the update was cleared or removed. */
+		private Object[] _data = new Object[4 * 3];
+		/** The time stamp and priority of each update, i.e.,
+		 * _info[j * 2] (shifted left by one, and the lowest bit is set if
+		 * it is appended) and _info[j * 2 + 1]. */
+		private int[] _info = new int[4 * 2];
+		/** The number of updates, including the cleared ones. */
+		private int _size;
+		/** The number of cleared (or removed) updates. */
+		private int _nCleared;
+		/** An open-addressing hash table of the indexes (plus one) of the
+		 * updates that are not appended. It is null if there are no more than
+		 * {@link #LINEAR} updates. An index might refer to a cleared update. */
+		private int[] _index;
+		/** The number of used slots of {@link #_index}. */
+		private int _nIndexed;
+		/** The priority of the first update, and whether any update has
+		 * a different priority. */
+		private int _priority;
+		private boolean _mixedPriority;
+		private int _modCnt;
+
+		private void add(Component comp, String attr, Object value, boolean append, int priority, int timed) {
+			if (_size * 3 == _data.length) {
+				if (_nCleared * 2 >= _size) {
+					compact();
+				} else {
+					_data = Arrays.copyOf(_data, _data.length * 2);
+					_info = Arrays.copyOf(_info, _info.length * 2);
+				}
+			}
+
+			if (!append) {
+				if (_index != null) {
+					final int mask = _index.length - 1;
+					for (int h = hash(comp, attr) & mask;; h = (h + 1) & mask) {
+						final int j = _index[h] - 1;
+						if (j < 0) {
+							_index[h] = _size + 1;
+							++_nIndexed;
+							break;
+						}
+						if (isSame(j, comp, attr)) {
+							clear(j);
+							_index[h] = _size + 1;
+							break;
+						}
+					}
+				} else {
+					for (int j = _size; --j >= 0;)
+						if (isSame(j, comp, attr)) {
+							clear(j);
+							break;
+						}
+				}
+			}
+
+			if (_size == 0) {
+				_priority = priority;
+			} else if (_priority != priority) {
+				_mixedPriority = true;
+			}
+
+			final int j = _size++;
+			_data[j * 3] = comp;
+			_data[j * 3 + 1] = attr;
+			_data[j * 3 + 2] = value;
+			_info[j * 2] = timed << 1 | (append ? 1 : 0);
+			_info[j * 2 + 1] = priority;
+			++_modCnt;
+
+			if (_index == null ? _size > LINEAR : _nIndexed * 2 > _index.length)
+				reindex();
+		}
+
+		private boolean isSame(int j, Component comp, String attr) {
+			return _data[j * 3] == comp && (_info[j * 2] & 1) == 0 && Objects.equals(attr, _data[j * 3 + 1]);
+		}
+
+		private static int hash(Component comp, String attr) {
+			final int h = System.identityHashCode(comp) * 31 + Objects.hashCode(attr);
+			return h ^ (h >>> 16);
+		}
+
+		private void clear(int j) {
+			_data[j * 3] = _data[j * 3 + 1] = _data[j * 3 + 2] = null;
+			++_nCleared;
+		}
+
+		/** Removes the cleared updates (and keeps the order). */
+		private void compact() {
+			int k = 0;
+			for (int j = 0; j < _size; ++j) {
+				if (_data[j * 3] != null) {
+					if (k != j) {
+						System.arraycopy(_data, j * 3, _data, k * 3, 3);
+						System.arraycopy(_info, j * 2, _info, k * 2, 2);
+					}
+					++k;
+				}
+			}
+			Arrays.fill(_data, k * 3, _size * 3, null);
+			_size = k;
+			_nCleared = 0;
+			if (_index != null)
+				reindex();
+		}
+
+		private void reindex() {
+			int len = 32;
+			while (len < (_size - _nCleared) * 4)
+				len <<= 1;
+			_index = new int[len];
+			_nIndexed = 0;
+			final int mask = len - 1;
+			for (int j = 0; j < _size; ++j) {
+				final Component comp = (Component) _data[j * 3];
+				if (comp != null && (_info[j * 2] & 1) == 0) {
+					int h = hash(comp, (String) _data[j * 3 + 1]) & mask;
+					while (_index[h] != 0)
+						h = (h + 1) & mask;
+					_index[h] = j + 1;
+					++_nIndexed;
+				}
+			}
+		}
+
+		/** Adds the responses of the smart updates, and the given responses
+		 * (sorted by {@link TimedValue#compareTo}), to the given list,
+		 * in the order of their priorities and time stamps.
+		 */
+		private void addResponses(List<AuResponse> responses, TimedValue[] tvs) {
+			boolean merge = !_mixedPriority;
+			for (int k = 0; merge && k < tvs.length; ++k)
+				merge = tvs[k]._priority == _priority;
+
+			if (merge) { //the most common case (all priorities are the same)
+				int k = 0;
+				for (int j = 0; j < _size; ++j) {
+					final Component comp = (Component) _data[j * 3];
+					if (comp != null) {
+						final int timed = _info[j * 2] >>> 1;
+						for (; k < tvs.length && tvs[k]._timed < timed; ++k)
+							responses.add(tvs[k].getResponse());
+						responses.add(new AuSetAttribute(comp, (String) _data[j * 3 + 1], _data[j * 3 + 2]));
+					}
+				}
+				for (; k < tvs.length; ++k)
+					responses.add(tvs[k].getResponse());
+			} else {
+				final TimedValue[] all = Arrays.copyOf(tvs, tvs.length + _size - _nCleared);
+				int k = tvs.length;
+				for (int j = 0; j < _size; ++j) {
+					final Component comp = (Component) _data[j * 3];
+					if (comp != null)
+						all[k++] = new TimedValue(_info[j * 2] >>> 1, comp, (String) _data[j * 3 + 1],
+								_data[j * 3 + 2], _info[j * 2 + 1]);
+				}
+				Arrays.sort(all);
+				for (int j = 0; j < all.length; ++j)
+					responses.add(all[j].getResponse());
+			}
+		}
+
+		//Collection//
+		public int size() {
+			return _size - _nCleared;
+		}
+
+		public Iterator<Component> iterator() {
+			return new Iterator<Component>() {
+				private int _next = skip(0), _last = -1, _expModCnt = _modCnt;
+
+				private int skip(int j) {
+					while (j < _size && _data[j * 3] == null)
+						++j;
+					return j;
+				}
+
+				public boolean hasNext() {
+					return _next < _size;
+				}
+
+				public Component next() {
+					if (_modCnt != _expModCnt)
+						throw new ConcurrentModificationException();
+					if (_next >= _size)
+						throw new NoSuchElementException();
+					_last = _next;
+					_next = skip(_next + 1);
+					return (Component) _data[_last * 3];
+				}
+
+				public void remove() {
+					if (_last < 0 || _data[_last * 3] == null)
+						throw new IllegalStateException();
+					clear(_last);
+					_last = -1;
+				}
+			};
+		}
+
+		public String toString() {
+			final StringBuilder sb = new StringBuilder().append('[');
+			for (int j = 0; j < _size; ++j)
+				if (_data[j * 3] != null) {
+					if (sb.length() > 1)
+						sb.append(", ");
+					sb.append(_data[j * 3]).append('.').append(_data[j * 3 + 1]);
+				}
+			return sb.append(']').toString();
+		}
+	}
+
 	/** Sets the reason to abort the current execution.
 	 * if not null, it means the current execution is aborting
 	 * and the specified argument is the reason to aborting.
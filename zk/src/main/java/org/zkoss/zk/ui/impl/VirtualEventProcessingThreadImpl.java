@@ -0,0 +1,531 @@
+/* VirtualEventProcessingThreadImpl.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 13:24:41 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zk.ui.impl;
+
+import java.lang.reflect.Method;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.zkoss.lang.Exceptions;
+import org.zkoss.lang.Threads;
+import org.zkoss.util.Locales;
+import org.zkoss.util.TimeZones;
+import org.zkoss.zk.ui.Component;
+import org.zkoss.zk.ui.Desktop;
+import org.zkoss.zk.ui.Execution;
+import org.zkoss.zk.ui.Executions;
+import org.zkoss.zk.ui.UiException;
+import org.zkoss.zk.ui.event.Event;
+import org.zkoss.zk.ui.event.EventThreadCleanup;
+import org.zkoss.zk.ui.event.EventThreadInit;
+import org.zkoss.zk.ui.event.EventThreadResume;
+import org.zkoss.zk.ui.event.EventThreadSuspend;
+import org.zkoss.zk.ui.sys.ExecutionCtrl;
+import org.zkoss.zk.ui.util.Configuration;
+import org.zkoss.zk.ui.util.ExecutionMonitor;
+
+/** An event processing thread that runs on a virtual thread
+ * (if the JVM supports it; otherwise, a daemon platform thread).
+ *
+ * <p>It is used if {@link Configuration#isVirtualEventThreadEnabled} is true.
+ * Unlike {@link EventProcessingThreadImpl}, it is not a {@link Thread}, and
+ * the hand-off between the servlet thread and the event thread, as well as
+ * the suspension ({@link org.zkoss.zk.ui.sys.UiEngine#wait}), is done with a
+ * {@link ReentrantLock} and {@link Condition}s rather than
+ * <code>Object.wait</code>/<code>notify</code>, so a suspended virtual thread
+ * is unmounted from its carrier thread instead of pinning it.
+ * Thus, the number of suspended event threads (such as modal message boxes)
+ * is no longer bounded by the number of platform threads.
+ *
+ * <p>Note: the mutex passed to {@link org.zkoss.zk.ui.sys.UiEngine#wait}
+ * is used only as a key to identify the suspended threads.
+ * Don't hold its monitor when calling it.
+ *
+ * @author agent
+ * @since 10.0.1
+ * @see EventProcessor#getCurrentThread
+ */
+public class VirtualEventProcessingThreadImpl implements EventProcessingThreadCtrl {
+	private static final Logger log = LoggerFactory.getLogger(VirtualEventProcessingThreadImpl.class);
+	/** Thread.startVirtualThread(Runnable), or null if not supported (JDK 20 or earlier). */
+	private static final Method _startVirtual;
+
+	static {
+		Method m = null;
+		try {
+			m = Thread.class.getMethod("startVirtualThread", Runnable.class);
+		} catch (Throwable ex) {
+			log.warn("Virtual threads not supported; platform threads are used for event processing");
+		}
+		_startVirtual = m;
+	}
+
+	/** The event processing thread that the current thread is running. */
+	private static final ThreadLocal<VirtualEventProcessingThreadImpl> _current = new ThreadLocal<VirtualEventProcessingThreadImpl>();
+	private static final AtomicInteger _nThd = new AtomicInteger(), _nBusyThd = new AtomicInteger(),
+			_nSuspended = new AtomicInteger();
+
+	private final ReentrantLock _lock = new ReentrantLock();
+	/** Signaled when an event is ready for processing, or ceased. */
+	private final Condition _ready = _lock.newCondition();
+	/** Signaled when the event is processed, suspended, or ceased. */
+	private final Condition _done = _lock.newCondition();
+	/** Signaled when the event is resumed, or ceased. */
+	private final Condition _resumed = _lock.newCondition();
+	private final Thread _thread;
+
+	/** The processor. */
+	private volatile EventProcessor _proc;
+	/** Whether {@link #_proc} is handed to the event thread but not started yet. */
+	private boolean _pending;
+	/** Part of the command: locale. */
+	private Locale _locale;
+	/** Part of the command: time zone. */
+	private TimeZone _timeZone;
+	/** Part of the result: a list of EventThreadInit instances. */
+	private List<EventThreadInit> _evtThdInits;
+	/** Part of the result: a list of EventThreadCleanup instances. */
+	private List<EventThreadCleanup> _evtThdCleanups;
+	/** Part of the result: a list of EventThreadResume instances. */
+	private List<EventThreadResume> _evtThdResumes;
+	/** Part of the result. a list of EventThreadSuspend instances. */
+	private List<EventThreadSuspend> _evtThdSuspends;
+	/** Result of the result. */
+	private Throwable _ex;
+	/** Whether the execution is activated. */
+	private boolean _acted;
+	/** If null, it means not ceased yet.
+	 * If not null, it means it is ceased and it is a text describing the cause.
+	 */
+	private volatile String _ceased;
+	/** Whether it is suspended. */
+	private volatile boolean _suspended;
+
+	public VirtualEventProcessingThreadImpl() {
+		_thread = start(this::run);
+	}
+
+	private static Thread start(Runnable task) {
+		if (_startVirtual != null) {
+			try {
+				return (Thread) _startVirtual.invoke(null, task);
+			} catch (Throwable ex) {
+				log.warn("Failed to start a virtual thread; use a platform thread instead", ex);
+			}
+		}
+		final Thread thd = new Thread(task, "ZK-EventThread");
+		Threads.setDaemon(thd, true);
+		thd.start();
+		return thd;
+	}
+
+	/** Returns the event processing thread that the current thread is running,
+	 * or null if the current thread is not one of them.
+	 */
+	/*package*/ static VirtualEventProcessingThreadImpl getCurrent() {
+		return _current.get();
+	}
+
+	//EventProcessingThread//
+	public boolean isCeased() {
+		return _ceased != null || !_thread.isAlive();
+	}
+
+	public boolean isSuspended() {
+		return _suspended;
+	}
+
+	public boolean isIdle() {
+		return _proc == null;
+	}
+
+	public final Event getEvent() {
+		final EventProcessor proc = _proc;
+		return proc != null ? proc.getEvent() : null;
+	}
+
+	public final Component getComponent() {
+		final EventProcessor proc = _proc;
+		return proc != null ? proc.getComponent() : null;
+	}
+
+	public void sendEvent(final Component comp, Event event) throws Exception {
+		if (event == null || comp == null)
+			throw new IllegalArgumentException("Both comp and event must be specified");
+		if (_current.get() != this)
+			throw new IllegalStateException("Only callable when processing an event");
+
+		final EventProcessor oldproc = _proc;
+		_proc = new EventProcessor(oldproc.getDesktop(), comp, event);
+		try {
+			_proc.setup();
+			_proc.process();
+		} finally {
+			_proc = oldproc;
+			if (_ceased != null)
+				throw new InterruptedException(_ceased);
+			//Bug 2819521: cease() resumes suspend threads, which shall stop
+			_proc.setup();
+		}
+	}
+
+	//EventProcessingThreadCtrl//
+	public void cease(String cause) {
+		_lock.lock();
+		try {
+			_ceased = cause != null ? cause : "";
+			_ready.signalAll();
+			_done.signalAll();
+			_resumed.signalAll();
+		} finally {
+			_lock.unlock();
+		}
+	}
+
+	public void ceaseSilently(String cause) {
+		cease(cause);
+	}
+
+	/** Returns the number of event threads of this kind.
+	 */
+	public static final int getThreadNumber() {
+		return _nThd.get();
+	}
+
+	/** Returns the number of event threads of this kind in processing.
+	 */
+	public static final int getThreadNumberInProcessing() {
+		return _nBusyThd.get();
+	}
+
+	/** Returns the number of event threads of this kind being suspended.
+	 */
+	public static final int getThreadNumberSuspended() {
+		return _nSuspended.get();
+	}
+
+	public void newEventThreadSuspends(Object mutex) {
+		if (_proc == null)
+			throw new IllegalStateException();
+
+		_evtThdSuspends = _proc.getDesktop().getWebApp().getConfiguration().newEventThreadSuspends(getComponent(),
+				getEvent(), mutex);
+		//it might throw an exception, so process it before updating
+		//_suspended
+	}
+
+	public void suspendEvent(Object mutex) throws InterruptedException {
+		if (mutex == null)
+			throw new IllegalArgumentException("null mutex");
+		if (_current.get() != this)
+			throw new IllegalStateException("Only callable in the event thread");
+		if (isIdle())
+			throw new InternalError("Called without processing event?");
+		if (_suspended)
+			throw new InternalError("Suspend twice?");
+
+		ExecutionMonitor execmon = null;
+		_lock.lock();
+		try {
+			_suspended = true;
+			_nSuspended.incrementAndGet();
+
+			//Bug 1814298: need to call Execution.onDeactivate
+			Execution exec = getExecution();
+			if (exec != null) {
+				_acted = false;
+				try {
+					((ExecutionCtrl) exec).onDeactivate();
+				} catch (Throwable ex) {
+					log.warn("Ignored deactivate failure", ex);
+				}
+			}
+
+			//let the main thread continue
+			_done.signalAll();
+
+			if (_ceased == null) {
+				execmon = _proc.getDesktop().getWebApp().getConfiguration().getExecutionMonitor();
+				//init only required, so eventResume called if-only-if eventSuspend called
+				if (execmon != null)
+					execmon.eventSuspend(getEvent());
+
+				while (_suspended && _ceased == null)
+					_resumed.await();
+			}
+		} finally {
+			if (_suspended)
+				_suspended = false; //just in case (such as _ceased)
+			_nSuspended.decrementAndGet();
+			_lock.unlock();
+
+			if (execmon != null)
+				execmon.eventResume(getEvent());
+		}
+
+		if (_ceased != null)
+			throw new InterruptedException(_ceased);
+
+		//being resumed
+		_proc.setup();
+		Execution exec = getExecution();
+		if (exec != null) {
+			((ExecutionCtrl) exec).onActivate();
+			_acted = true;
+		}
+
+		final List<EventThreadResume> resumes = _evtThdResumes;
+		_evtThdResumes = null;
+		if (resumes != null && !resumes.isEmpty()) {
+			_proc.getDesktop().getWebApp().getConfiguration().invokeEventThreadResumes(resumes, getComponent(),
+					getEvent());
+			//FUTURE: how to propagate errors to the client
+		}
+	}
+
+	private Execution getExecution() {
+		Execution exec = _proc.getDesktop().getExecution();
+		return exec != null ? exec : Executions.getCurrent();
+		//just in case that the execution is dead first
+	}
+
+	public boolean doResume() throws InterruptedException {
+		if (_current.get() == this)
+			throw new IllegalStateException("A thread cannot resume itself");
+		if (isIdle())
+			throw new InternalError("Called without processing event?");
+		if (!_suspended)
+			throw new InternalError("Resume non-suspended thread?");
+
+		//Copy first since event thread clean up them, when completed
+		final Configuration config = _proc.getDesktop().getWebApp().getConfiguration();
+		final Component comp = getComponent();
+		final Event event = getEvent();
+		try {
+			_evtThdResumes = config.newEventThreadResumes(comp, event);
+
+			_lock.lock();
+			try {
+				_suspended = false;
+				_resumed.signalAll(); //wake the suspended event thread
+
+				//wait until the event thread completes or suspends again
+				while (_ceased == null && !isIdle() && !_suspended)
+					_done.await();
+			} finally {
+				_lock.unlock();
+			}
+		} finally {
+			//_evtThdCleanups is null if //1) no listener;
+			//2) the event thread is suspended again (handled by another doResume)
+			invokeEventThreadCompletes(config, comp, event);
+		}
+
+		checkError();
+		return isIdle();
+	}
+
+	public boolean processEvent(Desktop desktop, Component comp, Event event) {
+		if (EventProcessor.getCurrentThread() != null)
+			throw new IllegalStateException("processEvent cannot be called in an event thread");
+		if (_ceased != null)
+			throw new InternalError("The event thread has beeing stopped. Cause: " + _ceased);
+		if (_proc != null)
+			throw new InternalError("reentering processEvent not allowed");
+
+		_locale = Locales.getCurrent();
+		_timeZone = TimeZones.getCurrent();
+		_ex = null;
+
+		final EventProcessor proc = new EventProcessor(desktop, comp, event);
+		//it also check the correctness of desktop/comp/event
+		final Configuration config = desktop.getWebApp().getConfiguration();
+		_evtThdInits = config.newEventThreadInits(comp, event);
+		try {
+			final long evtTimeWarn = config.getEventTimeWarning() * 1000L;
+			final long begt = System.currentTimeMillis();
+			_lock.lock();
+			try {
+				_proc = proc;
+				_pending = true;
+				_ready.signalAll(); //ask the event thread to handle it
+
+				//wait until the event thread to complete or suspended
+				while (_ceased == null && !_suspended && _proc != null) {
+					if (evtTimeWarn > 0) {
+						if (!_done.await(evtTimeWarn, TimeUnit.MILLISECONDS) && _proc != null && !_suspended)
+							log.warn("The event processing takes more than "
+									+ ((System.currentTimeMillis() - begt) / 1000) + " seconds: " + proc);
+					} else {
+						_done.await();
+					}
+				}
+			} finally {
+				_lock.unlock();
+			}
+			if (_suspended) {
+				config.invokeEventThreadSuspends(_evtThdSuspends, comp, event);
+				_evtThdSuspends = null;
+			}
+		} catch (InterruptedException ex) {
+			throw new UiException(ex);
+		} finally {
+			//_evtThdCleanups is null if //1) no listener;
+			//2) the event thread is suspended (then handled by doResume).
+			invokeEventThreadCompletes(config, comp, event);
+		}
+
+		checkError(); //check any error occurs
+		return isIdle();
+	}
+
+	private void invokeEventThreadCompletes(Configuration config, Component comp, Event event) throws UiException {
+		final List<Throwable> errs = new LinkedList<Throwable>();
+		if (_ex != null)
+			errs.add(_ex);
+
+		if (_evtThdCleanups != null && !_evtThdCleanups.isEmpty())
+			config.invokeEventThreadCompletes(_evtThdCleanups, comp, event, errs, _ceased != null);
+
+		_evtThdCleanups = null;
+		_ex = errs.isEmpty() ? null : errs.get(0);
+	}
+
+	private void checkError() {
+		if (_ex != null) { //failed to process
+			final Throwable ex = _ex;
+			_ex = null;
+			throw UiException.Aide.wrap(ex);
+		}
+	}
+
+	private void run() {
+		_current.set(this);
+		_nThd.incrementAndGet();
+		try {
+			for (;;) {
+				_lock.lock();
+				try {
+					while (_ceased == null && !_pending)
+						_ready.await();
+					if (_ceased != null)
+						break;
+					_pending = false;
+				} finally {
+					_lock.unlock();
+				}
+
+				process();
+
+				_lock.lock();
+				try {
+					_proc = null;
+					_done.signalAll(); //wake the main thread OR the resuming thread
+				} finally {
+					_lock.unlock();
+				}
+			}
+		} catch (Throwable ex) {
+			if (_ceased == null)
+				_ceased = Exceptions.getMessage(ex);
+
+			if (Exceptions.findCause(ex, InterruptedException.class) == null)
+				throw UiException.Aide.wrap(ex);
+		} finally {
+			_nThd.decrementAndGet();
+			_current.remove();
+			_lock.lock();
+			try { //just in case
+				if (_ceased == null)
+					_ceased = "Unknown reason";
+				_done.signalAll();
+			} finally {
+				_lock.unlock();
+			}
+		}
+	}
+
+	/** Processes the event handed by {@link #processEvent}. */
+	private void process() {
+		final Configuration config = _proc.getDesktop().getWebApp().getConfiguration();
+		boolean cleaned = false;
+		_nBusyThd.incrementAndGet();
+		Execution exec = null;
+		try {
+			Locales.setThreadLocal(_locale);
+			TimeZones.setThreadLocal(_timeZone);
+
+			_proc.setup();
+			exec = getExecution();
+			if (exec != null) {
+				((ExecutionCtrl) exec).onActivate();
+				_acted = true;
+			}
+
+			final boolean b = config.invokeEventThreadInits(_evtThdInits, getComponent(), getEvent());
+			_evtThdInits = null;
+
+			if (b)
+				_proc.process();
+		} catch (Throwable ex) {
+			cleaned = true;
+			newEventThreadCleanups(config, ex);
+			//ex will be assigned to _ex if newEventThreadCleanups not 'eat' it
+		} finally {
+			_nBusyThd.decrementAndGet();
+
+			if (!cleaned)
+				newEventThreadCleanups(config, _ex);
+
+			if (exec != null && _acted) { //_acted is false if suspended is killed
+				_acted = false;
+				try {
+					((ExecutionCtrl) exec).onDeactivate();
+				} catch (Throwable ex) {
+					log.warn("Ignored deactivate failure", ex);
+				}
+			}
+			_proc.cleanup();
+
+			Locales.setThreadLocal(_locale = null);
+			TimeZones.setThreadLocal(_timeZone = null);
+
+			if (_ex != null && _ceased != null)
+				_ex = null; //avoid annoying message (Bug 2819521)
+		}
+	}
+
+	/** Invokes {@link Configuration#newEventThreadCleanups}.
+	 */
+	private void newEventThreadCleanups(Configuration config, Throwable ex) {
+		final List<Throwable> errs = new LinkedList<Throwable>();
+		if (ex != null)
+			errs.add(ex);
+		_evtThdCleanups = config.newEventThreadCleanups(getComponent(), getEvent(), errs, _ceased != null);
+		_ex = errs.isEmpty() ? null : errs.get(0);
+		//propagate back the first exception
+	}
+
+	//-- Object --//
+	public String toString() {
+		return "[" + _thread + ": " + _proc + ", ceased=" + _ceased + ']';
+	}
+}
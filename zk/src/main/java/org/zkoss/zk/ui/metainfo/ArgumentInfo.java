@@ -30,7 +30,7 @@ import org.zkoss.zk.xel.ExValue;
  * @author tomyeh
  * @since 3.6.2
  */
-/*package*/ class ArgumentInfo { //directive
+/*package*/ class ArgumentInfo implements java.io.Serializable { //directive
 	/** The arguments (String name, ExValue value), null if no argument. */
 	private final Map<String, ExValue> _args;
 
@@ -0,0 +1,226 @@
+/* CompiledPageLoader.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 22:21:09 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zk.ui.metainfo;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.zkoss.io.Files;
+import org.zkoss.lang.Classes;
+import org.zkoss.lang.Library;
+import org.zkoss.util.resource.Locator;
+import org.zkoss.web.util.resource.ResourceLoader;
+import org.zkoss.zk.ui.WebApp;
+
+/**
+ * The loader of page definitions that loads the pages compiled ahead of
+ * time (by {@link org.zkoss.zk.ui.http.ZulCompiler}), rather than parsing them.
+ * To use it, specify the library property:
+ * <pre><code>&lt;library-property&gt;
+ *  &lt;name&gt;org.zkoss.zk.ui.metainfo.page.Loader.class&lt;/name&gt;
+ *  &lt;value&gt;org.zkoss.zk.ui.metainfo.CompiledPageLoader&lt;/value&gt;
+ *&lt;/library-property&gt;</code></pre>
+ *
+ * <p>The compiled page of a page is located under the directory specified
+ * by the library property called
+ * <code>org.zkoss.zk.ui.metainfo.page.compiled.path</code>
+ * (default: <code>/WEB-INF/zulc</code>) with the same path. For example,
+ * the compiled page of <code>/admin/user.zul</code> is
+ * <code>/WEB-INF/zulc/admin/user.zul</code>.
+ *
+ * <p>A compiled page is used only if it is compiled from the same content
+ * (by comparing the length and CRC-32 of the page), and by the same
+ * version of ZK. Otherwise, the page is parsed as usual.
+ * Notice that the pages imported by the <code>import</code> directive are
+ * merged when compiled, so the page shall be compiled again if any of them
+ * is changed.
+ *
+ * <p>A compiled page is the page definition serialized by Java
+ * serialization. Like any serialized data, it shall be trusted,
+ * i.e., generated by the build of the Web application.
+ *
+ * @author agent
+ * @since 10.0.1
+ */
+public class CompiledPageLoader extends ResourceLoader<PageDefinition> {
+	private static final Logger log = LoggerFactory.getLogger(CompiledPageLoader.class);
+	/** The magic number of a compiled page ("ZULC"). */
+	private static final int MAGIC = 0x5A554C43;
+	/** The version of the compiled format. */
+	private static final int FORMAT = 1;
+
+	private final WebApp _wapp;
+	private final PageDefinitions.MyLoader _parser;
+	private final String _dir;
+
+	public CompiledPageLoader(WebApp wapp) {
+		_wapp = wapp;
+		_parser = new PageDefinitions.MyLoader(wapp);
+		_dir = getCompiledPath();
+	}
+
+	/** Returns the directory of the compiled pages, specified by the library
+	 * property called <code>org.zkoss.zk.ui.metainfo.page.compiled.path</code>.
+	 * It never ends with '/'.
+	 */
+	public static String getCompiledPath() {
+		final String dir = Library.getProperty("org.zkoss.zk.ui.metainfo.page.compiled.path", "/WEB-INF/zulc");
+		return dir.endsWith("/") ? dir.substring(0, dir.length() - 1) : dir;
+	}
+
+	//-- super --//
+	protected PageDefinition parse(String path, File file, Object extra) throws Exception {
+		final Locator locator = extra != null ? (Locator) extra : PageDefinitions.getLocator(_wapp, path);
+		if (file.exists()) {
+			final PageDefinition pgdef = load(path, readAll(new FileInputStream(file)), locator);
+			if (pgdef != null)
+				return pgdef;
+		} else { // Bug ZK-1132
+			final InputStream is = locator.getResourceAsStream(path);
+			if (is != null) {
+				final PageDefinition pgdef = load(path, readAll(is), locator);
+				if (pgdef != null)
+					return pgdef;
+			}
+		}
+		return _parser.parse(path, file, extra);
+	}
+
+	protected PageDefinition parse(String path, URL url, Object extra) throws Exception {
+		final Locator locator = extra != null ? (Locator) extra : PageDefinitions.getLocator(_wapp, path);
+		final PageDefinition pgdef = load(path, readAll(url.openStream()), locator);
+		return pgdef != null ? pgdef : _parser.parse(path, url, extra);
+	}
+
+	/** Loads the compiled page of the given path, or returns null if not
+	 * found or it is not compiled from the given content.
+	 */
+	private PageDefinition load(String path, byte[] source, Locator locator) {
+		final InputStream is = _wapp.getServletContext().getResourceAsStream(_dir + path);
+		if (is == null)
+			return null;
+
+		try {
+			final PageDefinition pgdef = read(is, source, getVersion(_wapp), locator);
+			if (pgdef == null) {
+				log.info("Outdated compiled page, " + _dir + path + ", ignored");
+				return null;
+			}
+			pgdef.setRequestPath(path);
+			if (log.isDebugEnabled())
+				log.debug("Compiled page loaded: " + path);
+			return pgdef;
+		} catch (Throwable ex) {
+			log.warn("Unable to load the compiled page, " + _dir + path, ex);
+			return null;
+		}
+	}
+
+	/** Returns the version of ZK that a compiled page depends on.
+	 */
+	public static String getVersion(WebApp wapp) {
+		return wapp.getVersion() + '/' + wapp.getBuild();
+	}
+
+	/** Writes the given page definition in the compiled format.
+	 * @param source the content of the page (which pgdef is parsed from).
+	 * It is used to check whether the compiled page is up-to-date.
+	 * @param version the version of ZK. See {@link #getVersion}.
+	 * @exception java.io.NotSerializableException if some part of the
+	 * page definition is not serializable, such as an initiator instance.
+	 */
+	public static void write(PageDefinition pgdef, byte[] source, String version, OutputStream out)
+			throws IOException {
+		final DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(out));
+		dos.writeInt(MAGIC);
+		dos.writeInt(FORMAT);
+		dos.writeUTF(version);
+		dos.writeInt(source.length);
+		dos.writeLong(checksum(source));
+
+		final ObjectOutputStream oos = new ObjectOutputStream(dos);
+		oos.writeObject(pgdef);
+		oos.flush();
+	}
+
+	/** Reads a page definition from the compiled format, or returns null
+	 * if it is not compiled from the given content, or by the given version.
+	 * <p>The input stream is closed after read.
+	 * @param source the content of the page.
+	 * @param version the version of ZK. See {@link #getVersion}.
+	 * @param locator the locator of the page definition.
+	 */
+	public static PageDefinition read(InputStream in, byte[] source, String version, Locator locator)
+			throws IOException, ClassNotFoundException {
+		try {
+			final DataInputStream dis = new DataInputStream(new BufferedInputStream(in));
+			if (dis.readInt() != MAGIC)
+				throw new IOException("Not a compiled page");
+			if (dis.readInt() != FORMAT || !dis.readUTF().equals(version) || dis.readInt() != source.length
+					|| dis.readLong() != checksum(source))
+				return null;
+
+			final PageDefinition pgdef = (PageDefinition) new ThreadObjectInputStream(dis).readObject();
+			pgdef.setLocator(locator);
+			return pgdef;
+		} finally {
+			in.close();
+		}
+	}
+
+	private static long checksum(byte[] source) {
+		final CRC32 crc = new CRC32();
+		crc.update(source);
+		return crc.getValue();
+	}
+
+	private static byte[] readAll(InputStream is) throws IOException {
+		try {
+			return Files.readAll(is);
+		} finally {
+			Files.close(is);
+		}
+	}
+
+	/** Resolves classes with the thread's context class loader,
+	 * since the classes of the Web application might not be visible
+	 * to ZK's class loader.
+	 */
+	private static class ThreadObjectInputStream extends ObjectInputStream {
+		private ThreadObjectInputStream(InputStream in) throws IOException {
+			super(in);
+		}
+
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			try {
+				return Classes.forNameByThread(desc.getName());
+			} catch (ClassNotFoundException ex) {
+				return super.resolveClass(desc);
+			}
+		}
+	}
+}
@@ -29,7 +29,7 @@ import org.zkoss.zk.xel.ExValue;
  * @author tomyeh
  * @since 3.0.2
  */
-public class ForwardInfo { //directive
+public class ForwardInfo implements java.io.Serializable { //directive
 	private final ExValue _uri;
 	private final ConditionImpl _cond;
 
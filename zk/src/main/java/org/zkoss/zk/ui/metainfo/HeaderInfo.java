@@ -51,7 +51,7 @@ import org.zkoss.zk.xel.ExValue;
  * @author tomyeh
  * @see ResponseHeaderInfo
  */
-public class HeaderInfo { //directive
+public class HeaderInfo implements java.io.Serializable { //directive
 	private final String _name;
 	/** A list of AttrInfo. */
 	private final List<AttrInfo> _attrs;
@@ -152,7 +152,7 @@ public class HeaderInfo { //directive
 		return sb.append(bScript ? ">\n</script>" : "/>").toString();
 	}
 
-	private static class AttrInfo {
+	private static class AttrInfo implements java.io.Serializable {
 		private final String name;
 		private final ExValue value;
 
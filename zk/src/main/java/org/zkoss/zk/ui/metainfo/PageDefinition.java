@@ -53,16 +53,18 @@ import org.zkoss.zk.xel.impl.SimpleEvaluator;
  *
  * <p>Note: it is not thread-safe.
  *
- * <p>Note: it is not serializable.
+ * <p>Note: it is serializable since 10.0.1, such that it can be compiled
+ * ahead of time (see {@link CompiledPageLoader}). However, the locator
+ * is not serialized; it is assigned when it is loaded.
  *
  * @author tomyeh
  * @see ComponentDefinition
  */
-public class PageDefinition implements NodeInfo {
+public class PageDefinition implements NodeInfo, java.io.Serializable {
 	/** A list of a children ({@link NodeInfo}). */
 	private final List<NodeInfo> _children = new LinkedList<NodeInfo>();
-	private final LanguageDefinition _langdef;
-	private final Locator _locator;
+	private transient LanguageDefinition _langdef;
+	private transient Locator _locator;
 	private String _id, _title, _style, _viewport;
 	/** The request path. */
 	private String _path = "";
@@ -74,11 +76,11 @@ public class PageDefinition implements NodeInfo {
 	/** A list of XEL methods, List<FunctionDefinition>. */
 	private List<FunctionDefinition> _xelfuncs;
 	/** The evaluator. */
-	private Evaluator _eval;
+	private transient Evaluator _eval;
 	/** The evaluator reference. */
-	private EvaluatorRef _evalr;
+	private transient EvaluatorRef _evalr;
 	/** The function mapper. */
-	private FunctionMapper _mapper;
+	private transient FunctionMapper _mapper;
 	/* List(InitiatorInfo). */
 	private List<InitiatorInfo> _initdefs;
 	/** List(VariableResolverInfo). */
@@ -151,6 +153,14 @@ public class PageDefinition implements NodeInfo {
 		return _locator;
 	}
 
+	/** Sets the locator, after this page definition is deserialized.
+	 */
+	/*package*/ void setLocator(Locator locator) {
+		if (locator == null)
+			throw new IllegalArgumentException("null locator");
+		_locator = locator;
+	}
+
 	/** Returns the default scripting language which is assumed when
 	 * a zscript element doesn't specify any language.
 	 *
@@ -1076,6 +1086,24 @@ public class PageDefinition implements NodeInfo {
 		return _children;
 	}
 
+	//Serializable//
+	//NOTE: they must be declared as private
+	private synchronized void writeObject(java.io.ObjectOutputStream s) throws java.io.IOException {
+		s.defaultWriteObject();
+		s.writeObject(_langdef.getName());
+	}
+
+	private void readObject(java.io.ObjectInputStream s) throws java.io.IOException, ClassNotFoundException {
+		s.defaultReadObject();
+		_langdef = LanguageDefinition.lookup((String) s.readObject());
+
+		//fix parent and evaluator reference (PageEvalRef doesn't serialize the page definition)
+		for (NodeInfo child : _children) {
+			((LeafInfo) child).setParentDirectly(this);
+			BranchInfo.fixEvaluatorRefDown(child, getEvaluatorRef());
+		}
+	}
+
 	//Object//
 	public String toString() {
 		return "[PageDefinition: " + (_id != null ? _id : _title != null ? _title : "" + System.identityHashCode(this))
@@ -197,10 +197,10 @@ public class PageDefinitions {
 		return cache;
 	}
 
-	private static class MyLoader extends ResourceLoader<PageDefinition> {
+	/*package*/ static class MyLoader extends ResourceLoader<PageDefinition> {
 		private final WebApp _wapp;
 
-		private MyLoader(WebApp wapp) {
+		/*package*/ MyLoader(WebApp wapp) {
 			_wapp = wapp;
 		}
 
@@ -35,7 +35,7 @@ import org.zkoss.zk.xel.ExValue;
  * @author tomyeh
  * @since 5.0.2
  */
-public class ResponseHeaderInfo { //directive
+public class ResponseHeaderInfo implements java.io.Serializable { //directive
 	private final String _name;
 	private final ExValue _value, _append;
 	private final ConditionImpl _cond;
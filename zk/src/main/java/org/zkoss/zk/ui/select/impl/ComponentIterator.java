@@ -4,6 +4,8 @@
 package org.zkoss.zk.ui.select.impl;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -14,8 +16,10 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.zkoss.lang.Library;
 import org.zkoss.lang.Strings;
 import org.zkoss.util.Pair;
+import org.zkoss.zel.impl.util.ConcurrentCache;
 import org.zkoss.zk.ui.Component;
 import org.zkoss.zk.ui.HtmlShadowElement;
 import org.zkoss.zk.ui.IdSpace;
@@ -23,6 +27,8 @@ import org.zkoss.zk.ui.Page;
 import org.zkoss.zk.ui.ShadowElement;
 import org.zkoss.zk.ui.select.impl.Selector.Combinator;
 import org.zkoss.zk.ui.sys.ComponentCtrl;
+import org.zkoss.zk.ui.sys.ComponentIndex;
+import org.zkoss.zk.ui.sys.PageCtrl;
 
 /**
  * An implementation of Iterator&lt;Component&gt; that realizes the selector matching
@@ -33,17 +39,28 @@ import org.zkoss.zk.ui.sys.ComponentCtrl;
  */
 public class ComponentIterator implements Iterator<Component> {
 
+	private static final String CACHE_SIZE_PROP = "org.zkoss.zk.ui.select.impl.ComponentIterator.CACHE_SIZE";
+	/** The parsed selectors, keyed by the selector string. */
+	private static final ConcurrentCache<String, List<Selector>> _selectorCache = new ConcurrentCache<String, List<Selector>>(
+			Library.getIntProperty(CACHE_SIZE_PROP, 500));
+
 	private final Page _page;
 	private final Component _root;
 	private final List<Selector> _selectorList;
 	private final int _posOffset;
 	private final boolean _allIds;
 	private final boolean _lookingForShadow;
+	/** The only simple selector sequence if it is matched without the
+	 * matching context (i.e., only type and classes), or null if not. */
+	private final SimpleSelectorSequence _simpleSeq;
 	private final Map<String, PseudoClassDef> _localDefs = new HashMap<String, PseudoClassDef>();
 
 	private Component _offsetRoot;
 	private ComponentMatchCtx _currCtx;
 	private Set<String> _trackedUuid;
+	/** The components matching {@link #_simpleSeq} found with
+	 * {@link ComponentIndex}, or null if the tree is visited instead. */
+	private List<Component> _indexed;
 
 	/**
 	 * Create an iterator which selects from all the components in the page.
@@ -70,8 +87,7 @@ public class ComponentIterator implements Iterator<Component> {
 		if (Strings.isEmpty(selector))
 			throw new IllegalArgumentException("Selector string cannot be empty.");
 
-		_selectorList = new Parser()
-				.parse(selector.replaceAll("^::shadow", "*::shadow").replaceAll("::shadow", " > ::shadow"));
+		_selectorList = parse(selector);
 		if (_selectorList.isEmpty())
 			throw new IllegalStateException("Empty selector");
 
@@ -81,11 +97,32 @@ public class ComponentIterator implements Iterator<Component> {
 		if (_lookingForShadow) {
 			_trackedUuid = new HashSet<>();
 		}
+		_simpleSeq = getSimpleSequence(_selectorList);
 
 		_root = root;
 		_page = page;
 	}
 
+	/** Returns the parsed selectors of the given selector string.
+	 * The result is cached and shared, so it must not be modified.
+	 */
+	private static List<Selector> parse(String selector) {
+		return _selectorCache.computeIfAbsent(selector, k -> Collections.unmodifiableList(
+				new Parser().parse(k.replaceAll("^::shadow", "*::shadow").replaceAll("::shadow", " > ::shadow"))));
+	}
+
+	/** Returns the simple selector sequence if the selector list consists of
+	 * a single sequence with only type and/or classes, such as
+	 * <code>listbox</code> and <code>.sclass</code>.
+	 */
+	private static SimpleSelectorSequence getSimpleSequence(List<Selector> list) {
+		if (list.size() != 1 || list.get(0).size() != 1)
+			return null;
+		final SimpleSelectorSequence seq = list.get(0).get(0);
+		return seq.getId() == null && seq.getAttributes().isEmpty() && seq.getPseudoClasses().isEmpty()
+				&& seq.getPseudoElements().isEmpty() ? seq : null;
+	}
+
 	private static int getCommonSeqLength(List<Selector> list) {
 		List<String> strs = null;
 		int max = 0;
@@ -215,6 +252,8 @@ public class ComponentIterator implements Iterator<Component> {
 	}
 
 	private Component seekNext() {
+		if (_simpleSeq != null)
+			return seekNextSimple();
 		if (_index < 0) {
 			_currCtx = buildRootCtx();
 		} else {
@@ -234,6 +273,159 @@ public class ComponentIterator implements Iterator<Component> {
 		return null;
 	}
 
+	/** Seeks the next component matching {@link #_simpleSeq} in the
+	 * depth-first order, without building the matching context.
+	 */
+	private Component seekNextSimple() {
+		if (_index < 0)
+			_indexed = findByIndex();
+		if (_indexed != null)
+			return _index + 1 < _indexed.size() ? _indexed.get(++_index) : null;
+
+		Component comp = _index < 0 ? (_root == null ? _page.getFirstRoot() : _root)
+				: _next != null ? nextInTree(_next) : null;
+		for (; comp != null; comp = nextInTree(comp))
+			if (matchSimple(comp)) {
+				_index++;
+				return comp;
+			}
+		return null;
+	}
+
+	private boolean matchSimple(Component comp) {
+		return ComponentLocalProperties.matchType(comp, _simpleSeq.getType())
+				&& ComponentLocalProperties.matchClasses(comp, _simpleSeq.getClasses());
+	}
+
+	/** Returns the components matching {@link #_simpleSeq} in the
+	 * depth-first order by use of {@link ComponentIndex}, or null if not
+	 * available, e.g., the root belongs to no ID space.
+	 */
+	private List<Component> findByIndex() {
+		final Set<String> classes = _simpleSeq.getClasses();
+		if (_simpleSeq.getType() == null && (classes == null || classes.isEmpty()))
+			return null; //all components, e.g., *
+
+		final List<Component> found = new ArrayList<Component>();
+		ComponentIndex index = null;
+		Component within = null;
+		if (_root == null) {
+			if (_page instanceof PageCtrl)
+				index = ((PageCtrl) _page).getComponentIndex();
+		} else if (_root instanceof IdSpace) {
+			if (matchSimple(_root))
+				found.add(_root);
+			index = ((ComponentCtrl) _root).getComponentIndex();
+		} else {
+			within = _root;
+			for (Component p = _root;;) {
+				final Component parent = p.getParent();
+				if (parent instanceof IdSpace) {
+					index = ((ComponentCtrl) parent).getComponentIndex();
+					break;
+				}
+				if (parent == null) {
+					final Page page = p.getPage();
+					if (page instanceof PageCtrl)
+						index = ((PageCtrl) page).getComponentIndex();
+					break;
+				}
+				p = parent;
+			}
+		}
+		final List<Collection<Component>> candidates = new ArrayList<Collection<Component>>();
+		final int size = index != null ? getCandidates(index, within, candidates) : -1;
+		int count = 0;
+		for (Collection<Component> c : candidates)
+			count += c.size();
+		if (size < 0 || count > size / 8)
+			return null; //visiting the tree is faster if most components are candidates
+
+		for (Collection<Component> c : candidates)
+			for (Component comp : c)
+				if ((within == null || c != candidates.get(0) || isAncestor(within, comp)) && matchSimple(comp))
+					found.add(comp);
+		sortInTreeOrder(found);
+		return found;
+	}
+
+	/** Adds the candidates of the given index, and then the indexes of the
+	 * ID spaces in it, to candidates.
+	 * @param within the component whose descendants (including itself)
+	 * are the candidates, or null if all.
+	 * @return the number of components in the indexes, or -1 if the index
+	 * of any ID space is not available.
+	 */
+	private int getCandidates(ComponentIndex index, Component within, List<Collection<Component>> candidates) {
+		candidates.add(index.getCandidates(_simpleSeq.getType(), _simpleSeq.getClasses()));
+		int size = index.size();
+		for (Component owner : index.getSpaceOwners())
+			if (within == null || isAncestor(within, owner)) {
+				final ComponentIndex sub = ((ComponentCtrl) owner).getComponentIndex();
+				final int subsz = sub != null ? getCandidates(sub, null, candidates) : -1;
+				if (subsz < 0)
+					return -1;
+				size += subsz;
+			}
+		return size;
+	}
+
+	private static boolean isAncestor(Component ancestor, Component comp) {
+		for (; comp != null; comp = comp.getParent())
+			if (comp == ancestor)
+				return true;
+		return false;
+	}
+
+	/** Sorts the components in the depth-first order. Only the components
+	 * and their ancestors, and the children of the ancestors are visited.
+	 */
+	private static void sortInTreeOrder(List<Component> comps) {
+		if (comps.size() < 2)
+			return;
+
+		final Set<Component> found = new HashSet<Component>(comps), visits = new HashSet<Component>();
+		for (Component comp : comps)
+			for (Component p = comp; p != null && visits.add(p); p = p.getParent())
+				;
+
+		Component top = comps.get(0);
+		while (top.getParent() != null)
+			top = top.getParent();
+		final Page page = top.getPage();
+
+		comps.clear();
+		for (Component c = page != null ? page.getFirstRoot() : top; c != null; c = c.getNextSibling())
+			if (visits.contains(c))
+				addInTreeOrder(c, found, visits, comps);
+	}
+
+	/** Returns the component next to the given one in the depth-first order,
+	 * or null if the whole tree of the root is visited.
+	 */
+	private Component nextInTree(Component comp) {
+		final Component child = comp.getFirstChild();
+		if (child != null)
+			return child;
+		while (comp != _root) {
+			final Component sibling = comp.getNextSibling();
+			if (sibling != null)
+				return sibling;
+			if ((comp = comp.getParent()) == null)
+				return null;
+		}
+		return null;
+	}
+
+	private static void addInTreeOrder(Component comp, Set<Component> found, Set<Component> visits,
+			List<Component> comps) {
+		if (found.contains(comp))
+			comps.add(comp);
+		for (Component c = comp.getFirstChild(); c != null; c = c.getNextSibling())
+			if (visits.contains(c))
+				addInTreeOrder(c, found, visits, comps); //recursive
+	}
+
 	private ComponentMatchCtx buildRootCtx() {
 		Component rt = _root == null ? _page.getFirstRoot() : _root;
 		if (_posOffset > 0) {
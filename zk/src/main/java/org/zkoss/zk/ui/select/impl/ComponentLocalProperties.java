@@ -70,8 +70,7 @@ public class ComponentLocalProperties {
 	/*package*/ static boolean matchType(Component component, String type) {
 		if (type == null)
 			return true;
-		return component.getDefinition().getName().toLowerCase(java.util.Locale.ENGLISH)
-				.equals(type.toLowerCase(java.util.Locale.ENGLISH));
+		return component.getDefinition().getName().equalsIgnoreCase(type);
 	}
 
 	/*package*/ static boolean matchClasses(Component component, Set<String> classes) {
@@ -84,12 +83,25 @@ public class ComponentLocalProperties {
 		String zcls = ((HtmlBasedComponent) component).getZclass();
 
 		for (String c : classes)
-			if (scls == null || !scls.matches("(?:^|.*\\s)" + c + "(?:\\s.*|$)") && !Objects.equals(zcls, c))
+			if (scls == null || !containsClass(scls, c) && !Objects.equals(zcls, c))
 				return false;
 
 		return true;
 	}
 
+	/** Returns whether the whitespace-separated class names contain the given one.
+	 */
+	private static boolean containsClass(String sclass, String clazz) {
+		final int len = sclass.length(), clen = clazz.length();
+		for (int j = 0; (j = sclass.indexOf(clazz, j)) >= 0; ++j) {
+			final int end = j + clen;
+			if ((j == 0 || Character.isWhitespace(sclass.charAt(j - 1)))
+					&& (end == len || Character.isWhitespace(sclass.charAt(end))))
+				return true;
+		}
+		return false;
+	}
+
 	/*package*/ static boolean matchAttributes(Component component, List<Attribute> attributes) {
 		if (attributes == null || attributes.isEmpty())
 			return true;
@@ -616,6 +616,17 @@ public interface ComponentCtrl {
 		return Collections.emptyMap();
 	}
 
+	/**
+	 * Returns the index of the components in the ID space owned by this
+	 * component, or null if this component is not an ID space owner or
+	 * the index is not supported.
+	 * <p>Used only internally.
+	 * @since 10.0.1
+	 */
+	public default ComponentIndex getComponentIndex() {
+		return null;
+	}
+
 	/**
 	 * Renders the component properties only
 	 * @param renderer
@@ -0,0 +1,228 @@
+/* ComponentIndex.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 15:20:41 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zk.ui.sys;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.zkoss.zk.ui.Component;
+import org.zkoss.zk.ui.HtmlBasedComponent;
+import org.zkoss.zk.ui.IdSpace;
+import org.zkoss.zk.ui.ShadowElement;
+
+/**
+ * An index of the components of an ID space by type (the name of the
+ * component definition) and by CSS class (the names of
+ * {@link HtmlBasedComponent#getSclass} and {@link HtmlBasedComponent#getZclass}),
+ * such that a simple selector, such as <code>listbox</code> or
+ * <code>.sclass</code>, can be matched without visiting the whole tree.
+ *
+ * <p>It contains the components whose space owner is the ID space,
+ * including the ID space owners in it, but not their descendants,
+ * which are indexed by the ID space owners themselves.
+ * It is created when the ID space is queried the first time
+ * ({@link ComponentCtrl#getComponentIndex} and {@link PageCtrl#getComponentIndex}),
+ * and then maintained when a component is attached or detached, or when
+ * its definition, sclass, zclass or mold is changed.
+ *
+ * <p>The components overriding {@link HtmlBasedComponent#getSclass} are
+ * candidates of every class, since the sclass they return might not be
+ * changed by {@link HtmlBasedComponent#setSclass}. On the other hand,
+ * {@link HtmlBasedComponent#getZclass} is assumed to depend only on
+ * {@link HtmlBasedComponent#setZclass} and the mold.
+ *
+ * <p>The candidates it returns are in no particular order, and the caller
+ * has to match them against the selector.
+ *
+ * <p>Used only internally.
+ *
+ * @author agent
+ * @since 10.0.1
+ */
+public class ComponentIndex {
+	/** Whether a component class overrides {@link HtmlBasedComponent#getSclass}. */
+	private static final ClassValue<Boolean> _dynamicSclass = new ClassValue<Boolean>() {
+		protected Boolean computeValue(Class<?> cls) {
+			try {
+				return cls.getMethod("getSclass").getDeclaringClass() != HtmlBasedComponent.class;
+			} catch (NoSuchMethodException ex) {
+				return Boolean.TRUE;
+			}
+		}
+	};
+
+	/** A map of (String type, Set of components) where type is in lower case. */
+	private final Map<String, Set<Component>> _types = new HashMap<String, Set<Component>>();
+	/** A map of (String class, Set of components). */
+	private final Map<String, Set<Component>> _classes = new HashMap<String, Set<Component>>();
+	/** A map of (Component, String[] classes) it is indexed by in {@link #_classes}. */
+	private final Map<Component, String[]> _classesOf = new HashMap<Component, String[]>();
+	/** The components overriding {@link HtmlBasedComponent#getSclass}. */
+	private final Set<Component> _dynamics = new HashSet<Component>();
+	/** The ID space owners in this ID space. */
+	private final Set<Component> _spaces = new HashSet<Component>();
+	/** The number of components in this index. */
+	private int _size;
+
+	/** Adds a component whose space owner is the ID space of this index.
+	 */
+	public void add(Component comp) {
+		if (comp instanceof ShadowElement)
+			return; //not part of the component tree
+
+		if (put(_types, getType(comp), comp))
+			++_size;
+		if (comp instanceof IdSpace)
+			_spaces.add(comp);
+		addClasses(comp);
+	}
+
+	/** Removes a component that was added by {@link #add}.
+	 */
+	public void remove(Component comp) {
+		if (comp instanceof ShadowElement)
+			return;
+
+		if (remove(_types, getType(comp), comp))
+			--_size;
+		_spaces.remove(comp);
+		removeClasses(comp);
+	}
+
+	/** Updates the classes of the given component after its sclass, zclass
+	 * or mold is changed.
+	 */
+	public void updateClasses(Component comp) {
+		if (comp instanceof HtmlBasedComponent) {
+			removeClasses(comp);
+			addClasses(comp);
+		}
+	}
+
+	private void addClasses(Component comp) {
+		if (!(comp instanceof HtmlBasedComponent))
+			return; //never matches a class
+		if (_dynamicSclass.get(comp.getClass())) {
+			_dynamics.add(comp);
+			return;
+		}
+
+		final HtmlBasedComponent hbc = (HtmlBasedComponent) comp;
+		final String sclass = hbc.getSclass();
+		if (sclass == null)
+			return; //never matches a class (see ComponentLocalProperties.matchClasses)
+
+		final List<String> classes = new ArrayList<String>(4);
+		for (int j = 0, len = sclass.length(); j < len;) {
+			int k = j;
+			while (k < len && !Character.isWhitespace(sclass.charAt(k)))
+				++k;
+			if (k > j)
+				classes.add(sclass.substring(j, k));
+			j = k + 1;
+		}
+		final String zclass = hbc.getZclass();
+		if (zclass != null)
+			classes.add(zclass);
+		if (!classes.isEmpty()) {
+			final String[] ary = classes.toArray(new String[classes.size()]);
+			for (String cls : ary)
+				put(_classes, cls, comp);
+			_classesOf.put(comp, ary);
+		}
+	}
+
+	private void removeClasses(Component comp) {
+		if (_dynamics.remove(comp))
+			return;
+
+		final String[] classes = _classesOf.remove(comp);
+		if (classes != null)
+			for (String cls : classes)
+				remove(_classes, cls, comp);
+	}
+
+	/** Returns the candidates that might match the given type and classes.
+	 * The candidates are not matched yet, and they are in no particular order.
+	 * @param type the type, or null if not specified.
+	 * @param classes the classes, or null if not specified.
+	 */
+	public Collection<Component> getCandidates(String type, Collection<String> classes) {
+		Collection<Component> found = null;
+		if (type != null)
+			found = get(_types, type.toLowerCase(Locale.ENGLISH));
+
+		if (classes != null && !classes.isEmpty()) {
+			Collection<Component> byClass = null;
+			for (String cls : classes) {
+				final Collection<Component> c = get(_classes, cls);
+				if (byClass == null || c.size() < byClass.size())
+					byClass = c;
+			}
+			if (found == null || byClass.size() + _dynamics.size() < found.size()) {
+				if (_dynamics.isEmpty()) {
+					found = byClass;
+				} else {
+					found = new ArrayList<Component>(byClass);
+					found.addAll(_dynamics);
+				}
+			}
+		}
+		return found != null ? found : Collections.<Component> emptyList();
+	}
+
+	/** Returns the number of components in this index, excluding the
+	 * descendants of the ID space owners in it.
+	 */
+	public int size() {
+		return _size;
+	}
+
+	/** Returns the ID space owners in this ID space, whose descendants are
+	 * indexed by their own index.
+	 */
+	public Collection<Component> getSpaceOwners() {
+		return _spaces;
+	}
+
+	private static String getType(Component comp) {
+		return comp.getDefinition().getName().toLowerCase(Locale.ENGLISH);
+	}
+
+	private static boolean put(Map<String, Set<Component>> map, String key, Component comp) {
+		Set<Component> comps = map.get(key);
+		if (comps == null)
+			map.put(key, comps = new HashSet<Component>(4));
+		return comps.add(comp);
+	}
+
+	private static boolean remove(Map<String, Set<Component>> map, String key, Component comp) {
+		final Set<Component> comps = map.get(key);
+		if (comps == null || !comps.remove(comp))
+			return false;
+		if (comps.isEmpty())
+			map.remove(key);
+		return true;
+	}
+
+	private static Collection<Component> get(Map<String, Set<Component>> map, String key) {
+		final Set<Component> comps = map.get(key);
+		return comps != null ? comps : Collections.<Component> emptySet();
+	}
+}
@@ -32,7 +32,7 @@ import org.zkoss.lang.Classes;
 import org.zkoss.lang.Library;
 import org.zkoss.lang.Objects;
 import org.zkoss.util.Cache;
-import org.zkoss.util.FastReadCache;
+import org.zkoss.util.Caches;
 import org.zkoss.util.Maps;
 import org.zkoss.util.Pair;
 import org.zkoss.zk.ui.Component;
@@ -401,7 +401,7 @@ public class ComponentsCtrl {
 
 	/** Sets the cache that stores the information about event handler methods.
 	 *
-	 * <p>Default: {@link FastReadCache}. In additions, the number of caches is default
+	 * <p>Default: {@link org.zkoss.util.FastReadCache} (refer to {@link Caches#newReadMostlyCache}). In additions, the number of caches is default
 	 * to 97 and can be changed by use of the org.zkoss.zk.ui.eventMethods.cache.number
 	 * property. The maximal allowed size of each cache, if GC, is default to 30
 	 * and can be changed by use of the org.zkoss.zk.ui.eventMethods.cache.maxSize
@@ -419,7 +419,7 @@ public class ComponentsCtrl {
 	}
 
 	/** A map of (Pair(Class,String evtnm), Method). */
-	private static Cache<Pair<Class<?>, String>, Object> _evtmtds = new FastReadCache<Pair<Class<?>, String>, Object>(
+	private static Cache<Pair<Class<?>, String>, Object> _evtmtds = Caches.newReadMostlyCache(
 			Library.getIntProperty("org.zkoss.zk.ui.event.methods.cache.maxSize", 600), 4 * 60 * 60 * 1000);
 
 	/** An utilities to create an array of JavaScript objects
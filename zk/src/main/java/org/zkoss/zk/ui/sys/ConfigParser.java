@@ -634,6 +634,9 @@ public class ConfigParser {
 				log.info("The event processing thread is disabled");
 			config.enableEventThread(enable);
 		}
+		s = el.getElementValue("virtual-event-thread", true);
+		if (s != null)
+			config.enableVirtualEventThread("true".equals(s));
 		s = el.getElementValue("disable-zscript", true);
 		if (s != null)
 			config.enableZScript(!"true".equals(s));
@@ -18,7 +18,9 @@ package org.zkoss.zk.ui.sys;
 
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import org.zkoss.util.media.Media;
 import org.zkoss.zk.au.AuRequest;
@@ -542,4 +544,50 @@ public interface DesktopCtrl {
 	 * @since 3.6.2
 	 */
 	public Object getActivationLock();
+
+	/** Marks the given component, or this desktop, as changed since the
+	 * last call of {@link #clearDirty}.
+	 * It is called by {@link UiEngine} when an AU request is processed,
+	 * and when a component is invalidated, updated, attached, moved or
+	 * detached in an execution (with its UUID).
+	 * It could be called by an application if it changes the state
+	 * of this desktop without updating the client, such that a replication
+	 * implementation, such as
+	 * <code>org.zkoss.zkplus.cluster.ReplicatedDesktopCache</code>, will
+	 * replicate it.
+	 * <p>Default: does nothing.
+	 * @param uuid the UUID of the changed component, or null if the change
+	 * is not specific to a component (such as a page being added).
+	 * @since 10.0.1
+	 */
+	public default void markDirty(String uuid) {
+	}
+
+	/** Returns whether this desktop is changed since the last call of
+	 * {@link #clearDirty} (or since it was created).
+	 * <p>Default: true (i.e., always assumed changed).
+	 * @since 10.0.1
+	 */
+	public default boolean isDirty() {
+		return true;
+	}
+
+	/** Returns the UUIDs of the components changed since the last call of
+	 * {@link #clearDirty}, or an empty set if {@link #clearDirty} was never
+	 * called (i.e., the components are not tracked until then).
+	 * <p>Default: an empty set.
+	 * @since 10.0.1
+	 */
+	public default Set<String> getDirtyComponents() {
+		return Collections.emptySet();
+	}
+
+	/** Clears the changes, and starts to track the changed components
+	 * (see {@link #getDirtyComponents}).
+	 * It is called after this desktop is replicated.
+	 * <p>Default: does nothing.
+	 * @since 10.0.1
+	 */
+	public default void clearDirty() {
+	}
 }
@@ -62,4 +62,15 @@ public interface DiskFileItemFactory {
 	 * @return The newly created media.
 	 */
 	public Media createMedia(FileItem fileItem, String contentType, String fileName, boolean isNative);
+
+	/**
+	 * Called after the content of an uploaded file is received into the
+	 * file item, such that the factory can collect the upload throughput.
+	 * <p>Default: does nothing.
+	 * @param fileItem The file item holding the received content.
+	 * @param nanos The time, in nanoseconds, spent on receiving the content.
+	 * @since 10.0.1
+	 */
+	default void uploaded(FileItem fileItem, long nanos) {
+	}
 }
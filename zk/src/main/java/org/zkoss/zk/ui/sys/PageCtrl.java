@@ -282,4 +282,13 @@ public interface PageCtrl {
 	default ClassResolver getClassResolver() {
 		return null;
 	}
+
+	/** Returns the index of the components in this page's ID space,
+	 * or null if the index is not supported.
+	 * <p>Used only internally.
+	 * @since 10.0.1
+	 */
+	default ComponentIndex getComponentIndex() {
+		return null;
+	}
 }
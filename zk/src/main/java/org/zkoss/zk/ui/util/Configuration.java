@@ -135,6 +135,7 @@ public class Configuration {
 	private Monitor _monitor;
 	private PerformanceMeter _pfmeter;
 	private ExecutionMonitor _execmon;
+	private MetricsRegistry _metrics;
 	private DesktopRecycle _dtRecycle;
 	private final FastReadArray<String> _themeURIs = new FastReadArray<String>(String.class);
 	private ThemeProvider _themeProvider;
@@ -159,6 +160,7 @@ public class Configuration {
 	private final Map<String, Object> _attrs = Collections.synchronizedMap(new HashMap<String, Object>());
 	/** whether to use the event processing thread. */
 	private boolean _evtThdEnabled; //disabled by default since ZK 5
+	private boolean _virtualEvtThd;
 	/** whether zscript is enabled. */
 	private boolean _zscriptEnabled = true;
 	/** keep-across-visits. */
@@ -212,7 +214,8 @@ public class Configuration {
 	/** Adds a listener class.
 	 *
 	 * <p>Notice that there is only one listener allowed for the following classes:
-	 * {@link Monitor}, {@link PerformanceMeter}, and {@link DesktopRecycle}.
+	 * {@link Monitor}, {@link PerformanceMeter}, {@link ExecutionMonitor},
+	 * {@link MetricsRegistry} and {@link DesktopRecycle}.
 	 * On the other hand, any number listeners are allowed for other classes.
 	 *
 	 * <p>Notice that if the listener implements {@link Composer}, it can also
@@ -232,7 +235,8 @@ public class Configuration {
 	 * and {@link PropertiesRenderer}.
 	 *
 	 * @param klass the listener class must implement at least one of
-	 * {@link Monitor}, {@link PerformanceMeter}, {@link EventThreadInit},
+	 * {@link Monitor}, {@link PerformanceMeter}, {@link ExecutionMonitor},
+	 * {@link MetricsRegistry} (since 10.0.1), {@link EventThreadInit},
 	 * {@link EventThreadCleanup}, {@link EventThreadSuspend},
 	 * {@link EventThreadResume}, {@link WebAppInit}, {@link WebAppCleanup},
 	 * {@link SessionInit}, {@link SessionCleanup}, {@link DesktopInit},
@@ -267,6 +271,12 @@ public class Configuration {
 			_execmon = (ExecutionMonitor) (listener = getInstance(klass, listener));
 			added = true;
 		}
+		if (MetricsRegistry.class.isAssignableFrom(klass)) {
+			if (_metrics != null)
+				throw new UiException(onlyOnce(MetricsRegistry.class));
+			_metrics = (MetricsRegistry) (listener = getInstance(klass, listener));
+			added = true;
+		}
 		if (DesktopRecycle.class.isAssignableFrom(klass)) {
 			if (_dtRecycle != null)
 				throw new UiException(onlyOnce(DesktopRecycle.class));
@@ -431,6 +441,8 @@ public class Configuration {
 			_pfmeter = null;
 		if (_execmon != null && _execmon.getClass().equals(klass))
 			_execmon = null;
+		if (_metrics != null && _metrics.getClass().equals(klass))
+			_metrics = null;
 		if (_dtRecycle != null && _dtRecycle.getClass().equals(klass))
 			_dtRecycle = null;
 
@@ -2225,6 +2237,33 @@ public class Configuration {
 		return _evtThdEnabled;
 	}
 
+	/** Sets whether to process events in virtual threads (if the JVM supports it),
+	 * when the event processing thread is enabled ({@link #isEventThreadEnabled}).
+	 *
+	 * <p>Default: false (platform threads).
+	 *
+	 * <p>If enabled, the suspension of an event thread (such as a modal
+	 * message box) is done with {@link java.util.concurrent.locks.Condition}
+	 * rather than <code>Object.wait</code>, so a suspended virtual thread
+	 * doesn't occupy a platform thread.
+	 * Notice that the mutex passed to {@link org.zkoss.zk.ui.Executions#wait}
+	 * is then used only to identify the suspended threads, so don't hold
+	 * its monitor when calling it.
+	 * @since 10.0.1
+	 */
+	public void enableVirtualEventThread(boolean enable) {
+		_virtualEvtThd = enable;
+	}
+
+	/** Returns whether to process events in virtual threads, when
+	 * the event processing thread is enabled ({@link #isEventThreadEnabled}).
+	 * <p>Default: false (platform threads).
+	 * @since 10.0.1
+	 */
+	public boolean isVirtualEventThreadEnabled() {
+		return _virtualEvtThd;
+	}
+
 	/** Sets whether zscript is allowed.
 	 * <p>Default: true (enabled).
 	 * @since 6.0.0
@@ -2323,6 +2362,34 @@ public class Configuration {
 		return old;
 	}
 
+	/** Returns the metrics registry for this application, or null if not set.
+	 * @since 10.0.1
+	 */
+	public MetricsRegistry getMetricsRegistry() {
+		return _metrics;
+	}
+
+	/** Sets the metrics registry for this application, or null to disable it.
+	 *
+	 * <p>Default: null.
+	 *
+	 * <p>There is at most one metrics registry for each Web application.
+	 * The previous registry will be replaced when this method is called.
+	 *
+	 * <p>In addition to call this method, you could specify
+	 * a metrics registry in zk.xml
+	 *
+	 * @param registry the metrics registry. If null, the metrics are
+	 * not recorded.
+	 * @return the previous metrics registry, or null if not available.
+	 * @since 10.0.1
+	 */
+	public MetricsRegistry setMetricsRegistry(MetricsRegistry registry) {
+		final MetricsRegistry old = _metrics;
+		_metrics = registry;
+		return old;
+	}
+
 	/** Returns the desktop recycle for this application, or null if not set.
 	 * @since 5.0.0
 	 */
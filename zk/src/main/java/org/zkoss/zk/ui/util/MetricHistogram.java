@@ -0,0 +1,123 @@
+/* MetricHistogram.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 18:27:40 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zk.ui.util;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of non-negative values, such as latencies in nanoseconds,
+ * used by {@link SimpleMetricsRegistry}.
+ *
+ * <p>A value is counted in the bucket of its highest one bit, i.e.,
+ * bucket <code>i</code> holds the values in
+ * <code>[2<sup>i-1</sup>, 2<sup>i</sup>)</code>, so the percentiles are
+ * approximated within a factor of two.
+ * Recording is lock-free and allocation-free; it can be called by many
+ * threads concurrently.
+ *
+ * @author agent
+ * @since 10.0.1
+ */
+public final class MetricHistogram implements Serializable {
+	private static final long serialVersionUID = 20261018182740L;
+	private static final int NUM_BUCKETS = 64;
+
+	private final AtomicLongArray _buckets = new AtomicLongArray(NUM_BUCKETS);
+	private final LongAdder _count = new LongAdder();
+	private final LongAdder _sum = new LongAdder();
+	private final AtomicLong _max = new AtomicLong();
+
+	/** Records a value. A negative value is recorded as 0. */
+	public void record(long value) {
+		if (value < 0)
+			value = 0;
+		_buckets.getAndIncrement(NUM_BUCKETS - Long.numberOfLeadingZeros(value));
+		_count.increment();
+		_sum.add(value);
+		for (long max; value > (max = _max.get());)
+			if (_max.compareAndSet(max, value))
+				break;
+	}
+
+	/** Returns the number of recorded values. */
+	public long getCount() {
+		return _count.sum();
+	}
+
+	/** Returns the sum of recorded values. */
+	public long getSum() {
+		return _sum.sum();
+	}
+
+	/** Returns the maximal recorded value, or 0 if nothing recorded. */
+	public long getMax() {
+		return _max.get();
+	}
+
+	/** Returns the average of recorded values, or 0 if nothing recorded. */
+	public double getMean() {
+		final long count = _count.sum();
+		return count > 0 ? (double) _sum.sum() / count : 0;
+	}
+
+	/** Returns the approximate value at the given percentile,
+	 * or 0 if nothing recorded.
+	 * It is interpolated linearly within the bucket, and never exceeds
+	 * {@link #getMax}.
+	 * @param percentile the percentile between 0 and 100, such as 99.
+	 */
+	public long getPercentile(double percentile) {
+		if (percentile < 0 || percentile > 100)
+			throw new IllegalArgumentException("percentile: " + percentile);
+
+		final long[] counts = getBucketCounts();
+		long total = 0;
+		for (long c : counts)
+			total += c;
+		if (total == 0)
+			return 0;
+
+		final double rank = Math.max(1, Math.ceil(total * percentile / 100));
+		long seen = 0;
+		for (int j = 0; j < NUM_BUCKETS; ++j) {
+			final long c = counts[j];
+			if (c > 0 && seen + c >= rank) {
+				if (j == 0)
+					return 0;
+				final long low = 1L << (j - 1);
+				final double v = low + (double) low * (rank - seen) / c; //upper bound: 2^j
+				return Math.min((long) v, getMax());
+			}
+			seen += c;
+		}
+		return getMax();
+	}
+
+	/** Returns a snapshot of the count of each bucket.
+	 * The count of the values in <code>[2<sup>i-1</sup>, 2<sup>i</sup>)</code>
+	 * is stored at index <code>i</code> (and 0 at index 0).
+	 */
+	public long[] getBucketCounts() {
+		final long[] counts = new long[NUM_BUCKETS];
+		for (int j = 0; j < NUM_BUCKETS; ++j)
+			counts[j] = _buckets.get(j);
+		return counts;
+	}
+
+	public String toString() {
+		return "[count=" + getCount() + ", mean=" + (long) getMean() + ", p50=" + getPercentile(50) + ", p99="
+				+ getPercentile(99) + ", max=" + getMax() + ']';
+	}
+}
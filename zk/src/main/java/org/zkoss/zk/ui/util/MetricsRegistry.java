@@ -0,0 +1,111 @@
+/* MetricsRegistry.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 18:20:14 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zk.ui.util;
+
+import org.zkoss.zk.ui.Desktop;
+
+/**
+ * An application-level listener to record the metrics of the hot paths
+ * of processing AU requests, such as the latency of each phase of
+ * {@link org.zkoss.zk.ui.sys.UiEngine#execUpdate}.
+ * While {@link PerformanceMeter} and {@link ExecutionMonitor} notify
+ * the start and the end of each request and event, it is notified with
+ * the measured values, so it is simple to export them to a monitoring system.
+ * {@link SimpleMetricsRegistry} is a default implementation that keeps them
+ * in memory.
+ *
+ * <p>To use it, specify the following in zk.xml:
+ * <pre><code>&lt;listener&gt;
+ *  &lt;listener-class&gt;org.zkoss.zk.ui.util.SimpleMetricsRegistry&lt;/listener-class&gt;
+ *&lt;/listener&gt;</code></pre>
+ *
+ * <p>Notice that the same listener is used for the whole application,
+ * and it is called by many threads concurrently.
+ * Make sure it is thread-safe, and it shall not block.
+ * In additions, don't throw any exception, and don't hold a reference
+ * to the desktop.
+ *
+ * @author agent
+ * @since 10.0.1
+ * @see Configuration#getMetricsRegistry
+ */
+public interface MetricsRegistry {
+	/** The latency of decoding an AU request ({@link org.zkoss.zk.au.AuDecoder#decode}). */
+	public static final String AU_DECODE = "au.decode";
+	/** The latency of processing an event, including the event listeners. */
+	public static final String EVENT_PROCESS = "event.process";
+	/** The latency of redrawing the components and generating
+	 * the responses ({@link org.zkoss.zk.ui.sys.Visualizer}). */
+	public static final String REDRAW = "redraw";
+	/** The latency of serializing the responses to {@link org.zkoss.zk.au.AuWriter}. */
+	public static final String RESPONSE_WRITE = "response.write";
+	/** The latency of sending the serialized responses to the client
+	 * ({@link org.zkoss.zk.au.AuWriter#close}). */
+	public static final String RESPONSE_FLUSH = "response.flush";
+	/** The latency of the whole AU request handled by
+	 * {@link org.zkoss.zk.ui.sys.UiEngine#execUpdate}. */
+	public static final String UPDATE = "update";
+
+	/** The number of requests queued in a desktop's
+	 * {@link org.zkoss.zk.ui.sys.RequestQueue} after an AU request arrives. */
+	public static final String REQUEST_QUEUE_DEPTH = "request.queue.depth";
+
+	/** The number of AU requests whose desktop is found in the desktop cache. */
+	public static final String DESKTOP_CACHE_HIT = "desktop.cache.hit";
+	/** The number of AU requests whose desktop is not found in the desktop cache. */
+	public static final String DESKTOP_CACHE_MISS = "desktop.cache.miss";
+	/** The number of times an event processing thread suspends. */
+	public static final String EVENT_SUSPEND = "event.suspend";
+
+	/** The number of events pending in a desktop's mailbox of
+	 * {@link org.zkoss.zk.ui.event.impl.ServerPushEventQueue} after an event
+	 * is published. */
+	public static final String EVENT_QUEUE_PENDING = "eventqueue.pending";
+	/** The number of events dropped since a desktop's mailbox of
+	 * {@link org.zkoss.zk.ui.event.impl.ServerPushEventQueue} is full. */
+	public static final String EVENT_QUEUE_DROPPED = "eventqueue.dropped";
+	/** The number of events superseded by a newer event in a desktop's mailbox
+	 * of {@link org.zkoss.zk.ui.event.impl.ServerPushEventQueue}. */
+	public static final String EVENT_QUEUE_COALESCED = "eventqueue.coalesced";
+	/** The number of asynchronous listener invocations pending in
+	 * {@link org.zkoss.zk.ui.event.impl.DesktopEventQueue} after one is queued. */
+	public static final String EVENT_QUEUE_ASYNC_DEPTH = "eventqueue.async.depth";
+	/** The latency of receiving an uploaded file by
+	 * {@link org.zkoss.zk.au.http.AuMultipartUploader}. */
+	public static final String UPLOAD = "upload";
+	/** The size, in bytes, of an uploaded file. Together with {@link #UPLOAD},
+	 * it gives the upload throughput. */
+	public static final String UPLOAD_BYTES = "upload.bytes";
+	/** The latency of waiting for the other uploads of the same desktop, if
+	 * {@link org.zkoss.zk.au.http.AuMultipartUploader#MAX_CONCURRENT_UPLOADS}
+	 * is reached. */
+	public static final String UPLOAD_WAIT = "upload.wait";
+	/** The number of uploads rejected since the other uploads of the same
+	 * desktop didn't complete in time. */
+	public static final String UPLOAD_REJECTED = "upload.rejected";
+
+	/** Records the latency of a phase, such as {@link #AU_DECODE}.
+	 * @param desktop the desktop, or null if not available
+	 * @param nanos the latency in nanoseconds
+	 */
+	public void recordLatency(String name, Desktop desktop, long nanos);
+
+	/** Records a sample value, such as {@link #REQUEST_QUEUE_DEPTH}.
+	 * @param desktop the desktop, or null if not available
+	 */
+	public void recordValue(String name, Desktop desktop, long value);
+
+	/** Increments a counter, such as {@link #DESKTOP_CACHE_HIT}.
+	 * @param desktop the desktop, or null if not available
+	 */
+	public void increment(String name, Desktop desktop);
+}
@@ -0,0 +1,186 @@
+/* SimpleMetricsRegistry.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 18:36:52 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zk.ui.util;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.zkoss.lang.Library;
+import org.zkoss.zk.ui.Desktop;
+
+/**
+ * An implementation of {@link MetricsRegistry} to accumulate the metrics
+ * in memory.
+ * The latencies (in nanoseconds) and the sample values are accumulated
+ * in {@link MetricHistogram}, and the counters in {@link LongAdder},
+ * so recording is lock-free.
+ *
+ * <p>If the library property called
+ * <code>org.zkoss.zk.ui.util.SimpleMetricsRegistry.perDesktop</code> is true,
+ * the metrics are also accumulated per desktop (stored as a desktop
+ * attribute, so they are dropped with the desktop).
+ * Default: false.
+ *
+ * <p>It has no effect until you specify it in WEB-INF/zk.xml.
+ * To retrieve the metrics, use {@link #getInstance}.
+ *
+ * @author agent
+ * @since 10.0.1
+ */
+public class SimpleMetricsRegistry implements MetricsRegistry {
+	private static final String ATTR = "org.zkoss.zk.ui.util.SimpleMetricsRegistry";
+
+	private final long _startTime;
+	private final boolean _perDesktop;
+	private final Metrics _metrics = new Metrics();
+
+	public SimpleMetricsRegistry() {
+		this(Boolean.parseBoolean(Library.getProperty("org.zkoss.zk.ui.util.SimpleMetricsRegistry.perDesktop")));
+	}
+
+	/**
+	 * @param perDesktop whether to accumulate the metrics per desktop, too.
+	 */
+	public SimpleMetricsRegistry(boolean perDesktop) {
+		_startTime = System.currentTimeMillis();
+		_perDesktop = perDesktop;
+	}
+
+	/** Returns the registry of the given configuration, or null if
+	 * {@link Configuration#getMetricsRegistry} is not an instance of this class.
+	 */
+	public static SimpleMetricsRegistry getInstance(Configuration config) {
+		final MetricsRegistry registry = config.getMetricsRegistry();
+		return registry instanceof SimpleMetricsRegistry ? (SimpleMetricsRegistry) registry : null;
+	}
+
+	/** Returns when the registry started.
+	 */
+	public long getStartTime() {
+		return _startTime;
+	}
+
+	/** Returns whether the metrics are accumulated per desktop, too.
+	 */
+	public boolean isPerDesktop() {
+		return _perDesktop;
+	}
+
+	/** Returns the histogram of the given latency or sample value,
+	 * or null if nothing recorded.
+	 */
+	public MetricHistogram getHistogram(String name) {
+		return _metrics.histograms.get(name);
+	}
+
+	/** Returns the histogram of the given latency or sample value of
+	 * the given desktop, or null if nothing recorded.
+	 */
+	public MetricHistogram getHistogram(Desktop desktop, String name) {
+		final Metrics metrics = getMetrics(desktop, false);
+		return metrics != null ? metrics.histograms.get(name) : null;
+	}
+
+	/** Returns the value of the given counter.
+	 */
+	public long getCount(String name) {
+		final LongAdder counter = _metrics.counters.get(name);
+		return counter != null ? counter.sum() : 0;
+	}
+
+	/** Returns the value of the given counter of the given desktop.
+	 */
+	public long getCount(Desktop desktop, String name) {
+		final Metrics metrics = getMetrics(desktop, false);
+		final LongAdder counter = metrics != null ? metrics.counters.get(name) : null;
+		return counter != null ? counter.sum() : 0;
+	}
+
+	/** Returns a readonly map of all histograms, sorted by name.
+	 */
+	public Map<String, MetricHistogram> getHistograms() {
+		return Collections.unmodifiableMap(new TreeMap<String, MetricHistogram>(_metrics.histograms));
+	}
+
+	/** Returns a snapshot of all counters, sorted by name.
+	 */
+	public Map<String, Long> getCounts() {
+		final Map<String, Long> counts = new TreeMap<String, Long>();
+		for (Map.Entry<String, LongAdder> me : _metrics.counters.entrySet())
+			counts.put(me.getKey(), me.getValue().sum());
+		return counts;
+	}
+
+	/** Clears all metrics (but not the metrics of each desktop).
+	 */
+	public void reset() {
+		_metrics.histograms.clear();
+		_metrics.counters.clear();
+	}
+
+	//MetricsRegistry//
+	public void recordLatency(String name, Desktop desktop, long nanos) {
+		recordValue(name, desktop, nanos);
+	}
+
+	public void recordValue(String name, Desktop desktop, long value) {
+		_metrics.getHistogram(name).record(value);
+		if (_perDesktop && desktop != null)
+			getMetrics(desktop, true).getHistogram(name).record(value);
+	}
+
+	public void increment(String name, Desktop desktop) {
+		_metrics.getCounter(name).increment();
+		if (_perDesktop && desktop != null)
+			getMetrics(desktop, true).getCounter(name).increment();
+	}
+
+	private static Metrics getMetrics(Desktop desktop, boolean autoCreate) {
+		Metrics metrics = (Metrics) desktop.getAttribute(ATTR);
+		if (metrics == null && autoCreate) {
+			synchronized (desktop) {
+				metrics = (Metrics) desktop.getAttribute(ATTR);
+				if (metrics == null)
+					desktop.setAttribute(ATTR, metrics = new Metrics());
+			}
+		}
+		return metrics;
+	}
+
+	public String toString() {
+		final Map<String, Object> map = new LinkedHashMap<String, Object>(getHistograms());
+		map.putAll(getCounts());
+		return "SimpleMetricsRegistry" + map;
+	}
+
+	private static class Metrics implements Serializable {
+		private static final long serialVersionUID = 20261018183652L;
+		private final ConcurrentHashMap<String, MetricHistogram> histograms = new ConcurrentHashMap<String, MetricHistogram>(
+				16);
+		private final ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<String, LongAdder>(8);
+
+		private MetricHistogram getHistogram(String name) {
+			final MetricHistogram histogram = histograms.get(name); //avoid locking of computeIfAbsent
+			return histogram != null ? histogram : histograms.computeIfAbsent(name, k -> new MetricHistogram());
+		}
+
+		private LongAdder getCounter(String name) {
+			final LongAdder counter = counters.get(name);
+			return counter != null ? counter : counters.computeIfAbsent(name, k -> new LongAdder());
+		}
+	}
+}
@@ -47,6 +47,8 @@ declare global {
 	interface Response {
 		/** @see {@link XMLHttpRequest.responseText} */
 		responseText?: string;
+		/** The response in the binary format (see {@link decodeBinary}). */
+		responseBinary?: ArrayBuffer;
 	}
 }
 export interface AuResponse extends Partial<Pick<XMLHttpRequest,
@@ -57,6 +59,8 @@ export interface AuResponse extends Partial<Pick<XMLHttpRequest,
 >> {
 	/** @see {@link Response.headers} */
 	readonly headers: Pick<Headers, 'get'>;
+	/** @see {@link Response.responseBinary} */
+	responseBinary?: ArrayBuffer;
 }
 
 var _perrURIs: Record<string, string> = {}, //server-push error URI
@@ -231,6 +235,8 @@ function ajaxSendNow(reqInf: AuRequestInfo): void {
 		}
 		zAu._errCode = undefined;
 	}
+	if (zAu.binaryEncoding && fetchOpts.headers)
+		fetchOpts.headers['ZK-AU-Accept-Encoding'] = 'binary';
 
 	var forceAjax = reqInf.forceAjax;
 	if (zk.pfmeter) zAu._pfsend(reqInf.dt, fetchOpts, false, forceAjax);
@@ -246,6 +252,11 @@ function ajaxSendNow(reqInf: AuRequestInfo): void {
 
 	zAu._fetch(reqInf.uri, fetchOpts)
 		.then(function (response: Response) {
+			if (response.headers.get('ZK-AU-Encoding') == 'binary')
+				return response.arrayBuffer().then(function (buf) {
+					response.responseBinary = buf;
+					zAu._onResponseReady(response);
+				});
 			return response.text().then(function (responseText) {
 				response.responseText = responseText;
 				zAu._onResponseReady(response);
@@ -264,6 +275,84 @@ function ajaxSendNow(reqInf: AuRequestInfo): void {
 	if (!reqInf.implicit)
 		zk.startProcessing(zk.procDelay, reqInf.sid); //wait a moment to avoid annoying
 }
+// Decodes a response in the binary format (see org.zkoss.zk.au.http.BinaryAuWriter)
+function decodeBinary(buf: ArrayBuffer): { rid?: number; rs: unknown[] } {
+	var bytes = new Uint8Array(buf),
+		view = new DataView(buf),
+		utf8 = new TextDecoder(),
+		strs: string[] = [],
+		pos = 1;
+	function fail(): never {
+		var e = new Error('Malformed binary response at ' + pos);
+		e.name = 'SyntaxError';
+		throw e;
+	}
+	function varint(): number {
+		var v = 0, scale = 1, b: number;
+		do {
+			if (pos >= bytes.length) fail();
+			b = bytes[pos++];
+			v += (b & 0x7F) * scale; //not bitwise since it might exceed 32 bits
+			scale *= 128;
+		} while (b & 0x80);
+		return v;
+	}
+	function str(): string {
+		var len = varint(), end = pos + len;
+		if (end > bytes.length) fail();
+		var s = utf8.decode(bytes.subarray(pos, end));
+		pos = end;
+		return s;
+	}
+	function value(): unknown {
+		var tag = bytes[pos++], v: number, s: string;
+		switch (tag) {
+			case 0: return null; // eslint-disable-line zk/noNull
+			case 1: return false;
+			case 2: return true;
+			case 3: //zigzag
+				v = varint();
+				return v % 2 ? -(v + 1) / 2 : v / 2;
+			case 4:
+				if (pos + 8 > bytes.length) fail();
+				v = view.getFloat64(pos);
+				pos += 8;
+				return v;
+			case 5: return str();
+			case 6:
+				strs.push(s = str());
+				return s;
+			case 7:
+				if ((v = varint()) >= strs.length) fail();
+				return strs[v];
+			case 8: {
+				var ary: unknown[] = [];
+				for (var n = varint(); n--;)
+					ary.push(value());
+				return ary;
+			}
+			case 9: {
+				var obj: Record<string, unknown> = {};
+				for (var n = varint(); n--;) {
+					var k = value();
+					if (typeof k != 'string') fail();
+					obj[k] = value();
+				}
+				return obj;
+			}
+			case 10: return jq.evalJSON(str());
+		}
+		return fail();
+	}
+
+	if (bytes[0] != 1) fail(); //version
+	var rs: unknown[] = [];
+	while (pos < bytes.length && bytes[pos] != 15)
+		rs.push([value(), value()]);
+	if (pos++ >= bytes.length) fail();
+	var rid = varint() - 1;
+	return rid >= 0 ? { rid: rid, rs: rs } : { rs: rs };
+}
 function doCmdsNow(cmds: AuCommands): boolean {
 	var rtags = cmds.rtags || {}, ex: undefined | Error;
 	try {
@@ -367,6 +456,12 @@ export namespace au_global {
 		export let doneTime: number;
 		export let sentTime: number;
 		export let doAfterProcessWgts: zk.Widget[] | undefined;
+		/** Whether to accept the responses in the binary format.
+		 * If true, the server sends the binary format if
+		 * `org.zkoss.zk.au.http.BinaryAuWriter` is configured, or JSON otherwise.
+		 * @since 10.0.1
+		 */
+		export var binaryEncoding = typeof TextDecoder != 'undefined';
 
 		/** Implements this function to be called if the request fails.
 		 * The function receives four arguments: The XHR (XMLHttpRequest) object,
@@ -1250,8 +1345,9 @@ export namespace au_global {
 
 		export function pushReqCmds(reqInf: AuRequestInfo, response: AuResponse): boolean {
 			var dt = reqInf.dt,
-				rt = response.responseText;
-			if (!rt) {
+				rt = response.responseText,
+				rb = response.responseBinary;
+			if (!rt && !rb) {
 				if (zk.pfmeter) zAu._pfdone(dt, zAu.pfGetIds(response));
 				return false; //invalid
 			}
@@ -1265,12 +1361,13 @@ export namespace au_global {
 
 			var json: { rid?: string; rs?: [] };
 			try {
-				json = jq.evalJSON(rt) as never;
+				json = rb ? decodeBinary(rb) as never : jq.evalJSON(rt!) as never;
 			} catch (e) {
 				if (e instanceof Error) {
 					if (e.name == 'SyntaxError') { //ZK-4199: handle json parse error
 						zAu.showError('FAILED_TO_PARSE_RESPONSE', e.message);
-						zk.debugLog(e.message + ', response text:\n' + rt);
+						zk.debugLog(e.message + (rb ? ', binary response of ' + rb.byteLength + ' bytes'
+							: ', response text:\n' + rt));
 						return false;
 					}
 				}
@@ -0,0 +1,184 @@
+/* AuDecoderBenchmark.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 20:38:42 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkbench;
+
+import java.io.StringWriter;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.zkoss.json.JSONValue;
+import org.zkoss.zk.au.AuDecoder;
+import org.zkoss.zk.au.AuRequest;
+import org.zkoss.zk.au.http.StreamingAuDecoder;
+import org.zkoss.zk.ui.Desktop;
+import org.zkoss.zk.ui.WebApp;
+
+/**
+ * Decodes a form-encoded AU request of the given number of commands.
+ * <ul>
+ * <li><code>body</code>: {@link StreamingAuDecoder} scans the request body once.</li>
+ * <li><code>parameters</code>: the body is parsed into parameters first
+ * (as a servlet container does), and then the commands are looked up by
+ * <code>getParameter</code> one by one, as the default decoder does.</li>
+ * <li><code>baseline</code>: the same parameters decoded by the decoder used
+ * before {@link StreamingAuDecoder}, i.e., <code>getParameter</code> per
+ * command and {@link JSONValue#parse} per data.</li>
+ * </ul>
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuDecoderBenchmark {
+	private static final Map<String, String> FORM_HEADERS = Collections.singletonMap("Content-Type",
+			"application/x-www-form-urlencoded; charset=UTF-8");
+
+	@Param({ "1", "10", "50" })
+	public int commands;
+
+	private ZkEnvironment _env;
+	private Desktop _desktop;
+	private AuDecoder _decoder;
+	private AuDecoder _baseline;
+	private byte[] _body;
+
+	@Setup
+	public void setup() throws Exception {
+		_env = ZkEnvironment.getInstance();
+		_desktop = _env.newPage(_env.newSession(), "/page.zul", new StringWriter());
+		_decoder = new StreamingAuDecoder();
+		_baseline = new BaselineDecoder();
+
+		final StringBuilder sb = new StringBuilder("dtid=").append(_desktop.getId());
+		for (int j = 0; j < commands; ++j) {
+			sb.append("&cmd_").append(j).append("=onChange&uuid_").append(j).append("=comp").append(j)
+					.append("&data_").append(j).append('=')
+					.append(URLEncoder.encode("{\"value\":\"text ä " + j + "\",\"start\":" + j
+							+ ",\"items\":[1,2.5,true,null],\"pageX\":120,\"pageY\":80}", "UTF-8"));
+			if (j % 3 == 0)
+				sb.append("&opt_").append(j).append("=i");
+		}
+		_body = sb.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	@TearDown
+	public void tearDown() {
+		_env.removeDesktop(_desktop);
+	}
+
+	@Benchmark
+	public List<AuRequest> body() {
+		return decode(ServletStandIns.newRequest(_env.getServletContext(), null, "POST", "/zkau", null,
+				FORM_HEADERS, _body));
+	}
+
+	@Benchmark
+	public List<AuRequest> parameters() throws Exception {
+		return decode(ServletStandIns.newRequest(_env.getServletContext(), null, "POST", "/zkau", parseForm(_body),
+				null, null));
+	}
+
+	@Benchmark
+	public List<AuRequest> baseline() throws Exception {
+		return decode(_baseline, ServletStandIns.newRequest(_env.getServletContext(), null, "POST", "/zkau",
+				parseForm(_body), null, null));
+	}
+
+	private List<AuRequest> decode(HttpServletRequest request) {
+		return decode(_decoder, request);
+	}
+
+	private List<AuRequest> decode(AuDecoder decoder, HttpServletRequest request) {
+		if (decoder.getDesktopId(request) == null || decoder.getFirstCommand(request) == null)
+			throw new IllegalStateException();
+		decoder.isIgnorable(request, _env.getWebApp());
+		return decoder.decode(request, _desktop);
+	}
+
+	private static Map<String, String[]> parseForm(byte[] body) throws Exception {
+		final Map<String, String[]> params = new LinkedHashMap<String, String[]>();
+		for (String pair : new String(body, StandardCharsets.ISO_8859_1).split("&")) {
+			final int k = pair.indexOf('=');
+			params.put(URLDecoder.decode(pair.substring(0, k), "UTF-8"),
+					new String[] { URLDecoder.decode(pair.substring(k + 1), "UTF-8") });
+		}
+		return params;
+	}
+
+	/** The default decoder of DHtmlUpdateServlet before StreamingAuDecoder. */
+	private static class BaselineDecoder implements AuDecoder {
+		public String getDesktopId(Object request) {
+			return ((HttpServletRequest) request).getParameter("dtid");
+		}
+
+		public String getFirstCommand(Object request) {
+			return ((HttpServletRequest) request).getParameter("cmd_0");
+		}
+
+		@SuppressWarnings("unchecked")
+		public List<AuRequest> decode(Object request, Desktop desktop) {
+			final List<AuRequest> aureqs = new LinkedList<>();
+			final HttpServletRequest hreq = (HttpServletRequest) request;
+			for (int j = 0;; ++j) {
+				final String cmdId = hreq.getParameter("cmd_" + j);
+				if (cmdId == null)
+					break;
+
+				final String uuid = hreq.getParameter("uuid_" + j);
+				final String data = hreq.getParameter("data_" + j);
+				final Map<String, Object> decdata = (Map) JSONValue.parse(data);
+				aureqs.add(uuid == null || uuid.isEmpty() ? new AuRequest(desktop, cmdId, decdata)
+						: new AuRequest(desktop, uuid, cmdId, decdata));
+			}
+			return aureqs;
+		}
+
+		public boolean isIgnorable(Object request, WebApp wapp) {
+			final HttpServletRequest hreq = (HttpServletRequest) request;
+			for (int j = 0;; ++j) {
+				if (hreq.getParameter("cmd_" + j) == null)
+					break;
+
+				final String opt = hreq.getParameter("opt_" + j);
+				if (opt == null || !opt.contains("i"))
+					return false; //not ignorable
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,111 @@
+/* AuWriterBenchmark.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 20:46:15 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkbench;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.zkoss.zk.au.AuResponse;
+import org.zkoss.zk.au.AuWriter;
+import org.zkoss.zk.au.http.BinaryAuWriter;
+import org.zkoss.zk.au.http.HttpAuWriter;
+import org.zkoss.zk.au.http.StreamingAuWriter;
+
+/**
+ * Serializes a typical batch of AU responses (attribute updates and
+ * a few redrawn components) by {@link HttpAuWriter}, {@link StreamingAuWriter}
+ * and {@link BinaryAuWriter}, without compression.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuWriterBenchmark {
+	@Param({ "http", "streaming", "binary" })
+	public String writer;
+
+	@Param({ "10", "200" })
+	public int responses;
+
+	private ZkEnvironment _env;
+	private Map<String, String> _headers;
+	private List<AuResponse> _responses;
+
+	@Setup
+	public void setup() {
+		_env = ZkEnvironment.getInstance();
+		_headers = "binary".equals(writer)
+				? Collections.singletonMap("ZK-AU-Accept-Encoding", "binary")
+				: null;
+
+		_responses = new ArrayList<AuResponse>(responses);
+		for (int j = 0; j < responses; ++j) {
+			final String uuid = "zk_comp_" + j;
+			if (j % 10 == 9)
+				_responses.add(new AuResponse("addChd", new Object[] { uuid,
+						"['zul.grid.Row','" + uuid + "r',{},{},[['zul.wgt.Label','" + uuid
+								+ "l',{value:'Item " + j + "'},{},[]]]]" }) {
+				});
+			else
+				_responses.add(new AuResponse("setAttr", new Object[] { uuid, j % 2 == 0 ? "value" : "visible",
+						j % 2 == 0 ? "Item " + j : Boolean.TRUE }) {
+				});
+		}
+	}
+
+	@Benchmark
+	public byte[] write() throws Exception {
+		final HttpServletRequest request = ServletStandIns.newRequest(_env.getServletContext(), null, "POST",
+				"/zkau", null, _headers, null);
+		final HttpServletResponse response = ServletStandIns.newResponse();
+		final AuWriter out = newWriter();
+		out.setCompress(false);
+		out.open(request, response);
+		out.writeResponseId(1);
+		out.write(_responses);
+		out.close(request, response);
+		return ServletStandIns.getOutput(response);
+	}
+
+	private AuWriter newWriter() {
+		switch (writer) {
+		case "streaming":
+			return new StreamingAuWriter();
+		case "binary":
+			return new BinaryAuWriter();
+		default:
+			return new HttpAuWriter();
+		}
+	}
+}
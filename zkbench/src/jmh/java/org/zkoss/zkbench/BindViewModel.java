@@ -0,0 +1,58 @@
+/* BindViewModel.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 19:47:12 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkbench;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.zkoss.bind.annotation.Command;
+import org.zkoss.bind.annotation.DependsOn;
+import org.zkoss.bind.annotation.NotifyChange;
+import org.zkoss.zul.ListModelList;
+
+/**
+ * The view model of <code>bind.zul</code>.
+ *
+ * @author agent
+ */
+public class BindViewModel {
+	private final Random _random = new Random(0);
+	private final ListModelList<Item> _items = new ListModelList<Item>(Item.newItems(50));
+	private String _name = "";
+
+	public String getName() {
+		return _name;
+	}
+
+	public void setName(String name) {
+		_name = name;
+	}
+
+	@DependsOn("name")
+	public String getGreeting() {
+		return "Hello, " + _name;
+	}
+
+	public ListModelList<Item> getItems() {
+		return _items;
+	}
+
+	@Command
+	@NotifyChange("items")
+	public void shuffle() {
+		final List<Item> items = Item.newItems(_items.size());
+		Collections.shuffle(items, _random);
+		_items.clear();
+		_items.addAll(items);
+	}
+}
@@ -0,0 +1,83 @@
+/* BinderBenchmark.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 20:25:52 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkbench;
+
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.zkoss.zk.au.AuRequest;
+import org.zkoss.zk.ui.Component;
+import org.zkoss.zk.ui.Desktop;
+
+/**
+ * Measures the load/save cycles of {@link org.zkoss.bind.impl.BinderImpl}
+ * with <code>bind.zul</code>: saving a property that another binding
+ * depends on, and a command that reloads a grid of 50 rows.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinderBenchmark {
+	private ZkEnvironment _env;
+	private Desktop _desktop;
+	private Component _name, _shuffle;
+	private int _count;
+
+	@Setup
+	public void setup() throws Exception {
+		_env = ZkEnvironment.getInstance();
+		_desktop = _env.newPage(_env.newSession(), "/bind.zul", new StringWriter());
+		final Component win = _desktop.getFirstPage().getFellow("win");
+		_name = win.getFellow("name");
+		_shuffle = win.getFellow("shuffle");
+	}
+
+	@TearDown
+	public void tearDown() {
+		_env.removeDesktop(_desktop);
+	}
+
+	@Benchmark
+	public byte[] saveAndLoad() throws Exception {
+		final Map<String, Object> data = new HashMap<String, Object>();
+		data.put("value", "name " + ++_count);
+		data.put("start", 5);
+		return _env.update(_desktop,
+				Collections.singletonList(new AuRequest(_desktop, _name.getUuid(), "onChange", data)));
+	}
+
+	@Benchmark
+	public byte[] command() throws Exception {
+		return _env.update(_desktop, Collections.singletonList(
+				new AuRequest(_desktop, _shuffle.getUuid(), "onClick", new HashMap<String, Object>())));
+	}
+}
@@ -0,0 +1,84 @@
+/* CacheBenchmark.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 21:02:44 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkbench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.zkoss.util.Cache;
+import org.zkoss.util.FastReadCache;
+import org.zkoss.util.TinyLfuCache;
+
+/**
+ * Reads a bounded cache concurrently with a skewed (Zipf-like) key
+ * distribution, putting the value on a miss, the same as the caches of
+ * page definitions and resources:
+ * {@link FastReadCache} and {@link TinyLfuCache}.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class CacheBenchmark {
+	private static final int MAX_SIZE = 1024, LIFETIME = 3600000, KEY_SPACE = 16384, MASK = (1 << 16) - 1;
+
+	@Param({ "fastRead", "tinyLfu" })
+	public String cache;
+
+	private Cache<Integer, Integer> _cache;
+	/** The keys with a Zipf-like distribution, boxed in advance. */
+	private Integer[] _keys;
+
+	@Setup
+	public void setup() {
+		_cache = "tinyLfu".equals(cache) ? new TinyLfuCache<Integer, Integer>(MAX_SIZE, LIFETIME)
+				: new FastReadCache<Integer, Integer>(MAX_SIZE, LIFETIME);
+
+		final Random random = new Random(1);
+		_keys = new Integer[MASK + 1];
+		for (int j = 0; j <= MASK; ++j)
+			_keys[j] = (int) Math.pow(KEY_SPACE, random.nextDouble()) - 1; //roughly 1/x
+	}
+
+	@State(Scope.Thread)
+	public static class Cursor {
+		private int _index = new Random().nextInt();
+	}
+
+	@Benchmark
+	public Integer getOrPut(Cursor cursor) {
+		final Integer key = _keys[cursor._index++ & MASK];
+		final Integer value = _cache.get(key);
+		if (value != null)
+			return value;
+		_cache.put(key, key);
+		return key;
+	}
+}
@@ -0,0 +1,61 @@
+/* ExecNewPageBenchmark.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 19:58:41 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkbench;
+
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.zkoss.zk.ui.Desktop;
+import org.zkoss.zk.ui.Session;
+
+/**
+ * Renders <code>page.zul</code> by {@link org.zkoss.zk.ui.sys.UiEngine#execNewPage},
+ * i.e., creates a desktop, instantiates the components, applies the
+ * composer, and redraws the page.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecNewPageBenchmark {
+	private ZkEnvironment _env;
+	private Session _sess;
+
+	@Setup
+	public void setup() {
+		_env = ZkEnvironment.getInstance();
+		_sess = _env.newSession();
+	}
+
+	@Benchmark
+	public int execNewPage() throws Exception {
+		final StringWriter out = new StringWriter(32 * 1024);
+		final Desktop desktop = _env.newPage(_sess, "/page.zul", out);
+		_env.removeDesktop(desktop);
+		return out.getBuffer().length();
+	}
+}
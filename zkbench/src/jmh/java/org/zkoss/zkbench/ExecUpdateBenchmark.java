@@ -0,0 +1,89 @@
+/* ExecUpdateBenchmark.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 20:02:19 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkbench;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.zkoss.zk.au.AuRequest;
+import org.zkoss.zk.ui.Component;
+import org.zkoss.zk.ui.Desktop;
+
+/**
+ * Processes synthetic AU requests by {@link org.zkoss.zk.ui.sys.UiEngine#execUpdate}
+ * against <code>page.zul</code>: a click handled by a composer,
+ * and a change of a textbox followed by a click (two requests in one update).
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecUpdateBenchmark {
+	private ZkEnvironment _env;
+	private Desktop _desktop;
+	private Component _name, _btn;
+	private int _count;
+
+	@Setup
+	public void setup() throws Exception {
+		_env = ZkEnvironment.getInstance();
+		_desktop = _env.newPage(_env.newSession(), "/page.zul", new StringWriter());
+		final Component win = _desktop.getFirstPage().getFellow("win");
+		_name = win.getFellow("name");
+		_btn = win.getFellow("btn");
+	}
+
+	@TearDown
+	public void tearDown() {
+		_env.removeDesktop(_desktop);
+	}
+
+	@Benchmark
+	public byte[] click() throws Exception {
+		return _env.update(_desktop, Collections.singletonList(newClick()));
+	}
+
+	@Benchmark
+	public byte[] changeAndClick() throws Exception {
+		final Map<String, Object> data = new HashMap<String, Object>();
+		data.put("value", "text " + ++_count);
+		data.put("start", 4);
+		final List<AuRequest> requests = Arrays.asList(new AuRequest(_desktop, _name.getUuid(), "onChange", data),
+				newClick());
+		return _env.update(_desktop, requests);
+	}
+
+	private AuRequest newClick() {
+		return new AuRequest(_desktop, _btn.getUuid(), "onClick", new HashMap<String, Object>());
+	}
+}
@@ -0,0 +1,85 @@
+/* Footprint.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Mon Oct 19 01:25:13 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkbench;
+
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.zkoss.zk.ui.Desktop;
+import org.zkoss.zk.ui.Session;
+
+/**
+ * Reports the retained heap per component of a rendered desktop, i.e.,
+ * the number of bytes per label, per listitem (with two listcells) and per
+ * row (with two labels), since the number of desktops that a node can
+ * hold is limited by them. Run it with <code>./gradlew :zkbench:footprint</code>.
+ *
+ * <p>Unlike the benchmarks, it measures the heap retained by the desktops
+ * (after garbage collection) rather than the time, so it is not run by JMH.
+ *
+ * @author agent
+ */
+public class Footprint {
+	private static final String[] COMPONENTS = { "label", "listitem", "row" };
+	private static final int COUNT = 20000, ROUNDS = 3;
+
+	public static void main(String[] args) throws Exception {
+		try {
+			final ZkEnvironment env = ZkEnvironment.getInstance();
+			final Session sess = env.newSession();
+			measure(env, sess, "label", 1000); //warm up
+
+			for (String component : COMPONENTS) {
+				long min = Long.MAX_VALUE;
+				for (int j = 0; j < ROUNDS; ++j)
+					min = Math.min(min, measure(env, sess, component, COUNT));
+				System.out.printf("%-10s %6d bytes%n", component, min / COUNT);
+			}
+		} finally {
+			System.exit(0); //the timers of ZK are not daemon
+		}
+	}
+
+	/** Returns the retained heap of a desktop with the given number of
+	 * components, excluding an empty one.
+	 */
+	private static long measure(ZkEnvironment env, Session sess, String component, int count) throws Exception {
+		final Desktop empty = newPage(env, sess, component, 0);
+		final long base = usedHeap();
+		final Desktop desktop = newPage(env, sess, component, count);
+		final long used = usedHeap() - base;
+		env.removeDesktop(desktop);
+		env.removeDesktop(empty);
+		return used;
+	}
+
+	private static Desktop newPage(ZkEnvironment env, Session sess, String component, int count) throws Exception {
+		final Map<String, String[]> params = new HashMap<String, String[]>();
+		params.put("component", new String[] { component });
+		params.put("count", new String[] { Integer.toString(count) });
+		return env.newPage(sess, "/footprint.zul", params, new StringWriter(count * 128));
+	}
+
+	private static long usedHeap() throws InterruptedException {
+		final MemoryMXBean mbean = ManagementFactory.getMemoryMXBean();
+		long used = Long.MAX_VALUE;
+		for (int j = 0; j < 4; ++j) {
+			mbean.gc();
+			Thread.sleep(50);
+			used = Math.min(used, mbean.getHeapMemoryUsage().getUsed());
+		}
+		return used;
+	}
+}
@@ -0,0 +1,67 @@
+/* FootprintComposer.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Mon Oct 19 01:22:40 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkbench;
+
+import org.zkoss.zk.ui.Component;
+import org.zkoss.zk.ui.Execution;
+import org.zkoss.zk.ui.Executions;
+import org.zkoss.zk.ui.util.GenericComposer;
+import org.zkoss.zul.Grid;
+import org.zkoss.zul.Label;
+import org.zkoss.zul.Listbox;
+import org.zkoss.zul.Listcell;
+import org.zkoss.zul.Listitem;
+import org.zkoss.zul.Row;
+import org.zkoss.zul.Rows;
+
+/**
+ * Creates <code>param.count</code> labels, listitems (each with two
+ * listcells) or rows (each with two labels), depending on
+ * <code>param.component</code>, for {@link Footprint}.
+ * The labels share the same value, so only the components are measured.
+ *
+ * @author agent
+ */
+public class FootprintComposer extends GenericComposer<Component> {
+	private static final String VALUE = "Value";
+
+	public void doAfterCompose(Component comp) throws Exception {
+		super.doAfterCompose(comp);
+		final Execution exec = Executions.getCurrent();
+		final String component = exec.getParameter("component");
+		final int count = Integer.parseInt(exec.getParameter("count"));
+		if ("label".equals(component)) {
+			for (int j = 0; j < count; ++j)
+				comp.appendChild(new Label(VALUE));
+		} else if ("listitem".equals(component)) {
+			final Listbox listbox = new Listbox();
+			for (int j = 0; j < count; ++j) {
+				final Listitem item = new Listitem();
+				item.appendChild(new Listcell(VALUE));
+				item.appendChild(new Listcell(VALUE));
+				listbox.appendChild(item);
+			}
+			comp.appendChild(listbox);
+		} else if ("row".equals(component)) {
+			final Grid grid = new Grid();
+			final Rows rows = new Rows();
+			grid.appendChild(rows);
+			for (int j = 0; j < count; ++j) {
+				final Row row = new Row();
+				row.appendChild(new Label(VALUE));
+				row.appendChild(new Label(VALUE));
+				rows.appendChild(row);
+			}
+			comp.appendChild(grid);
+		}
+	}
+}
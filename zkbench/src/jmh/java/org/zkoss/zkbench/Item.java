@@ -0,0 +1,63 @@
+/* Item.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 19:40:03 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkbench;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A bean rendered by the benchmarks.
+ *
+ * @author agent
+ */
+public class Item {
+	private String _name;
+	private int _value;
+	private Item _parent;
+
+	public Item(String name, int value) {
+		_name = name;
+		_value = value;
+	}
+
+	/** Returns the given number of items. */
+	public static List<Item> newItems(int size) {
+		final List<Item> items = new ArrayList<Item>(size);
+		for (int j = 0; j < size; ++j)
+			items.add(new Item("Item " + j, j));
+		return items;
+	}
+
+	public String getName() {
+		return _name;
+	}
+
+	public void setName(String name) {
+		_name = name;
+	}
+
+	public int getValue() {
+		return _value;
+	}
+
+	public void setValue(int value) {
+		_value = value;
+	}
+
+	public Item getParent() {
+		return _parent;
+	}
+
+	public void setParent(Item parent) {
+		_parent = parent;
+	}
+}
@@ -0,0 +1,43 @@
+/* ModelComposer.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 19:42:27 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkbench;
+
+import org.zkoss.zk.ui.Component;
+import org.zkoss.zk.ui.Executions;
+import org.zkoss.zk.ui.select.SelectorComposer;
+import org.zkoss.zk.ui.select.annotation.Wire;
+import org.zkoss.zul.Grid;
+import org.zkoss.zul.ListModelList;
+import org.zkoss.zul.Listbox;
+
+/**
+ * Assigns a model of <code>param.rows</code> items to the listbox or
+ * the grid of <code>model.zul</code>.
+ *
+ * @author agent
+ */
+public class ModelComposer extends SelectorComposer<Component> {
+	@Wire
+	private Listbox listbox;
+	@Wire
+	private Grid grid;
+
+	public void doAfterCompose(Component comp) throws Exception {
+		super.doAfterCompose(comp);
+		final ListModelList<Item> model = new ListModelList<Item>(
+				Item.newItems(Integer.parseInt(Executions.getCurrent().getParameter("rows"))));
+		if (listbox != null)
+			listbox.setModel(model);
+		if (grid != null)
+			grid.setModel(model);
+	}
+}
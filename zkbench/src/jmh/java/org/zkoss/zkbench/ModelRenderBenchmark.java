@@ -0,0 +1,73 @@
+/* ModelRenderBenchmark.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 20:21:33 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkbench;
+
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.zkoss.zk.ui.Desktop;
+import org.zkoss.zk.ui.Session;
+
+/**
+ * Renders a {@link org.zkoss.zul.ListModelList} by a listbox or a grid
+ * with a template (<code>model.zul</code>), i.e., instantiates the template
+ * for each item, evaluates the EL expressions, and redraws the components.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ModelRenderBenchmark {
+	@Param({ "listbox", "grid" })
+	public String component;
+	@Param({ "100", "1000" })
+	public String rows;
+
+	private ZkEnvironment _env;
+	private Session _sess;
+	private Map<String, String[]> _params;
+
+	@Setup
+	public void setup() {
+		_env = ZkEnvironment.getInstance();
+		_sess = _env.newSession();
+		_params = new HashMap<String, String[]>();
+		_params.put("component", new String[] { component });
+		_params.put("rows", new String[] { rows });
+	}
+
+	@Benchmark
+	public int render() throws Exception {
+		final StringWriter out = new StringWriter(256 * 1024);
+		final Desktop desktop = _env.newPage(_sess, "/model.zul", _params, out);
+		_env.removeDesktop(desktop);
+		return out.getBuffer().length();
+	}
+}
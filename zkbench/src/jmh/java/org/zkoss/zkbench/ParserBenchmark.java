@@ -0,0 +1,68 @@
+/* ParserBenchmark.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 19:55:08 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkbench;
+
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.zkoss.io.Files;
+import org.zkoss.zk.ui.metainfo.PageDefinition;
+import org.zkoss.zk.ui.metainfo.PageDefinitions;
+import org.zkoss.zk.ui.metainfo.Parser;
+
+/**
+ * Parses a ZUL page into a {@link PageDefinition} (without the cache of
+ * {@link PageDefinitions}).
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+	@Param({ "/page.zul", "/model.zul", "/bind.zul" })
+	public String path;
+
+	private ZkEnvironment _env;
+	private String _content;
+
+	@Setup
+	public void setup() throws Exception {
+		_env = ZkEnvironment.getInstance();
+		try (InputStream is = _env.getServletContext().getResourceAsStream(path)) {
+			_content = new String(Files.readAll(is), StandardCharsets.UTF_8);
+		}
+	}
+
+	@Benchmark
+	public PageDefinition parse() throws Exception {
+		return new Parser(_env.getWebApp(), PageDefinitions.getLocator(_env.getWebApp(), path))
+				.parse(new StringReader(_content), "zul");
+	}
+}
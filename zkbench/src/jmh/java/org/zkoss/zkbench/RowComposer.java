@@ -0,0 +1,68 @@
+/* RowComposer.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Tue Oct 20 14:06:52 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkbench;
+
+import org.zkoss.zk.ui.Component;
+import org.zkoss.zk.ui.Executions;
+import org.zkoss.zk.ui.select.SelectorComposer;
+import org.zkoss.zk.ui.select.annotation.Listen;
+import org.zkoss.zk.ui.select.annotation.Wire;
+import org.zkoss.zul.Grid;
+import org.zkoss.zul.Label;
+import org.zkoss.zul.ListModelList;
+import org.zkoss.zul.Listbox;
+import org.zkoss.zul.Listcell;
+import org.zkoss.zul.ListitemRenderer;
+import org.zkoss.zul.RowRenderer;
+
+/**
+ * Assigns a new model of <code>param.rows</code> items to the listbox or
+ * the grid of <code>rows.zul</code> each time the reload button is clicked.
+ * The rows are created from the template, or by a renderer that creates
+ * the same components in Java if <code>param.renderer</code> is
+ * <code>java</code>.
+ *
+ * @author agent
+ */
+public class RowComposer extends SelectorComposer<Component> {
+	@Wire
+	private Listbox listbox;
+	@Wire
+	private Grid grid;
+	private int _rows;
+
+	public void doAfterCompose(Component comp) throws Exception {
+		super.doAfterCompose(comp);
+		_rows = Integer.parseInt(Executions.getCurrent().getParameter("rows"));
+		if ("java".equals(Executions.getCurrent().getParameter("renderer"))) {
+			if (listbox != null)
+				listbox.setItemRenderer((ListitemRenderer<Item>) (item, data, index) -> {
+					new Listcell(data.getName()).setParent(item);
+					new Listcell(Integer.toString(data.getValue())).setParent(item);
+				});
+			if (grid != null)
+				grid.setRowRenderer((RowRenderer<Item>) (row, data, index) -> {
+					new Label(data.getName()).setParent(row);
+					new Label(Integer.toString(data.getValue())).setParent(row);
+				});
+		}
+	}
+
+	@Listen("onClick = #reload")
+	public void reload() {
+		final ListModelList<Item> model = new ListModelList<Item>(Item.newItems(_rows));
+		if (listbox != null)
+			listbox.setModel(model);
+		if (grid != null)
+			grid.setModel(model);
+	}
+}
@@ -0,0 +1,72 @@
+/* SelectorsBenchmark.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 20:29:14 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkbench;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.zkoss.zk.ui.Component;
+import org.zkoss.zk.ui.Desktop;
+import org.zkoss.zk.ui.Page;
+import org.zkoss.zk.ui.select.Selectors;
+
+/**
+ * Finds the components of <code>page.zul</code> by {@link Selectors#find}.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SelectorsBenchmark {
+	@Param({ "#btn", "window textbox", "listbox > listitem > listcell", "row:first-child label[value*='a']",
+			"listitem:nth-child(2n) checkbox" })
+	public String selector;
+
+	private ZkEnvironment _env;
+	private Desktop _desktop;
+	private Page _page;
+
+	@Setup
+	public void setup() throws Exception {
+		_env = ZkEnvironment.getInstance();
+		_desktop = _env.newPage(_env.newSession(), "/page.zul", new StringWriter());
+		_page = _desktop.getFirstPage();
+	}
+
+	@TearDown
+	public void tearDown() {
+		_env.removeDesktop(_desktop);
+	}
+
+	@Benchmark
+	public List<Component> find() {
+		return Selectors.find(_page, selector);
+	}
+}
@@ -0,0 +1,432 @@
+/* ServletStandIns.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 19:02:18 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkbench;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+/**
+ * Minimal in-memory stand-ins of the Servlet API, such that ZK can run
+ * headless in a benchmark.
+ * Only the methods used by ZK to serve a page and an AU request are
+ * implemented; the others return null, 0 or false.
+ *
+ * <p>The resources of the servlet context are loaded from the class path
+ * under <code>web/</code>, e.g., <code>/WEB-INF/zk.xml</code> is
+ * <code>web/WEB-INF/zk.xml</code>.
+ *
+ * @author agent
+ */
+public class ServletStandIns {
+	private static final AtomicInteger _nextId = new AtomicInteger();
+
+	/** Returns a servlet context whose resources are loaded from the class path. */
+	public static ServletContext newServletContext() {
+		return proxy(ServletContext.class, new ContextHandler());
+	}
+
+	/** Returns a new session of the given servlet context. */
+	public static HttpSession newSession(ServletContext ctx) {
+		return proxy(HttpSession.class, new SessionHandler(ctx));
+	}
+
+	/** Returns a GET request of the given path.
+	 * @param session the session, or null if not available
+	 */
+	public static HttpServletRequest newRequest(ServletContext ctx, HttpSession session, String path) {
+		return newRequest(ctx, session, "GET", path, null, null, null);
+	}
+
+	/** Returns a request.
+	 * @param session the session, or null if not available
+	 * @param params the parameters, or null if none
+	 * @param headers the headers, or null if none
+	 * @param body the body, or null if none
+	 */
+	public static HttpServletRequest newRequest(ServletContext ctx, HttpSession session, String method, String path,
+			Map<String, String[]> params, Map<String, String> headers, byte[] body) {
+		return proxy(HttpServletRequest.class, new RequestHandler(ctx, session, method, path, params, headers, body));
+	}
+
+	/** Returns a response that keeps the output in memory. */
+	public static HttpServletResponse newResponse() {
+		return proxy(HttpServletResponse.class, new ResponseHandler());
+	}
+
+	/** Returns the output written to the given response (see {@link #newResponse}). */
+	public static byte[] getOutput(HttpServletResponse response) {
+		final ResponseHandler handler = (ResponseHandler) Proxy.getInvocationHandler(response);
+		handler.writer.flush();
+		final byte[] bs = handler.out.toByteArray();
+		final byte[] ws = handler.text.toString().getBytes(StandardCharsets.UTF_8);
+		return ws.length == 0 ? bs : ws;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> cls, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(ServletStandIns.class.getClassLoader(), new Class[] { cls }, handler);
+	}
+
+	/** Returns the default value of the given method. */
+	private static Object defaultValue(Object proxy, Method method, Object[] args) {
+		final String name = method.getName();
+		if ("hashCode".equals(name))
+			return System.identityHashCode(proxy);
+		if ("equals".equals(name))
+			return proxy == args[0];
+		if ("toString".equals(name))
+			return method.getDeclaringClass().getSimpleName() + '@' + System.identityHashCode(proxy);
+
+		final Class<?> type = method.getReturnType();
+		if (type == boolean.class)
+			return Boolean.FALSE;
+		if (type == int.class)
+			return 0;
+		if (type == long.class)
+			return 0L;
+		return null;
+	}
+
+	/** Handles the attributes of a scope. */
+	private abstract static class ScopeHandler implements InvocationHandler {
+		protected final Map<String, Object> attrs = new ConcurrentHashMap<String, Object>();
+
+		protected Object invokeScope(Object proxy, Method method, Object[] args) {
+			switch (method.getName()) {
+			case "getAttribute":
+				return attrs.get((String) args[0]);
+			case "setAttribute":
+				if (args[1] != null)
+					attrs.put((String) args[0], args[1]);
+				else
+					attrs.remove((String) args[0]);
+				return null;
+			case "removeAttribute":
+				attrs.remove((String) args[0]);
+				return null;
+			case "getAttributeNames":
+				return Collections.enumeration(attrs.keySet());
+			default:
+				return defaultValue(proxy, method, args);
+			}
+		}
+	}
+
+	private static class ContextHandler extends ScopeHandler {
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+			case "getResource":
+				return getResource((String) args[0]);
+			case "getResourceAsStream": {
+				final URL url = getResource((String) args[0]);
+				return url != null ? url.openStream() : null;
+			}
+			case "getContextPath":
+				return "";
+			case "getServletContextName":
+			case "getServerInfo":
+				return "zkbench";
+			case "getMajorVersion":
+			case "getEffectiveMajorVersion":
+				return 3;
+			case "getMinorVersion":
+			case "getEffectiveMinorVersion":
+				return 1;
+			case "getInitParameterNames":
+				return Collections.emptyEnumeration();
+			case "getClassLoader":
+				return ServletStandIns.class.getClassLoader();
+			case "getContext":
+				return proxy;
+			case "log":
+				return null;
+			default:
+				return invokeScope(proxy, method, args);
+			}
+		}
+
+		private static URL getResource(String path) {
+			if (path == null || !path.startsWith("/"))
+				return null;
+			return ServletStandIns.class.getClassLoader().getResource("web" + path);
+		}
+	}
+
+	private static class SessionHandler extends ScopeHandler {
+		private final ServletContext _ctx;
+		private final String _id = "zkbench" + _nextId.incrementAndGet();
+		private final long _created = System.currentTimeMillis();
+		private int _maxInactive = 1800;
+
+		private SessionHandler(ServletContext ctx) {
+			_ctx = ctx;
+		}
+
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+			case "getId":
+				return _id;
+			case "getServletContext":
+				return _ctx;
+			case "getCreationTime":
+			case "getLastAccessedTime":
+				return _created;
+			case "getMaxInactiveInterval":
+				return _maxInactive;
+			case "setMaxInactiveInterval":
+				_maxInactive = (Integer) args[0];
+				return null;
+			case "invalidate":
+				attrs.clear();
+				return null;
+			default:
+				return invokeScope(proxy, method, args);
+			}
+		}
+	}
+
+	private static class RequestHandler extends ScopeHandler {
+		private final ServletContext _ctx;
+		private final HttpSession _session;
+		private final String _method, _path;
+		private final Map<String, String[]> _params;
+		private final Map<String, String> _headers = new HashMap<String, String>();
+		private final byte[] _body;
+		private String _charset = "UTF-8";
+
+		private RequestHandler(ServletContext ctx, HttpSession session, String method, String path,
+				Map<String, String[]> params, Map<String, String> headers, byte[] body) {
+			_ctx = ctx;
+			_session = session;
+			_method = method;
+			_path = path;
+			_params = params != null ? params : new LinkedHashMap<String, String[]>();
+			if (headers != null)
+				for (Map.Entry<String, String> me : headers.entrySet())
+					_headers.put(me.getKey().toLowerCase(Locale.ENGLISH), me.getValue());
+			_body = body != null ? body : new byte[0];
+		}
+
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+			case "getServletContext":
+				return _ctx;
+			case "getSession":
+				return _session;
+			case "getMethod":
+				return _method;
+			case "getServletPath":
+			case "getRequestURI":
+				return _path;
+			case "getRequestURL":
+				return new StringBuffer("http://localhost:8080").append(_path);
+			case "getContextPath":
+				return "";
+			case "getParameter": {
+				final String[] vals = _params.get((String) args[0]);
+				return vals != null && vals.length > 0 ? vals[0] : null;
+			}
+			case "getParameterValues":
+				return _params.get((String) args[0]);
+			case "getParameterMap":
+				return _params;
+			case "getParameterNames":
+				return Collections.enumeration(_params.keySet());
+			case "getHeader":
+				return _headers.get(((String) args[0]).toLowerCase(Locale.ENGLISH));
+			case "getHeaders": {
+				final String val = _headers.get(((String) args[0]).toLowerCase(Locale.ENGLISH));
+				return val != null ? Collections.enumeration(Collections.singleton(val))
+						: Collections.emptyEnumeration();
+			}
+			case "getHeaderNames":
+				return Collections.enumeration(_headers.keySet());
+			case "getIntHeader": {
+				final String val = _headers.get(((String) args[0]).toLowerCase(Locale.ENGLISH));
+				return val != null ? Integer.parseInt(val) : -1;
+			}
+			case "getDateHeader":
+				return -1L;
+			case "getLocale":
+				return Locale.US;
+			case "getLocales":
+				return Collections.enumeration(Collections.singleton(Locale.US));
+			case "getCharacterEncoding":
+				return _charset;
+			case "setCharacterEncoding":
+				_charset = (String) args[0];
+				return null;
+			case "getContentType":
+				return _headers.get("content-type");
+			case "getContentLength":
+				return _body.length;
+			case "getContentLengthLong":
+				return (long) _body.length;
+			case "getInputStream":
+				return new BodyInputStream(new ByteArrayInputStream(_body));
+			case "getReader":
+				return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(_body), _charset));
+			case "getScheme":
+				return "http";
+			case "getProtocol":
+				return "HTTP/1.1";
+			case "getServerName":
+			case "getRemoteHost":
+			case "getLocalName":
+				return "localhost";
+			case "getServerPort":
+			case "getLocalPort":
+				return 8080;
+			case "getRemoteAddr":
+			case "getLocalAddr":
+				return "127.0.0.1";
+			case "getDispatcherType":
+				return DispatcherType.REQUEST;
+			default:
+				return invokeScope(proxy, method, args);
+			}
+		}
+	}
+
+	private static class ResponseHandler implements InvocationHandler {
+		private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		private final StringWriter text = new StringWriter();
+		private final PrintWriter writer = new PrintWriter(text);
+		private final Map<String, String> _headers = new HashMap<String, String>();
+		private String _contentType, _charset = "UTF-8";
+		private int _status = 200;
+
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+			case "getWriter":
+				return writer;
+			case "getOutputStream":
+				return new ServletOutputStream() {
+					public void write(int b) {
+						out.write(b);
+					}
+
+					public void write(byte[] b, int off, int len) {
+						out.write(b, off, len);
+					}
+
+					public boolean isReady() {
+						return true;
+					}
+
+					public void setWriteListener(WriteListener listener) {
+					}
+				};
+			case "setHeader":
+			case "addHeader":
+				_headers.put((String) args[0], (String) args[1]);
+				return null;
+			case "setIntHeader":
+			case "addIntHeader":
+				_headers.put((String) args[0], String.valueOf(args[1]));
+				return null;
+			case "setDateHeader":
+			case "addDateHeader":
+				_headers.put((String) args[0], String.valueOf(args[1]));
+				return null;
+			case "containsHeader":
+				return _headers.containsKey((String) args[0]);
+			case "getHeader":
+				return _headers.get((String) args[0]);
+			case "setContentType":
+				_contentType = (String) args[0];
+				return null;
+			case "getContentType":
+				return _contentType;
+			case "setCharacterEncoding":
+				_charset = (String) args[0];
+				return null;
+			case "getCharacterEncoding":
+				return _charset;
+			case "encodeURL":
+			case "encodeRedirectURL":
+			case "encodeUrl":
+			case "encodeRedirectUrl":
+				return args[0];
+			case "setStatus":
+			case "sendError":
+				_status = (Integer) args[0];
+				return null;
+			case "getStatus":
+				return _status;
+			case "getLocale":
+				return Locale.US;
+			default:
+				return defaultValue(proxy, method, args);
+			}
+		}
+	}
+
+	private static class BodyInputStream extends ServletInputStream {
+		private final InputStream _in;
+
+		private BodyInputStream(InputStream in) {
+			_in = in;
+		}
+
+		public int read() throws IOException {
+			return _in.read();
+		}
+
+		public int read(byte[] b, int off, int len) throws IOException {
+			return _in.read(b, off, len);
+		}
+
+		public boolean isFinished() {
+			try {
+				return _in.available() == 0;
+			} catch (IOException ex) {
+				return true;
+			}
+		}
+
+		public boolean isReady() {
+			return true;
+		}
+
+		public void setReadListener(ReadListener listener) {
+		}
+	}
+}
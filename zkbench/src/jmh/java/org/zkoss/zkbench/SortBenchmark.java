@@ -0,0 +1,110 @@
+/* SortBenchmark.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Mon Oct 19 00:41:07 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkbench;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.zkoss.lang.Library;
+import org.zkoss.lang.reflect.Fields;
+import org.zkoss.zul.FieldComparator;
+
+/**
+ * Sorts a list of beans by a compound field and then a field, as
+ * a listheader with <code>sort="auto(parent.name, value)"</code> does:
+ * <ul>
+ * <li>reflection: {@link Fields#getByCompound} in each comparison
+ * (what {@link FieldComparator} did before it resolves the getters)</li>
+ * <li>compare: {@link Collections#sort} with {@link FieldComparator}</li>
+ * <li>keyed: {@link FieldComparator#sort(List, Comparator)}, which retrieves
+ * the values of each element once</li>
+ * <li>parallel: keyed, and sorts in parallel</li>
+ * </ul>
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SortBenchmark {
+	private static final String ORDER_BY = "parent.name, value";
+
+	@Param({ "reflection", "compare", "keyed", "parallel" })
+	public String impl;
+
+	@Param({ "100000" })
+	public int size;
+
+	private List<Item> _items;
+	private Comparator<Object> _cmpr;
+
+	@Setup
+	public void setup() {
+		final Random random = new Random(1);
+		final List<Item> parents = Item.newItems(size / 100);
+		_items = Item.newItems(size);
+		for (Item item : _items) {
+			item.setParent(parents.get(random.nextInt(parents.size())));
+			item.setValue(random.nextInt());
+		}
+
+		Library.setProperty("org.zkoss.zul.FieldComparator.parallelSort.threshold",
+				"parallel".equals(impl) ? "10000" : "0");
+		_cmpr = "reflection".equals(impl) ? new ReflectionComparator() : new FieldComparator(ORDER_BY, true);
+	}
+
+	@Benchmark
+	public Object sort() {
+		final List<Item> items = new ArrayList<Item>(_items);
+		if ("keyed".equals(impl) || "parallel".equals(impl))
+			FieldComparator.sort(items, _cmpr);
+		else
+			Collections.sort(items, _cmpr);
+		return items.get(0);
+	}
+
+	/** Compares the same as {@link FieldComparator} before, with reflection. */
+	private static class ReflectionComparator implements Comparator<Object> {
+		@SuppressWarnings("unchecked")
+		public int compare(Object o1, Object o2) {
+			try {
+				int v = ((Comparable<Object>) Fields.getByCompound(o1, "parent.name"))
+						.compareTo(Fields.getByCompound(o2, "parent.name"));
+				if (v == 0)
+					v = ((Comparable<Object>) Fields.getByCompound(o1, "value"))
+							.compareTo(Fields.getByCompound(o2, "value"));
+				return v;
+			} catch (NoSuchMethodException ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+	}
+}
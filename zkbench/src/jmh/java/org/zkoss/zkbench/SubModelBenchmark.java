@@ -0,0 +1,107 @@
+/* SubModelBenchmark.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 23:58:20 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkbench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.zkoss.zul.ListModel;
+import org.zkoss.zul.ListModelList;
+import org.zkoss.zul.ListModels;
+import org.zkoss.zul.ListSubModel;
+
+/**
+ * Looks up the auto-complete items of a combobox over a large model,
+ * as {@link org.zkoss.zul.Combobox} does on each onChanging:
+ * {@link ListModels#toListSubModel} (scan) and
+ * {@link ListModels#toIndexedListSubModel} (indexed).
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SubModelBenchmark {
+	private static final String[] FIRST = { "Anna", "Bruno", "Chen", "Daniel", "Elena", "Fatima", "Georg", "Hiro",
+			"Ines", "Jamal", "Kofi", "Lena", "Maria", "Nikos", "Olga", "Pedro", "Quinn", "Rosa", "Sven", "Tomas" };
+
+	@Param({ "scan", "indexed" })
+	public String impl;
+
+	@Param({ "200000" })
+	public int size;
+
+	private ListModelList<String> _model;
+	private ListSubModel<String> _subModel;
+	/** What the user typed, one to eight characters of an existing name,
+	 * i.e., from a prefix of many names to the prefix of a single name. */
+	private String[] _typed;
+	private int _cursor;
+
+	@Setup
+	public void setup() {
+		final Random random = new Random(1);
+		final List<String> names = new ArrayList<String>(size);
+		for (int j = 0; j < size; ++j)
+			names.add(FIRST[random.nextInt(FIRST.length)] + " " + (char) ('A' + random.nextInt(26))
+					+ Integer.toString(random.nextInt(1 << 20), 36));
+		_model = new ListModelList<String>(names, true);
+		_subModel = (ListSubModel<String>) ("indexed".equals(impl) ? ListModels.toIndexedListSubModel(_model)
+				: ListModels.toListSubModel(_model));
+
+		_typed = new String[1024];
+		for (int j = 0; j < _typed.length; ++j) {
+			final String name = names.get(random.nextInt(size));
+			_typed[j] = name.substring(0, Math.min(name.length(), 1 + random.nextInt(8)));
+		}
+		_subModel.getSubModel(_typed[0], -1); //build the index if any
+	}
+
+	@Benchmark
+	public int onChanging() {
+		return render(_subModel.getSubModel(_typed[_cursor++ & 1023], -1));
+	}
+
+	/** Adds and removes an item, and then looks up, i.e., the index,
+	 * if any, is updated incrementally. */
+	@Benchmark
+	public int addRemoveOnChanging() {
+		final String typed = _typed[_cursor++ & 1023];
+		_model.add(_cursor % size, typed + " Added");
+		_model.remove(_cursor % size);
+		return render(_subModel.getSubModel(typed, -1));
+	}
+
+	private static int render(ListModel<String> subset) {
+		int len = 0;
+		for (int j = 0, sz = subset.getSize(); j < sz; ++j)
+			len += subset.getElementAt(j).length();
+		return len;
+	}
+}
@@ -0,0 +1,99 @@
+/* SuspendBenchmark.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 20:53:27 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkbench;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.zkoss.zk.au.AuRequest;
+import org.zkoss.zk.ui.Component;
+import org.zkoss.zk.ui.Desktop;
+import org.zkoss.zk.ui.util.Configuration;
+
+/**
+ * Suspends the given number of event processing threads in a desktop
+ * (<code>suspend.zul</code>), and then resumes them all,
+ * with platform or virtual threads
+ * ({@link Configuration#enableVirtualEventThread}).
+ *
+ * <p>Since the event processing threads are enabled for the whole Web
+ * application, it shall run in its own fork.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+@SuppressWarnings("deprecation")
+public class SuspendBenchmark {
+	@Param({ "platform", "virtual" })
+	public String thread;
+
+	@Param({ "10", "100" })
+	public int suspended;
+
+	private ZkEnvironment _env;
+	private Desktop _desktop;
+	private Component _wait, _notify;
+
+	@Setup
+	public void setup() throws Exception {
+		_env = ZkEnvironment.getInstance();
+		final Configuration config = _env.getWebApp().getConfiguration();
+		config.enableEventThread(true);
+		config.enableVirtualEventThread("virtual".equals(thread));
+		config.setMaxSuspendedThreads(-1);
+
+		_desktop = _env.newPage(_env.newSession(), "/suspend.zul", new StringWriter());
+		final Component win = _desktop.getFirstPage().getFirstRoot();
+		_wait = win.getFellow("wait");
+		_notify = win.getFellow("notify");
+	}
+
+	@TearDown
+	public void tearDown() {
+		_env.removeDesktop(_desktop);
+	}
+
+	@Benchmark
+	public byte[] suspendAndResume() throws Exception {
+		final List<AuRequest> requests = new ArrayList<AuRequest>(suspended);
+		for (int j = 0; j < suspended; ++j)
+			requests.add(newClick(_wait));
+		_env.update(_desktop, requests);
+		return _env.update(_desktop, Collections.singletonList(newClick(_notify)));
+	}
+
+	private AuRequest newClick(Component comp) {
+		return new AuRequest(_desktop, comp.getUuid(), "onClick", new HashMap<String, Object>());
+	}
+}
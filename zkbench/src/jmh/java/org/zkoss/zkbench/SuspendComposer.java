@@ -0,0 +1,37 @@
+/* SuspendComposer.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 19:50:36 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkbench;
+
+import org.zkoss.zk.ui.Component;
+import org.zkoss.zk.ui.Executions;
+import org.zkoss.zk.ui.select.SelectorComposer;
+import org.zkoss.zk.ui.select.annotation.Listen;
+
+/**
+ * Handles the events of <code>suspend.zul</code>. It requires the event
+ * processing threads.
+ *
+ * @author agent
+ */
+public class SuspendComposer extends SelectorComposer<Component> {
+	private final Object _mutex = new Object();
+
+	@Listen("onClick = #wait")
+	public void suspend() throws InterruptedException {
+		Executions.wait(_mutex);
+	}
+
+	@Listen("onClick = #notify")
+	public void resume() {
+		Executions.notifyAll(_mutex);
+	}
+}
@@ -0,0 +1,117 @@
+/* SuspendFootprint.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Tue Oct 20 10:12:37 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkbench;
+
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import org.zkoss.zk.au.AuRequest;
+import org.zkoss.zk.ui.Component;
+import org.zkoss.zk.ui.Desktop;
+import org.zkoss.zk.ui.Session;
+import org.zkoss.zk.ui.util.Configuration;
+
+/**
+ * Reports the density of suspended desktops, i.e., the retained heap and
+ * the platform threads per desktop whose event processing thread is
+ * suspended (<code>suspend.zul</code>), with platform or virtual threads
+ * ({@link Configuration#enableVirtualEventThread}).
+ * Run it with <code>./gradlew :zkbench:suspendFootprint</code>, or give
+ * the modes and the number of desktops as the arguments, such as
+ * <code>virtual 5000</code>.
+ *
+ * <p>Like {@link Footprint}, it measures the heap retained after garbage
+ * collection rather than the time, so it is not run by JMH.
+ *
+ * @author agent
+ */
+@SuppressWarnings("deprecation")
+public class SuspendFootprint {
+	private static final int COUNT = 2000;
+
+	public static void main(String[] args) throws Exception {
+		try {
+			final List<String> modes = new ArrayList<String>();
+			int count = COUNT;
+			for (String arg : args) {
+				if (arg.matches("\\d+"))
+					count = Integer.parseInt(arg);
+				else
+					modes.add(arg);
+			}
+			if (modes.isEmpty())
+				Collections.addAll(modes, "platform", "virtual");
+
+			final ZkEnvironment env = ZkEnvironment.getInstance();
+			final Session sess = env.newSession();
+			for (String mode : modes) {
+				measure(env, sess, mode, 100); //warm up
+				final long[] result = measure(env, sess, mode, count);
+				System.out.printf("%-9s %6d desktops %8d bytes/desktop %6.2f threads/desktop%n", mode, count,
+						result[0] / count, (double) result[1] / count);
+			}
+		} finally {
+			System.exit(0); //the timers of ZK are not daemon
+		}
+	}
+
+	/** Parks the given number of desktops, each with a suspended event
+	 * processing thread, and returns the retained heap and the number of
+	 * platform threads, excluding the same desktops not suspended.
+	 */
+	private static long[] measure(ZkEnvironment env, Session sess, String mode, int count) throws Exception {
+		final Configuration config = env.getWebApp().getConfiguration();
+		config.enableEventThread(true);
+		config.enableVirtualEventThread("virtual".equals(mode));
+		config.setMaxSuspendedThreads(-1);
+
+		final List<Desktop> desktops = new ArrayList<Desktop>(count);
+		for (int j = 0; j < count; ++j)
+			desktops.add(env.newPage(sess, "/suspend.zul", new StringWriter()));
+
+		final ThreadMXBean tbean = ManagementFactory.getThreadMXBean();
+		final long baseHeap = usedHeap();
+		final int baseThreads = tbean.getThreadCount();
+		for (Desktop desktop : desktops)
+			env.update(desktop, Collections.singletonList(newClick(desktop, "wait")));
+		final long heap = usedHeap() - baseHeap;
+		final int threads = tbean.getThreadCount() - baseThreads;
+
+		for (Desktop desktop : desktops) {
+			env.update(desktop, Collections.singletonList(newClick(desktop, "notify")));
+			env.removeDesktop(desktop);
+		}
+		return new long[] { heap, threads };
+	}
+
+	private static AuRequest newClick(Desktop desktop, String id) {
+		final Component comp = desktop.getFirstPage().getFirstRoot().getFellow(id);
+		return new AuRequest(desktop, comp.getUuid(), "onClick", new HashMap<String, Object>());
+	}
+
+	private static long usedHeap() throws InterruptedException {
+		final MemoryMXBean mbean = ManagementFactory.getMemoryMXBean();
+		long used = Long.MAX_VALUE;
+		for (int j = 0; j < 4; ++j) {
+			mbean.gc();
+			Thread.sleep(50);
+			used = Math.min(used, mbean.getHeapMemoryUsage().getUsed());
+		}
+		return used;
+	}
+}
@@ -0,0 +1,88 @@
+/* TemplateRowBenchmark.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Tue Oct 20 14:21:08 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkbench;
+
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.zkoss.zk.au.AuRequest;
+import org.zkoss.zk.ui.Component;
+import org.zkoss.zk.ui.Desktop;
+
+/**
+ * Assigns a new model to a listbox or a grid in an AU update
+ * (<code>rows.zul</code>), i.e., syncs the model, creates the rows,
+ * and redraws them.
+ * The rows are created from the template (<code>template</code>),
+ * or by a renderer creating the same components in Java (<code>java</code>).
+ * The difference is the cost of instantiating the template, including
+ * the evaluation of EL expressions, which is the most that a faster
+ * instantiation path could save.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TemplateRowBenchmark {
+	@Param({ "listbox", "grid" })
+	public String component;
+	@Param({ "template", "java" })
+	public String renderer;
+	@Param({ "500" })
+	public String rows;
+
+	private ZkEnvironment _env;
+	private Desktop _desktop;
+	private Component _reload;
+
+	@Setup
+	public void setup() throws Exception {
+		_env = ZkEnvironment.getInstance();
+		final Map<String, String[]> params = new HashMap<String, String[]>();
+		params.put("component", new String[] { component });
+		params.put("renderer", new String[] { renderer });
+		params.put("rows", new String[] { rows });
+		_desktop = _env.newPage(_env.newSession(), "/rows.zul", params, new StringWriter());
+		_reload = _desktop.getFirstPage().getFirstRoot().getFellow("reload");
+	}
+
+	@TearDown
+	public void tearDown() {
+		_env.removeDesktop(_desktop);
+	}
+
+	@Benchmark
+	public byte[] reload() throws Exception {
+		return _env.update(_desktop, Collections.singletonList(
+				new AuRequest(_desktop, _reload.getUuid(), "onClick", new HashMap<String, Object>())));
+	}
+}
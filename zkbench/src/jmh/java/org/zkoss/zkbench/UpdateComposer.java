@@ -0,0 +1,42 @@
+/* UpdateComposer.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 19:44:50 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkbench;
+
+import org.zkoss.zk.ui.Component;
+import org.zkoss.zk.ui.select.SelectorComposer;
+import org.zkoss.zk.ui.select.annotation.Listen;
+import org.zkoss.zk.ui.select.annotation.Wire;
+import org.zkoss.zul.Label;
+import org.zkoss.zul.Textbox;
+
+/**
+ * Handles the events of <code>page.zul</code>.
+ *
+ * @author agent
+ */
+public class UpdateComposer extends SelectorComposer<Component> {
+	@Wire
+	private Textbox name;
+	@Wire
+	private Label result;
+	private int _count;
+
+	@Listen("onClick = #btn")
+	public void submit() {
+		result.setValue(name.getValue() + ' ' + ++_count);
+	}
+
+	@Listen("onChange = #name")
+	public void change() {
+		result.setValue(name.getValue());
+	}
+}
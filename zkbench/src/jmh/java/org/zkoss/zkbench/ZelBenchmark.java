@@ -0,0 +1,89 @@
+/* ZelBenchmark.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 20:31:06 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkbench;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.zkoss.xel.Expression;
+import org.zkoss.xel.ExpressionFactory;
+import org.zkoss.xel.XelContext;
+import org.zkoss.xel.util.SimpleResolver;
+import org.zkoss.xel.util.SimpleXelContext;
+import org.zkoss.xel.zel.CompilingELFactory;
+import org.zkoss.xel.zel.ELFactory;
+
+/**
+ * Evaluates parsed ZEL expressions against a list of beans, the same as
+ * the EL expressions of a template with <code>forEach</code>:
+ * by {@link ELFactory} (interpreted) and {@link CompilingELFactory}.
+ *
+ * @author agent
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ZelBenchmark {
+	private static final int SIZE = 100;
+
+	@Param({ "interpreted", "compiled" })
+	public String factory;
+
+	@Param({ "${each.name}", "${each.parent.name}", "${each.value + 1}" })
+	public String expression;
+
+	private List<Item> _items;
+	private Map<String, Object> _vars;
+	private XelContext _ctx;
+	private Expression _expr;
+
+	@Setup
+	public void setup() {
+		final ExpressionFactory expf = "compiled".equals(factory) ? new CompilingELFactory() : new ELFactory();
+		_items = Item.newItems(SIZE);
+		for (int j = 1; j < SIZE; ++j)
+			_items.get(j).setParent(_items.get(j / 2));
+		_items.get(0).setParent(_items.get(0));
+		_vars = new HashMap<String, Object>();
+		_ctx = new SimpleXelContext(new SimpleResolver(_vars));
+		_expr = expf.parseExpression(_ctx, expression, Object.class);
+	}
+
+	/** Evaluates the expression once per item. */
+	@Benchmark
+	public int evaluate() {
+		int hash = 0;
+		for (Item item : _items) {
+			_vars.put("each", item);
+			final Object val = _expr.evaluate(_ctx);
+			hash += val != null ? val.hashCode() : 0;
+		}
+		return hash;
+	}
+}
@@ -0,0 +1,170 @@
+/* ZkEnvironment.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 19:21:45 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkbench;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import org.zkoss.zk.au.AuRequest;
+import org.zkoss.zk.au.AuWriter;
+import org.zkoss.zk.au.http.HttpAuWriter;
+import org.zkoss.zk.ui.Desktop;
+import org.zkoss.zk.ui.Execution;
+import org.zkoss.zk.ui.Page;
+import org.zkoss.zk.ui.Session;
+import org.zkoss.zk.ui.UiException;
+import org.zkoss.zk.ui.WebApp;
+import org.zkoss.zk.ui.http.ExecutionImpl;
+import org.zkoss.zk.ui.http.I18Ns;
+import org.zkoss.zk.ui.http.WebManager;
+import org.zkoss.zk.ui.impl.RequestInfoImpl;
+import org.zkoss.zk.ui.metainfo.PageDefinition;
+import org.zkoss.zk.ui.metainfo.PageDefinitions;
+import org.zkoss.zk.ui.sys.RequestInfo;
+import org.zkoss.zk.ui.sys.SessionsCtrl;
+import org.zkoss.zk.ui.sys.UiFactory;
+import org.zkoss.zk.ui.sys.WebAppCtrl;
+
+/**
+ * A headless ZK Web application running on {@link ServletStandIns}.
+ * It serves pages and AU requests the same as
+ * {@link org.zkoss.zk.ui.http.DHtmlLayoutServlet} and
+ * {@link org.zkoss.zk.au.http.DHtmlUpdateServlet}, but calls
+ * {@link org.zkoss.zk.ui.sys.UiEngine} directly, so the servlet overhead
+ * (such as compressing the output) is not measured.
+ *
+ * <p>Only one environment is allowed per JVM, since ZK keeps the Web
+ * application in static fields. Use {@link #getInstance}.
+ *
+ * @author agent
+ */
+public class ZkEnvironment {
+	private static ZkEnvironment _inst;
+
+	private final ServletContext _ctx;
+	private final WebApp _wapp;
+
+	/** Returns the environment, starting it if necessary. */
+	public static synchronized ZkEnvironment getInstance() {
+		if (_inst == null)
+			_inst = new ZkEnvironment();
+		return _inst;
+	}
+
+	private ZkEnvironment() {
+		_ctx = ServletStandIns.newServletContext();
+		new WebManager(_ctx, "/zkau");
+		_wapp = WebManager.getWebApp(_ctx);
+	}
+
+	public ServletContext getServletContext() {
+		return _ctx;
+	}
+
+	public WebApp getWebApp() {
+		return _wapp;
+	}
+
+	/** Creates a session. */
+	public Session newSession() {
+		final HttpSession hsess = ServletStandIns.newSession(_ctx);
+		return WebManager.getSession(_ctx, ServletStandIns.newRequest(_ctx, hsess, "/"));
+	}
+
+	/** Returns the page definition of the given path, e.g., <code>/listbox.zul</code>. */
+	public PageDefinition getPageDefinition(String path) {
+		final PageDefinition pagedef = PageDefinitions.getPageDefinition(_wapp, PageDefinitions.getLocator(_wapp, path),
+				path);
+		if (pagedef == null)
+			throw new UiException("Not found: " + path);
+		return pagedef;
+	}
+
+	/** Creates a desktop by rendering the given page, and returns it.
+	 * @param out the writer to render the page to
+	 */
+	public Desktop newPage(Session sess, String path, StringWriter out) throws IOException {
+		return newPage(sess, path, null, out);
+	}
+
+	/** Creates a desktop by rendering the given page, and returns it.
+	 * @param params the request parameters, or null if none
+	 * @param out the writer to render the page to
+	 */
+	public Desktop newPage(Session sess, String path, Map<String, String[]> params, StringWriter out)
+			throws IOException {
+		final HttpServletRequest request = ServletStandIns.newRequest(_ctx, (HttpSession) sess.getNativeSession(),
+				"GET", path, params, null, null);
+		final HttpServletResponse response = ServletStandIns.newResponse();
+		SessionsCtrl.requestEnter(sess);
+		final Object old = I18Ns.setup(sess, request, response, "UTF-8");
+		try {
+			final WebManager webman = WebManager.getWebManager(_ctx);
+			final Desktop desktop = webman.getDesktop(sess, request, response, path, true);
+			final RequestInfo ri = new RequestInfoImpl(_wapp, sess, desktop, request,
+					PageDefinitions.getLocator(_wapp, path));
+			final UiFactory uf = ((WebAppCtrl) _wapp).getUiFactory();
+			final PageDefinition pagedef = uf.getPageDefinition(ri, path);
+			if (pagedef == null)
+				throw new UiException("Not found: " + path);
+
+			final Page page = WebManager.newPage(uf, ri, pagedef, response, path);
+			final Execution exec = new ExecutionImpl(_ctx, request, response, desktop, page);
+			((WebAppCtrl) _wapp).getUiEngine().execNewPage(exec, pagedef, page, out);
+			return desktop;
+		} finally {
+			I18Ns.cleanup(request, old);
+			SessionsCtrl.requestExit(sess);
+		}
+	}
+
+	/** Processes the given AU requests, and returns the output.
+	 */
+	public byte[] update(Desktop desktop, List<AuRequest> requests) throws IOException {
+		return update(desktop, requests, new HttpAuWriter());
+	}
+
+	/** Processes the given AU requests with the given writer,
+	 * and returns the output.
+	 */
+	public byte[] update(Desktop desktop, List<AuRequest> requests, AuWriter out) throws IOException {
+		final Session sess = desktop.getSession();
+		final HttpServletRequest request = ServletStandIns.newRequest(_ctx, (HttpSession) sess.getNativeSession(),
+				"POST", "/zkau", null, null, null);
+		final HttpServletResponse response = ServletStandIns.newResponse();
+		SessionsCtrl.requestEnter(sess);
+		final Object old = I18Ns.setup(sess, request, response, "UTF-8");
+		try {
+			final Execution exec = new ExecutionImpl(_ctx, request, response, desktop, null);
+			out.setCompress(false);
+			out.open(request, response);
+			((WebAppCtrl) _wapp).getUiEngine().execUpdate(exec, requests, out);
+			out.close(request, response);
+			return ServletStandIns.getOutput(response);
+		} finally {
+			I18Ns.cleanup(request, old);
+			SessionsCtrl.requestExit(sess);
+		}
+	}
+
+	/** Removes the given desktop. */
+	public void removeDesktop(Desktop desktop) {
+		((WebAppCtrl) _wapp).getDesktopCache(desktop.getSession()).removeDesktop(desktop);
+	}
+}
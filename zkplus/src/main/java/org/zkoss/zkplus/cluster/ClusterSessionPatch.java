@@ -31,6 +31,10 @@ import org.zkoss.zk.ui.util.ExecutionCleanup;
  *		&lt;listener-class&gt;org.zkoss.zkplus.cluster.ClusterSessionPatch&lt;/listener-class&gt;
  *	&lt;/listener&gt;
  * </code></pre>
+ * <p>Since the whole session, including all desktops, is replicated after
+ * each execution, it is suggested to use it with
+ * {@link ReplicatedDesktopCacheProvider}, such that only the changed
+ * desktops are replicated (to a {@link ReplicationStore}).</p>
  * @author jimmy
  * @since 5.0.8
  *
@@ -0,0 +1,58 @@
+/* DesktopReplicator.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 23:31:12 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkplus.cluster;
+
+import java.util.List;
+
+import org.zkoss.zk.ui.Desktop;
+import org.zkoss.zk.ui.Execution;
+import org.zkoss.zk.ui.Session;
+import org.zkoss.zk.ui.sys.DesktopCache;
+import org.zkoss.zk.ui.sys.SessionCtrl;
+import org.zkoss.zk.ui.util.DesktopCleanup;
+import org.zkoss.zk.ui.util.ExecutionCleanup;
+
+/**
+ * The listener that replicates the changed desktop at the end of each
+ * execution, and removes the replicated desktop when it is destroyed.
+ * It is registered automatically by {@link ReplicatedDesktopCacheProvider},
+ * so you don't need to specify it in zk.xml.
+ *
+ * @author agent
+ * @since 10.0.1
+ */
+public class DesktopReplicator implements ExecutionCleanup, DesktopCleanup {
+	public void cleanup(Execution exec, Execution parent, List<Throwable> errs) {
+		if (parent == null) { //the root execution only
+			final Desktop desktop = exec.getDesktop();
+			final ReplicatedDesktopCache cache = getCache(desktop);
+			if (cache != null)
+				cache.replicate(desktop);
+		}
+	}
+
+	public void cleanup(Desktop desktop) {
+		final ReplicatedDesktopCache cache = getCache(desktop);
+		if (cache != null)
+			cache.forget(desktop.getId());
+	}
+
+	private static ReplicatedDesktopCache getCache(Desktop desktop) {
+		final Session sess = desktop != null ? desktop.getSession() : null;
+		if (sess != null) {
+			final DesktopCache dc = ((SessionCtrl) sess).getDesktopCache();
+			if (dc instanceof ReplicatedDesktopCache)
+				return (ReplicatedDesktopCache) dc;
+		}
+		return null;
+	}
+}
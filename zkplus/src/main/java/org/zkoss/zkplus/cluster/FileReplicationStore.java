@@ -0,0 +1,106 @@
+/* FileReplicationStore.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 23:08:26 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkplus.cluster;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.zkoss.lang.Library;
+
+/**
+ * A {@link ReplicationStore} that stores each serialized desktop in a file.
+ * If the directory is a shared file system, such as NFS, it can be used
+ * in a small cluster. Otherwise, it is used for testing.
+ *
+ * <p>The directory is specified by the library property called
+ * <code>org.zkoss.zkplus.cluster.FileReplicationStore.dir</code>.
+ * If not specified, <code>zk-replication</code> under the temporary
+ * directory (<code>java.io.tmpdir</code>) is assumed.
+ *
+ * @author agent
+ * @since 10.0.1
+ */
+public class FileReplicationStore implements ReplicationStore {
+	private final File _dir;
+
+	public FileReplicationStore() {
+		this(new File(Library.getProperty("org.zkoss.zkplus.cluster.FileReplicationStore.dir",
+				new File(System.getProperty("java.io.tmpdir"), "zk-replication").getPath())));
+	}
+
+	/**
+	 * @param dir the directory to store the desktops.
+	 */
+	public FileReplicationStore(File dir) {
+		_dir = dir;
+	}
+
+	/** Returns the directory to store the desktops. */
+	public File getDirectory() {
+		return _dir;
+	}
+
+	public void store(String replicationId, String desktopId, byte[] data) throws IOException {
+		final File dir = new File(_dir, check(replicationId));
+		dir.mkdirs();
+		final Path dst = new File(dir, check(desktopId)).toPath();
+		final Path tmp = Files.createTempFile(dir.toPath(), desktopId, ".tmp");
+		try {
+			Files.write(tmp, data);
+			try { //so a reader on another node never sees a partial file
+				Files.move(tmp, dst, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException ex) {
+				Files.move(tmp, dst, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+
+	public byte[] load(String replicationId, String desktopId) throws IOException {
+		try {
+			return Files.readAllBytes(new File(new File(_dir, check(replicationId)), check(desktopId)).toPath());
+		} catch (NoSuchFileException ex) {
+			return null;
+		}
+	}
+
+	public void remove(String replicationId, String desktopId) throws IOException {
+		Files.deleteIfExists(new File(new File(_dir, check(replicationId)), check(desktopId)).toPath());
+	}
+
+	public void removeAll(String replicationId) throws IOException {
+		final File dir = new File(_dir, check(replicationId));
+		final File[] files = dir.listFiles();
+		if (files != null)
+			for (File file : files)
+				Files.deleteIfExists(file.toPath());
+		Files.deleteIfExists(dir.toPath());
+	}
+
+	/** Makes sure the ID is safe to be a file name. */
+	private static String check(String id) {
+		for (int j = id.length(); --j >= 0;) {
+			final char cc = id.charAt(j);
+			if (!Character.isLetterOrDigit(cc) && cc != '_' && cc != '-')
+				throw new IllegalArgumentException("Illegal ID: " + id);
+		}
+		if (id.isEmpty())
+			throw new IllegalArgumentException("Empty ID");
+		return id;
+	}
+}
@@ -0,0 +1,47 @@
+/* InMemoryReplicationStore.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 23:05:41 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkplus.cluster;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link ReplicationStore} that keeps the serialized desktops in memory.
+ * Since it is not shared with other nodes, it is used only for testing,
+ * such as verifying that the desktops can be replicated (i.e., serialized)
+ * and restored without a cluster.
+ *
+ * @author agent
+ * @since 10.0.1
+ */
+public class InMemoryReplicationStore implements ReplicationStore {
+	private final Map<String, Map<String, byte[]>> _stores = new ConcurrentHashMap<String, Map<String, byte[]>>();
+
+	public void store(String replicationId, String desktopId, byte[] data) {
+		_stores.computeIfAbsent(replicationId, k -> new ConcurrentHashMap<String, byte[]>(4)).put(desktopId, data);
+	}
+
+	public byte[] load(String replicationId, String desktopId) {
+		final Map<String, byte[]> store = _stores.get(replicationId);
+		return store != null ? store.get(desktopId) : null;
+	}
+
+	public void remove(String replicationId, String desktopId) {
+		final Map<String, byte[]> store = _stores.get(replicationId);
+		if (store != null)
+			store.remove(desktopId);
+	}
+
+	public void removeAll(String replicationId) {
+		_stores.remove(replicationId);
+	}
+}
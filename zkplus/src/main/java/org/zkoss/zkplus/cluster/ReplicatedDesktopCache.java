@@ -0,0 +1,224 @@
+/* ReplicatedDesktopCache.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 23:14:53 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkplus.cluster;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.zkoss.lang.Classes;
+import org.zkoss.zk.ui.Desktop;
+import org.zkoss.zk.ui.Session;
+import org.zkoss.zk.ui.WebApp;
+import org.zkoss.zk.ui.impl.ConcurrentDesktopCache;
+import org.zkoss.zk.ui.sys.DesktopCache;
+import org.zkoss.zk.ui.sys.DesktopCtrl;
+import org.zkoss.zk.ui.sys.WebAppCtrl;
+import org.zkoss.zk.ui.util.Configuration;
+
+/**
+ * A desktop cache that replicates each desktop separately to
+ * a {@link ReplicationStore}, rather than as part of the session.
+ * It is used with {@link ReplicatedDesktopCacheProvider}.
+ *
+ * <p>When the session is serialized (by the Web container), only the IDs
+ * of the desktops are written, so the cost doesn't depend on the size of
+ * the component trees. Instead, a desktop is serialized and written to
+ * the store at the end of an execution, only if it is changed
+ * ({@link DesktopCtrl#isDirty}). When the session is activated at another
+ * node, a desktop is restored from the store the first time it is accessed.
+ *
+ * @author agent
+ * @since 10.0.1
+ */
+public class ReplicatedDesktopCache implements DesktopCache, java.io.Serializable {
+	private static final Logger log = LoggerFactory.getLogger(ReplicatedDesktopCache.class);
+	private static final long serialVersionUID = 20261018231453L;
+
+	/** The ID of this cache in the replication store. */
+	private final String _rid = UUID.randomUUID().toString();
+	/** The IDs of all desktops, including the ones not restored yet. */
+	private final Set<String> _dtids = ConcurrentHashMap.newKeySet();
+	private transient DesktopCache _cache;
+	private transient WebApp _wapp;
+	private transient Session _sess;
+
+	public ReplicatedDesktopCache(Configuration config) {
+		_wapp = config.getWebApp();
+		_cache = new ConcurrentDesktopCache(config);
+	}
+
+	/** Returns the ID used to identify the desktops of this cache
+	 * (i.e., of a session) in {@link ReplicationStore}.
+	 */
+	public String getReplicationId() {
+		return _rid;
+	}
+
+	/** Writes the given desktop to {@link ReplicationStore} if it is
+	 * changed since the last replication.
+	 * It is called by {@link DesktopReplicator} at the end of each execution.
+	 */
+	public void replicate(Desktop desktop) {
+		final DesktopCtrl dtctl = (DesktopCtrl) desktop;
+		if (!dtctl.isDirty() || !desktop.isAlive() || !_dtids.contains(desktop.getId()))
+			return;
+
+		final Set<String> changed = dtctl.getDirtyComponents();
+		try {
+			final ByteArrayOutputStream boas = new ByteArrayOutputStream(1024 * 8);
+			final ObjectOutputStream oos = new ObjectOutputStream(boas);
+			oos.writeObject(desktop);
+			oos.close();
+			getStore().store(_rid, desktop.getId(), boas.toByteArray());
+
+			if (log.isDebugEnabled())
+				log.debug("Replicated " + desktop + ": " + boas.size() + " bytes, changed: " + changed);
+			dtctl.clearDirty();
+		} catch (Throwable ex) {
+			log.warn("Unable to replicate " + desktop, ex);
+		}
+	}
+
+	/** Restores the given desktop from {@link ReplicationStore},
+	 * or returns null if not found.
+	 */
+	private synchronized Desktop restore(String desktopId) {
+		Desktop desktop = _cache.getDesktopIfAny(desktopId); //double check
+		if (desktop != null || !_dtids.contains(desktopId))
+			return desktop;
+
+		try {
+			final byte[] data = getStore().load(_rid, desktopId);
+			if (data == null) {
+				_dtids.remove(desktopId);
+				return null;
+			}
+
+			final ObjectInputStream ois = new ThreadObjectInputStream(new ByteArrayInputStream(data));
+			desktop = (Desktop) ois.readObject();
+			((DesktopCtrl) desktop).sessionDidActivate(_sess);
+			((DesktopCtrl) desktop).clearDirty();
+			_cache.addDesktop(desktop);
+
+			if (log.isDebugEnabled())
+				log.debug("Restored " + desktop + ": " + data.length + " bytes");
+			return desktop;
+		} catch (Throwable ex) {
+			log.warn("Unable to restore desktop " + desktopId, ex);
+			_dtids.remove(desktopId);
+			return null;
+		}
+	}
+
+	/** Forgets the given desktop, and removes it from {@link ReplicationStore}.
+	 * It is called when a desktop is destroyed.
+	 */
+	public void forget(String desktopId) {
+		if (_dtids.remove(desktopId)) {
+			try {
+				getStore().remove(_rid, desktopId);
+			} catch (Throwable ex) {
+				log.warn("Unable to remove desktop " + desktopId, ex);
+			}
+		}
+	}
+
+	private ReplicationStore getStore() {
+		return ((ReplicatedDesktopCacheProvider) ((WebAppCtrl) _wapp).getDesktopCacheProvider()).getStore();
+	}
+
+	//-- DesktopCache --//
+	public Desktop getDesktopIfAny(String desktopId) {
+		final Desktop desktop = _cache.getDesktopIfAny(desktopId);
+		return desktop != null || !_dtids.contains(desktopId) ? desktop : restore(desktopId);
+	}
+
+	public Desktop getDesktop(String desktopId) {
+		final Desktop desktop = getDesktopIfAny(desktopId);
+		return desktop != null ? desktop : _cache.getDesktop(desktopId); //throw exception
+	}
+
+	public void addDesktop(Desktop desktop) {
+		_dtids.add(desktop.getId());
+		_cache.addDesktop(desktop);
+	}
+
+	public void removeDesktop(Desktop desktop) {
+		_cache.removeDesktop(desktop);
+		forget(desktop.getId());
+	}
+
+	/** Replicates the changed desktops, and then invokes
+	 * {@link DesktopCtrl#sessionWillPassivate} for each desktop.
+	 */
+	public void sessionWillPassivate(Session sess) {
+		for (String dtid : _dtids) {
+			final Desktop desktop = _cache.getDesktopIfAny(dtid);
+			if (desktop != null)
+				replicate(desktop);
+		}
+		_cache.sessionWillPassivate(sess);
+	}
+
+	public void sessionDidActivate(Session sess) {
+		_sess = sess;
+		if (_cache == null) { //deserialized
+			_wapp = sess.getWebApp();
+			_cache = new ConcurrentDesktopCache(_wapp.getConfiguration());
+		}
+		_cache.sessionDidActivate(sess);
+	}
+
+	public void stop() {
+		_cache.stop();
+		try {
+			getStore().removeAll(_rid);
+		} catch (Throwable ex) {
+			log.warn("Unable to remove desktops of " + _rid, ex);
+		}
+		_dtids.clear();
+	}
+
+	/*package*/ void setSession(Session sess) {
+		if (_sess == null)
+			_sess = sess;
+	}
+
+	/** Resolves classes with the thread's context class loader,
+	 * since the classes of the Web application might not be visible
+	 * to ZK's class loader.
+	 */
+	private static class ThreadObjectInputStream extends ObjectInputStream {
+		private ThreadObjectInputStream(InputStream in) throws IOException {
+			super(in);
+		}
+
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			try {
+				return Classes.forNameByThread(desc.getName());
+			} catch (ClassNotFoundException ex) {
+				return super.resolveClass(desc);
+			}
+		}
+	}
+}
@@ -0,0 +1,102 @@
+/* ReplicatedDesktopCacheProvider.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 23:26:30 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkplus.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.zkoss.lang.Classes;
+import org.zkoss.lang.Library;
+import org.zkoss.zk.ui.Session;
+import org.zkoss.zk.ui.UiException;
+import org.zkoss.zk.ui.WebApp;
+import org.zkoss.zk.ui.impl.SessionDesktopCacheProvider;
+import org.zkoss.zk.ui.sys.DesktopCache;
+import org.zkoss.zk.ui.util.Configuration;
+
+/**
+ * A desktop cache provider that replicates only the changed desktops
+ * to a {@link ReplicationStore}, rather than the whole session with all
+ * its desktops (see {@link ReplicatedDesktopCache}).
+ * To use it, specify the following in zk.xml:
+ * <pre><code>&lt;system-config&gt;
+ *  &lt;cache-provider-class&gt;org.zkoss.zkplus.cluster.ReplicatedDesktopCacheProvider&lt;/cache-provider-class&gt;
+ *&lt;/system-config&gt;
+ *&lt;library-property&gt;
+ *  &lt;name&gt;org.zkoss.zkplus.cluster.ReplicationStore.class&lt;/name&gt;
+ *  &lt;value&gt;com.foo.MyReplicationStore&lt;/value&gt;
+ *&lt;/library-property&gt;</code></pre>
+ *
+ * <p>If the store is not specified, {@link InMemoryReplicationStore}
+ * is assumed (with a warning), which is used only for testing since it
+ * keeps the desktops in the local node and they are lost on failover.
+ * {@link DesktopReplicator} is registered automatically to replicate the
+ * desktops at the end of each execution.
+ *
+ * <p>A desktop is assumed changed if any AU request is processed,
+ * or any component is invalidated, updated, attached, moved or detached,
+ * or a page is added or removed.
+ * If an application changes the state of a desktop without updating
+ * the client (such as storing data in a composer), it shall call
+ * {@link org.zkoss.zk.ui.sys.DesktopCtrl#markDirty}.
+ *
+ * <p>It can be used with {@link ClusterSessionPatch}, which becomes cheap
+ * since the desktops are no longer part of the serialized session.
+ *
+ * @author agent
+ * @since 10.0.1
+ */
+public class ReplicatedDesktopCacheProvider extends SessionDesktopCacheProvider {
+	private static final Logger log = LoggerFactory.getLogger(ReplicatedDesktopCacheProvider.class);
+
+	private ReplicationStore _store;
+
+	/** Returns the replication store.
+	 */
+	public ReplicationStore getStore() {
+		return _store;
+	}
+
+	public DesktopCache getDesktopCache(Session sess) {
+		final DesktopCache dc = super.getDesktopCache(sess);
+		if (dc instanceof ReplicatedDesktopCache)
+			((ReplicatedDesktopCache) dc).setSession(sess);
+		return dc;
+	}
+
+	protected DesktopCache newDesktopCache(Configuration config) {
+		return new ReplicatedDesktopCache(config);
+	}
+
+	public void start(WebApp wapp) {
+		super.start(wapp);
+
+		final String clsnm = Library.getProperty("org.zkoss.zkplus.cluster.ReplicationStore.class");
+		try {
+			if (clsnm != null) {
+				_store = (ReplicationStore) Classes.newInstanceByThread(clsnm);
+			} else {
+				log.warn("org.zkoss.zkplus.cluster.ReplicationStore.class not specified; "
+						+ "desktops are replicated only in the local node and are lost on failover");
+				_store = new InMemoryReplicationStore();
+			}
+			wapp.getConfiguration().addListener(DesktopReplicator.class);
+		} catch (Exception ex) {
+			throw UiException.Aide.wrap(ex, "Unable to start " + clsnm);
+		}
+	}
+
+	public void stop(WebApp wapp) {
+		super.stop(wapp);
+		_store = null;
+	}
+}
@@ -0,0 +1,52 @@
+/* ReplicationStore.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 23:02:17 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zkplus.cluster;
+
+import java.io.IOException;
+
+/**
+ * The store that the desktops are replicated to, when
+ * {@link ReplicatedDesktopCacheProvider} is used.
+ * It is shared by all nodes of a cluster, such as a distributed cache,
+ * a database or a shared file system.
+ *
+ * <p>Each desktop is stored as a separated entry, identified by the
+ * replication ID of the session ({@link ReplicatedDesktopCache#getReplicationId})
+ * and the desktop ID, so only the changed desktops are written.
+ *
+ * <p>The implementation must be thread-safe, and must have a public
+ * default constructor. It is specified by the library property called
+ * <code>org.zkoss.zkplus.cluster.ReplicationStore.class</code>.
+ *
+ * @author agent
+ * @since 10.0.1
+ * @see InMemoryReplicationStore
+ * @see FileReplicationStore
+ */
+public interface ReplicationStore {
+	/** Stores the serialized desktop.
+	 * The previous one of the same desktop, if any, is replaced.
+	 */
+	public void store(String replicationId, String desktopId, byte[] data) throws IOException;
+
+	/** Returns the serialized desktop, or null if not found.
+	 */
+	public byte[] load(String replicationId, String desktopId) throws IOException;
+
+	/** Removes the serialized desktop.
+	 */
+	public void remove(String replicationId, String desktopId) throws IOException;
+
+	/** Removes all serialized desktops of the given session.
+	 */
+	public void removeAll(String replicationId) throws IOException;
+}
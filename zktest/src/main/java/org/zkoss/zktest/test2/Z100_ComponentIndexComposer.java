@@ -0,0 +1,232 @@
+/* Z100_ComponentIndexComposer.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 16:40:27 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zktest.test2;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.zkoss.zk.ui.Component;
+import org.zkoss.zk.ui.HtmlBasedComponent;
+import org.zkoss.zk.ui.Page;
+import org.zkoss.zk.ui.UiException;
+import org.zkoss.zk.ui.select.SelectorComposer;
+import org.zkoss.zk.ui.select.annotation.Listen;
+import org.zkoss.zk.ui.select.annotation.Wire;
+import org.zkoss.zk.ui.select.impl.ComponentIterator;
+import org.zkoss.zk.ui.select.impl.ComponentLocalProperties;
+import org.zkoss.zul.Box;
+import org.zkoss.zul.Button;
+import org.zkoss.zul.Combobutton;
+import org.zkoss.zul.Div;
+import org.zkoss.zul.Grid;
+import org.zkoss.zul.Hbox;
+import org.zkoss.zul.Label;
+import org.zkoss.zul.Row;
+import org.zkoss.zul.Rows;
+import org.zkoss.zul.Vbox;
+import org.zkoss.zul.Window;
+
+/**
+ * Applies random changes to the component tree, and compares the components
+ * found by {@link ComponentIterator}, which uses the index of each ID space
+ * for a simple selector, with those found by visiting the whole tree.
+ * @author agent
+ */
+public class Z100_ComponentIndexComposer extends SelectorComposer<Component> {
+	private static final int STEPS = 3000;
+	/** The number of selectors to check for each root after each change. */
+	private static final int CHECKS_PER_ROOT = 8;
+	private static final String[] SELECTORS = { "div", "button", "window", "hbox", "vbox", "label", "row", "*",
+			".a", ".b", "div.a", ".a.b", "window.b", "row.a", ".z-div", ".z-button", ".z-hbox", ".z-vbox",
+			".z-row", ".z-combobutton", ".z-combobutton-toolbar" };
+	private static final String[] SCLASSES = { null, "a", "b", "a b", "  b   a ", "c" };
+
+	@Wire
+	private Component host;
+	@Wire
+	private Grid grid;
+	@Wire
+	private Rows rows;
+	@Wire
+	private Label checks;
+	@Wire
+	private Label mismatches;
+	@Wire
+	private Label indexed;
+	@Wire
+	private Label failure;
+
+	@Listen("onClick = #run")
+	public void run() throws Exception {
+		final Page page = host.getPage();
+		final Random random = new Random(42);
+		final Field indexedField = ComponentIterator.class.getDeclaredField("_indexed");
+		indexedField.setAccessible(true);
+
+		final List<Component> detached = new ArrayList<Component>();
+		int nCheck = 0, nMismatch = 0, nIndexed = 0;
+		for (int step = 0; step < STEPS; ++step) {
+			final List<Component> comps = new ArrayList<Component>();
+			for (Component root : page.getRoots())
+				if (root != getSelf())
+					collect(root, comps);
+			collect(host, comps);
+			for (Component comp : detached)
+				collect(comp, comps);
+
+			final Component target = comps.get(random.nextInt(comps.size()));
+			try {
+				change(random, target, comps.get(random.nextInt(comps.size())), detached);
+			} catch (UiException ex) { //ignore it (not allowed)
+			}
+
+			final List<Component> roots = new ArrayList<Component>();
+			roots.add(null); //the page
+			roots.add(getSelf());
+			roots.add(comps.get(random.nextInt(comps.size())));
+			for (Component root : roots) {
+				for (int j = 0; j < CHECKS_PER_ROOT; ++j) {
+					final String selector = SELECTORS[random.nextInt(SELECTORS.length)];
+					final List<Component> found = new ArrayList<Component>();
+					final Iterator<Component> it = root == null ? new ComponentIterator(page, selector)
+							: new ComponentIterator(root, selector);
+					while (it.hasNext())
+						found.add(it.next());
+					if (indexedField.get(it) != null)
+						++nIndexed;
+
+					final List<Component> expected = new ArrayList<Component>();
+					if (root == null) {
+						for (Component c : page.getRoots())
+							visit(c, selector, expected);
+					} else {
+						visit(root, selector, expected);
+					}
+
+					++nCheck;
+					if (!found.equals(expected) && nMismatch++ == 0) //in the same (document) order
+						failure.setValue("step " + step + ", " + selector + " of " + root + ": " + found + " but "
+								+ expected + " expected");
+				}
+			}
+		}
+		checks.setValue(String.valueOf(nCheck));
+		mismatches.setValue(String.valueOf(nMismatch));
+		indexed.setValue(String.valueOf(nIndexed));
+	}
+
+	private void change(Random random, Component target, Component other, List<Component> detached) {
+		switch (random.nextInt(11)) {
+		case 0: //create
+			detached.add(newComponent(random));
+			break;
+		case 1:
+		case 2: //move within or across ID spaces
+			if (other != host && other != target && !isAncestor(other, target) && isContainer(target)) {
+				other.setParent(target);
+				detached.remove(other);
+			}
+			break;
+		case 3: //detach
+			if (target != host && target.getPage() != null) {
+				target.detach();
+				detached.add(target);
+			}
+			break;
+		case 4:
+			if (target instanceof HtmlBasedComponent)
+				((HtmlBasedComponent) target).setSclass(SCLASSES[random.nextInt(SCLASSES.length)]);
+			break;
+		case 5:
+			if (target instanceof HtmlBasedComponent)
+				((HtmlBasedComponent) target).setZclass(random.nextInt(3) == 0 ? "z-button" : null);
+			break;
+		case 6: //zclass depends on mold
+			if (target instanceof Box)
+				((Box) target).setOrient(random.nextBoolean() ? "vertical" : "horizontal");
+			else if (target instanceof Combobutton)
+				target.setMold(random.nextBoolean() ? "toolbar" : "default");
+			break;
+		case 7: //a new root
+			if (target.getParent() == null && target.getPage() == null) {
+				target.setPage(host.getPage());
+				detached.remove(target);
+			}
+			break;
+		case 8: //reorder
+			final Component parent = target.getParent();
+			if (target != host && parent != null && parent.getFirstChild() != target)
+				parent.insertBefore(target, parent.getFirstChild());
+			break;
+		case 9: //Row.getSclass depends on Grid.getSclass
+			if (target instanceof Row && target.getParent() == null) {
+				target.setParent(rows);
+				detached.remove(target);
+			}
+			break;
+		default:
+			grid.setSclass(SCLASSES[random.nextInt(SCLASSES.length)]);
+		}
+	}
+
+	private static Component newComponent(Random random) {
+		switch (random.nextInt(8)) {
+		case 0:
+			return new Div();
+		case 1:
+			return new Button();
+		case 2:
+			return new Window();
+		case 3:
+			return new Hbox();
+		case 4:
+			return new Vbox();
+		case 5:
+			return new Combobutton();
+		case 6:
+			return new Row();
+		default:
+			return new Label("label");
+		}
+	}
+
+	/** Returns whether any component can be a child of the given one.
+	 * Note: not to add an unsupported child, since the child would have been
+	 * removed from its parent when the exception is thrown.
+	 */
+	private static boolean isContainer(Component comp) {
+		return comp instanceof Div || comp instanceof Window || comp instanceof Box || comp instanceof Row;
+	}
+
+	private static boolean isAncestor(Component ancestor, Component comp) {
+		for (; comp != null; comp = comp.getParent())
+			if (comp == ancestor)
+				return true;
+		return false;
+	}
+
+	private static void collect(Component comp, List<Component> comps) {
+		comps.add(comp);
+		for (Component child : comp.getChildren())
+			collect(child, comps);
+	}
+
+	private static void visit(Component comp, String selector, List<Component> found) {
+		if (ComponentLocalProperties.match(comp, selector))
+			found.add(comp);
+		for (Component child : comp.getChildren())
+			visit(child, selector, found);
+	}
+}
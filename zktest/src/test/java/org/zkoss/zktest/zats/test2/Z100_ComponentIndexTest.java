@@ -0,0 +1,40 @@
+/* Z100_ComponentIndexTest.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 16:58:44 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zktest.zats.test2;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import org.zkoss.zats.mimic.ComponentAgent;
+import org.zkoss.zats.mimic.DesktopAgent;
+import org.zkoss.zktest.zats.ZATSTestCase;
+import org.zkoss.zul.Label;
+
+/**
+ * @author agent
+ */
+public class Z100_ComponentIndexTest extends ZATSTestCase {
+	@Test
+	public void test() {
+		DesktopAgent desktop = connect();
+		ComponentAgent win = desktop.query("#win");
+		win.query("#run").click();
+
+		assertEquals("", win.query("#failure").as(Label.class).getValue());
+		assertEquals("0", win.query("#mismatches").as(Label.class).getValue());
+		assertTrue(Integer.parseInt(win.query("#checks").as(Label.class).getValue()) > 0);
+		assertTrue(Integer.parseInt(win.query("#indexed").as(Label.class).getValue()) > 0,
+				"the index shall be used");
+	}
+}
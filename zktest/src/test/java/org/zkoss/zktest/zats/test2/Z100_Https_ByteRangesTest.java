@@ -0,0 +1,261 @@
+/* Z100_Https_ByteRangesTest.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 16:05:12 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.zktest.zats.test2;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.zkoss.util.media.AMedia;
+import org.zkoss.web.servlet.http.Https;
+
+/**
+ * Tests the byte ranges and the conditional requests handled by
+ * {@link Https#write(HttpServletRequest, HttpServletResponse, org.zkoss.util.media.Media, boolean, boolean)}.
+ * @author agent
+ */
+public class Z100_Https_ByteRangesTest {
+	private static final int LENGTH = 100;
+	private static byte[] _content;
+	private static File _file;
+
+	private HttpServletRequest _request;
+	private HttpServletResponse _response;
+	private ByteArrayOutputStream _body;
+
+	@BeforeAll
+	public static void init() throws IOException {
+		_content = new byte[LENGTH];
+		for (int j = 0; j < LENGTH; ++j)
+			_content[j] = (byte) j;
+		_file = File.createTempFile("Z100_Https_ByteRanges", ".bin");
+		Files.write(_file.toPath(), _content);
+	}
+
+	@AfterAll
+	public static void end() {
+		_file.delete();
+	}
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		_request = mock(HttpServletRequest.class);
+		when(_request.getMethod()).thenReturn("GET");
+		_response = mock(HttpServletResponse.class);
+		_body = new ByteArrayOutputStream();
+		when(_response.getOutputStream()).thenReturn(new ServletOutputStream() {
+			public void write(int b) {
+				_body.write(b);
+			}
+
+			public boolean isReady() {
+				return true;
+			}
+
+			public void setWriteListener(WriteListener listener) {
+			}
+		});
+	}
+
+	private void write() throws IOException {
+		Https.write(_request, _response, new AMedia(_file, "application/octet-stream", null), false, false);
+	}
+
+	private void writeInMemory() throws IOException {
+		Https.write(_request, _response, new AMedia("test.bin", "bin", "application/octet-stream", _content), false,
+				false);
+	}
+
+	private String getETag() {
+		final ArgumentCaptor<String> etag = ArgumentCaptor.forClass(String.class);
+		verify(_response).setHeader(eq("ETag"), etag.capture());
+		return etag.getValue();
+	}
+
+	@Test
+	public void testWhole() throws IOException {
+		write();
+		verify(_response, never()).setStatus(anyInt());
+		verify(_response).setContentLengthLong(LENGTH);
+		assertArrayEquals(_content, _body.toByteArray());
+	}
+
+	@Test
+	public void testRange() throws IOException {
+		when(_request.getHeader("Range")).thenReturn("bytes=10-19");
+		write();
+		verify(_response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+		verify(_response).setHeader("Content-Range", "bytes 10-19/100");
+		verify(_response).setContentLengthLong(10);
+		assertArrayEquals(Arrays.copyOfRange(_content, 10, 20), _body.toByteArray());
+	}
+
+	@Test
+	public void testSuffixRange() throws IOException {
+		when(_request.getHeader("Range")).thenReturn("bytes=-10");
+		write();
+		verify(_response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+		verify(_response).setHeader("Content-Range", "bytes 90-99/100");
+		assertArrayEquals(Arrays.copyOfRange(_content, 90, 100), _body.toByteArray());
+	}
+
+	@Test
+	public void testSuffixRangeLongerThanContent() throws IOException {
+		when(_request.getHeader("Range")).thenReturn("bytes=-1000");
+		write();
+		verify(_response).setHeader("Content-Range", "bytes 0-99/100");
+		assertArrayEquals(_content, _body.toByteArray());
+	}
+
+	@Test
+	public void testOpenEndedRange() throws IOException {
+		when(_request.getHeader("Range")).thenReturn("bytes=95-");
+		write();
+		verify(_response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+		verify(_response).setHeader("Content-Range", "bytes 95-99/100");
+		assertArrayEquals(Arrays.copyOfRange(_content, 95, 100), _body.toByteArray());
+	}
+
+	@Test
+	public void testRangeOfInMemoryContent() throws IOException {
+		when(_request.getHeader("Range")).thenReturn("bytes=50-59");
+		writeInMemory();
+		verify(_response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+		verify(_response).setHeader("Content-Range", "bytes 50-59/100");
+		assertArrayEquals(Arrays.copyOfRange(_content, 50, 60), _body.toByteArray());
+	}
+
+	@Test
+	public void testMultipleRanges() throws IOException {
+		when(_request.getHeader("Range")).thenReturn("bytes=0-9, 20-29");
+		write();
+		verify(_response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+		final ArgumentCaptor<String> ctype = ArgumentCaptor.forClass(String.class);
+		verify(_response, atLeastOnce()).setContentType(ctype.capture());
+		assertTrue(ctype.getValue().startsWith("multipart/byteranges; boundary="));
+
+		final String body = new String(_body.toByteArray(), StandardCharsets.ISO_8859_1);
+		assertEquals(Arrays.asList("bytes 0-9/100", "bytes 20-29/100"), getContentRanges(body));
+		assertTrue(body.contains(new String(Arrays.copyOfRange(_content, 0, 10), StandardCharsets.ISO_8859_1)));
+		assertTrue(body.contains(new String(Arrays.copyOfRange(_content, 20, 30), StandardCharsets.ISO_8859_1)));
+		verify(_response).setContentLengthLong(_body.size());
+	}
+
+	@Test
+	public void testOverlappingRangesCoalesced() throws IOException {
+		when(_request.getHeader("Range")).thenReturn("bytes=20-29,0-9,5-14,15-16");
+		write();
+		final String body = new String(_body.toByteArray(), StandardCharsets.ISO_8859_1);
+		assertEquals(Arrays.asList("bytes 0-16/100", "bytes 20-29/100"), getContentRanges(body));
+	}
+
+	@Test
+	public void testRepeatedRangesSentOnce() throws IOException {
+		when(_request.getHeader("Range")).thenReturn("bytes=" + String.join(",", Collections.nCopies(64, "0-")));
+		write();
+		verify(_response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+		verify(_response).setHeader("Content-Range", "bytes 0-99/100");
+		assertArrayEquals(_content, _body.toByteArray());
+	}
+
+	@Test
+	public void testUnsatisfiableRange() throws IOException {
+		when(_request.getHeader("Range")).thenReturn("bytes=100-");
+		write();
+		verify(_response).setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+		verify(_response).setHeader("Content-Range", "bytes */100");
+		assertEquals(0, _body.size());
+	}
+
+	@Test
+	public void testInvalidRangeIgnored() throws IOException {
+		when(_request.getHeader("Range")).thenReturn("bytes=20-10");
+		write();
+		verify(_response, never()).setStatus(anyInt());
+		assertArrayEquals(_content, _body.toByteArray());
+	}
+
+	@Test
+	public void testIfNoneMatch() throws IOException {
+		write();
+		final String etag = getETag();
+
+		setUp();
+		when(_request.getHeader("If-None-Match")).thenReturn("\"other\", " + etag);
+		write();
+		verify(_response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+		assertEquals(0, _body.size());
+
+		setUp();
+		when(_request.getHeader("If-None-Match")).thenReturn("\"other\"");
+		write();
+		verify(_response, never()).setStatus(anyInt());
+		assertArrayEquals(_content, _body.toByteArray());
+	}
+
+	@Test
+	public void testIfRange() throws IOException {
+		write();
+		final String etag = getETag();
+
+		setUp();
+		when(_request.getHeader("Range")).thenReturn("bytes=0-9");
+		when(_request.getHeader("If-Range")).thenReturn(etag);
+		write();
+		verify(_response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+		assertArrayEquals(Arrays.copyOfRange(_content, 0, 10), _body.toByteArray());
+
+		setUp(); //changed since then: the whole content is sent
+		when(_request.getHeader("Range")).thenReturn("bytes=0-9");
+		when(_request.getHeader("If-Range")).thenReturn("\"stale\"");
+		write();
+		verify(_response, never()).setStatus(anyInt());
+		assertArrayEquals(_content, _body.toByteArray());
+	}
+
+	private static List<String> getContentRanges(String body) {
+		final List<String> ranges = new ArrayList<String>();
+		for (int j = 0; (j = body.indexOf("Content-Range: ", j)) >= 0;) {
+			j += 15;
+			ranges.add(body.substring(j, body.indexOf("\r\n", j)));
+		}
+		return ranges;
+	}
+}
@@ -13,7 +13,6 @@ Copyright (C) 2011 Potix Corporation. All Rights Reserved.
 package org.zkoss.zul;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 
@@ -179,7 +178,7 @@ public class DefaultTreeModel<E> extends AbstractTreeModel<TreeNode<E>>
 		if (node instanceof DefaultTreeNode)
 			((TreeNodeChildrenList) node.getChildren()).treeSort(cmpr);
 		else
-			Collections.sort(node.getChildren(), cmpr);
+			FieldComparator.sort(node.getChildren(), cmpr);
 		for (TreeNode<E> child : node.getChildren())
 			sort0(child, cmpr);
 	}
@@ -15,7 +15,6 @@ package org.zkoss.zul;
 import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 
@@ -321,7 +320,7 @@ public class DefaultTreeNode<E>
 		// B50-ZK-566: Set sortDirection to treecol will show an error
 		@SuppressWarnings("unchecked")
 		/*package*/ void treeSort(Comparator cmpr) {
-			Collections.sort(_list, cmpr);
+			FieldComparator.sort(_list, cmpr);
 		}
 	}
 
@@ -18,15 +18,28 @@ Copyright (C) 2009 Potix Corporation. All Rights Reserved.
 package org.zkoss.zul;
 
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
 import java.util.Objects;
 
+import org.zkoss.lang.Classes;
+import org.zkoss.lang.Library;
 import org.zkoss.lang.Strings;
+import org.zkoss.lang.SystemException;
 import org.zkoss.lang.reflect.Fields;
 import org.zkoss.util.CollectionsX;
 import org.zkoss.zk.ui.UiException;
@@ -37,12 +50,18 @@ import org.zkoss.zk.ui.UiException;
  * <p>The field names accept compound "a.b.c" expression. It also
  * accept multiple field names that you can give expression in the form 
  * of e.g. "name, age, salary" and this comparator will compare in that sequence.</p>
+ * <p>The field accessors are resolved once per class into method handles.
+ * To sort a large list, use {@link #sort(List, Comparator)}, which retrieves
+ * the field values of each element once rather than in each comparison
+ * (and it is what the list models, such as {@link ListModelList}, use).</p>
  * 
  * @author henrichen
  * @since 3.6.0
  */
 public class FieldComparator implements Comparator, Serializable {
 	private static final long serialVersionUID = 20090120111922L;
+	/** The library property for the minimal number of elements to sort in parallel. */
+	private static final String PARALLEL_THRESHOLD = "org.zkoss.zul.FieldComparator.parallelSort.threshold";
 	/** The field names collection. */
 	private Collection<FieldInfo> _fieldnames;
 	/** The cached field name string. */
@@ -52,6 +71,8 @@ public class FieldComparator implements Comparator, Serializable {
 	/** Whether to treat null as the maximum value. */
 	private boolean _maxnull;
 	private boolean _ascending;
+	/** The kind of the class of the last compared object. */
+	private transient Kind _kind;
 
 	/** Compares with the fields per the given "ORDER BY" clause.
 	 * <p>Note: It assumes null as minimum value.
@@ -85,7 +106,7 @@ public class FieldComparator implements Comparator, Serializable {
 	public int compare(Object o1, Object o2) {
 		try {
 			for (FieldInfo fi : _fieldnames) {
-				final int res = compare0(o1, o2, fi.fieldname, fi.asc, fi.func);
+				final int res = compare0(getValue(o1, fi), getValue(o2, fi), fi.asc);
 				if (res != 0) {
 					return res;
 				}
@@ -96,6 +117,80 @@ public class FieldComparator implements Comparator, Serializable {
 		}
 	}
 
+	/** Sorts the given list with the given comparator.
+	 * If the comparator is a {@link FieldComparator}, the field values of
+	 * each element are retrieved once, and then the values are sorted
+	 * (rather than retrieving them twice in each comparison).
+	 * Otherwise, it is the same as {@link Collections#sort(List, Comparator)}.
+	 * <p>Like {@link Collections#sort(List, Comparator)}, the sort is stable.
+	 * If the number of elements is not less than the library property called
+	 * <code>org.zkoss.zul.FieldComparator.parallelSort.threshold</code>,
+	 * they are sorted in parallel (with the common fork-join pool).
+	 * Default: 0 (never in parallel).
+	 * @since 10.0.1
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> void sort(List<T> list, Comparator<? super T> cmpr) {
+		if (cmpr instanceof FieldComparator) {
+			final Object[] a = list.toArray();
+			((FieldComparator) cmpr).sort0(a);
+			final ListIterator<T> it = list.listIterator();
+			for (Object e : a) {
+				it.next();
+				it.set((T) e);
+			}
+		} else {
+			Collections.sort(list, cmpr);
+		}
+	}
+
+	/** Sorts the given array with the given comparator.
+	 * It is the same as {@link #sort(List, Comparator)}, except it sorts
+	 * an array.
+	 * @since 10.0.1
+	 */
+	public static <T> void sort(T[] a, Comparator<? super T> cmpr) {
+		if (cmpr instanceof FieldComparator)
+			((FieldComparator) cmpr).sort0(a);
+		else
+			Arrays.sort(a, cmpr);
+	}
+
+	private void sort0(Object[] a) {
+		if (a.length < 2)
+			return;
+
+		final FieldInfo[] fis = _fieldnames.toArray(new FieldInfo[_fieldnames.size()]);
+		final Keyed[] keyed = new Keyed[a.length];
+		try {
+			for (int j = 0; j < a.length; ++j) {
+				final Object[] keys = new Object[fis.length];
+				for (int k = 0; k < fis.length; ++k)
+					keys[k] = getValue(a[j], fis[k]);
+				keyed[j] = new Keyed(a[j], keys);
+			}
+		} catch (NoSuchMethodException ex) {
+			throw UiException.Aide.wrap(ex);
+		}
+
+		final Comparator<Keyed> cmpr = (k1, k2) -> {
+			for (int k = 0; k < fis.length; ++k) {
+				final int res = compare0(k1.keys[k], k2.keys[k], fis[k].asc);
+				if (res != 0)
+					return res;
+			}
+			return 0;
+		};
+		final int threshold = Library.getIntProperty(PARALLEL_THRESHOLD, 0);
+		if (threshold > 0 && a.length >= threshold)
+			Arrays.parallelSort(keyed, cmpr);
+		else
+			Arrays.sort(keyed, cmpr);
+
+		for (int j = 0; j < a.length; ++j)
+			a[j] = keyed[j].value;
+	}
+
 	/** Returns the order-by clause.
 	 * Notice that is the parsed result, such as <code>name=category ASC</code>.
 	 * For the original format, please use {@link #getRawOrderBy}.
@@ -143,17 +238,29 @@ public class FieldComparator implements Comparator, Serializable {
 		sb.append(fi.asc ? " ASC" : " DESC");
 	}
 
-	@SuppressWarnings("unchecked")
-	private int compare0(Object o1, Object o2, String fieldname, boolean asc, String func)
-			throws NoSuchMethodException {
+	/** Returns the value of the given field of the given object, i.e.,
+	 * the same as {@link Fields#getByCompound} but with the resolved getters.
+	 */
+	private Object getValue(Object o, FieldInfo fi) throws NoSuchMethodException {
+		Kind kind = _kind;
+		if (kind == null || kind.cls != o.getClass())
+			_kind = kind = new Kind(o);
+
 		// Bug B50-3183438: Access to bean shall be consistent
-		final Object f1 = o1 instanceof Map ? ((Map) o1).get(fieldname)
-				: Fields.getByCompound(getCompareObject(o1), fieldname);
-		final Object f2 = o2 instanceof Map ? ((Map) o2).get(fieldname)
-				: Fields.getByCompound(getCompareObject(o2), fieldname);
-		final Object v1 = handleFunction(f1, func);
-		final Object v2 = handleFunction(f2, func);
+		if (kind.map)
+			return handleFunction(((Map) o).get(fi.fieldname), fi.func);
+
+		Object v = kind.treeNode ? ((TreeNode) o).getData() : o;
+		for (Getter getter : fi.getGetters()) {
+			v = getter.get(v);
+			if (v == null)
+				break;
+		}
+		return handleFunction(v, fi.func);
+	}
 
+	@SuppressWarnings("unchecked")
+	private int compare0(Object v1, Object v2, boolean asc) {
 		if (v1 == null)
 			return v2 == null ? 0 : (asc == _maxnull) ? 1 : -1;
 		if (v2 == null)
@@ -162,12 +269,6 @@ public class FieldComparator implements Comparator, Serializable {
 		return asc ? v : -v;
 	}
 
-	private Object getCompareObject(Object o) {
-		if (o instanceof TreeNode)
-			return ((TreeNode) o).getData();
-		return o;
-	}
-
 	private Object handleFunction(Object c, String func) {
 		if ("UPPER".equals(func)) {
 			if (c instanceof String)
@@ -250,11 +351,121 @@ public class FieldComparator implements Comparator, Serializable {
 		private String fieldname;
 		private boolean asc;
 		private String func;
+		/** The getters of each part of the compound field name. */
+		private transient Getter[] getters;
 
 		public FieldInfo(String fieldname, boolean asc, String func) {
 			this.fieldname = fieldname;
 			this.asc = asc;
 			this.func = func;
 		}
+
+		private Getter[] getGetters() {
+			Getter[] gs = getters;
+			if (gs == null) {
+				final String[] names = fieldname.split("\\.", -1);
+				gs = new Getter[names.length];
+				for (int j = 0; j < names.length; ++j)
+					gs[j] = new Getter(names[j]);
+				getters = gs;
+			}
+			return gs;
+		}
+	}
+
+	/** Whether the objects of a class are maps or tree nodes.
+	 * It is cached since instanceof an interface is not cheap.
+	 */
+	private static class Kind {
+		private final Class<?> cls;
+		private final boolean map, treeNode;
+
+		private Kind(Object o) {
+			cls = o.getClass();
+			map = o instanceof Map;
+			treeNode = o instanceof TreeNode;
+		}
+	}
+
+	/** An element to sort with the values of the fields to compare. */
+	private static class Keyed {
+		private final Object value;
+		private final Object[] keys;
+
+		private Keyed(Object value, Object[] keys) {
+			this.value = value;
+			this.keys = keys;
+		}
+	}
+
+	/** The getter of a field (without '.'), i.e., the same as {@link Fields#get},
+	 * with the method handle resolved for the class of the last object.
+	 */
+	private static class Getter {
+		private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+		private static final MethodHandle MAP_GET, FIELDS_GET;
+		static {
+			try {
+				MAP_GET = MethodHandles.publicLookup().findVirtual(Map.class, "get",
+						MethodType.methodType(Object.class, Object.class));
+				FIELDS_GET = MethodHandles.lookup().findStatic(Getter.class, "getByReflection",
+						MethodType.methodType(Object.class, String.class, Object.class));
+			} catch (ReflectiveOperationException ex) {
+				throw new ExceptionInInitializerError(ex);
+			}
+		}
+
+		private final String _name;
+		/** The handle for the class of the last object. */
+		private Resolved _resolved;
+
+		private Getter(String name) {
+			_name = name;
+		}
+
+		private Object get(Object obj) throws NoSuchMethodException {
+			Resolved resolved = _resolved;
+			if (resolved == null || resolved.cls != obj.getClass())
+				_resolved = resolved = new Resolved(obj.getClass(), resolve(obj));
+			try {
+				return (Object) resolved.handle.invokeExact(obj);
+			} catch (NoSuchMethodException | RuntimeException | Error ex) {
+				throw ex;
+			} catch (Throwable ex) {
+				throw SystemException.Aide.wrap(ex, "Not found: " + _name);
+			}
+		}
+
+		private MethodHandle resolve(Object obj) throws NoSuchMethodException {
+			final AccessibleObject acs;
+			try {
+				acs = Classes.getAccessibleObject(obj.getClass(), _name, null, Classes.B_GET | Classes.B_PUBLIC_ONLY);
+			} catch (NoSuchMethodException ex) {
+				if (obj instanceof Map)
+					return MethodHandles.insertArguments(MAP_GET, 1, _name).asType(GETTER_TYPE);
+				throw ex;
+			}
+			try {
+				final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+				return (acs instanceof Method ? lookup.unreflect((Method) acs) : lookup.unreflectGetter((Field) acs))
+						.asType(GETTER_TYPE);
+			} catch (IllegalAccessException | WrongMethodTypeException ex) { //e.g., a public method of a non-public class, or static
+				return MethodHandles.insertArguments(FIELDS_GET, 0, _name);
+			}
+		}
+
+		private static Object getByReflection(String name, Object obj) throws NoSuchMethodException {
+			return Fields.get(obj, name);
+		}
+	}
+
+	private static class Resolved {
+		private final Class<?> cls;
+		private final MethodHandle handle;
+
+		private Resolved(Class<?> cls, MethodHandle handle) {
+			this.cls = cls;
+			this.handle = handle;
+		}
 	}
 }
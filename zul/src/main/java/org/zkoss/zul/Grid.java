@@ -70,6 +70,7 @@ import org.zkoss.zul.event.RenderEvent;
 import org.zkoss.zul.event.ZulEvents;
 import org.zkoss.zul.ext.Pageable;
 import org.zkoss.zul.ext.Paginal;
+import org.zkoss.zul.ext.Prefetchable;
 import org.zkoss.zul.ext.Sortable;
 import org.zkoss.zul.impl.DataLoader;
 import org.zkoss.zul.impl.GridDataLoader;
@@ -1063,6 +1064,8 @@ public class Grid extends MeshElement {
 			if (realOfs < 0)
 				realOfs = 0;
 			boolean open = true;
+			if (_model instanceof Prefetchable)
+				prefetch(renderer, rowChildren.size() <= realOfs ? null : (Row) rowChildren.get(realOfs), ofs, pgsz);
 			for (Row row = rowChildren.size() <= realOfs ? null
 					: (Row) rowChildren.get(realOfs), nxt; j < pgsz && row != null; row = nxt) {
 				nxt = (Row) row.getNextSibling();
@@ -1087,6 +1090,29 @@ public class Grid extends MeshElement {
 		removeAttribute(Attributes.BEFORE_MODEL_ITEMS_RENDERED);
 	}
 
+	/** Prefetches the span of the unloaded rows that {@link #doInitRenderer}
+	 * renders, i.e., at most pgsz visible rows starting at the given one,
+	 * whose index is ofs.
+	 */
+	private static void prefetch(Renderer renderer, Row row, int ofs, int pgsz) {
+		int min = -1, max = -1;
+		boolean open = true;
+		for (int j = 0, index = ofs; j < pgsz && row != null; row = (Row) row.getNextSibling(), index++) {
+			if (row.isVisible() && (open || row instanceof Groupfoot || row instanceof Group)) {
+				if (!row.isLoaded()) {
+					if (min < 0)
+						min = index;
+					max = index;
+				}
+				++j;
+			}
+			if (row instanceof Group)
+				open = ((Group) row).isOpen();
+		}
+		if (min >= 0)
+			renderer.prefetch(min, max - min + 1);
+	}
+
 	private void postOnInitRender() {
 		//20080724, Henri Chen: optimize to avoid postOnInitRender twice
 		if (getAttribute(ATTR_ON_INIT_RENDER_POSTED) == null) {
@@ -1166,6 +1192,9 @@ public class Grid extends MeshElement {
 	/*package*/ class Renderer {
 		private final RowRenderer _renderer;
 		private boolean _rendered, _ctrled;
+		/** The elements fetched by {@link #prefetch}, starting at _winOfs. */
+		private List<?> _window;
+		private int _winOfs;
 
 		/*package*/ Renderer() {
 			_renderer = (RowRenderer) getDataLoader().getRealRenderer();
@@ -1189,7 +1218,7 @@ public class Grid extends MeshElement {
 
 			final boolean oldFlag = _rows.setReplacingRow(true);
 			try {
-				final Object value = _model.getElementAt(index);
+				final Object value = getElementAt(index);
 				try {
 					_renderer.render(row, value, index);
 				} catch (AbstractMethodError ex) {
@@ -1221,6 +1250,29 @@ public class Grid extends MeshElement {
 			_rendered = true;
 		}
 
+		/** Fetches the elements of the given range with one call if the model
+		 * is {@link Prefetchable}, such that {@link #render} won't retrieve
+		 * them one by one.
+		 */
+		/*package*/ void prefetch(int offset, int count) {
+			if (count > 1 && _model instanceof Prefetchable) {
+				_window = ((Prefetchable<?>) _model).getElementsAt(offset, count);
+				_winOfs = offset;
+			}
+		}
+
+		/** Returns whether the element of the given index was fetched by
+		 * {@link #prefetch}.
+		 */
+		/*package*/ boolean isPrefetched(int index) {
+			final int j = index - _winOfs;
+			return _window != null && j >= 0 && j < _window.size();
+		}
+
+		private Object getElementAt(int index) {
+			return isPrefetched(index) ? _window.get(index - _winOfs) : _model.getElementAt(index);
+		}
+
 		/*package*/ void doCatch(Throwable ex) {
 			if (_ctrled) {
 				try {
@@ -1274,8 +1326,12 @@ public class Grid extends MeshElement {
 			try {
 				Row row = (Row) _rows.getChildren().get(0);
 				int index = row.getIndex();
+				//fetch a page at a time rather than the whole model at once
+				final int pgsz = inPagingMold() ? _pgi.getPageSize() : getDataLoader().getLimit();
 				for (Row nxt; row != null; row = nxt) {
 					nxt = (Row) row.getNextSibling(); //retrieve first since it might be changed
+					if (!row.isLoaded() && !renderer.isPrefetched(index))
+						renderer.prefetch(index, Math.min(pgsz, _model.getSize() - index));
 					renderer.render(row, index++);
 				}
 			} catch (Throwable ex) {
@@ -1304,6 +1360,8 @@ public class Grid extends MeshElement {
 
 		final Renderer renderer = new Renderer();
 		try {
+			if (_model instanceof Prefetchable)
+				prefetch(renderer, rows);
 			for (final Row row : rows)
 				renderer.render(row, row.getIndex());
 		} catch (Throwable ex) {
@@ -1313,6 +1371,22 @@ public class Grid extends MeshElement {
 		}
 	}
 
+	/** Prefetches the span of the given rows if they are (almost) contiguous,
+	 * e.g., the rows the client requests when scrolling.
+	 */
+	private static void prefetch(Renderer renderer, Set<? extends Row> rows) {
+		int min = Integer.MAX_VALUE, max = -1;
+		for (final Row row : rows) {
+			final int index = row.getIndex();
+			if (index < min)
+				min = index;
+			if (index > max)
+				max = index;
+		}
+		if (max >= 0 && max - min < rows.size() * 2)
+			renderer.prefetch(min, max - min + 1);
+	}
+
 	/** Returns the style class for the odd rows.
 	 *
 	 * <p>Default: {@link #getZclass()}-odd. (since 3.5.0)
@@ -1829,7 +1903,10 @@ public class Grid extends MeshElement {
 	public void service(org.zkoss.zk.au.AuRequest request, boolean everError) {
 		final String cmd = request.getCommand();
 		if (cmd.equals(Events.ON_DATA_LOADING)) {
-			Events.postEvent(DataLoadingEvent.getDataLoadingEvent(request, preloadSize()));
+			final DataLoadingEvent evt = DataLoadingEvent.getDataLoadingEvent(request, preloadSize());
+			if (_model instanceof Prefetchable)
+				((Prefetchable<?>) _model).prefetch(evt.getOffset(), evt.getLimit());
+			Events.postEvent(evt);
 		} else if (inPagingMold() && cmd.equals(ZulEvents.ON_PAGE_SIZE)) {
 			final Map<String, Object> data = request.getData();
 			final int oldsize = getPageSize();
@@ -250,7 +250,7 @@ public class GroupsModelArray<D, H, F, E> extends AbstractGroupsModel<D, H, F, E
 	 * group.
 	 */
 	protected void sortGroupData(H group, D[] groupdata, Comparator<D> cmpr, boolean ascending, int col) {
-		Arrays.sort(groupdata, cmpr);
+		FieldComparator.sort(groupdata, cmpr);
 	}
 
 	/**
@@ -347,7 +347,7 @@ public class GroupsModelArray<D, H, F, E> extends AbstractGroupsModel<D, H, F, E
 	 * the data.
 	 */
 	protected void sortDataInGroupOrder(Comparator<D> cmpr, boolean ascending, int colIndex) {
-		Arrays.sort(_nativedata, cmpr);
+		FieldComparator.sort(_nativedata, cmpr);
 	}
 
 	/**
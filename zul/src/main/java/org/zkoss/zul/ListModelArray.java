@@ -169,7 +169,7 @@ public class ListModelArray<E> extends AbstractListModel<E> implements Sortable<
 	public void sort(Comparator<E> cmpr, final boolean ascending) {
 		_sorting = cmpr;
 		_sortDir = ascending;
-		Arrays.sort(_array, (Comparator) cmpr);
+		FieldComparator.sort(_array, (Comparator) cmpr);
 		fireEvent(ListDataEvent.STRUCTURE_CHANGED, -1, -1);
 	}
 
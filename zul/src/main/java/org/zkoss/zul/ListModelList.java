@@ -18,7 +18,6 @@ package org.zkoss.zul;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -448,7 +447,7 @@ public class ListModelList<E> extends AbstractListModel<E> implements Sortable<E
 	public void sort(Comparator<E> cmpr, final boolean ascending) {
 		_sorting = cmpr;
 		_sortDir = ascending;
-		Collections.sort(_list, cmpr);
+		FieldComparator.sort(_list, cmpr);
 		fireEvent(ListDataEvent.STRUCTURE_CHANGED, -1, -1);
 	}
 
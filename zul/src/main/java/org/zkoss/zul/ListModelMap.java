@@ -20,7 +20,6 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -413,7 +412,7 @@ public class ListModelMap<K, V> extends AbstractListModel<Map.Entry<K, V>>
 		_sorting = cmpr;
 		_sortDir = ascending;
 		try {
-			Collections.sort(copy, cmpr);
+			FieldComparator.sort(copy, cmpr);
 		} catch (ClassCastException e) {
 			throw new UiException("Unable to sort, maybe you should use FieldComparator, sort=\"auto(key)\" or sort=\"auto(value)\"", e);
 		}
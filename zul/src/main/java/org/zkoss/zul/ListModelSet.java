@@ -18,7 +18,6 @@ package org.zkoss.zul;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
@@ -412,7 +411,7 @@ public class ListModelSet<E> extends AbstractListModel<E> implements Sortable<E>
 		final List<E> copy = new ArrayList<E>(_set);
 		_sorting = cmpr;
 		_sortDir = ascending;
-		Collections.sort(copy, cmpr);
+		FieldComparator.sort(copy, cmpr);
 		_set.clear();
 		_set.addAll(copy);
 		fireEvent(ListDataEvent.STRUCTURE_CHANGED, -1, -1);
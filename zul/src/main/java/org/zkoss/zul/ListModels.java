@@ -16,6 +16,7 @@ Copyright (C) 2010 Potix Corporation. All Rights Reserved.
 */
 package org.zkoss.zul;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.LinkedHashSet;
@@ -25,6 +26,8 @@ import java.util.Map;
 import java.util.Set;
 
 import org.zkoss.lang.Objects;
+import org.zkoss.util.Converter;
+import org.zkoss.zul.event.ListDataEvent;
 import org.zkoss.zul.event.ListDataListener;
 import org.zkoss.zul.ext.Selectable;
 import org.zkoss.zul.ext.SelectionControl;
@@ -80,6 +83,7 @@ public class ListModels {
 	 * and the second argument is the value retrieved from the model.
 	 * It shall return 0 if they matched (i.e., shall be shown).
 	 * @param nRows the maximal allowed number of matched items.
+	 * @see #toIndexedListSubModel(ListModel, Converter, int)
 	 */
 	public static <T> ListModel<T> toListSubModel(ListModel<T> model, Comparator<T> comparator, int nRows) {
 		return new SubModel<T>(model, comparator, nRows);
@@ -102,12 +106,77 @@ public class ListModels {
 		return new SubModel<T>(model, (model instanceof ListModelMap) ? MAP_COMPARATOR : STRING_COMPARATOR, 15);
 	}
 
+	/**
+	 * Returns a proxy instance of the given model that implements
+	 * {@link ListSubModel} and {@link ListModel} interface, and finds the
+	 * matched items with a prefix index rather than scanning the whole model.
+	 * It is suggested if the model is large, such as a combobox with
+	 * hundreds of thousands of items.
+	 *
+	 * <p>An item is matched if its key starts with the value typed by user
+	 * (and the value is not empty), and the first <code>nRows</code> matched
+	 * items (in the order of the model) are returned, i.e., the same as
+	 * {@link #toListSubModel(ListModel, Comparator, int)} with
+	 * {@link #STRING_COMPARATOR} if the key is the string of the item.
+	 *
+	 * <p>The keys are calculated and sorted the first time
+	 * {@link ListSubModel#getSubModel} is called, and then updated
+	 * incrementally when the model fires {@link ListDataEvent}.
+	 * Thus, if the key of an item is changed, the model must fire
+	 * {@link ListDataEvent#CONTENTS_CHANGED} for it.
+	 * <p>The returned sub-model is a view of the model, rather than a copy,
+	 * and it shall be retrieved again after the model is changed.
+	 * @param model a model
+	 * @param converter used to convert an item of the model to the key
+	 * that is matched against the value typed by user. If null is returned,
+	 * the item is never matched. Notice that it must be serializable if
+	 * the model is serialized (such as in a cluster).
+	 * @param nRows the maximal allowed number of matched items.
+	 * @since 10.0.1
+	 */
+	public static <T> ListModel<T> toIndexedListSubModel(ListModel<T> model, Converter<? super T, String> converter,
+			int nRows) {
+		return new IndexedSubModel<T>(model, converter, nRows);
+	}
+
+	/**
+	 * Returns a proxy instance of the given model that implements
+	 * {@link ListSubModel} and {@link ListModel} interface, and finds the
+	 * matched items with a prefix index.
+	 * <p>The key of an item is the string of the item, or, if the model is
+	 * an instance of {@link ListModelMap}, the string of Map.Entry's getValue(),
+	 * i.e., the same as {@link #toListSubModel(ListModel)}.
+	 * <p>In additions, the maximal allowed number of matched items is 15.
+	 * @param model a {@link ListModel}
+	 * @see #toIndexedListSubModel(ListModel, Converter, int)
+	 * @since 10.0.1
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> ListModel<T> toIndexedListSubModel(ListModel<T> model) {
+		return new IndexedSubModel<T>(model, (model instanceof ListModelMap) ? MAP_KEY : STRING_KEY, 15);
+	}
+
+	private static final Converter STRING_KEY = new StringKey();
+	private static final Converter MAP_KEY = new MapKey();
+
+	private static class StringKey implements Converter<Object, String>, java.io.Serializable {
+		public String convert(Object obj) {
+			return Objects.toString(obj);
+		}
+	}
+
+	private static class MapKey implements Converter<Object, String>, java.io.Serializable {
+		public String convert(Object obj) {
+			return obj != null ? Objects.toString(((Map.Entry) obj).getValue()) : null;
+		}
+	}
+
 	private static class SubModel<E> implements ListModel<E>, ListSubModel<E>, Selectable<E>, java.io.Serializable {
-		private final ListModel<E> _model;
+		/*package*/ final ListModel<E> _model;
 
 		private final Comparator<E> _comparator;
 
-		private final int _nRows;
+		/*package*/ final int _nRows;
 
 		public void setSelectionControl(SelectionControl ctrl) {
 			if (_model instanceof Selectable)
@@ -222,4 +291,269 @@ public class ListModels {
 			return getSelectModel().isMultiple();
 		}
 	}
+
+	/** A sub-model that looks up the matched items with a sorted index of
+	 * the keys, which is maintained incrementally with {@link ListDataEvent}.
+	 */
+	private static class IndexedSubModel<E> extends SubModel<E> {
+		private final Converter<? super E, String> _converter;
+		/** The key of each item, in the order of the model. */
+		private transient String[] _keys;
+		/** The indexes of the items, sorted by the keys (and then the indexes).
+		 * Null if the index is not built yet, or has to be rebuilt. */
+		private transient int[] _sorted;
+		/** The number of items in {@link #_keys} and {@link #_sorted}. */
+		private transient int _size;
+		private transient ListDataListener _listener;
+
+		private IndexedSubModel(ListModel<E> model, Converter<? super E, String> converter, int nRows) {
+			super(model, null, nRows);
+			_converter = converter;
+		}
+
+		public ListModel<E> getSubModel(Object value, int nRows) {
+			final String prefix = Objects.toString(value);
+			final int[] matched;
+			if (prefix == null || prefix.isEmpty()) {
+				matched = new int[0];
+			} else {
+				synchronized (this) {
+					if (_sorted == null || _size != _model.getSize())
+						rebuild();
+					matched = lookup(prefix, Math.max(1, Math.min(nRows < 0 ? _nRows : nRows, _size)));
+				}
+			}
+			return new IndexedView<E>(_model, matched);
+		}
+
+		/** Returns the indexes of the first nRows items whose keys start
+		 * with the given prefix, in the order of the model.
+		 */
+		private int[] lookup(String prefix, int nRows) {
+			int lo = 0, hi = _size;
+			while (lo < hi) { //the first key not less than prefix
+				final int mid = (lo + hi) >>> 1;
+				if (_keys[_sorted[mid]].compareTo(prefix) < 0)
+					lo = mid + 1;
+				else
+					hi = mid;
+			}
+			final int from = lo;
+			hi = _size;
+			while (lo < hi) { //the first key not starting with prefix
+				final int mid = (lo + hi) >>> 1;
+				if (_keys[_sorted[mid]].startsWith(prefix))
+					lo = mid + 1;
+				else
+					hi = mid;
+			}
+
+			//The matched keys are sorted by the keys rather than the indexes.
+			//If there are many of them, it is faster to scan the keys in the
+			//order of the model (about nRows * size / matched keys)
+			final int cnt = lo - from;
+			final int[] matched;
+			if ((long) cnt * cnt > (long) nRows * _size) {
+				matched = new int[nRows];
+				for (int j = 0, k = 0; k < nRows; ++j)
+					if (_keys[j].startsWith(prefix))
+						matched[k++] = j;
+			} else {
+				matched = Arrays.copyOfRange(_sorted, from, lo);
+				Arrays.sort(matched);
+			}
+			return matched.length > nRows ? Arrays.copyOf(matched, nRows) : matched;
+		}
+
+		private void rebuild() {
+			final int sz = _size = _model.getSize();
+			_keys = new String[sz];
+			_sorted = new int[sz];
+			for (int j = 0; j < sz; ++j) {
+				_keys[j] = keyAt(j);
+				_sorted[j] = j;
+			}
+			sort(_sorted);
+
+			if (_listener == null)
+				_model.addListDataListener(_listener = new IndexUpdater());
+		}
+
+		private String keyAt(int index) {
+			final String key = _converter.convert(_model.getElementAt(index));
+			return key != null ? key : "";
+		}
+
+		private synchronized void onChange(ListDataEvent event) {
+			if (_sorted == null)
+				return; //not built yet
+
+			final int type = event.getType(), i0 = event.getIndex0(), i1 = event.getIndex1();
+			switch (type) {
+			case ListDataEvent.SELECTION_CHANGED:
+			case ListDataEvent.MULTIPLE_CHANGED:
+			case ListDataEvent.DISABLE_CLIENT_UPDATE:
+			case ListDataEvent.ENABLE_CLIENT_UPDATE:
+				return; //not affected
+			}
+
+			if (i0 < 0 || i1 < i0 || i1 - i0 >= _size / 2) //-1 means the first or the last; not reliable
+				_sorted = null; //rebuild when used
+			else if (type == ListDataEvent.INTERVAL_ADDED && i0 <= _size)
+				added(i0, i1);
+			else if (type == ListDataEvent.INTERVAL_REMOVED && i1 < _size)
+				removed(i0, i1);
+			else if (type == ListDataEvent.CONTENTS_CHANGED && i1 < _size)
+				changed(i0, i1);
+			else
+				_sorted = null;
+
+			if (_sorted != null && _size != _model.getSize())
+				_sorted = null; //out of sync (e.g., some events are not fired)
+		}
+
+		private void added(int i0, int i1) {
+			final int cnt = i1 - i0 + 1, sz = _size;
+			if (_keys.length < sz + cnt) {
+				final int cap = Math.max(sz + cnt, sz + (sz >> 1));
+				_keys = Arrays.copyOf(_keys, cap);
+				_sorted = Arrays.copyOf(_sorted, cap);
+			}
+			System.arraycopy(_keys, i0, _keys, i1 + 1, sz - i0);
+			for (int j = 0; j < sz; ++j) //shifting keeps the order (branch-free so it can be vectorized)
+				_sorted[j] += ((i0 - 1 - _sorted[j]) >> 31) & cnt; //index >= i0 ? cnt: 0
+			insert(i0, i1, sz);
+		}
+
+		private void removed(int i0, int i1) {
+			final int cnt = i1 - i0 + 1, sz = _size;
+			delete(i0, i1);
+			for (int j = 0, len = _size; j < len; ++j)
+				_sorted[j] -= ((i1 - _sorted[j]) >> 31) & cnt; //index > i1 ? cnt: 0
+			System.arraycopy(_keys, i1 + 1, _keys, i0, sz - i1 - 1);
+			Arrays.fill(_keys, sz - cnt, sz, null);
+		}
+
+		private void changed(int i0, int i1) {
+			delete(i0, i1);
+			insert(i0, i1, _size);
+		}
+
+		/** Removes the items from i0 to i1 from {@link #_sorted},
+		 * before their keys are changed.
+		 */
+		private void delete(int i0, int i1) {
+			if (i1 - i0 < 16) { //a few; look up with the original keys
+				for (int index = i0; index <= i1; ++index) {
+					final int pos = search(index, _size);
+					System.arraycopy(_sorted, pos + 1, _sorted, pos, --_size - pos);
+				}
+			} else {
+				int k = 0;
+				for (int j = 0; j < _size; ++j) {
+					final int index = _sorted[j];
+					if (index < i0 || index > i1)
+						_sorted[k++] = index;
+				}
+				_size = k;
+			}
+		}
+
+		/** Returns the position of the first of the first len indexes of
+		 * {@link #_sorted} that is not less than the given index.
+		 */
+		private int search(int index, int len) {
+			int lo = 0;
+			for (int hi = len; lo < hi;) {
+				final int mid = (lo + hi) >>> 1;
+				if (compare(_sorted[mid], index) < 0)
+					lo = mid + 1;
+				else
+					hi = mid;
+			}
+			return lo;
+		}
+
+		/** Calculates the keys of the items from i0 to i1, and inserts them
+		 * to the first len indexes of {@link #_sorted}.
+		 */
+		private void insert(int i0, int i1, int len) {
+			final int cnt = i1 - i0 + 1;
+			final int[] indexes = new int[cnt];
+			for (int j = 0; j < cnt; ++j) {
+				_keys[i0 + j] = keyAt(i0 + j);
+				indexes[j] = i0 + j;
+			}
+			sort(indexes);
+
+			//from the largest one, so each index is moved at most once
+			for (int j = cnt, hi = len; --j >= 0;) {
+				final int index = indexes[j], lo = search(index, hi);
+				System.arraycopy(_sorted, lo, _sorted, lo + j + 1, hi - lo);
+				_sorted[lo + j] = index;
+				hi = lo;
+			}
+			_size = len + cnt;
+		}
+
+		private int compare(int i, int j) {
+			final int v = _keys[i].compareTo(_keys[j]);
+			return v != 0 ? v : Integer.compare(i, j);
+		}
+
+		private void sort(int[] indexes) {
+			if (indexes.length > 1)
+				mergeSort(indexes.clone(), indexes, 0, indexes.length);
+		}
+
+		/** Sorts dst[lo, hi) with src as the working area (both of the same content). */
+		private void mergeSort(int[] src, int[] dst, int lo, int hi) {
+			if (hi - lo < 2)
+				return;
+			final int mid = (lo + hi) >>> 1;
+			mergeSort(dst, src, lo, mid);
+			mergeSort(dst, src, mid, hi);
+			for (int i = lo, j = mid, k = lo; k < hi; ++k)
+				dst[k] = j >= hi || (i < mid && compare(src[i], src[j]) <= 0) ? src[i++] : src[j++];
+		}
+
+		private class IndexUpdater implements ListDataListener {
+			public void onChange(ListDataEvent event) {
+				IndexedSubModel.this.onChange(event);
+			}
+		}
+	}
+
+	/** The sub-model returned by {@link IndexedSubModel}, which refers to
+	 * the matched items by their indexes in the model.
+	 */
+	private static class IndexedView<E> extends AbstractListModel<E> {
+		private final ListModel<E> _model;
+		private final int[] _indexes;
+
+		@SuppressWarnings("unchecked")
+		private IndexedView(ListModel<E> model, int[] indexes) {
+			_model = model;
+			_indexes = indexes;
+			if (model instanceof Selectable) {
+				// may multiple selected item in subModel, sync the multiple state
+				final Selectable<E> smodel = (Selectable<E>) model;
+				setMultiple(smodel.isMultiple());
+				if (!smodel.isSelectionEmpty())
+					for (int index : indexes) {
+						final E o = model.getElementAt(index);
+						if (smodel.isSelected(o))
+							_selection.add(o);
+					}
+			}
+		}
+
+		public E getElementAt(int index) {
+			return _model.getElementAt(_indexes[index]);
+		}
+
+		public int getSize() {
+			return _indexes.length;
+		}
+	}
 }
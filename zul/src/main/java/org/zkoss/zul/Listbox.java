@@ -85,6 +85,7 @@ import org.zkoss.zul.event.ZulEvents;
 import org.zkoss.zul.ext.GroupsSelectableModel;
 import org.zkoss.zul.ext.Pageable;
 import org.zkoss.zul.ext.Paginal;
+import org.zkoss.zul.ext.Prefetchable;
 import org.zkoss.zul.ext.Selectable;
 import org.zkoss.zul.ext.SelectionControl;
 import org.zkoss.zul.ext.Sortable;
@@ -2564,6 +2565,8 @@ public class Listbox extends MeshElement {
 			if (realOfs < 0)
 				realOfs = 0;
 			boolean open = true;
+			if (_model instanceof Prefetchable)
+				prefetch(renderer, getItems().size() <= realOfs ? null : getItems().get(realOfs), ofs, pgsz);
 			for (Listitem item = getItems().size() <= realOfs ? null : getItems().get(realOfs), nxt; j < pgsz
 					&& item != null; item = nxt, j++) {
 				nxt = nextListitem(item); //retrieve first since it might be changed
@@ -2585,6 +2588,27 @@ public class Listbox extends MeshElement {
 		removeAttribute(Attributes.BEFORE_MODEL_ITEMS_RENDERED);
 	}
 
+	/** Prefetches the span of the unloaded items that {@link #doInitRenderer}
+	 * renders, i.e., at most pgsz items starting at the given one, whose
+	 * index is ofs.
+	 */
+	private static void prefetch(Renderer renderer, Listitem item, int ofs, int pgsz) {
+		int min = -1, max = -1;
+		boolean open = true;
+		for (int j = 0; j < pgsz && item != null; item = nextListitem(item), j++) {
+			if (!item.isLoaded() && item.isVisible()
+					&& (open || item instanceof Listgroupfoot || item instanceof Listgroup)) {
+				if (min < 0)
+					min = j + ofs;
+				max = j + ofs;
+			}
+			if (item instanceof Listgroup)
+				open = ((Listgroup) item).isOpen();
+		}
+		if (min >= 0)
+			renderer.prefetch(min, max - min + 1);
+	}
+
 	private static Listitem nextListitem(Listitem item) {
 		final Component c = item.getNextSibling();
 		return c instanceof Listitem ? (Listitem) c : null;
@@ -2723,6 +2747,9 @@ public class Listbox extends MeshElement {
 		@SuppressWarnings("rawtypes")
 		private final ListitemRenderer _renderer;
 		private boolean _rendered, _ctrled;
+		/** The elements fetched by {@link #prefetch}, starting at _winOfs. */
+		private List<?> _window;
+		private int _winOfs;
 
 		/* package */@SuppressWarnings("rawtypes")
 		Renderer() {
@@ -2749,7 +2776,7 @@ public class Listbox extends MeshElement {
 
 			//bug #3039843: Paging Listbox without rod, ListModel shall not fully loaded
 			//check if the item is a selected item and add into selected set
-			final Object value = _model.getElementAt(index);
+			final Object value = getElementAt(index);
 
 			final SelectionControl ctrl = getSelectableModel().getSelectionControl();
 			final boolean selectable = ctrl == null ? true : ctrl.isSelectable(value);
@@ -2795,6 +2822,29 @@ public class Listbox extends MeshElement {
 			_rendered = true;
 		}
 
+		/** Fetches the elements of the given range with one call if the model
+		 * is {@link Prefetchable}, such that {@link #render} won't retrieve
+		 * them one by one.
+		 */
+		/* package */void prefetch(int offset, int count) {
+			if (count > 1 && _model instanceof Prefetchable) {
+				_window = ((Prefetchable<?>) _model).getElementsAt(offset, count);
+				_winOfs = offset;
+			}
+		}
+
+		/** Returns whether the element of the given index was fetched by
+		 * {@link #prefetch}.
+		 */
+		/* package */boolean isPrefetched(int index) {
+			final int j = index - _winOfs;
+			return _window != null && j >= 0 && j < _window.size();
+		}
+
+		private Object getElementAt(int index) {
+			return isPrefetched(index) ? _window.get(index - _winOfs) : _model.getElementAt(index);
+		}
+
 		/* package */void doCatch(Throwable ex) {
 			if (_ctrled) {
 				try {
@@ -2858,8 +2908,12 @@ public class Listbox extends MeshElement {
 			try {
 				Listitem item = getItems().get(0);
 				int index = item.getIndex();
+				//fetch a page at a time rather than the whole model at once
+				final int pgsz = inPagingMold() ? _pgi.getPageSize() : getDataLoader().getLimit();
 				for (Listitem nxt; item != null; item = nxt) {
 					nxt = nextListitem(item); //retrieve first since it might be changed
+					if (!item.isLoaded() && !renderer.isPrefetched(index))
+						renderer.prefetch(index, Math.min(pgsz, _model.getSize() - index));
 					renderer.render(item, index++);
 				}
 			} catch (Throwable ex) {
@@ -2880,6 +2934,8 @@ public class Listbox extends MeshElement {
 
 		final Renderer renderer = new Renderer();
 		try {
+			if (_model instanceof Prefetchable)
+				prefetch(renderer, items);
 			for (final Listitem item : items)
 				renderer.render(item, item.getIndex());
 		} catch (Throwable ex) {
@@ -2889,6 +2945,22 @@ public class Listbox extends MeshElement {
 		}
 	}
 
+	/** Prefetches the span of the given items if they are (almost) contiguous,
+	 * e.g., the rows the client requests when scrolling.
+	 */
+	private static void prefetch(Renderer renderer, Set<? extends Listitem> items) {
+		int min = Integer.MAX_VALUE, max = -1;
+		for (final Listitem item : items) {
+			final int index = item.getIndex();
+			if (index < min)
+				min = index;
+			if (index > max)
+				max = index;
+		}
+		if (max >= 0 && max - min < items.size() * 2)
+			renderer.prefetch(min, max - min + 1);
+	}
+
 	/** Sets the mold to render this component.
 	 *
 	 * @param mold the mold. If null or empty, "default" is assumed.
@@ -3607,7 +3679,10 @@ public class Listbox extends MeshElement {
 			if (_rod) {
 				Executions.getCurrent().setAttribute("zkoss.zul.listbox.onDataLoading." + this.getUuid(), Boolean.TRUE); //indicate doing dataloading
 			}
-			Events.postEvent(DataLoadingEvent.getDataLoadingEvent(request, preloadSize()));
+			final DataLoadingEvent evt = DataLoadingEvent.getDataLoadingEvent(request, preloadSize());
+			if (_model instanceof Prefetchable)
+				((Prefetchable<?>) _model).prefetch(evt.getOffset(), evt.getLimit());
+			Events.postEvent(evt);
 		} else if (inPagingMold() && cmd.equals(ZulEvents.ON_PAGE_SIZE)) { //since 5.0.2
 			final Map<String, Object> data = request.getData();
 			final int oldsize = getPageSize();
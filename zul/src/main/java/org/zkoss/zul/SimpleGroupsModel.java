@@ -17,7 +17,6 @@ Copyright (C) 2007 Potix Corporation. All Rights Reserved.
 package org.zkoss.zul;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 
@@ -326,13 +325,13 @@ public class SimpleGroupsModel<D, H, F, E> extends AbstractGroupsModel<D, Object
 
 	/**
 	 * Sorts a group of data.
-	 * <p>Default: <code>Collections.sort(groupdata, cmpr)</code>
+	 * <p>Default: <code>FieldComparator.sort(groupdata, cmpr)</code>
 	 * @param group the group (the same as {@link #getGroup})
 	 * @param groupdata the group of data to sort
 	 * @since 6.0.1
 	 */
 	protected void sortGroupData(Object group, List<D> groupdata, Comparator<D> cmpr, boolean ascending, int colIndex) {
-		Collections.sort(groupdata, cmpr);
+		FieldComparator.sort(groupdata, cmpr);
 	}
 
 	@SuppressWarnings("unchecked")
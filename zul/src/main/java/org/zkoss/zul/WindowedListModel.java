@@ -0,0 +1,184 @@
+/* WindowedListModel.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 21:12:48 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+
+*/
+package org.zkoss.zul;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.zkoss.zul.event.ListDataEvent;
+import org.zkoss.zul.ext.Prefetchable;
+
+/**
+ * A skeletal implementation of a {@link ListModel} whose elements are
+ * loaded on demand, a window of consecutive elements at a time, from
+ * a backing store that is too large (or too slow) to be held in memory,
+ * such as a database table.
+ *
+ * <p>The deriving class implements {@link #getSize} and {@link #fetch}.
+ * The loaded windows are kept in a least-recently-used cache, so only
+ * {@link #getMaxWindows} windows of {@link #getWindowSize} elements are
+ * held at the same time. Since it implements {@link Prefetchable},
+ * listbox and grid retrieve the rows to render in a single
+ * {@link #getElementsAt} call, which is turned into one {@link #fetch}
+ * for all the windows that are not cached yet.
+ *
+ * <p>If the backing store is modified, invoke {@link #invalidate} to
+ * drop the cached windows and notify the components.
+ *
+ * @author agent
+ * @since 10.0.1
+ */
+public abstract class WindowedListModel<E> extends AbstractListModel<E> implements Prefetchable<E> {
+	private static final long serialVersionUID = 20261018211248L;
+
+	private final int _windowSize;
+	private final int _maxWindows;
+	/** The cached windows, keyed by window index, in access order. */
+	private transient LinkedHashMap<Integer, List<E>> _windows;
+
+	/** Constructs a model that caches at most 8 windows of 50 elements.
+	 */
+	protected WindowedListModel() {
+		this(50, 8);
+	}
+
+	/** Constructor.
+	 * @param windowSize the number of elements loaded by one {@link #fetch}
+	 * (unless multiple consecutive windows are loaded together)
+	 * @param maxWindows the maximal number of windows to cache
+	 */
+	protected WindowedListModel(int windowSize, int maxWindows) {
+		if (windowSize <= 0 || maxWindows <= 0)
+			throw new IllegalArgumentException("windowSize and maxWindows must be positive");
+		_windowSize = windowSize;
+		_maxWindows = maxWindows;
+	}
+
+	/** Returns the number of elements in a window.
+	 */
+	public int getWindowSize() {
+		return _windowSize;
+	}
+
+	/** Returns the maximal number of windows being cached.
+	 */
+	public int getMaxWindows() {
+		return _maxWindows;
+	}
+
+	/** Loads the elements from the given offset (inclusive), up to the given
+	 * number of elements, from the backing store.
+	 *
+	 * <p>The offset is always a multiple of {@link #getWindowSize}, and the
+	 * limit a multiple of it, so the returned list might be shorter than
+	 * <code>limit</code> at the end of the model.
+	 */
+	protected abstract List<E> fetch(int offset, int limit);
+
+	public E getElementAt(int index) {
+		if (index < 0)
+			throw new IndexOutOfBoundsException("Index: " + index);
+		final List<E> window = getWindows(index / _windowSize, 1).get(0);
+		final int j = index % _windowSize;
+		return j < window.size() ? window.get(j) : null;
+	}
+
+	public List<E> getElementsAt(int offset, int limit) {
+		if (offset < 0)
+			throw new IndexOutOfBoundsException("Offset: " + offset);
+		limit = Math.min(limit, getSize() - offset);
+		if (limit <= 0)
+			return Collections.emptyList();
+
+		final int first = offset / _windowSize, last = (offset + limit - 1) / _windowSize;
+		final List<List<E>> windows = getWindows(first, last - first + 1);
+		final List<E> result = new ArrayList<E>(limit);
+		int j = offset - first * _windowSize;
+		for (List<E> window : windows) {
+			for (final int sz = window.size(); j < sz && result.size() < limit; ++j)
+				result.add(window.get(j));
+			j = 0;
+		}
+		return result;
+	}
+
+	/** Loads the windows covering the given range into the cache, unless
+	 * they are cached already, or the range doesn't fit in the cache.
+	 */
+	public void prefetch(int offset, int limit) {
+		if (offset < 0 || limit <= 0)
+			return;
+		final int first = offset / _windowSize, last = (offset + limit - 1) / _windowSize;
+		if (last - first < _maxWindows)
+			getWindows(first, last - first + 1);
+	}
+
+	/** Drops all cached windows and notifies the components that the
+	 * content is changed. Invoke it if the backing store is modified.
+	 */
+	public void invalidate() {
+		synchronized (this) {
+			_windows = null;
+		}
+		fireEvent(ListDataEvent.CONTENTS_CHANGED, -1, -1);
+	}
+
+	/** Returns the given number of windows starting at the given window
+	 * index. The consecutive windows not being cached are loaded with
+	 * one {@link #fetch}.
+	 */
+	private synchronized List<List<E>> getWindows(int first, int count) {
+		if (_windows == null)
+			_windows = new LinkedHashMap<Integer, List<E>>(16, 0.75f, true) {
+				protected boolean removeEldestEntry(Map.Entry<Integer, List<E>> eldest) {
+					return size() > _maxWindows;
+				}
+			};
+
+		final List<List<E>> result = new ArrayList<List<E>>(count);
+		for (int w = first, end = first + count; w < end;) {
+			final List<E> cached = _windows.get(w);
+			if (cached != null) {
+				result.add(cached);
+				++w;
+				continue;
+			}
+
+			int miss = w + 1;
+			while (miss < end && !_windows.containsKey(miss))
+				++miss;
+			final int base = w;
+			List<E> loaded = fetch(base * _windowSize, (miss - base) * _windowSize);
+			if (loaded == null)
+				loaded = Collections.emptyList();
+			final int sz = loaded.size();
+			for (; w < miss; ++w) {
+				final int from = Math.min((w - base) * _windowSize, sz), to = Math.min(from + _windowSize, sz);
+				final List<E> window = from == 0 && to == sz ? loaded : new ArrayList<E>(loaded.subList(from, to));
+				_windows.put(w, window);
+				result.add(window);
+			}
+		}
+		return result;
+	}
+
+	@SuppressWarnings("unchecked")
+	public Object clone() {
+		final WindowedListModel<E> clone = (WindowedListModel<E>) super.clone();
+		clone._windows = null;
+		return clone;
+	}
+}
@@ -0,0 +1,59 @@
+/* Prefetchable.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 21:04:12 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+
+*/
+package org.zkoss.zul.ext;
+
+import java.util.List;
+
+import org.zkoss.zul.ListModel;
+
+/**
+ * Indicates a {@link ListModel} that can retrieve a range of elements
+ * in one call, such as a model backed by a database or a remote service.
+ *
+ * <p>When the model of a listbox or grid implements this interface, the
+ * component fetches the rows of the range it is about to render (a page, or
+ * the window requested by the client when scrolling) with
+ * {@link #getElementsAt} instead of calling {@link ListModel#getElementAt}
+ * once per row. In addition, the data loader calls {@link #prefetch} when the
+ * model is synchronized, such that the model can start loading the range
+ * ahead of rendering.
+ *
+ * @author agent
+ * @since 10.0.1
+ * @see org.zkoss.zul.WindowedListModel
+ */
+public interface Prefetchable<E> {
+	/** Returns the elements from the given offset (inclusive), up to
+	 * the given number of elements.
+	 *
+	 * <p>The returned list might be shorter than <code>limit</code> if
+	 * the range exceeds the size of the model. The element at index
+	 * <code>i</code> of the returned list shall be the same as
+	 * {@link ListModel#getElementAt} with <code>offset + i</code>.
+	 *
+	 * @param offset the index of the first element (starting from 0)
+	 * @param limit the maximal number of elements to return
+	 */
+	public List<E> getElementsAt(int offset, int limit);
+
+	/** Hints that the elements in the given range will be retrieved soon.
+	 * The implementation might load them in advance, either synchronously
+	 * or in another thread.
+	 * <p>Default: does nothing.
+	 *
+	 * @param offset the index of the first element (starting from 0)
+	 * @param limit the number of elements
+	 */
+	default void prefetch(int offset, int limit) {
+	}
+}
@@ -43,6 +43,7 @@ import org.zkoss.zul.event.GroupsDataEvent;
 import org.zkoss.zul.event.ListDataEvent;
 import org.zkoss.zul.ext.GroupingInfo;
 import org.zkoss.zul.ext.Paginal;
+import org.zkoss.zul.ext.Prefetchable;
 import org.zkoss.zul.impl.GroupsListModel.GroupDataInfo;
 
 /**
@@ -375,6 +376,8 @@ public class GridDataLoader implements DataLoader, Cropper {
 		int max = offset + limit - 1;
 
 		final ListModel model = _grid.getModel();
+		if (offset >= 0 && limit > 0 && model instanceof Prefetchable)
+			((Prefetchable<?>) model).prefetch(offset, limit); //let the model load the range in advance
 		Rows rows = _grid.getRows();
 		final int newsz = model.getSize();
 		final int oldsz = rows != null ? rows.getChildren().size() : 0;
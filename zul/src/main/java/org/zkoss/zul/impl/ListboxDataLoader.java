@@ -53,6 +53,7 @@ import org.zkoss.zul.event.GroupsDataEvent;
 import org.zkoss.zul.event.ListDataEvent;
 import org.zkoss.zul.ext.GroupingInfo;
 import org.zkoss.zul.ext.Paginal;
+import org.zkoss.zul.ext.Prefetchable;
 import org.zkoss.zul.impl.GroupsListModel.GroupDataInfo;
 
 /**
@@ -401,6 +402,8 @@ public class ListboxDataLoader implements DataLoader, Cropper { //no need to ser
 		int max = offset + limit - 1;
 
 		final ListModel _model = _listbox.getModel();
+		if (offset >= 0 && limit > 0 && _model instanceof Prefetchable)
+			((Prefetchable<?>) _model).prefetch(offset, limit); //let the model load the range in advance
 		final int newsz = _model.getSize();
 		final int oldsz = _listbox.getItemCount();
 		final Paginal _pgi = _listbox.getPaginal();
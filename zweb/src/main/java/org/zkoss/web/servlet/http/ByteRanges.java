@@ -0,0 +1,248 @@
+/* ByteRanges.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Mon Oct 19 00:42:16 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+
+*/
+package org.zkoss.web.servlet.http;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Sends content of a known length with the byte ranges requested by
+ * the Range header (RFC 7233), including multiple ranges
+ * (multipart/byteranges), and the conditional requests with ETag
+ * (If-None-Match and If-Range).
+ *
+ * @author agent
+ */
+/*package*/ class ByteRanges {
+	/** The maximal number of ranges; the Range header is ignored if more. */
+	private static final int MAX_RANGES = 64;
+	/** The size of the buffer to copy a file. */
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final String BOUNDARY = "ZK_BYTERANGES_BOUNDARY";
+
+	/** The content to send. */
+	/*package*/ interface Source {
+		/** Writes count bytes starting at the given offset to the output. */
+		public void writeTo(OutputStream out, long offset, long count) throws IOException;
+	}
+
+	/** Returns the source of the given byte array.
+	 */
+	/*package*/ static Source of(byte[] data) {
+		return (out, offset, count) -> out.write(data, (int) offset, (int) count);
+	}
+
+	/** Returns the source of the given file channel.
+	 * The file is read with a bounded buffer, so it is never loaded
+	 * into memory as a whole.
+	 */
+	/*package*/ static Source of(FileChannel channel) {
+		return (out, offset, count) -> {
+			final ByteBuffer buf = ByteBuffer.allocate((int) Math.min(BUFFER_SIZE, Math.max(count, 1)));
+			while (count > 0) {
+				buf.clear();
+				if (count < buf.capacity())
+					buf.limit((int) count);
+				final int n = channel.read(buf, offset);
+				if (n < 0)
+					throw new IOException("Unexpected end of file");
+				out.write(buf.array(), 0, n);
+				offset += n;
+				count -= n;
+			}
+		};
+	}
+
+	/** Returns the entity tag of a file.
+	 */
+	/*package*/ static String getETag(File file) {
+		return "\"" + Long.toHexString(file.length()) + '-' + Long.toHexString(file.lastModified()) + '"';
+	}
+
+	/** Sends the content with the ranges specified in the request, if any.
+	 *
+	 * @param ctype the content type; used in each part if multiple ranges are requested.
+	 * It might be null.
+	 * @param length the length of the content
+	 * @param etag the entity tag of the content, or null if not available.
+	 * If not null, the conditional request is handled.
+	 * @param headOnly whether to send the headers only
+	 */
+	/*package*/ static void write(HttpServletRequest request, HttpServletResponse response, String ctype,
+			long length, String etag, boolean headOnly, Source src) throws IOException {
+		List<long[]> ranges = null;
+		if (etag != null) {
+			response.setHeader("ETag", etag);
+			if (matches(request.getHeader("If-None-Match"), etag)) {
+				response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+				return;
+			}
+		}
+
+		final String ifRange = request.getHeader("If-Range");
+		if (ifRange == null || (etag != null && etag.equals(ifRange.trim())))
+			ranges = parse(request.getHeader("Range"), length);
+
+		if (ranges == null) {
+			response.setContentLengthLong(length);
+			if (!headOnly)
+				write(response, src, 0, length);
+		} else if (ranges.isEmpty()) {
+			response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+			response.setHeader("Content-Range", "bytes */" + length);
+		} else if (ranges.size() == 1) {
+			final long[] range = ranges.get(0);
+			response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+			response.setHeader("Content-Range", "bytes " + range[0] + "-" + range[1] + "/" + length);
+			response.setContentLengthLong(range[1] - range[0] + 1);
+			if (!headOnly)
+				write(response, src, range[0], range[1] - range[0] + 1);
+		} else {
+			final byte[][] heads = new byte[ranges.size()][];
+			final byte[] tail = ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.ISO_8859_1);
+			long total = tail.length;
+			for (int j = 0; j < heads.length; ++j) {
+				final long[] range = ranges.get(j);
+				heads[j] = ("\r\n--" + BOUNDARY + "\r\n" + (ctype != null ? "Content-Type: " + ctype + "\r\n" : "")
+						+ "Content-Range: bytes " + range[0] + "-" + range[1] + "/" + length + "\r\n\r\n")
+						.getBytes(StandardCharsets.ISO_8859_1);
+				total += heads[j].length + range[1] - range[0] + 1;
+			}
+
+			response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+			response.setContentType("multipart/byteranges; boundary=" + BOUNDARY);
+			response.setContentLengthLong(total);
+			if (!headOnly) {
+				final ServletOutputStream out = response.getOutputStream();
+				for (int j = 0; j < heads.length; ++j) {
+					final long[] range = ranges.get(j);
+					out.write(heads[j]);
+					src.writeTo(out, range[0], range[1] - range[0] + 1);
+				}
+				out.write(tail);
+				out.flush();
+			}
+		}
+	}
+
+	private static void write(HttpServletResponse response, Source src, long offset, long count)
+			throws IOException {
+		final ServletOutputStream out = response.getOutputStream();
+		src.writeTo(out, offset, count);
+		out.flush();
+	}
+
+	/** Returns whether If-None-Match matches the entity tag.
+	 */
+	private static boolean matches(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null)
+			return false;
+		for (String s : ifNoneMatch.split(",")) {
+			s = s.trim();
+			if (s.startsWith("W/"))
+				s = s.substring(2);
+			if ("*".equals(s) || etag.equals(s))
+				return true;
+		}
+		return false;
+	}
+
+	/** Parses the Range header into a list of [from, to] (both inclusive).
+	 * It returns null if the header is not specified or not valid (i.e.,
+	 * to send the whole content), or an empty list if none of the ranges
+	 * is satisfiable.
+	 * <p>The overlapping and adjacent ranges are coalesced, and the ranges
+	 * are returned in ascending order (RFC 7233, Section 6.1), such that
+	 * no part of the content is sent more than once.
+	 */
+	/*package*/ static List<long[]> parse(String header, long length) {
+		if (header == null)
+			return null;
+		header = header.trim().toLowerCase(Locale.ENGLISH);
+		if (!header.startsWith("bytes"))
+			return null;
+		header = header.substring(5).trim();
+		if (!header.startsWith("="))
+			return null;
+
+		final String[] specs = header.substring(1).split(",");
+		if (specs.length > MAX_RANGES)
+			return null;
+
+		final List<long[]> ranges = new ArrayList<long[]>(specs.length);
+		try {
+			for (String spec : specs) {
+				spec = spec.trim();
+				final int j = spec.indexOf('-');
+				if (j < 0)
+					return null;
+				final String sfrom = spec.substring(0, j).trim(), sto = spec.substring(j + 1).trim();
+				long from, to;
+				if (sfrom.isEmpty()) { //suffix: the last n bytes
+					final long n = Long.parseLong(sto);
+					if (n < 0)
+						return null;
+					if (n == 0 || length == 0)
+						continue; //unsatisfiable
+					from = Math.max(0, length - n);
+					to = length - 1;
+				} else {
+					from = Long.parseLong(sfrom);
+					to = sto.isEmpty() ? Long.MAX_VALUE : Long.parseLong(sto);
+					if (from < 0 || to < from)
+						return null;
+					if (from >= length)
+						continue; //unsatisfiable
+					if (to >= length)
+						to = length - 1;
+				}
+				ranges.add(new long[] { from, to });
+			}
+		} catch (NumberFormatException ex) {
+			return null;
+		}
+		return coalesce(ranges);
+	}
+
+	/** Sorts the ranges and merges those overlapping or adjacent.
+	 */
+	private static List<long[]> coalesce(List<long[]> ranges) {
+		if (ranges.size() < 2)
+			return ranges;
+
+		ranges.sort(Comparator.comparingLong(range -> range[0]));
+		final List<long[]> merged = new ArrayList<long[]>(ranges.size());
+		long[] last = null;
+		for (long[] range : ranges) {
+			if (last != null && range[0] <= last[1] + 1) {
+				if (range[1] > last[1])
+					last[1] = range[1];
+			} else {
+				merged.add(last = range);
+			}
+		}
+		return merged;
+	}
+}
@@ -15,6 +15,7 @@ Copyright (C) 2001 Potix Corporation. All Rights Reserved.
 package org.zkoss.web.servlet.http;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStreamWriter;
@@ -24,6 +25,8 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -51,6 +54,7 @@ import org.zkoss.io.Files;
 import org.zkoss.io.RepeatableInputStream;
 import org.zkoss.io.RepeatableReader;
 import org.zkoss.lang.Strings;
+import org.zkoss.util.media.AMedia;
 import org.zkoss.util.media.Media;
 import org.zkoss.web.Attributes;
 import org.zkoss.web.servlet.Servlets;
@@ -509,6 +513,10 @@ public class Https extends Servlets {
 	 * @param repeatable whether to use {@link RepeatableInputStream}
 	 * or {@link RepeatableReader} to read the media.
 	 * It is better to specify true if the media might be read repeatedly.
+	 * <p>If the media is a binary {@link AMedia} constructed with a file
+	 * ({@link AMedia#getFile}), the file is sent directly, with ETag,
+	 * and the ranges requested by the Range header (including multiple ranges)
+	 * are read from the file without buffering the content in memory.
 	 * @since 3.5.0
 	 */
 	public static void write(HttpServletRequest request, HttpServletResponse response, Media media, boolean download,
@@ -522,49 +530,60 @@ public class Https extends Servlets {
 		final boolean headOnly = "HEAD".equalsIgnoreCase(request.getMethod());
 		final byte[] data;
 		int from = -1, to = -1;
+
+		//reading an image and send it back to client
+		final String ctype = media.getContentType();
+		if (ctype != null)
+			response.setContentType(ctype);
+
+		if (media.isContentDisposition()) {
+			String contentDisposition;
+			String flnm = "";
+			if (download) {
+				contentDisposition = "attachment";
+
+				// Bug ZK-1257: Filedownload.save(media, filename) does not save the media as the specified filename
+				StringBuffer temp = request.getRequestURL();
+				final String update_uri = (String) request.getSession().getServletContext()
+						.getAttribute("org.zkoss.zk.ui.http.update-uri"); //B65-ZK-1619
+				if (update_uri != null && temp.toString().contains(update_uri + "/view")) {
+					// for Bug ZK-2350, we don't specify the filename when coming with ZK Fileupload, but invoke this directly as Bug ZK-1619
+					//					final String saveAs = URLDecoder.decode(temp.substring(temp.lastIndexOf("/")+1), "UTF-8");
+					//					flnm = ("".equals(saveAs)) ? media.getName() : saveAs;
+					// ZK-3058: remove jsessionid if any
+					int jsessionPos = temp.indexOf(";jsessionid=");
+					if (jsessionPos != -1)
+						flnm = URLDecoder.decode(
+								temp.substring(temp.lastIndexOf("/") + 1, jsessionPos),
+								"UTF-8"
+						);
+				} else
+					flnm = media.getName();
+			} else {
+				contentDisposition = "inline";
+				flnm = media.getName();
+			}
+			// ZK-3058: filename for legacy browsers, filename* for modern browsers
+			if (flnm != null && flnm.length() > 0)
+				contentDisposition += ";filename=" + encodeFilename(request, flnm) + ";filename*=UTF-8''" + encodeRfc3986(flnm);
+			response.setHeader("Content-Disposition", contentDisposition);
+		}
+
+		final File file = media instanceof AMedia && media.isBinary() ? ((AMedia) media).getFile() : null;
+		if (file != null && file.isFile()) { //read the file directly, so any ranges can be sent without buffering
+			//not locked since the file is opened per request
+			try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+				ByteRanges.write(request, response, ctype, channel.size(), ByteRanges.getETag(file), headOnly,
+						ByteRanges.of(channel));
+			}
+			return; //done
+		}
+
 		final Object lock;
 		synchronized (LOCKS) {
 			lock = LOCKS.computeIfAbsent(media, k -> new Object());
 		}
 		synchronized (lock) { //Bug 1896797: media might be accessed concurrently.
-			//reading an image and send it back to client
-			final String ctype = media.getContentType();
-			if (ctype != null)
-				response.setContentType(ctype);
-
-			if (media.isContentDisposition()) {
-				String contentDisposition;
-				String flnm = "";
-				if (download) {
-					contentDisposition = "attachment";
-
-					// Bug ZK-1257: Filedownload.save(media, filename) does not save the media as the specified filename
-					StringBuffer temp = request.getRequestURL();
-					final String update_uri = (String) request.getSession().getServletContext()
-							.getAttribute("org.zkoss.zk.ui.http.update-uri"); //B65-ZK-1619
-					if (update_uri != null && temp.toString().contains(update_uri + "/view")) {
-						// for Bug ZK-2350, we don't specify the filename when coming with ZK Fileupload, but invoke this directly as Bug ZK-1619
-						//					final String saveAs = URLDecoder.decode(temp.substring(temp.lastIndexOf("/")+1), "UTF-8");
-						//					flnm = ("".equals(saveAs)) ? media.getName() : saveAs;
-						// ZK-3058: remove jsessionid if any
-						int jsessionPos = temp.indexOf(";jsessionid=");
-						if (jsessionPos != -1)
-							flnm = URLDecoder.decode(
-									temp.substring(temp.lastIndexOf("/") + 1, jsessionPos),
-									"UTF-8"
-							);
-					} else
-						flnm = media.getName();
-				} else {
-					contentDisposition = "inline";
-					flnm = media.getName();
-				}
-				// ZK-3058: filename for legacy browsers, filename* for modern browsers
-				if (flnm != null && flnm.length() > 0)
-					contentDisposition += ";filename=" + encodeFilename(request, flnm) + ";filename*=UTF-8''" + encodeRfc3986(flnm);
-				response.setHeader("Content-Disposition", contentDisposition);
-			}
-
 			final String rs = request.getHeader("Range");
 			if (rs != null && rs.length() > 0) {
 				final int[] range = parseRange(rs);
@@ -666,26 +685,7 @@ public class Https extends Servlets {
 			data = media.isBinary() ? media.getByteData() : media.getStringData().getBytes(getCharset(ctype));
 		}
 
-		if (headOnly) {
-			response.setContentLength(data.length);
-		} else {
-			final ServletOutputStream out = response.getOutputStream();
-			if (from >= 0) { //partial
-				response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
-
-				int f = from <= data.length ? from : data.length - 1;
-				int t = to >= 0 && to < data.length ? to : data.length - 1;
-				int cnt = t - f + 1;
-				response.setContentLength(cnt);
-				response.setHeader("Content-Range", "bytes " + f + "-" + t + "/" + data.length);
-
-				out.write(data, f, cnt);
-			} else {
-				response.setContentLength(data.length);
-				out.write(data);
-			}
-			out.flush();
-		}
+		ByteRanges.write(request, response, media.getContentType(), data.length, null, headOnly, ByteRanges.of(data));
 	}
 
 	/** Filename can be quoted-string.
@@ -97,6 +97,11 @@ public class ClassWebResource {
 	/** Whether to debug JavaScript files. */
 	private boolean _debugJS;
 	private boolean _sourceMapEnabled;
+	/** The cache of the resources loaded by {@link #web0}. */
+	private final StaticResourceCache _resCache = new StaticResourceCache();
+	/** The period to check whether a resource is modified (the same as
+	 * {@link ExtendletLoader#getCheckPeriod}), or negative if never. */
+	private final int _checkPeriod;
 
 	/** The prefix of path of web resources ("/web"). */
 	public static final String PATH_PREFIX = "/web";
@@ -194,7 +199,7 @@ public class ClassWebResource {
 	 * the client is allowed to cache the content as long as possible.
 	 */
 	private static void setClientCacheForever(HttpServletResponse response) {
-		if (!"false".equals(Library.getProperty("org.zkoss.web.classWebResource.cache"))) {
+		if (isCacheEnabled()) {
 			response.setHeader("Cache-Control", "public, max-age=31536000"); //a year (unit: seconds)
 			response.setDateHeader("Expires", _expires);
 		}
@@ -235,6 +240,7 @@ public class ClassWebResource {
 		_ctx = ctx;
 		_mappingURI = mappingURI + PATH_PREFIX;
 		_cwc = new CWC();
+		_checkPeriod = ExtendletLoader.getInitCheckPeriod();
 
 		addExtendlet("dsp", new DspExtendlet());
 	}
@@ -257,6 +263,28 @@ public class ClassWebResource {
 	 */
 	public void setExtraLocator(Locator loc) {
 		_extraloc = loc;
+		_resCache.clear();
+	}
+
+	/** Returns the cache of the static resources served by this object,
+	 * such as JavaScript and CSS files (but not those processed by an extendlet,
+	 * unless the extendlet uses it, too).
+	 * It is not used if the library property called
+	 * <code>org.zkoss.web.classWebResource.cache</code> is false, or
+	 * the resources are checked for modification (i.e., the library property called
+	 * <code>org.zkoss.util.resource.extendlet.checkPeriod</code> is not negative).
+	 * @since 10.0.1
+	 */
+	public StaticResourceCache getStaticResourceCache() {
+		return _resCache;
+	}
+
+	/** Returns whether the static resources shall be cached, i.e.,
+	 * the library property called <code>org.zkoss.web.classWebResource.cache</code>
+	 * is not false.
+	 */
+	private static boolean isCacheEnabled() {
+		return !"false".equals(Library.getProperty("org.zkoss.web.classWebResource.cache"));
 	}
 
 	/** Process the request by retrieving the path from the path info.
@@ -624,7 +652,10 @@ public class ClassWebResource {
 				setClientCacheForever(response);
 		}
 
+		final boolean cached = !Servlets.isIncluded(request) && isCacheEnabled() && _checkPeriod < 0;
+			//not to cache if the resources might be changed
 		InputStream is = null;
+		StaticResourceCache.Entry entry = null;
 
 		byte[] data;
 		boolean compressed = false;
@@ -632,15 +663,27 @@ public class ClassWebResource {
 			if ("js".equals(ext) && !_sourceMapEnabled) {
 				final String orgpi = Servlets.locate(_ctx, request, pi.substring(0, pi.length() - 3) + ".src.js",
 						_cwc.getLocator());
-				is = getResourceAsStream(orgpi);
-				if (is != null)
+				if (cached)
+					entry = getCachedResource(orgpi);
+				else
+					is = getResourceAsStream(orgpi);
+				if (is != null || entry != null)
 					pi = orgpi;
 			}
 		}
 
-		if (is == null) {
+		if (is == null && entry == null) {
 			final String p = Servlets.locate(_ctx, request, pi, _cwc.getLocator());
-			is = getResourceAsStream(p);
+			if (cached)
+				entry = getCachedResource(p);
+			else
+				is = getResourceAsStream(p);
+		}
+
+		if (entry != null) {
+			//compressed once, and 304 if If-None-Match matches
+			StaticResourceCache.write(request, response, entry, shallCompress(request, ext));
+			return;
 		}
 
 		if (is == null) {
@@ -701,6 +744,25 @@ public class ClassWebResource {
 		out.flush();
 	}
 
+	/** Returns the cached resource of the given (located) path,
+	 * or null if not found. It is loaded and cached if not cached yet.
+	 */
+	private StaticResourceCache.Entry getCachedResource(String path) throws IOException {
+		final StaticResourceCache.Entry entry = _resCache.get(path);
+		if (entry != null)
+			return entry;
+
+		final InputStream is = getResourceAsStream(path);
+		if (is == null)
+			return null;
+		try {
+			//the content is always allowed to compress; write decides per request
+			return _resCache.put(path, Files.readAll(is), true);
+		} finally {
+			Files.close(is);
+		}
+	}
+
 	private boolean shallCompress(ServletRequest request, String ext) {
 		return _compressExts != null && _compressExts.contains(ext) && !Servlets.isIncluded(request);
 	}
@@ -173,7 +173,7 @@ public abstract class ExtendletLoader<V> implements Loader<String, V> {
 		return _checkPeriod;
 	}
 
-	private static int getInitCheckPeriod() {
+	/*package*/ static int getInitCheckPeriod() {
 		final int v = Library.getIntProperty("org.zkoss.util.resource.extendlet.checkPeriod", -1);
 		return v > 0 ? v * 1000 : v;
 	}
@@ -0,0 +1,327 @@
+/* StaticResourceCache.java
+
+	Purpose:
+
+	Description:
+
+	History:
+		Sun Oct 18 21:58:36 CST 2026, Created by agent
+
+Copyright (C) 2026 Potix Corporation. All Rights Reserved.
+*/
+package org.zkoss.web.util.resource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.zkoss.io.WriterOutputStream;
+import org.zkoss.lang.Library;
+
+/**
+ * A memory-bounded cache of static resources, such as JavaScript and CSS
+ * files loaded from the class path, and the WPD files.
+ * Each resource is kept with its gzip-compressed variant (compressed once,
+ * when first requested by a browser accepting gzip) and a strong ETag
+ * (a digest of the content), so a request is served without compressing
+ * the content again, and a conditional request (<code>If-None-Match</code>)
+ * is answered with 304 (Not Modified).
+ *
+ * <p>The total size of the cached resources (including the compressed
+ * variants) is bounded by the library property called
+ * <code>org.zkoss.web.classWebResource.cache.maxSize</code>
+ * (unit: KB; default: 16384, i.e., 16MB). The oldest resources are
+ * evicted first if exceeded. A resource larger than a quarter of it
+ * is not cached.
+ *
+ * <p>It is thread-safe.
+ *
+ * @author agent
+ * @since 10.0.1
+ * @see ClassWebResource#getStaticResourceCache
+ */
+public class StaticResourceCache {
+	/** The content shorter than it is not compressed. */
+	private static final int GZIP_THRESHOLD = 200;
+
+	private final ConcurrentHashMap<String, Entry> _entries = new ConcurrentHashMap<String, Entry>(64);
+	/** The keys in the order of insertion, used to evict the oldest entries. */
+	private final ConcurrentLinkedQueue<String> _keys = new ConcurrentLinkedQueue<String>();
+	private final AtomicLong _size = new AtomicLong();
+	private final long _maxSize;
+
+	/** Constructs a cache bounded by the library property called
+	 * <code>org.zkoss.web.classWebResource.cache.maxSize</code>.
+	 */
+	public StaticResourceCache() {
+		this(Library.getIntProperty("org.zkoss.web.classWebResource.cache.maxSize", 16384) * 1024L);
+	}
+
+	/**
+	 * @param maxSize the maximal total size in bytes of the cached resources.
+	 */
+	public StaticResourceCache(long maxSize) {
+		_maxSize = maxSize;
+	}
+
+	/** Returns the maximal total size in bytes of the cached resources.
+	 */
+	public long getMaxSize() {
+		return _maxSize;
+	}
+
+	/** Returns the total size in bytes of the cached resources
+	 * (including the compressed variants).
+	 */
+	public long getSize() {
+		return _size.get();
+	}
+
+	/** Returns the cached resource of the given key, or null if not found.
+	 */
+	public Entry get(String key) {
+		return _entries.get(key);
+	}
+
+	/** Returns the cached resource of the given key, if its content is the
+	 * same as the given one; otherwise, caches and returns a new one.
+	 * It is used if the content is generated per request, but its
+	 * compressed variant and ETag can be reused, as long as it is not changed.
+	 * @param compressible whether the content is allowed to be compressed
+	 */
+	public Entry get(String key, byte[] content, boolean compressible) {
+		final Entry entry = _entries.get(key);
+		if (entry != null && entry._compressible == compressible
+				&& (entry._content == content || Arrays.equals(entry._content, content)))
+			return entry;
+		return put(key, content, compressible);
+	}
+
+	/** Caches the content of the given key, and returns the cached resource.
+	 * If the content is too large, the returned resource is not cached.
+	 * @param compressible whether the content is allowed to be compressed
+	 */
+	public Entry put(String key, byte[] content, boolean compressible) {
+		final Entry entry = new Entry(content, compressible);
+		if (content.length > _maxSize / 4)
+			return entry; //not cached
+
+		entry._owner = this;
+		_entries.compute(key, (k, old) -> {
+			//account the size with the map update, so it won't drift with remove
+			if (old != null)
+				release(old);
+			else
+				_keys.add(k);
+			_size.addAndGet(content.length);
+			return entry;
+		});
+		evict();
+		return entry;
+	}
+
+	/** Removes the cached resource of the given key.
+	 */
+	public void remove(String key) {
+		if (discard(key))
+			_keys.remove(key); //so a later put won't be evicted by the stale key
+	}
+
+	/** Removes all cached resources.
+	 */
+	public void clear() {
+		for (String key; (key = _keys.poll()) != null;)
+			discard(key);
+	}
+
+	/** Removes the cached resource of the given key, but not its key
+	 * from {@link #_keys}.
+	 */
+	private boolean discard(String key) {
+		final boolean[] removed = new boolean[1];
+		_entries.computeIfPresent(key, (k, entry) -> {
+			release(entry);
+			removed[0] = true;
+			return null;
+		});
+		return removed[0];
+	}
+
+	private void release(Entry entry) {
+		final long weight;
+		synchronized (entry) { //not to race with getGzipped
+			entry._owner = null;
+			weight = entry.getWeight();
+		}
+		_size.addAndGet(-weight);
+	}
+
+	private void evict() {
+		while (_size.get() > _maxSize) {
+			final String key = _keys.poll();
+			if (key == null)
+				break;
+			discard(key);
+		}
+	}
+
+	/** Writes the given resource to the response, or sets the status to
+	 * 304 (Not Modified) if the request has a matched <code>If-None-Match</code>.
+	 * The compressed variant is sent if the browser accepts gzip, and the
+	 * response is not encoded yet.
+	 * <p>Notice that only <code>ETag</code>, <code>Content-Encoding</code>,
+	 * <code>Vary</code> and <code>Content-Length</code> headers are set.
+	 * The caller shall set the content type and the cache control, if any.
+	 * @param compress whether to send the compressed variant if possible
+	 */
+	public static void write(HttpServletRequest request, HttpServletResponse response, Entry entry,
+			boolean compress) throws IOException {
+		byte[] data = entry._content;
+		String etag = entry._etag;
+		if (compress && entry._compressible) {
+			response.addHeader("Vary", "Accept-Encoding");
+			final String ae = request.getHeader("accept-encoding");
+			if (ae != null && ae.indexOf("gzip") >= 0 && !response.containsHeader("Content-Encoding")) {
+				final byte[] gzipped = entry.getGzipped();
+				if (gzipped != null) {
+					response.addHeader("Content-Encoding", "gzip");
+					data = gzipped;
+					etag = entry._gzipETag;
+				}
+			}
+		}
+
+		response.setHeader("ETag", etag);
+		if (isMatched(request.getHeader("If-None-Match"), etag)) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return;
+		}
+
+		response.setContentLength(data.length);
+		OutputStream out;
+		try {
+			out = response.getOutputStream();
+		} catch (IllegalStateException ex) {
+			if (data != entry._content)
+				throw ex; //gzipped content can't go through a writer
+			out = new WriterOutputStream(response.getWriter(), "UTF-8");
+		}
+		out.write(data);
+		out.flush();
+	}
+
+	/** Returns whether the value of <code>If-None-Match</code> matches
+	 * the given ETag (with the weak comparison).
+	 */
+	private static boolean isMatched(String inm, String etag) {
+		if (inm == null)
+			return false;
+		for (int j = 0, len = inm.length(); j < len;) {
+			int k = inm.indexOf(',', j);
+			if (k < 0)
+				k = len;
+			String tag = inm.substring(j, k).trim();
+			if (tag.equals("*"))
+				return true;
+			if (tag.startsWith("W/"))
+				tag = tag.substring(2);
+			if (tag.equals(etag))
+				return true;
+			j = k + 1;
+		}
+		return false;
+	}
+
+	/** A cached resource.
+	 */
+	public static final class Entry {
+		private final byte[] _content;
+		private final boolean _compressible;
+		private final String _etag, _gzipETag;
+		/** The compressed content; {@link #_content} if not worth to compress. */
+		private volatile byte[] _gzipped;
+		/** The cache it belongs to; null if removed or not cached. */
+		private volatile StaticResourceCache _owner;
+
+		private Entry(byte[] content, boolean compressible) {
+			_content = content;
+			_compressible = compressible && content.length >= GZIP_THRESHOLD;
+			final String digest = digest(content);
+			_etag = '"' + digest + '"';
+			_gzipETag = '"' + digest + "-gz\"";
+		}
+
+		/** Returns the content (not compressed). Don't modify it. */
+		public byte[] getContent() {
+			return _content;
+		}
+
+		/** Returns the strong ETag of the content (not compressed).
+		 */
+		public String getETag() {
+			return _etag;
+		}
+
+		/** Returns the gzip-compressed content, or null if it is not allowed,
+		 * or not worth, to compress. It is compressed only once.
+		 * Don't modify it.
+		 */
+		public byte[] getGzipped() throws IOException {
+			if (!_compressible)
+				return null;
+
+			byte[] gzipped = _gzipped;
+			if (gzipped == null) {
+				StaticResourceCache owner = null;
+				synchronized (this) { //compress once even if many requests arrive at the same time
+					gzipped = _gzipped;
+					if (gzipped == null) {
+						final ByteArrayOutputStream boas = new ByteArrayOutputStream(_content.length / 4 + 64);
+						final GZIPOutputStream gzs = new GZIPOutputStream(boas, 8192);
+						gzs.write(_content);
+						gzs.finish();
+						gzipped = boas.toByteArray();
+						if (gzipped.length >= _content.length)
+							gzipped = _content; //not worth
+						_gzipped = gzipped;
+
+						//accounted in the same lock as release, so it is counted
+						//only if the entry is still cached
+						if (_owner != null && gzipped != _content) {
+							owner = _owner;
+							owner._size.addAndGet(gzipped.length);
+						}
+					}
+				}
+				if (owner != null)
+					owner.evict(); //not in the lock, since evict locks the entries
+			}
+			return gzipped != _content ? gzipped : null;
+		}
+
+		private long getWeight() {
+			final byte[] gzipped = _gzipped;
+			return _content.length + (gzipped != null && gzipped != _content ? gzipped.length : 0);
+		}
+
+		private static String digest(byte[] content) {
+			try {
+				final byte[] md = MessageDigest.getInstance("SHA-256").digest(content);
+				return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(md, 18));
+			} catch (NoSuchAlgorithmException ex) { //every JVM supports SHA-256
+				throw new IllegalStateException(ex);
+			}
+		}
+	}
+}